@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2006 JMockit developers
+ * This file is subject to the terms of the MIT license (see LICENSE.txt).
+ */
+package mockit.benchmarks;
+
+import java.io.File;
+import java.net.URISyntaxException;
+import java.security.CodeSource;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks selected by the given JMH command line arguments, in forked JVMs which have the JMockit jar
+ * from the classpath attached as a Java agent.
+ * <p>
+ * Unless a result file is specified, results are written in JSON form to "<code>target/jmh-result.json</code>", so
+ * that runs made from different commits can be compared.
+ */
+public final class BenchmarkRunner {
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLineOptions)
+                .jvmArgsAppend("-javaagent:" + getJMockitJarPath());
+
+        if (!commandLineOptions.getResult().hasValue()) {
+            new File("target").mkdirs();
+            options.resultFormat(ResultFormatType.JSON).result("target/jmh-result.json");
+        }
+
+        new Runner(options.build()).run();
+    }
+
+    static String getJMockitJarPath() {
+        CodeSource codeSource = mockit.Mock.class.getProtectionDomain().getCodeSource();
+        File jarFile;
+
+        try {
+            jarFile = new File(codeSource.getLocation().toURI());
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException(e);
+        }
+
+        if (!jarFile.isFile()) {
+            throw new IllegalStateException(
+                    "JMockit must be in the classpath as a jar file, not as a directory: " + jarFile);
+        }
+
+        return jarFile.getPath();
+    }
+}
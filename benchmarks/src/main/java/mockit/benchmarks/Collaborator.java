@@ -0,0 +1,21 @@
+/*
+ * Copyright (c) 2006 JMockit developers
+ * This file is subject to the terms of the MIT license (see LICENSE.txt).
+ */
+package mockit.benchmarks;
+
+/**
+ * A class to be mocked or faked by the benchmarks.
+ */
+public class Collaborator {
+    private int total;
+
+    public int add(int value) {
+        total += value;
+        return total;
+    }
+
+    public String describe(String prefix, long id) {
+        return prefix + id + ':' + total;
+    }
+}
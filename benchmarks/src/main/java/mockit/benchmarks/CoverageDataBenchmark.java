@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2006 JMockit developers
+ * This file is subject to the terms of the MIT license (see LICENSE.txt).
+ */
+package mockit.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import mockit.coverage.data.CoverageData;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of writing and reading coverage data files, and of merging the data from several test runs, for a given number
+ * of source files.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CoverageDataBenchmark {
+    private static final int LINES_PER_FILE = 200;
+    private static final int RUNS_TO_MERGE = 4;
+
+    @Param({ "10", "100" })
+    public int fileCount;
+
+    private File dataFile;
+    private File outputFile;
+    private CoverageData data;
+    private List<CoverageData> dataToMerge;
+
+    @Setup(Level.Trial)
+    public void createDataFile() throws IOException {
+        File workDir = SyntheticCoverage.createTempDir("coverage-data");
+        dataFile = new File(workDir, "coverage.ser");
+        outputFile = new File(workDir, "output.ser");
+
+        List<String> sourceFiles = SyntheticCoverage.getSourceFiles(fileCount);
+        data = SyntheticCoverage.createData(sourceFiles, LINES_PER_FILE, workDir);
+        data.writeDataToFile(dataFile);
+        dataFile.deleteOnExit();
+        outputFile.deleteOnExit();
+    }
+
+    @Setup(Level.Invocation)
+    public void readDataToMerge() throws IOException {
+        dataToMerge = new ArrayList<>(RUNS_TO_MERGE);
+
+        for (int i = 0; i < RUNS_TO_MERGE; i++) {
+            dataToMerge.add(CoverageData.readDataFromFile(dataFile, false));
+        }
+    }
+
+    @Benchmark
+    public void write() throws IOException {
+        data.writeDataToFile(outputFile);
+    }
+
+    @Benchmark
+    public CoverageData read() throws IOException {
+        return CoverageData.readDataFromFile(dataFile, false);
+    }
+
+    @Benchmark
+    public CoverageData merge() {
+        return CoverageData.merge(dataToMerge);
+    }
+}
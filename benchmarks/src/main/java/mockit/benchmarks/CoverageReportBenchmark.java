@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2006 JMockit developers
+ * This file is subject to the terms of the MIT license (see LICENSE.txt).
+ */
+package mockit.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import mockit.coverage.data.CoverageData;
+import mockit.coverage.reporting.CoverageReport;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of generating the HTML coverage report, including a page for each source file, over a synthetic source tree
+ * with a given number of source files.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class CoverageReportBenchmark {
+    private static final int LINES_PER_FILE = 200;
+
+    @Param({ "10", "100" })
+    public int fileCount;
+
+    private String[] sourceDirs;
+    private String outputDir;
+    private CoverageData data;
+
+    @Setup(Level.Trial)
+    public void createSourceTree() {
+        File workDir = SyntheticCoverage.createTempDir("coverage-report");
+        File srcDir = new File(workDir, "src");
+        sourceDirs = new String[] { srcDir.getPath() };
+        outputDir = new File(workDir, "report").getPath();
+
+        List<String> sourceFiles = SyntheticCoverage.getSourceFiles(fileCount);
+        SyntheticCoverage.writeSourceFiles(srcDir, sourceFiles, LINES_PER_FILE);
+        data = SyntheticCoverage.createData(sourceFiles, LINES_PER_FILE, workDir);
+    }
+
+    @Benchmark
+    public void generate() throws IOException {
+        new CoverageReport(outputDir, false, sourceDirs, data, false).generate();
+    }
+}
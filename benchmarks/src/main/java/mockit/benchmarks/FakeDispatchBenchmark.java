@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2006 JMockit developers
+ * This file is subject to the terms of the MIT license (see LICENSE.txt).
+ */
+package mockit.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import mockit.Invocation;
+import mockit.Mock;
+import mockit.MockUp;
+import mockit.internal.state.SavePoint;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of calls to faked methods, which get dispatched from the faked class to the fake method through
+ * <code>FakeMethodBridge</code>; one fake method takes only the arguments of the faked method, while the other also
+ * takes an {@link Invocation} and proceeds into the real implementation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FakeDispatchBenchmark {
+    public static final class FakeCollaborator extends MockUp<Collaborator> {
+        @Mock
+        public int add(int value) {
+            return value;
+        }
+
+        @Mock
+        public String describe(Invocation invocation, String prefix, long id) {
+            return invocation.proceed(prefix, id);
+        }
+    }
+
+    private SavePoint savePoint;
+    private Collaborator collaborator;
+
+    @Setup(Level.Trial)
+    public void applyFake() {
+        savePoint = new SavePoint();
+        new FakeCollaborator();
+        collaborator = new Collaborator();
+    }
+
+    @TearDown(Level.Trial)
+    public void removeFake() {
+        savePoint.rollback();
+    }
+
+    @Benchmark
+    public int callFakeMethod() {
+        return collaborator.add(1);
+    }
+
+    @Benchmark
+    public String callFakeMethodWithInvocationProceeding() {
+        return collaborator.describe("id", 123L);
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2006 JMockit developers
+ * This file is subject to the terms of the MIT license (see LICENSE.txt).
+ */
+package mockit.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import mockit.coverage.TestRun;
+import mockit.coverage.data.CoverageData;
+import mockit.coverage.data.FileCoverageData;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of <code>coverage.TestRun.lineExecuted</code>, the call made by instrumented code for each executed line,
+ * with and without the gathering of call points.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LineCoverageBenchmark {
+    private static final int LINE_COUNT = 100;
+
+    @Param({ "false", "true" })
+    public boolean withCallPoints;
+
+    private int fileIndex;
+    private int line;
+
+    @Setup(Level.Trial)
+    public void addSourceFile() {
+        CoverageData coverageData = CoverageData.instance();
+        coverageData.setWithCallPoints(withCallPoints);
+
+        FileCoverageData fileData = SyntheticCoverage.addFile(coverageData, "mockit/benchmarks/Covered.java",
+                LINE_COUNT, false);
+        fileIndex = fileData.index;
+    }
+
+    @TearDown(Level.Trial)
+    public void clearCoverageData() {
+        CoverageData.instance().clear();
+    }
+
+    @Benchmark
+    public void lineExecuted() {
+        int nextLine = line % LINE_COUNT + 1;
+        line = nextLine;
+        TestRun.lineExecuted(fileIndex, nextLine);
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2006 JMockit developers
+ * This file is subject to the terms of the MIT license (see LICENSE.txt).
+ */
+package mockit.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import mockit.internal.state.SavePoint;
+import mockit.internal.state.TestRun;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of <code>MockFixture.redefineMethods</code> for a given number of classes, followed by the rollback which
+ * restores their original definitions. The classes are redefined with their own classfiles, so that only the
+ * redefinition itself and its bookkeeping get measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RedefineMethodsBenchmark {
+    @Param({ "1", "5", "10" })
+    public int classCount;
+
+    private Map<Class<?>, byte[]> classfiles;
+
+    @Setup(Level.Trial)
+    public void readClassfiles() {
+        classfiles = new LinkedHashMap<>();
+
+        for (int i = 0; i < classCount; i++) {
+            Class<?> sampleClass = SampleClasses.ALL[i];
+            classfiles.put(sampleClass, readClassfile(sampleClass));
+        }
+    }
+
+    private static byte[] readClassfile(Class<?> aClass) {
+        String resourceName = '/' + aClass.getName().replace('.', '/') + ".class";
+
+        try (InputStream classfile = aClass.getResourceAsStream(resourceName)) {
+            return classfile.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Benchmark
+    public void redefineAndRestore() {
+        SavePoint savePoint = new SavePoint();
+        TestRun.mockFixture().redefineMethods(classfiles);
+        savePoint.rollback();
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2006 JMockit developers
+ * This file is subject to the terms of the MIT license (see LICENSE.txt).
+ */
+package mockit.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import mockit.Mocked;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of calls to a mocked method during the replay phase of a test (that is, through
+ * <code>RecordAndReplayExecution.recordOrReplay</code>), from a single thread and from several threads calling the same
+ * mocked instance.
+ * <p>
+ * Each iteration runs as a separate test, so that the invocations replayed in one iteration don't accumulate into the
+ * next.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReplayBenchmark {
+    public static final class MockedTest {
+        @Mocked
+        Collaborator collaborator;
+    }
+
+    private final TestHarness harness = new TestHarness();
+    private final MockedTest test = new MockedTest();
+
+    @Setup(Level.Trial)
+    public void startTestClass() {
+        harness.startTestClass(test);
+    }
+
+    @Setup(Level.Iteration)
+    public void startTest() {
+        harness.startTest(test);
+    }
+
+    @TearDown(Level.Iteration)
+    public void finishTest() {
+        harness.finishTest();
+    }
+
+    @TearDown(Level.Trial)
+    public void finishTestClass() {
+        harness.finishTestClass();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public int replaySingleThreaded() {
+        return test.collaborator.add(1);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int replayContended() {
+        return test.collaborator.add(1);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String replayWithArgumentsAndReturnValue() {
+        return test.collaborator.describe("id", 123L);
+    }
+}
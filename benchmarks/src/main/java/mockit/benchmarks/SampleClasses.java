@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2006 JMockit developers
+ * This file is subject to the terms of the MIT license (see LICENSE.txt).
+ */
+package mockit.benchmarks;
+
+/**
+ * Distinct classes to be redefined by the benchmarks.
+ */
+public final class SampleClasses {
+    static final Class<?>[] ALL = { Sample0.class, Sample1.class, Sample2.class, Sample3.class, Sample4.class,
+            Sample5.class, Sample6.class, Sample7.class, Sample8.class, Sample9.class };
+
+    private SampleClasses() {
+    }
+
+    public static class Sample0 {
+        private int count;
+
+        public int next() {
+            count += 1;
+            return count;
+        }
+
+        public String name() {
+            return "Sample0:" + count;
+        }
+    }
+
+    public static class Sample1 {
+        private int count;
+
+        public int next() {
+            count += 2;
+            return count;
+        }
+
+        public String name() {
+            return "Sample1:" + count;
+        }
+    }
+
+    public static class Sample2 {
+        private int count;
+
+        public int next() {
+            count += 3;
+            return count;
+        }
+
+        public String name() {
+            return "Sample2:" + count;
+        }
+    }
+
+    public static class Sample3 {
+        private int count;
+
+        public int next() {
+            count += 4;
+            return count;
+        }
+
+        public String name() {
+            return "Sample3:" + count;
+        }
+    }
+
+    public static class Sample4 {
+        private int count;
+
+        public int next() {
+            count += 5;
+            return count;
+        }
+
+        public String name() {
+            return "Sample4:" + count;
+        }
+    }
+
+    public static class Sample5 {
+        private int count;
+
+        public int next() {
+            count += 6;
+            return count;
+        }
+
+        public String name() {
+            return "Sample5:" + count;
+        }
+    }
+
+    public static class Sample6 {
+        private int count;
+
+        public int next() {
+            count += 7;
+            return count;
+        }
+
+        public String name() {
+            return "Sample6:" + count;
+        }
+    }
+
+    public static class Sample7 {
+        private int count;
+
+        public int next() {
+            count += 8;
+            return count;
+        }
+
+        public String name() {
+            return "Sample7:" + count;
+        }
+    }
+
+    public static class Sample8 {
+        private int count;
+
+        public int next() {
+            count += 9;
+            return count;
+        }
+
+        public String name() {
+            return "Sample8:" + count;
+        }
+    }
+
+    public static class Sample9 {
+        private int count;
+
+        public int next() {
+            count += 10;
+            return count;
+        }
+
+        public String name() {
+            return "Sample9:" + count;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2006 JMockit developers
+ * This file is subject to the terms of the MIT license (see LICENSE.txt).
+ */
+package mockit.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import mockit.Mock;
+import mockit.MockUp;
+import mockit.internal.state.SavePoint;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of taking a save point and rolling back to it, as done before and after each test, both when nothing changed in
+ * between and when a fake was applied (and therefore has to be undone, restoring the faked class).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SavePointBenchmark {
+    public static final class FakeCollaborator extends MockUp<Collaborator> {
+        @Mock
+        public int add(int value) {
+            return value;
+        }
+    }
+
+    @Benchmark
+    public void createAndRollBackUnchanged() {
+        SavePoint savePoint = new SavePoint();
+        savePoint.rollback();
+    }
+
+    @Benchmark
+    public void createAndRollBackAfterApplyingFake() {
+        SavePoint savePoint = new SavePoint();
+        new FakeCollaborator();
+        savePoint.rollback();
+    }
+}
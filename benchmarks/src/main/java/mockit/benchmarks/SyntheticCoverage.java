@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2006 JMockit developers
+ * This file is subject to the terms of the MIT license (see LICENSE.txt).
+ */
+package mockit.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+import mockit.coverage.data.CoverageData;
+import mockit.coverage.data.FileCoverageData;
+import mockit.coverage.lines.PerFileLineCoverage;
+
+/**
+ * Creates synthetic coverage data, and the source files it refers to.
+ * <p>
+ * The source files are named after top-level classes from the JMockit jar, so that they correspond to existing class
+ * files, which coverage data merging requires; their contents have nothing to do with those classes.
+ */
+final class SyntheticCoverage {
+    private SyntheticCoverage() {
+    }
+
+    /**
+     * Gets the paths of the given number of source files, relative to a source directory.
+     */
+    static List<String> getSourceFiles(int fileCount) {
+        List<String> sourceFiles = new ArrayList<>();
+
+        try (JarFile jar = new JarFile(BenchmarkRunner.getJMockitJarPath())) {
+            for (Enumeration<JarEntry> entries = jar.entries(); entries.hasMoreElements();) {
+                String entryName = entries.nextElement().getName();
+
+                if (entryName.endsWith(".class") && entryName.indexOf('$') < 0 && !entryName.endsWith("-info.class")) {
+                    sourceFiles.add(entryName.substring(0, entryName.length() - ".class".length()) + ".java");
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        if (sourceFiles.size() < fileCount) {
+            throw new IllegalArgumentException("Only " + sourceFiles.size() + " source files available");
+        }
+
+        Collections.sort(sourceFiles);
+        return sourceFiles.subList(0, fileCount);
+    }
+
+    /**
+     * Creates coverage data for the given source files, each with the given number of lines, every other line having
+     * been executed once.
+     */
+    static CoverageData createData(List<String> sourceFiles, int linesPerFile, File workDir) {
+        CoverageData data = newEmptyData(workDir);
+
+        for (String sourceFile : sourceFiles) {
+            addFile(data, sourceFile, linesPerFile, true);
+        }
+
+        data.fillLastModifiedTimesForAllClassFiles();
+        return data;
+    }
+
+    private static CoverageData newEmptyData(File workDir) {
+        File emptyDataFile = new File(workDir, "empty.ser");
+
+        try {
+            CoverageData.instance().writeDataToFile(emptyDataFile);
+            return CoverageData.readDataFromFile(emptyDataFile, false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static FileCoverageData addFile(CoverageData data, String sourceFile, int lineCount, boolean executeEveryOther) {
+        FileCoverageData fileData = data.getOrAddFile(sourceFile, "cls");
+        PerFileLineCoverage lineCoverage = fileData.lineCoverageInfo;
+
+        for (int line = 1; line <= lineCount; line++) {
+            lineCoverage.addLine(line);
+            lineCoverage.getOrCreateLineData(line);
+        }
+
+        if (executeEveryOther) {
+            for (int line = 1; line <= lineCount; line += 2) {
+                lineCoverage.registerExecution(line, null);
+            }
+        }
+
+        return fileData;
+    }
+
+    /**
+     * Writes a source file for each of the given paths under the given directory, each with the given number of lines.
+     */
+    static void writeSourceFiles(File srcDir, List<String> sourceFiles, int linesPerFile) {
+        for (String sourceFile : sourceFiles) {
+            File file = new File(srcDir, sourceFile);
+            file.getParentFile().mkdirs();
+
+            String className = file.getName().replace(".java", "");
+            String packageName = sourceFile.substring(0, sourceFile.lastIndexOf('/')).replace('/', '.');
+            StringBuilder source = new StringBuilder(linesPerFile * 40);
+            source.append("package ").append(packageName).append(";\n");
+            source.append("public class ").append(className).append(" {\n");
+
+            for (int line = 3; line < linesPerFile; line++) {
+                source.append("    int field").append(line).append(" = ").append(line).append(";\n");
+            }
+
+            source.append("}\n");
+
+            try {
+                Files.writeString(file.toPath(), source, StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    static File createTempDir(String prefix) {
+        try {
+            File dir = Files.createTempDirectory(prefix).toFile();
+            dir.deleteOnExit();
+            return dir;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2006 JMockit developers
+ * This file is subject to the terms of the MIT license (see LICENSE.txt).
+ */
+package mockit.benchmarks;
+
+import mockit.integration.TestRunnerDecorator;
+import mockit.internal.expectations.RecordAndReplayExecution;
+import mockit.internal.state.SavePoint;
+import mockit.internal.state.TestRun;
+
+/**
+ * Makes benchmark code run as if it were a test, in the same way the test runner integrations do, so that mock fields
+ * declared in a "test" object get mocked, and mocked methods called from the benchmark get replayed.
+ */
+final class TestHarness extends TestRunnerDecorator {
+    private SavePoint savePointForTestClass;
+    private SavePoint savePointForTest;
+
+    /**
+     * Starts a test class, whose mock fields (annotated with <code>@Mocked</code>, <code>@Injectable</code>, etc.)
+     * are declared by the given object, and assigns the mocked instances to them.
+     */
+    void startTestClass(Object test) {
+        savePointForTestClass = new SavePoint();
+        TestRun.setCurrentTestClass(test.getClass());
+        TestRun.enterNoMockingZone();
+
+        try {
+            handleMockFieldsForWholeTestClass(test);
+        } finally {
+            TestRun.exitNoMockingZone();
+        }
+    }
+
+    void startTest(Object test) {
+        TestRun.prepareForNextTest();
+        savePointForTest = new SavePoint();
+        TestRun.setRunningIndividualTest(test);
+    }
+
+    void finishTest() {
+        TestRun.enterNoMockingZone();
+
+        try {
+            savePointForTest.rollback();
+            Error expectationsFailure = RecordAndReplayExecution.endCurrentReplayIfAny();
+
+            if (expectationsFailure != null) {
+                throw expectationsFailure;
+            }
+        } finally {
+            TestRun.finishCurrentTestExecution();
+            TestRun.exitNoMockingZone();
+        }
+    }
+
+    void finishTestClass() {
+        savePointForTestClass.rollback();
+        clearFieldTypeRedefinitions();
+        TestRun.setCurrentTestClass(null);
+    }
+}
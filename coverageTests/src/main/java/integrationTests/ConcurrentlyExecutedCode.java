@@ -0,0 +1,36 @@
+package integrationTests;
+
+/**
+ * The Class ConcurrentlyExecutedCode.
+ */
+public final class ConcurrentlyExecutedCode {
+
+    /**
+     * Classify.
+     *
+     * @param value
+     *            the value
+     *
+     * @return the sign of the value
+     */
+    public static int classify(int value) {
+        if (value < 0) {
+            return -1;
+        }
+
+        if (value == 0) {
+            return 0;
+        }
+
+        return 1;
+    }
+
+    /**
+     * Never called.
+     *
+     * @return the int
+     */
+    public static int neverCalled() {
+        return 42;
+    }
+}
@@ -0,0 +1,81 @@
+package integrationTests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import mockit.coverage.lines.PerFileLineCoverage;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIfSystemProperty;
+
+/**
+ * Also run with "<code>-Dcoverage-recording=concurrent</code>" and "<code>-Dcoverage-recording=probes</code>", where the
+ * same lines and branches must be reported as covered.
+ */
+class ConcurrentlyExecutedCodeTest extends CoverageTest {
+    static final int THREADS = 4;
+    static final int CALLS_PER_THREAD = 10_000;
+
+    ConcurrentlyExecutedCode tested;
+
+    @BeforeAll
+    static void executeCodeFromManyThreads() throws Exception {
+        List<Thread> workers = new ArrayList<>(THREADS);
+
+        for (int i = 0; i < THREADS; i++) {
+            Thread worker = new Thread(() -> {
+                for (int j = 1; j <= CALLS_PER_THREAD; j++) {
+                    ConcurrentlyExecutedCode.classify(j);
+                    ConcurrentlyExecutedCode.classify(-j);
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+
+        for (Thread worker : workers) {
+            worker.join();
+        }
+    }
+
+    @Test
+    void reportExecutedLinesAndBranchesAsCovered() {
+        assertLines(17, 25, 4);
+        assertLines(33, 34, 0);
+
+        assertSegments(17, 1, 1);
+        assertSegments(18, 1, 1);
+        assertSegments(21, 1, 1);
+        assertSegments(22, 1, 0);
+        assertSegments(25, 1, 1);
+        assertSegments(34, 1, 0);
+
+        assertBranchingPoints(17, 2, 1);
+        assertBranchingPoints(21, 2, 0);
+    }
+
+    private static void assertSegments(int line, int expectedSegments, int expectedCoveredSegments) {
+        assertNotNull(fileData);
+        PerFileLineCoverage info = fileData.lineCoverageInfo;
+
+        assertEquals(expectedSegments, info.getNumberOfSegments(line), "Segments:");
+        assertEquals(expectedCoveredSegments, info.getLineData(line).getNumberOfCoveredSegments(),
+                "Covered segments:");
+    }
+
+    @Test
+    @DisabledIfSystemProperty(named = "coverage-recording", matches = "probes")
+    void countEveryExecution() {
+        int calls = THREADS * CALLS_PER_THREAD;
+
+        assertLine(17, 1, 1, 2 * calls, calls, 0);
+        assertLine(18, 1, 1, calls);
+        assertLine(21, 1, 1, calls, 0, 0);
+        assertLine(22, 1, 0, 0);
+        assertLine(25, 1, 1, calls);
+    }
+}
@@ -0,0 +1,137 @@
+package integrationTests;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import mockit.coverage.data.CoverageData;
+import mockit.coverage.data.FileCoverageData;
+import mockit.coverage.dataItems.PerFileDataCoverage;
+import mockit.coverage.lines.PerFileLineCoverage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CoverageDataFileTest {
+    @TempDir
+    Path outputDir;
+    CoverageData coverageData;
+    File dataFile;
+
+    @BeforeEach
+    void createCoverageData() {
+        coverageData = new CoverageData();
+
+        FileCoverageData fileWithFields = coverageData.getOrAddFile("pkg/WithFields.java", "class");
+        PerFileLineCoverage lines = fileWithFields.getLineCoverageData();
+        lines.addLine(3);
+        lines.addLine(5);
+        lines.addLine(8);
+        lines.registerExecution(3, null);
+        lines.registerExecution(3, null);
+        lines.registerExecution(5, null);
+
+        PerFileDataCoverage fields = fileWithFields.dataCoverageInfo;
+        fields.addField("pkg.WithFields", "counter", true);
+        fields.addField("pkg.WithFields", "name", false);
+        int counterIndex = fields.getFieldIndex("pkg.WithFields.counter");
+        fields.registerAssignmentToStaticField(counterIndex);
+        fields.registerReadOfStaticField(counterIndex);
+        fields.registerAssignmentToInstanceField(this, fields.getFieldIndex("pkg.WithFields.name"));
+
+        FileCoverageData interfaceFile = coverageData.getOrAddFile("pkg/AnInterface.java", "interface");
+        interfaceFile.getLineCoverageData().addLine(12);
+
+        dataFile = outputDir.resolve("coverage.ser").toFile();
+    }
+
+    @Test
+    void readBackCoverageDataWrittenToFile() throws Exception {
+        coverageData.writeDataToFile(dataFile);
+        CoverageData readData = CoverageData.readDataFromFile(dataFile);
+
+        Map<String, FileCoverageData> writtenFiles = coverageData.getFileToFileData();
+        Map<String, FileCoverageData> readFiles = readData.getFileToFileData();
+        assertEquals(writtenFiles.keySet(), readFiles.keySet());
+
+        for (Entry<String, FileCoverageData> fileAndData : writtenFiles.entrySet()) {
+            assertSameFileData(fileAndData.getValue(), readFiles.get(fileAndData.getKey()));
+        }
+
+        PerFileDataCoverage readFields = readData.getFileData("pkg/WithFields.java").dataCoverageInfo;
+        assertTrue(readFields.isCovered("pkg.WithFields.counter"));
+        assertFalse(readFields.isCovered("pkg.WithFields.name"));
+    }
+
+    private static void assertSameFileData(FileCoverageData written, FileCoverageData read) throws Exception {
+        assertNotNull(read);
+        assertEquals(written.index, read.index);
+        assertEquals(written.kindOfTopLevelType, read.kindOfTopLevelType);
+        assertEquals(written.getTotalItems(), read.getTotalItems());
+        assertEquals(written.getCoveredItems(), read.getCoveredItems());
+
+        PerFileLineCoverage writtenLines = written.getLineCoverageData();
+        PerFileLineCoverage readLines = read.getLineCoverageData();
+        assertEquals(writtenLines.getLineCount(), readLines.getLineCount());
+
+        for (int line = 1, n = writtenLines.getLineCount(); line <= n; line++) {
+            assertEquals(writtenLines.getExecutionCount(line), readLines.getExecutionCount(line));
+        }
+
+        assertArrayEquals(written.computeDigest(MessageDigest.getInstance("SHA-256")),
+                read.computeDigest(MessageDigest.getInstance("SHA-256")));
+    }
+
+    @Test
+    void overwriteAndDeleteDataFileAfterReadingIt() throws Exception {
+        coverageData.writeDataToFile(dataFile);
+
+        CoverageData previousData = CoverageData.readDataFromFile(dataFile);
+        previousData.writeDataToFile(dataFile);
+        CoverageData rewrittenData = CoverageData.readDataFromFile(dataFile);
+
+        assertEquals(coverageData.getFileToFileData().keySet(), rewrittenData.getFileToFileData().keySet());
+        assertTrue(Files.deleteIfExists(dataFile.toPath()));
+    }
+
+    @Test
+    void rejectDataFileOfTwoGigabytesOrMore() throws Exception {
+        try (RandomAccessFile file = new RandomAccessFile(dataFile, "rw")) {
+            writeHeader(file, 16L);
+            file.setLength(1L << 31); // sparse, so it takes no actual disk space
+        }
+
+        IOException e = assertThrows(IOException.class, () -> CoverageData.readDataFromFile(dataFile));
+        assertTrue(e.getMessage().contains("too large"), e.getMessage());
+    }
+
+    private static void writeHeader(RandomAccessFile file, long stringTablePosition) throws IOException {
+        file.writeInt(0x4A4D4344);
+        file.writeInt(1);
+        file.writeLong(stringTablePosition);
+    }
+
+    @Test
+    void rejectDataFileWithStringTablePositionBeyondIntRange() throws Exception {
+        try (RandomAccessFile file = new RandomAccessFile(dataFile, "rw")) {
+            writeHeader(file, (1L << 32) + 16L);
+            file.writeInt(0);
+        }
+
+        IOException e = assertThrows(IOException.class, () -> CoverageData.readDataFromFile(dataFile));
+        assertTrue(e.getMessage().startsWith("Incomplete coverage data file"), e.getMessage());
+    }
+}
@@ -155,4 +155,19 @@ public @interface Tested {
      * @return true, if successful
      */
     boolean global() default false;
+
+    /**
+     * Indicates whether the tested object, along with the dependencies automatically created for it, is to be created
+     * and initialized only once for the whole test class, and reused by each of its tests.
+     * <p>
+     * The state of the reused objects is saved after their initialization, and restored before each test: fields which
+     * were changed by a previous test are reassigned, and fields holding an {@linkplain Injectable @Injectable} value
+     * are assigned the corresponding value for the new test. Objects referred to by those fields are not restored.
+     * Termination methods (such as <code>@PreDestroy</code> methods) are executed after the last test of the class.
+     * <p>
+     * This only applies to tested fields, and has no effect when {@link #global()} is true.
+     *
+     * @return true, if successful
+     */
+    boolean perTestClass() default false;
 }
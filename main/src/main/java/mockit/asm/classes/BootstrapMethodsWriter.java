@@ -4,6 +4,7 @@ import static mockit.asm.jvmConstants.ConstantPoolTypes.INVOKE_DYNAMIC;
 
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import mockit.asm.constantPool.AttributeWriter;
 import mockit.asm.constantPool.BootstrapMethodItem;
@@ -21,10 +22,20 @@ final class BootstrapMethodsWriter extends AttributeWriter {
     @Nonnull
     private final ByteVector bootstrapMethods;
     @Nonnegative
-    private final int bootstrapMethodsCount;
+    private int bootstrapMethodsCount;
     @Nonnegative
     private final int bsmStartCodeIndex;
 
+    /**
+     * Initializes an empty attribute, for a class which had no bootstrap methods. The attribute name is added to the
+     * constant pool right away, since the pool gets written before any attribute.
+     */
+    BootstrapMethodsWriter(@Nonnull ConstantPoolGeneration cp) {
+        super(cp, "BootstrapMethods");
+        bootstrapMethods = new ByteVector(64);
+        bsmStartCodeIndex = 0;
+    }
+
     BootstrapMethodsWriter(@Nonnull ConstantPoolGeneration cp, @Nonnull ClassReader cr) {
         super(cp);
 
@@ -65,8 +76,8 @@ final class BootstrapMethodsWriter extends AttributeWriter {
     }
 
     /**
-     * Adds an invokedynamic reference to the constant pool of the class being built. Does nothing if the constant pool
-     * already contains a similar item.
+     * Adds an invokedynamic reference to the constant pool of the class being built, together with its bootstrap method
+     * if not already present. Does nothing if the constant pool already contains a similar item.
      *
      * @param name
      *            name of the invoked method
@@ -95,9 +106,15 @@ final class BootstrapMethodsWriter extends AttributeWriter {
         hashCode = putBSMArgs(hashCode, bsmArgs);
         hashCode &= 0x7FFFFFFF;
 
-        methods.setLength(position); // revert to old position
+        BootstrapMethodItem bsmItem = getBSMItem(hashCode, position);
+
+        if (bsmItem == null) {
+            bsmItem = new BootstrapMethodItem(bootstrapMethodsCount++, position, hashCode);
+            cp.addBootstrapMethodItem(bsmItem);
+        } else {
+            methods.setLength(position); // revert to old position
+        }
 
-        BootstrapMethodItem bsmItem = getBSMItem(hashCode);
         return cp.createDynamicItem(INVOKE_DYNAMIC, name, desc, bsmItem.index);
     }
 
@@ -112,19 +129,40 @@ final class BootstrapMethodsWriter extends AttributeWriter {
         return hashCode;
     }
 
-    @Nonnull
-    private BootstrapMethodItem getBSMItem(@Nonnegative int hashCode) {
+    /**
+     * Finds the existing bootstrap method with the same data as the one just written at the given position, if any.
+     */
+    @Nullable
+    private BootstrapMethodItem getBSMItem(@Nonnegative int hashCode, @Nonnegative int newPosition) {
         Item item = cp.getItem(hashCode);
 
         while (item != null) {
-            if (item instanceof BootstrapMethodItem && item.getHashCode() == hashCode) {
+            if (item instanceof BootstrapMethodItem && item.getHashCode() == hashCode
+                    && hasSameData(((BootstrapMethodItem) item).getPosition(), newPosition)) {
                 return (BootstrapMethodItem) item;
             }
 
             item = item.getNext();
         }
 
-        throw new IllegalStateException("BootstrapMethodItem not found for hash code " + hashCode);
+        return null;
+    }
+
+    private boolean hasSameData(@Nonnegative int position, @Nonnegative int newPosition) {
+        byte[] data = bootstrapMethods.getData();
+        int length = bootstrapMethods.getLength() - newPosition;
+
+        if (position + length > newPosition) {
+            return false;
+        }
+
+        for (int i = 0; i < length; i++) {
+            if (data[position + i] != data[newPosition + i]) {
+                return false;
+            }
+        }
+
+        return true;
     }
 
     @Nonnegative
@@ -135,7 +173,10 @@ final class BootstrapMethodsWriter extends AttributeWriter {
 
     @Override
     public void put(@Nonnull ByteVector out) {
-        setAttribute("BootstrapMethods");
+        if (attributeIndex == 0) {
+            setAttribute("BootstrapMethods");
+        }
+
         put(out, 2 + bootstrapMethods.getLength());
         out.putShort(bootstrapMethodsCount);
         out.putByteVector(bootstrapMethods);
@@ -735,6 +735,10 @@ public final class ConstantPoolGeneration {
         index = ll;
     }
 
+    public void addBootstrapMethodItem(@Nonnull BootstrapMethodItem item) {
+        put(item);
+    }
+
     @Nonnull
     public DynamicItem createDynamicItem(int type, @Nonnull String name, @Nonnull String desc,
             @Nonnegative int bsmIndex) {
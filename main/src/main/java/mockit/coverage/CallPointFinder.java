@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) 2006 JMockit developers
+ * This file is subject to the terms of the MIT license (see LICENSE.txt).
+ */
+package mockit.coverage;
+
+import static java.lang.reflect.Modifier.isPublic;
+
+import java.lang.StackWalker.StackFrame;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Finds the call point in test code for an execution of a line or branch, when recording with
+ * "<code>coverage-output=html-cp</code>".
+ * <p>
+ * The current stack is walked lazily, up to a maximum of "<code>coverage-maxCallPointDepth</code>" frames, stopping at
+ * the first frame belonging to a test method; whether a given class and method corresponds to a test method is
+ * determined only once. When the execution happens in a thread other than the one running the current test (which is
+ * made known by the test runner integrations), or when no test method is found within the frame limit, the execution
+ * is attributed to the current test method instead, without a line number.
+ */
+public final class CallPointFinder {
+    private static final int MAX_DEPTH = Integer.parseInt(Configuration.getProperty("maxCallPointDepth", "128"));
+    private static final StackWalker STACK_WALKER = StackWalker
+            .getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+    private static final Map<String, Boolean> NO_TEST_METHODS = new ConcurrentHashMap<>(0);
+    private static final ClassValue<Map<String, Boolean>> TEST_METHODS = new ClassValue<>() {
+        @Override
+        protected Map<String, Boolean> computeValue(Class<?> aClass) {
+            return isClassInExcludedPackage(aClass.getName()) ? NO_TEST_METHODS : new ConcurrentHashMap<>();
+        }
+    };
+    private static final Map<Thread, StackTraceElement> runningTests = new ConcurrentHashMap<>();
+
+    private static final Class<? extends Annotation> testAnnotation;
+    private static final boolean checkTestAnnotationOnClass;
+    private static final boolean checkIfTestCaseSubclass;
+
+    static {
+        Class<?> annotation = getJUnitAnnotationIfAvailable();
+        boolean checkOnClassAlso = false;
+
+        if (annotation == null) {
+            annotation = getTestNGAnnotationIfAvailable();
+            checkOnClassAlso = true;
+        }
+
+        // noinspection unchecked
+        testAnnotation = (Class<? extends Annotation>) annotation;
+        checkTestAnnotationOnClass = checkOnClassAlso;
+        checkIfTestCaseSubclass = checkForJUnit3Availability();
+    }
+
+    @Nullable
+    private static Class<?> getJUnitAnnotationIfAvailable() {
+        try {
+            // JUnit 5:
+            return Class.forName("org.junit.jupiter.api.Test");
+        } catch (ClassNotFoundException ignore) {
+            // JUnit 4:
+            try {
+                return Class.forName("org.junit.Test");
+            } catch (ClassNotFoundException ignored) {
+                return null;
+            }
+        }
+    }
+
+    @Nullable
+    private static Class<?> getTestNGAnnotationIfAvailable() {
+        try {
+            return Class.forName("org.testng.annotations.Test");
+        } catch (ClassNotFoundException ignore) {
+            // For older versions of TestNG:
+            try {
+                return Class.forName("org.testng.Test");
+            } catch (ClassNotFoundException ignored) {
+                return null;
+            }
+        }
+    }
+
+    private static boolean checkForJUnit3Availability() {
+        try {
+            Class.forName("junit.framework.TestCase");
+            return true;
+        } catch (ClassNotFoundException ignore) {
+            return false;
+        }
+    }
+
+    private CallPointFinder() {
+    }
+
+    /**
+     * Called by the test runner integrations when a test method starts executing in the current thread (with a
+     * non-<code>null</code> argument), and when it finishes (with <code>null</code>).
+     */
+    public static void setCurrentTestMethod(@Nullable Method testMethod) {
+        Thread currentThread = Thread.currentThread();
+
+        if (testMethod == null) {
+            runningTests.remove(currentThread);
+        } else {
+            String testClassName = testMethod.getDeclaringClass().getName();
+            runningTests.put(currentThread, new StackTraceElement(testClassName, testMethod.getName(), null, -1));
+        }
+    }
+
+    @Nullable
+    static CallPoint create() {
+        StackTraceElement testMethod = getTestMethodRunningInAnotherThread();
+
+        if (testMethod == null) {
+            Optional<StackFrame> testFrame = STACK_WALKER.walk(
+                    frames -> frames.skip(2).limit(MAX_DEPTH).filter(CallPointFinder::isTestMethod).findFirst());
+
+            return testFrame.map(frame -> new CallPoint(frame.toStackTraceElement())).orElse(null);
+        }
+
+        return new CallPoint(testMethod);
+    }
+
+    @Nullable
+    private static StackTraceElement getTestMethodRunningInAnotherThread() {
+        Map<Thread, StackTraceElement> tests = runningTests;
+        return tests.isEmpty() || tests.containsKey(Thread.currentThread()) ? null : getSingleRunningTestMethod();
+    }
+
+    @Nullable
+    private static StackTraceElement getSingleRunningTestMethod() {
+        Map<Thread, StackTraceElement> tests = runningTests;
+
+        if (tests.size() == 1) {
+            for (StackTraceElement testMethod : tests.values()) {
+                return testMethod;
+            }
+        }
+
+        return null;
+    }
+
+    private static boolean isTestMethod(@Nonnull StackFrame frame) {
+        if (frame.getFileName() == null || frame.getLineNumber() < 0) {
+            return false;
+        }
+
+        Class<?> aClass = frame.getDeclaringClass();
+        Map<String, Boolean> testMethods = TEST_METHODS.get(aClass);
+
+        if (testMethods == NO_TEST_METHODS) {
+            return false;
+        }
+
+        String methodName = frame.getMethodName();
+        Boolean isTestMethod = testMethods.get(methodName);
+
+        if (isTestMethod == null) {
+            isTestMethod = isTestMethod(aClass, methodName);
+            testMethods.put(methodName, isTestMethod);
+        }
+
+        return isTestMethod;
+    }
+
+    private static boolean isClassInExcludedPackage(@Nonnull String className) {
+        return className.startsWith("java.") || className.startsWith("javax.") || className.startsWith("sun.")
+                || className.startsWith("jdk.") || className.startsWith("org.junit.")
+                || className.startsWith("org.testng.") || className.startsWith("mockit.");
+    }
+
+    private static boolean isTestMethod(@Nonnull Class<?> testClass, @Nonnull String methodName) {
+        if (checkTestAnnotationOnClass && testClass.isAnnotationPresent(testAnnotation)) {
+            return true;
+        }
+
+        Method method = findMethod(testClass, methodName);
+
+        return method != null && (containsATestFrameworkAnnotation(method.getDeclaredAnnotations())
+                || checkIfTestCaseSubclass && isJUnit3xTestMethod(testClass, method));
+    }
+
+    @Nullable
+    private static Method findMethod(@Nonnull Class<?> aClass, @Nonnull String name) {
+        try {
+            for (Method method : aClass.getDeclaredMethods()) {
+                if (method.getReturnType() == void.class && name.equals(method.getName())) {
+                    return method;
+                }
+            }
+        } catch (NoClassDefFoundError ignore) {
+        }
+
+        return null;
+    }
+
+    private static boolean containsATestFrameworkAnnotation(@Nonnull Annotation[] methodAnnotations) {
+        for (Annotation annotation : methodAnnotations) {
+            String annotationName = annotation.annotationType().getName();
+
+            if (annotationName.startsWith("org.junit.") || annotationName.startsWith("org.testng.")) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean isJUnit3xTestMethod(@Nonnull Class<?> aClass, @Nonnull Method method) {
+        if (!isPublic(method.getModifiers()) || !method.getName().startsWith("test")) {
+            return false;
+        }
+
+        Class<?> superClass = aClass.getSuperclass();
+
+        while (superClass != null && superClass != Object.class) {
+            if ("junit.framework.TestCase".equals(superClass.getName())) {
+                return true;
+            }
+
+            superClass = superClass.getSuperclass();
+        }
+
+        return false;
+    }
+}
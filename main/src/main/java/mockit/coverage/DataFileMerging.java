@@ -6,8 +6,10 @@ package mockit.coverage;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import javax.annotation.Nonnull;
 
@@ -37,26 +39,54 @@ final class DataFileMerging {
         }
     }
 
+    /**
+     * Merges the existing input files in their given order, reading them in batches of at most one file per available
+     * processor, so that no more than one batch of decoded files is held in memory besides the merged data.
+     */
     @Nonnull
     CoverageData merge() throws IOException {
+        List<File> existingInputFiles = inputFiles.stream().filter(File::exists).collect(Collectors.toList());
+
+        if (existingInputFiles.isEmpty()) {
+            throw new IllegalArgumentException("No input \"coverage.ser\" files found");
+        }
+
+        int batchSize = Runtime.getRuntime().availableProcessors();
         CoverageData mergedData = null;
 
-        for (File inputFile : inputFiles) {
-            if (inputFile.exists()) {
-                CoverageData existingData = CoverageData.readDataFromFile(inputFile);
+        for (int i = 0, n = existingInputFiles.size(); i < n; i += batchSize) {
+            List<File> batch = existingInputFiles.subList(i, Math.min(i + batchSize, n));
+            List<CoverageData> dataToMerge = new ArrayList<>(batch.size() + 1);
 
-                if (mergedData == null) {
-                    mergedData = existingData;
-                } else {
-                    mergedData.merge(existingData);
-                }
+            if (mergedData != null) {
+                dataToMerge.add(mergedData);
             }
-        }
 
-        if (mergedData == null) {
-            throw new IllegalArgumentException("No input \"coverage.ser\" files found");
+            dataToMerge.addAll(readInputFiles(batch));
+            mergedData = CoverageData.merge(dataToMerge);
         }
 
         return mergedData;
     }
+
+    /**
+     * Reads the given input files concurrently, returning their data in the same order as the files.
+     */
+    @Nonnull
+    private static List<CoverageData> readInputFiles(@Nonnull List<File> files) throws IOException {
+        try {
+            return files.parallelStream().map(DataFileMerging::readDataFromFile).collect(Collectors.toList());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    @Nonnull
+    private static CoverageData readDataFromFile(@Nonnull File inputFile) {
+        try {
+            return CoverageData.readDataFromFile(inputFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
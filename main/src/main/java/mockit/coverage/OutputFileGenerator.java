@@ -87,6 +87,7 @@ final class OutputFileGenerator {
             return;
         }
 
+        coverageData.foldPendingExecutionCounts();
         boolean outputDirCreated = createOutputDirIfSpecifiedButNotExists();
 
         try {
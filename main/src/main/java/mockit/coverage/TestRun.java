@@ -8,32 +8,75 @@ import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 
 import mockit.coverage.data.CoverageData;
-import mockit.coverage.data.FileCoverageData;
+import mockit.coverage.dataItems.PerFileDataCoverage;
 import mockit.coverage.lines.PerFileLineCoverage;
 import mockit.coverage.testRedundancy.TestCoverage;
 
 @SuppressWarnings("unused")
 public final class TestRun {
     private static final Object LOCK = new Object();
+    private static final String recordingMode = Configuration.getProperty("recording", "");
+    private static final boolean concurrentRecording = "concurrent".equals(recordingMode);
+    private static final boolean probeRecording = "probes".equals(recordingMode);
     private static boolean terminated;
 
     private TestRun() {
     }
 
+    /**
+     * Whether line and branch executions are currently being counted without holding the global lock, which is the
+     * case when "<code>coverage-recording=concurrent</code>" is specified and neither call points nor test redundancy
+     * information (both of which need the previous execution count of each item) are being gathered.
+     */
+    public static boolean isRecordingConcurrently() {
+        return concurrentRecording && !CoverageData.instance().isWithCallPoints() && TestCoverage.INSTANCE == null;
+    }
+
+    /**
+     * Whether classes are to be instrumented with boolean probes instead of calls to {@link #lineExecuted} and
+     * {@link #branchExecuted}, which is the case when "<code>coverage-recording=probes</code>" is specified and neither
+     * call points nor test redundancy information are being gathered. In this mode, each line or branch gets an
+     * execution count of one if executed at all.
+     */
+    public static boolean isRecordingWithProbes() {
+        return probeRecording && !CoverageData.instance().isWithCallPoints() && TestCoverage.INSTANCE == null;
+    }
+
+    @Nonnull
+    public static boolean[] getProbes(@Nonnegative int classIndex) {
+        return CoverageData.instance().getClassProbes(classIndex).getHits();
+    }
+
     public static void lineExecuted(@Nonnegative int fileIndex, @Nonnegative int line) {
         if (terminated) {
             return;
         }
 
-        synchronized (LOCK) {
-            CoverageData coverageData = CoverageData.instance();
-            PerFileLineCoverage fileData = coverageData.getFileData(fileIndex).lineCoverageInfo;
-            CallPoint callPoint = null;
+        if (isRecordingConcurrently()) {
+            PerFileLineCoverage fileData = CoverageData.instance().getFileData(fileIndex).lineCoverageInfo;
+            fileData.registerConcurrentExecution(line);
+            return;
+        }
+
+        CallPoint callPoint = null;
 
-            if (coverageData.isWithCallPoints() && fileData.acceptsAdditionalCallPoints(line)) {
-                callPoint = CallPoint.create(new Throwable());
+        if (CoverageData.instance().isWithCallPoints()) {
+            boolean acceptsCallPoint;
+
+            synchronized (LOCK) {
+                acceptsCallPoint = CoverageData.instance().getFileData(fileIndex).lineCoverageInfo
+                        .acceptsAdditionalCallPoints(line);
             }
 
+            if (acceptsCallPoint) {
+                callPoint = CallPointFinder.create();
+            }
+        }
+
+        // The call point is only kept if the line still accepts it, which is checked while registering the execution,
+        // since other threads may have registered call points of their own while this one was walking the stack.
+        synchronized (LOCK) {
+            PerFileLineCoverage fileData = CoverageData.instance().getFileData(fileIndex).lineCoverageInfo;
             int previousExecutionCount = fileData.registerExecution(line, callPoint);
             recordNewLineOrSegmentAsCoveredIfApplicable(previousExecutionCount);
         }
@@ -52,69 +95,85 @@ public final class TestRun {
             return;
         }
 
-        synchronized (LOCK) {
-            CoverageData coverageData = CoverageData.instance();
-            PerFileLineCoverage fileData = coverageData.getFileData(fileIndex).lineCoverageInfo;
+        if (isRecordingConcurrently()) {
+            PerFileLineCoverage fileData = CoverageData.instance().getFileData(fileIndex).lineCoverageInfo;
 
             if (fileData.hasValidBranch(line, branchIndex)) {
-                CallPoint callPoint = null;
+                fileData.registerConcurrentExecution(line, branchIndex);
+            }
+
+            return;
+        }
+
+        CallPoint callPoint = null;
+
+        if (CoverageData.instance().isWithCallPoints()) {
+            boolean acceptsCallPoint;
 
-                if (coverageData.isWithCallPoints() && fileData.acceptsAdditionalCallPoints(line, branchIndex)) {
-                    callPoint = CallPoint.create(new Throwable());
-                }
+            synchronized (LOCK) {
+                PerFileLineCoverage fileData = CoverageData.instance().getFileData(fileIndex).lineCoverageInfo;
+                acceptsCallPoint = fileData.hasValidBranch(line, branchIndex)
+                        && fileData.acceptsAdditionalCallPoints(line, branchIndex);
+            }
+
+            if (acceptsCallPoint) {
+                callPoint = CallPointFinder.create();
+            }
+        }
 
+        // As for lines, the call point is only kept if the branch still accepts it when registering the execution.
+        synchronized (LOCK) {
+            PerFileLineCoverage fileData = CoverageData.instance().getFileData(fileIndex).lineCoverageInfo;
+
+            if (fileData.hasValidBranch(line, branchIndex)) {
                 int previousExecutionCount = fileData.registerExecution(line, branchIndex, callPoint);
                 recordNewLineOrSegmentAsCoveredIfApplicable(previousExecutionCount);
             }
         }
     }
 
-    public static void fieldAssigned(@Nonnull String file, @Nonnull String classAndFieldNames) {
+    public static void fieldAssigned(@Nonnegative int fileIndex, @Nonnegative int fieldIndex) {
         if (terminated) {
             return;
         }
 
         synchronized (LOCK) {
-            CoverageData coverageData = CoverageData.instance();
-            FileCoverageData fileData = coverageData.getFileData(file);
-            fileData.dataCoverageInfo.registerAssignmentToStaticField(classAndFieldNames);
+            PerFileDataCoverage fileData = CoverageData.instance().getFileData(fileIndex).dataCoverageInfo;
+            fileData.registerAssignmentToStaticField(fieldIndex);
         }
     }
 
-    public static void fieldRead(@Nonnull String file, @Nonnull String classAndFieldNames) {
+    public static void fieldRead(@Nonnegative int fileIndex, @Nonnegative int fieldIndex) {
         if (terminated) {
             return;
         }
 
         synchronized (LOCK) {
-            CoverageData coverageData = CoverageData.instance();
-            FileCoverageData fileData = coverageData.getFileData(file);
-            fileData.dataCoverageInfo.registerReadOfStaticField(classAndFieldNames);
+            PerFileDataCoverage fileData = CoverageData.instance().getFileData(fileIndex).dataCoverageInfo;
+            fileData.registerReadOfStaticField(fieldIndex);
         }
     }
 
-    public static void fieldAssigned(@Nonnull Object instance, @Nonnull String file,
-            @Nonnull String classAndFieldNames) {
+    public static void fieldAssigned(@Nonnull Object instance, @Nonnegative int fileIndex,
+            @Nonnegative int fieldIndex) {
         if (terminated) {
             return;
         }
 
         synchronized (LOCK) {
-            CoverageData coverageData = CoverageData.instance();
-            FileCoverageData fileData = coverageData.getFileData(file);
-            fileData.dataCoverageInfo.registerAssignmentToInstanceField(instance, classAndFieldNames);
+            PerFileDataCoverage fileData = CoverageData.instance().getFileData(fileIndex).dataCoverageInfo;
+            fileData.registerAssignmentToInstanceField(instance, fieldIndex);
         }
     }
 
-    public static void fieldRead(@Nonnull Object instance, @Nonnull String file, @Nonnull String classAndFieldNames) {
+    public static void fieldRead(@Nonnull Object instance, @Nonnegative int fileIndex, @Nonnegative int fieldIndex) {
         if (terminated) {
             return;
         }
 
         synchronized (LOCK) {
-            CoverageData coverageData = CoverageData.instance();
-            FileCoverageData fileData = coverageData.getFileData(file);
-            fileData.dataCoverageInfo.registerReadOfInstanceField(instance, classAndFieldNames);
+            PerFileDataCoverage fileData = CoverageData.instance().getFileData(fileIndex).dataCoverageInfo;
+            fileData.registerReadOfInstanceField(instance, fieldIndex);
         }
     }
 
@@ -5,13 +5,10 @@
 package mockit.coverage.data;
 
 import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Iterator;
@@ -27,6 +24,7 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 import mockit.coverage.CoveragePercentage;
+import mockit.coverage.lines.ClassProbes;
 import mockit.internal.util.Utilities;
 
 /**
@@ -48,6 +46,8 @@ public final class CoverageData implements Serializable {
     private final Map<String, FileCoverageData> fileToFileData = new LinkedHashMap<>();
     @Nonnull
     private final List<FileCoverageData> indexedFileData = new ArrayList<>(100);
+    @Nullable
+    private transient List<ClassProbes> indexedClassProbes;
 
     public boolean isWithCallPoints() {
         return withCallPoints;
@@ -89,6 +89,26 @@ public final class CoverageData implements Serializable {
         return indexedFileData.get(fileIndex);
     }
 
+    @Nonnegative
+    public synchronized int addClassProbes(@Nonnull ClassProbes probes) {
+        List<ClassProbes> classProbes = indexedClassProbes;
+
+        if (classProbes == null) {
+            classProbes = new ArrayList<>(100);
+            indexedClassProbes = classProbes;
+        }
+
+        int classIndex = classProbes.size();
+        classProbes.add(probes);
+        return classIndex;
+    }
+
+    @Nonnull
+    @SuppressWarnings("ConstantConditions")
+    public synchronized ClassProbes getClassProbes(@Nonnegative int classIndex) {
+        return indexedClassProbes.get(classIndex);
+    }
+
     public boolean isEmpty() {
         return fileToFileData.isEmpty();
     }
@@ -97,6 +117,16 @@ public final class CoverageData implements Serializable {
         fileToFileData.clear();
     }
 
+    /**
+     * Folds the line and branch execution counts which were recorded concurrently (without locking) into the regular
+     * per-file counts, so that they become visible for reporting and serialization.
+     */
+    public void foldPendingExecutionCounts() {
+        for (FileCoverageData fileData : fileToFileData.values()) {
+            fileData.lineCoverageInfo.foldPendingExecutionCounts();
+        }
+    }
+
     /**
      * Computes the coverage percentage over a subset of the available source files.
      *
@@ -230,16 +260,24 @@ public final class CoverageData implements Serializable {
     }
 
     /**
-     * Reads a serialized <code>CoverageData</code> object from the given file (normally, a "<code>coverage.ser</code>"
-     * file generated at the end of a previous test run).
+     * Reads a <code>CoverageData</code> object from the given file (normally, a "<code>coverage.ser</code>" file
+     * generated at the end of a previous test run).
      *
      * @param dataFile
-     *            the ".ser" file containing a serialized <code>CoverageData</code> instance
+     *            the ".ser" file containing coverage data, either in binary form or as a serialized
+     *            <code>CoverageData</code> instance (as written by older versions)
      *
      * @return a new object containing all coverage data resulting from a previous test run
      */
     @Nonnull
     public static CoverageData readDataFromFile(@Nonnull File dataFile) throws IOException {
+        if (CoverageDataInput.isBinaryDataFile(dataFile)) {
+            CoverageDataInput input = CoverageDataInput.open(dataFile);
+            CoverageData coverageData = new CoverageData();
+            coverageData.readData(input);
+            return coverageData;
+        }
+
         try (ObjectInputStream input = new ObjectInputStream(new BufferedInputStream(new FileInputStream(dataFile)))) {
             return (CoverageData) input.readObject();
         } catch (ClassNotFoundException e) {
@@ -248,10 +286,29 @@ public final class CoverageData implements Serializable {
         }
     }
 
+    private void readData(@Nonnull CoverageDataInput input) {
+        withCallPoints = input.readBoolean();
+
+        for (int i = 0, n = input.readInt(); i < n; i++) {
+            String file = input.readString();
+            FileCoverageData fileData = new FileCoverageData(input);
+            fileToFileData.put(file, fileData);
+            indexedFileData.add(fileData);
+        }
+    }
+
+    /**
+     * Writes all coverage data to the given file in binary form, to be later read with {@link #readDataFromFile(File)}.
+     */
     public void writeDataToFile(@Nonnull File dataFile) throws IOException {
-        try (ObjectOutputStream output = new ObjectOutputStream(
-                new BufferedOutputStream(new FileOutputStream(dataFile)))) {
-            output.writeObject(this);
+        try (CoverageDataOutput output = new CoverageDataOutput(dataFile)) {
+            output.writeBoolean(withCallPoints);
+            output.writeInt(fileToFileData.size());
+
+            for (Entry<String, FileCoverageData> fileAndFileData : fileToFileData.entrySet()) {
+                output.writeString(fileAndFileData.getKey());
+                fileAndFileData.getValue().writeData(output);
+            }
         }
     }
 
@@ -265,9 +322,58 @@ public final class CoverageData implements Serializable {
 
             if (fileData == null) {
                 fileToFileData.put(previousFile, previousFileData);
-            } else if (fileData.lastModified > 0 && previousFileData.lastModified == fileData.lastModified) {
-                fileData.mergeWithDataFromPreviousTestRun(previousFileData);
+            } else {
+                mergeFileData(fileData, previousFileData);
+            }
+        }
+    }
+
+    private static void mergeFileData(@Nonnull FileCoverageData fileData, @Nonnull FileCoverageData previousFileData) {
+        if (fileData.lastModified > 0 && previousFileData.lastModified == fileData.lastModified) {
+            fileData.mergeWithDataFromPreviousTestRun(previousFileData);
+        }
+    }
+
+    /**
+     * Merges the coverage data from several test runs, producing the same result as merging each one in turn into the
+     * first, but with the data for different source files being merged in parallel.
+     *
+     * @param allData
+     *            the data to be merged, in the order of the input files; the first element is modified to hold the
+     *            merged data
+     *
+     * @return the first element of the list, after merging into it the data from the remaining elements
+     */
+    @Nonnull
+    public static CoverageData merge(@Nonnull List<CoverageData> allData) {
+        CoverageData mergedData = allData.get(0);
+        Map<FileCoverageData, List<FileCoverageData>> fileDataToMerge = new LinkedHashMap<>();
+
+        for (int i = 1, n = allData.size(); i < n; i++) {
+            CoverageData previousData = allData.get(i);
+            mergedData.withCallPoints |= previousData.withCallPoints;
+
+            for (Entry<String, FileCoverageData> previousFileAndFileData : previousData.fileToFileData.entrySet()) {
+                String previousFile = previousFileAndFileData.getKey();
+                FileCoverageData previousFileData = previousFileAndFileData.getValue();
+                FileCoverageData fileData = mergedData.fileToFileData.get(previousFile);
+
+                if (fileData == null) {
+                    mergedData.fileToFileData.put(previousFile, previousFileData);
+                } else {
+                    fileDataToMerge.computeIfAbsent(fileData, k -> new ArrayList<>()).add(previousFileData);
+                }
             }
         }
+
+        fileDataToMerge.entrySet().parallelStream().forEach(fileDataAndPreviousData -> {
+            FileCoverageData fileData = fileDataAndPreviousData.getKey();
+
+            for (FileCoverageData previousFileData : fileDataAndPreviousData.getValue()) {
+                mergeFileData(fileData, previousFileData);
+            }
+        });
+
+        return mergedData;
     }
 }
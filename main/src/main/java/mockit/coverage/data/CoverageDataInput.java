@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2006 JMockit developers
+ * This file is subject to the terms of the MIT license (see LICENSE.txt).
+ */
+package mockit.coverage.data;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import static mockit.coverage.data.CoverageDataOutput.HEADER_SIZE;
+import static mockit.coverage.data.CoverageDataOutput.MAGIC;
+import static mockit.coverage.data.CoverageDataOutput.NO_STRING;
+import static mockit.coverage.data.CoverageDataOutput.VERSION;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Reads coverage data in the binary format written by {@link CoverageDataOutput}, from a heap buffer holding the whole
+ * file, so that the file itself is closed as soon as it has been read.
+ * <p>
+ * The file is not memory-mapped: a mapped buffer is only released when garbage collected, which on Windows keeps the
+ * file locked against the same process overwriting or deleting it. Being a single buffer, files of 2 GB or more are
+ * rejected.
+ */
+public final class CoverageDataInput {
+    @Nonnull
+    private final ByteBuffer buffer;
+    @Nonnull
+    private final String[] strings;
+
+    /**
+     * Checks whether the given file is in the binary format, as opposed to the Java serialization format used by older
+     * versions.
+     */
+    static boolean isBinaryDataFile(@Nonnull File dataFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(dataFile.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(4);
+            readFully(channel, header);
+            return !header.hasRemaining() && header.getInt(0) == MAGIC;
+        }
+    }
+
+    @Nonnull
+    public static CoverageDataInput open(@Nonnull File dataFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(dataFile.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Coverage data file \"" + dataFile + "\" is too large (" + size + " bytes)");
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            readFully(channel, buffer);
+            buffer.flip();
+            return new CoverageDataInput(dataFile, buffer);
+        }
+    }
+
+    private static void readFully(@Nonnull FileChannel channel, @Nonnull ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                break;
+            }
+        }
+    }
+
+    private CoverageDataInput(@Nonnull File dataFile, @Nonnull ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+            throw new IOException("Invalid coverage data file \"" + dataFile + '"');
+        }
+
+        int version = buffer.getInt();
+
+        if (version != VERSION) {
+            throw new IOException(
+                    "Unsupported format version " + version + " in coverage data file \"" + dataFile + '"');
+        }
+
+        long stringTablePosition = buffer.getLong();
+
+        if (stringTablePosition < HEADER_SIZE || stringTablePosition >= buffer.limit()) {
+            throw new IOException("Incomplete coverage data file \"" + dataFile + '"');
+        }
+
+        strings = readStringTable((int) stringTablePosition);
+    }
+
+    @Nonnull
+    private String[] readStringTable(int stringTablePosition) {
+        int dataPosition = buffer.position();
+        buffer.position(stringTablePosition);
+
+        String[] stringTable = new String[buffer.getInt()];
+
+        for (int i = 0; i < stringTable.length; i++) {
+            byte[] bytes = new byte[buffer.getInt()];
+            buffer.get(bytes);
+            stringTable[i] = new String(bytes, UTF_8);
+        }
+
+        buffer.position(dataPosition);
+        return stringTable;
+    }
+
+    public boolean readBoolean() {
+        return buffer.get() != 0;
+    }
+
+    public int readInt() {
+        return buffer.getInt();
+    }
+
+    public long readLong() {
+        return buffer.getLong();
+    }
+
+    @Nullable
+    public String readString() {
+        int index = buffer.getInt();
+        return index == NO_STRING ? null : strings[index];
+    }
+
+    @Nonnull
+    public int[] readIntArray() {
+        int[] values = new int[buffer.getInt()];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + 4 * values.length);
+        return values;
+    }
+
+    @Nonnull
+    public byte[] readBytes() {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return bytes;
+    }
+}
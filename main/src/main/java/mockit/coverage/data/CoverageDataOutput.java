@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2006 JMockit developers
+ * This file is subject to the terms of the MIT license (see LICENSE.txt).
+ */
+package mockit.coverage.data;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Writes coverage data in the binary "<code>coverage.ser</code>" format, sequentially through a file channel.
+ * <p>
+ * The file starts with a fixed header (magic number, format version, and the position of the string table), followed
+ * by the coverage data itself, and ends with the string table. Every string in the data is written as an index into
+ * the string table, so that source file paths, class names, and field names are stored only once; arrays of counts are
+ * written as a length followed by the array elements.
+ * <p>
+ * Data can also be written to some other channel, such as one computing a digest; the position of the string table is
+ * then left as zero in the header.
+ */
+public final class CoverageDataOutput implements Closeable {
+    static final int MAGIC = 0x4A4D4344; // "JMCD"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 4 + 4 + 8;
+    static final int NO_STRING = -1;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Nonnull
+    private final WritableByteChannel channel;
+    @Nonnull
+    private final ByteBuffer buffer;
+    @Nonnull
+    private final Map<String, Integer> stringIndexes;
+    @Nonnull
+    private final List<String> strings;
+
+    public CoverageDataOutput(@Nonnull File dataFile) throws IOException {
+        this(FileChannel.open(dataFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING));
+    }
+
+    CoverageDataOutput(@Nonnull WritableByteChannel channel) {
+        this(channel, BUFFER_SIZE);
+    }
+
+    CoverageDataOutput(@Nonnull WritableByteChannel channel, @Nonnegative int bufferSize) {
+        this.channel = channel;
+        buffer = ByteBuffer.allocate(bufferSize);
+        stringIndexes = new HashMap<>(256);
+        strings = new ArrayList<>(256);
+
+        buffer.putInt(MAGIC).putInt(VERSION).putLong(0L);
+    }
+
+    private void ensureRemaining(@Nonnegative int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+
+        buffer.clear();
+    }
+
+    public void writeBoolean(boolean value) throws IOException {
+        ensureRemaining(1);
+        buffer.put(value ? (byte) 1 : (byte) 0);
+    }
+
+    public void writeInt(int value) throws IOException {
+        ensureRemaining(4);
+        buffer.putInt(value);
+    }
+
+    public void writeLong(long value) throws IOException {
+        ensureRemaining(8);
+        buffer.putLong(value);
+    }
+
+    public void writeString(@Nullable String value) throws IOException {
+        if (value == null) {
+            writeInt(NO_STRING);
+            return;
+        }
+
+        Integer index = stringIndexes.get(value);
+
+        if (index == null) {
+            index = strings.size();
+            strings.add(value);
+            stringIndexes.put(value, index);
+        }
+
+        writeInt(index);
+    }
+
+    public void writeIntArray(@Nonnull int[] values) throws IOException {
+        int length = values.length;
+        writeInt(length);
+
+        for (int offset = 0; offset < length;) {
+            ensureRemaining(4);
+            int count = Math.min(length - offset, buffer.remaining() / 4);
+            buffer.asIntBuffer().put(values, offset, count);
+            buffer.position(buffer.position() + 4 * count);
+            offset += count;
+        }
+    }
+
+    public void writeBytes(@Nonnull byte[] bytes) throws IOException {
+        int length = bytes.length;
+        writeInt(length);
+
+        for (int offset = 0; offset < length;) {
+            ensureRemaining(1);
+            int count = Math.min(length - offset, buffer.remaining());
+            buffer.put(bytes, offset, count);
+            offset += count;
+        }
+    }
+
+    /**
+     * Writes the string table at the end of the file, and then records its position in the file header.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+
+            if (channel instanceof FileChannel) {
+                FileChannel fileChannel = (FileChannel) channel;
+                long stringTablePosition = fileChannel.position();
+                writeStringTable();
+
+                ByteBuffer positionInHeader = ByteBuffer.allocate(8).putLong(stringTablePosition);
+                positionInHeader.flip();
+                fileChannel.write(positionInHeader, HEADER_SIZE - 8);
+            } else {
+                writeStringTable();
+            }
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void writeStringTable() throws IOException {
+        writeInt(strings.size());
+
+        for (String string : strings) {
+            writeBytes(string.getBytes(UTF_8));
+        }
+
+        flush();
+    }
+}
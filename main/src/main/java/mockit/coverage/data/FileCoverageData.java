@@ -4,7 +4,13 @@
  */
 package mockit.coverage.data;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Serializable;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
 
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
@@ -20,6 +26,7 @@ import mockit.coverage.lines.PerFileLineCoverage;
  */
 public final class FileCoverageData implements Serializable {
     private static final long serialVersionUID = 3508572808457541012L;
+    private static final int DIGEST_BUFFER_SIZE = 4096;
 
     @Nonnull
     private static final PerFileLineCoverage NO_LINE_INFO = new PerFileLineCoverage();
@@ -45,7 +52,7 @@ public final class FileCoverageData implements Serializable {
 
     private final boolean loadedAfterTestCompletion;
 
-    FileCoverageData(@Nonnegative int index, @Nullable String kindOfTopLevelType) {
+    public FileCoverageData(@Nonnegative int index, @Nullable String kindOfTopLevelType) {
         this.index = index;
         this.kindOfTopLevelType = kindOfTopLevelType;
         lineCoverageInfo = new PerFileLineCoverage();
@@ -53,6 +60,66 @@ public final class FileCoverageData implements Serializable {
         loadedAfterTestCompletion = TestRun.isTerminated();
     }
 
+    FileCoverageData(@Nonnull CoverageDataInput input) {
+        index = input.readInt();
+        kindOfTopLevelType = input.readString();
+        lastModified = input.readLong();
+        loadedAfterTestCompletion = input.readBoolean();
+        lineCoverageInfo = new PerFileLineCoverage();
+        lineCoverageInfo.readData(input);
+        dataCoverageInfo = new PerFileDataCoverage();
+        dataCoverageInfo.readData(input);
+    }
+
+    void writeData(@Nonnull CoverageDataOutput output) throws IOException {
+        output.writeInt(index);
+        output.writeString(kindOfTopLevelType);
+        output.writeLong(lastModified);
+        output.writeBoolean(loadedAfterTestCompletion);
+        lineCoverageInfo.writeData(output);
+        dataCoverageInfo.writeData(output);
+    }
+
+    /**
+     * Whether no lines or fields were registered yet, which is the case until a first class from the source file gets
+     * modified for coverage.
+     */
+    public boolean hasNoStaticData() {
+        return lineCoverageInfo.getExecutableLineCount() == 0 && !dataCoverageInfo.hasFields();
+    }
+
+    /**
+     * Writes the lines, branching points, and fields registered when modifying classes from the source file, to be
+     * later read back with {@link #readStaticData}.
+     */
+    public void writeStaticData(@Nonnull CoverageDataOutput output) throws IOException {
+        lineCoverageInfo.writeData(output);
+        dataCoverageInfo.writeData(output);
+    }
+
+    public void readStaticData(@Nonnull CoverageDataInput input) {
+        lineCoverageInfo.readStaticData(input);
+        dataCoverageInfo.readData(input);
+    }
+
+    /**
+     * Computes a digest of the coverage data shown in the HTML page for the source file, which stays the same for as
+     * long as the data itself does; the file index and the class modification time are left out.
+     */
+    @Nonnull
+    public byte[] computeDigest(@Nonnull MessageDigest digest) throws IOException {
+        OutputStream digestStream = new DigestOutputStream(OutputStream.nullOutputStream(), digest);
+        WritableByteChannel digestChannel = Channels.newChannel(digestStream);
+
+        try (CoverageDataOutput output = new CoverageDataOutput(digestChannel, DIGEST_BUFFER_SIZE)) {
+            output.writeString(kindOfTopLevelType);
+            lineCoverageInfo.writeData(output);
+            dataCoverageInfo.writeData(output);
+        }
+
+        return digest.digest();
+    }
+
     boolean wasLoadedAfterTestCompletion() {
         return loadedAfterTestCompletion;
     }
@@ -12,6 +12,9 @@ import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
+import mockit.coverage.data.CoverageDataInput;
+import mockit.coverage.data.CoverageDataOutput;
+
 public abstract class FieldData implements Serializable {
     private static final long serialVersionUID = 8565599590976858508L;
 
@@ -53,4 +56,16 @@ public abstract class FieldData implements Serializable {
         writeCount += previousInfo.writeCount;
         covered = isCovered() || previousInfo.isCovered();
     }
+
+    final void writeData(@Nonnull CoverageDataOutput output) throws IOException {
+        output.writeInt(readCount);
+        output.writeInt(writeCount);
+        output.writeBoolean(isCovered());
+    }
+
+    final void readData(@Nonnull CoverageDataInput input) {
+        readCount = input.readInt();
+        writeCount = input.readInt();
+        covered = input.readBoolean();
+    }
 }
@@ -6,49 +6,47 @@ package mockit.coverage.dataItems;
 
 import static java.util.Collections.emptyList;
 
-import java.util.Collection;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import mockit.internal.state.TestRun;
 
 public final class InstanceFieldData extends FieldData {
     private static final long serialVersionUID = 6991762113575259754L;
 
+    /**
+     * The identity hash codes of the owner instances which had the field assigned and not read afterwards, for each
+     * test.
+     */
     @Nonnull
-    private final transient Map<Integer, List<Integer>> testIdsToAssignments = new HashMap<>();
+    private final transient Map<Integer, IntSet> testIdsToAssignments = new HashMap<>();
+    private transient int lastTestId;
+    @Nullable
+    private transient IntSet dataForLastTest;
 
     void registerAssignment(@Nonnull Object instance) {
-        List<Integer> dataForRunningTest = getDataForRunningTest();
-        Integer instanceId = System.identityHashCode(instance);
-
-        if (!dataForRunningTest.contains(instanceId)) {
-            dataForRunningTest.add(instanceId);
-        }
-
+        getDataForRunningTest().add(System.identityHashCode(instance));
         writeCount++;
     }
 
     void registerRead(@Nonnull Object instance) {
-        List<Integer> dataForRunningTest = getDataForRunningTest();
-        Integer instanceId = System.identityHashCode(instance);
-
-        dataForRunningTest.remove(instanceId);
+        getDataForRunningTest().remove(System.identityHashCode(instance));
         readCount++;
     }
 
     @Nonnull
-    private List<Integer> getDataForRunningTest() {
+    private IntSet getDataForRunningTest() {
         int testId = TestRun.getTestId();
-        List<Integer> fieldData = testIdsToAssignments.get(testId);
+        IntSet fieldData = dataForLastTest;
 
-        if (fieldData == null) {
-            fieldData = new LinkedList<>();
-            testIdsToAssignments.put(testId, fieldData);
+        if (fieldData == null || testId != lastTestId) {
+            fieldData = testIdsToAssignments.computeIfAbsent(testId, id -> new IntSet());
+            lastTestId = testId;
+            dataForLastTest = fieldData;
         }
 
         return fieldData;
@@ -56,7 +54,7 @@ public final class InstanceFieldData extends FieldData {
 
     @Override
     void markAsCoveredIfNoUnreadValuesAreLeft() {
-        for (List<Integer> unreadInstances : testIdsToAssignments.values()) {
+        for (IntSet unreadInstances : testIdsToAssignments.values()) {
             if (unreadInstances.isEmpty()) {
                 covered = true;
                 break;
@@ -70,7 +68,6 @@ public final class InstanceFieldData extends FieldData {
             return emptyList();
         }
 
-        Collection<List<Integer>> assignments = testIdsToAssignments.values();
-        return assignments.iterator().next();
+        return testIdsToAssignments.values().iterator().next().toList();
     }
 }
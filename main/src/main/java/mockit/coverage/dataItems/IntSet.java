@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2006 JMockit developers
+ * This file is subject to the terms of the MIT license (see LICENSE.txt).
+ */
+package mockit.coverage.dataItems;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+
+/**
+ * A set of <code>int</code> values, kept in an open-addressing hash table with linear probing so that adding and
+ * removing a value needs no boxing and no allocation, except when the table grows.
+ */
+final class IntSet {
+    private static final int FREE = 0;
+
+    @Nonnull
+    private int[] table;
+    @Nonnegative
+    private int size;
+    private boolean containsFree;
+
+    IntSet() {
+        table = new int[8];
+    }
+
+    boolean isEmpty() {
+        return size == 0 && !containsFree;
+    }
+
+    void add(int value) {
+        if (value == FREE) {
+            containsFree = true;
+            return;
+        }
+
+        int mask = table.length - 1;
+        int i = indexOf(value, mask);
+
+        while (table[i] != FREE) {
+            if (table[i] == value) {
+                return;
+            }
+
+            i = i + 1 & mask;
+        }
+
+        table[i] = value;
+        size++;
+
+        if (2 * size > table.length) {
+            grow();
+        }
+    }
+
+    private static int indexOf(int value, int mask) {
+        int h = value * 0x9E3779B9;
+        return (h ^ h >>> 16) & mask;
+    }
+
+    private void grow() {
+        int[] oldTable = table;
+        table = new int[2 * oldTable.length];
+        int mask = table.length - 1;
+
+        for (int value : oldTable) {
+            if (value != FREE) {
+                int i = indexOf(value, mask);
+
+                while (table[i] != FREE) {
+                    i = i + 1 & mask;
+                }
+
+                table[i] = value;
+            }
+        }
+    }
+
+    void remove(int value) {
+        if (value == FREE) {
+            containsFree = false;
+            return;
+        }
+
+        int mask = table.length - 1;
+        int i = indexOf(value, mask);
+
+        while (table[i] != value) {
+            if (table[i] == FREE) {
+                return;
+            }
+
+            i = i + 1 & mask;
+        }
+
+        table[i] = FREE;
+        size--;
+        shiftFollowingValuesBack(i, mask);
+    }
+
+    /**
+     * Moves back into the slot just freed any following value of the same probe sequence which would otherwise become
+     * unreachable, repeating for the slot freed by each move.
+     */
+    private void shiftFollowingValuesBack(int freeSlot, int mask) {
+        int i = freeSlot;
+
+        while (true) {
+            i = i + 1 & mask;
+            int value = table[i];
+
+            if (value == FREE) {
+                return;
+            }
+
+            int home = indexOf(value, mask);
+            boolean reachableFromFreeSlot = freeSlot <= i ? home <= freeSlot || home > i : home <= freeSlot && home > i;
+
+            if (reachableFromFreeSlot) {
+                table[freeSlot] = value;
+                table[i] = FREE;
+                freeSlot = i;
+            }
+        }
+    }
+
+    @Nonnull
+    List<Integer> toList() {
+        List<Integer> values = new ArrayList<>(size + 1);
+
+        if (containsFree) {
+            values.add(FREE);
+        }
+
+        for (int value : table) {
+            if (value != FREE) {
+                values.add(value);
+            }
+        }
+
+        return values;
+    }
+}
@@ -17,6 +17,8 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 import mockit.coverage.CoveragePercentage;
+import mockit.coverage.data.CoverageDataInput;
+import mockit.coverage.data.CoverageDataOutput;
 import mockit.coverage.data.PerFileCoverage;
 
 public final class PerFileDataCoverage implements PerFileCoverage {
@@ -29,6 +31,12 @@ public final class PerFileDataCoverage implements PerFileCoverage {
     @Nonnull
     public final Map<String, InstanceFieldData> instanceFieldsData = new LinkedHashMap<>();
 
+    /**
+     * The data for each field, at the same position of its name in {@link #allFields}, so that instrumented field
+     * accesses can refer to it by index.
+     */
+    @Nullable
+    private transient List<FieldData> indexedFieldsData;
     private transient int coveredDataItems = -1;
 
     private void readObject(@Nonnull ObjectInputStream in) throws IOException, ClassNotFoundException {
@@ -36,6 +44,49 @@ public final class PerFileDataCoverage implements PerFileCoverage {
         in.defaultReadObject();
     }
 
+    public void writeData(@Nonnull CoverageDataOutput output) throws IOException {
+        output.writeInt(allFields.size());
+
+        for (String classAndField : allFields) {
+            output.writeString(classAndField);
+        }
+
+        writeFieldsData(output, staticFieldsData);
+        writeFieldsData(output, instanceFieldsData);
+    }
+
+    private static void writeFieldsData(@Nonnull CoverageDataOutput output,
+            @Nonnull Map<String, ? extends FieldData> fieldsData) throws IOException {
+        output.writeInt(fieldsData.size());
+
+        for (Entry<String, ? extends FieldData> classAndFieldAndData : fieldsData.entrySet()) {
+            output.writeString(classAndFieldAndData.getKey());
+            classAndFieldAndData.getValue().writeData(output);
+        }
+    }
+
+    public void readData(@Nonnull CoverageDataInput input) {
+        for (int i = 0, n = input.readInt(); i < n; i++) {
+            allFields.add(input.readString());
+        }
+
+        for (int i = 0, n = input.readInt(); i < n; i++) {
+            String classAndField = input.readString();
+            StaticFieldData staticData = new StaticFieldData();
+            staticData.readData(input);
+            staticFieldsData.put(classAndField, staticData);
+        }
+
+        for (int i = 0, n = input.readInt(); i < n; i++) {
+            String classAndField = input.readString();
+            InstanceFieldData instanceData = new InstanceFieldData();
+            instanceData.readData(input);
+            instanceFieldsData.put(classAndField, instanceData);
+        }
+
+        indexedFieldsData = null;
+    }
+
     public void addField(@Nonnull String className, @Nonnull String fieldName, boolean isStatic) {
         String classAndField = className + '.' + fieldName;
 
@@ -48,39 +99,59 @@ public final class PerFileDataCoverage implements PerFileCoverage {
         } else {
             instanceFieldsData.put(classAndField, new InstanceFieldData());
         }
+
+        indexedFieldsData = null;
     }
 
-    public boolean isFieldWithCoverageData(@Nonnull String classAndFieldNames) {
-        return instanceFieldsData.containsKey(classAndFieldNames) || staticFieldsData.containsKey(classAndFieldNames);
+    /**
+     * Gets the index by which accesses to the given field are registered, or <code>-1</code> if the field has no
+     * coverage data.
+     */
+    public int getFieldIndex(@Nonnull String classAndFieldNames) {
+        if (!instanceFieldsData.containsKey(classAndFieldNames) && !staticFieldsData.containsKey(classAndFieldNames)) {
+            return -1;
+        }
+
+        return allFields.indexOf(classAndFieldNames);
     }
 
-    public void registerAssignmentToStaticField(@Nonnull String classAndFieldNames) {
-        StaticFieldData staticData = getStaticFieldData(classAndFieldNames);
+    @Nonnull
+    private FieldData getFieldData(@Nonnegative int fieldIndex) {
+        List<FieldData> fieldsData = indexedFieldsData;
+
+        if (fieldsData == null) {
+            fieldsData = new ArrayList<>(allFields.size());
+
+            for (String classAndField : allFields) {
+                FieldData fieldData = staticFieldsData.get(classAndField);
+                fieldsData.add(fieldData == null ? instanceFieldsData.get(classAndField) : fieldData);
+            }
 
-        if (staticData != null) {
-            staticData.registerAssignment();
+            indexedFieldsData = fieldsData;
         }
+
+        return fieldsData.get(fieldIndex);
     }
 
-    @Nullable
-    public StaticFieldData getStaticFieldData(@Nonnull String classAndFieldNames) {
-        return staticFieldsData.get(classAndFieldNames);
+    public void registerAssignmentToStaticField(@Nonnegative int fieldIndex) {
+        ((StaticFieldData) getFieldData(fieldIndex)).registerAssignment();
     }
 
-    public void registerReadOfStaticField(@Nonnull String classAndFieldNames) {
-        StaticFieldData staticData = getStaticFieldData(classAndFieldNames);
+    public void registerReadOfStaticField(@Nonnegative int fieldIndex) {
+        ((StaticFieldData) getFieldData(fieldIndex)).registerRead();
+    }
 
-        if (staticData != null) {
-            staticData.registerRead();
-        }
+    public void registerAssignmentToInstanceField(@Nonnull Object instance, @Nonnegative int fieldIndex) {
+        ((InstanceFieldData) getFieldData(fieldIndex)).registerAssignment(instance);
     }
 
-    public void registerAssignmentToInstanceField(@Nonnull Object instance, @Nonnull String classAndFieldNames) {
-        InstanceFieldData instanceData = getInstanceFieldData(classAndFieldNames);
+    public void registerReadOfInstanceField(@Nonnull Object instance, @Nonnegative int fieldIndex) {
+        ((InstanceFieldData) getFieldData(fieldIndex)).registerRead(instance);
+    }
 
-        if (instanceData != null) {
-            instanceData.registerAssignment(instance);
-        }
+    @Nullable
+    public StaticFieldData getStaticFieldData(@Nonnull String classAndFieldNames) {
+        return staticFieldsData.get(classAndFieldNames);
     }
 
     @Nullable
@@ -88,14 +159,6 @@ public final class PerFileDataCoverage implements PerFileCoverage {
         return instanceFieldsData.get(classAndFieldNames);
     }
 
-    public void registerReadOfInstanceField(@Nonnull Object instance, @Nonnull String classAndFieldNames) {
-        InstanceFieldData instanceData = getInstanceFieldData(classAndFieldNames);
-
-        if (instanceData != null) {
-            instanceData.registerRead(instance);
-        }
-    }
-
     public boolean hasFields() {
         return !allFields.isEmpty();
     }
@@ -7,11 +7,16 @@ package mockit.coverage.lines;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.util.concurrent.atomic.LongAdder;
 
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import mockit.asm.controlFlow.Label;
+import mockit.coverage.TestRun;
+import mockit.coverage.data.CoverageDataInput;
+import mockit.coverage.data.CoverageDataOutput;
 
 /**
  * Coverage data gathered for a branch inside a line of source code.
@@ -23,8 +28,22 @@ public final class BranchCoverageData extends LineSegmentData {
     @Nonnull
     private transient Label label;
 
+    // Used instead of "executionCount" when recording concurrently; folded into it before being read.
+    @Nullable
+    private transient volatile LongAdder concurrentExecutionCount;
+
     BranchCoverageData(@Nonnull Label label) {
         this.label = label;
+
+        if (TestRun.isRecordingConcurrently()) {
+            concurrentExecutionCount = new LongAdder();
+        }
+    }
+
+    BranchCoverageData(@Nonnull CoverageDataInput input) {
+        label = new Label();
+        label.line = input.readInt();
+        readData(input);
     }
 
     @Override
@@ -37,6 +56,42 @@ public final class BranchCoverageData extends LineSegmentData {
         return label.jumpTargetLine == 0 ? label.line : label.jumpTargetLine;
     }
 
+    void registerConcurrentExecution() {
+        LongAdder counter = concurrentExecutionCount;
+
+        if (counter == null) {
+            counter = prepareForConcurrentRecording();
+        }
+
+        counter.increment();
+    }
+
+    @Nonnull
+    synchronized LongAdder prepareForConcurrentRecording() {
+        LongAdder counter = concurrentExecutionCount;
+
+        if (counter == null) {
+            counter = new LongAdder();
+            concurrentExecutionCount = counter;
+        }
+
+        return counter;
+    }
+
+    void foldConcurrentExecutionCount() {
+        LongAdder counter = concurrentExecutionCount;
+
+        if (counter != null) {
+            executionCount += (int) counter.sumThenReset();
+        }
+    }
+
+    @Override
+    void writeData(@Nonnull CoverageDataOutput output) throws IOException {
+        output.writeInt(getLine());
+        super.writeData(output);
+    }
+
     private void readObject(@Nonnull ObjectInputStream in) throws IOException, ClassNotFoundException {
         label = new Label();
         label.line = in.readInt();
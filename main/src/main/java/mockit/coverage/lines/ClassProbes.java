@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2006 JMockit developers
+ * This file is subject to the terms of the MIT license (see LICENSE.txt).
+ */
+package mockit.coverage.lines;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * The boolean probes inserted into a single class when recording with "<code>coverage-recording=probes</code>".
+ * <p>
+ * Each probe corresponds to one of the calls to <code>TestRun.lineExecuted</code> or <code>TestRun.branchExecuted</code>
+ * which would otherwise have been inserted; at runtime, the instrumented class merely stores <code>true</code> into
+ * the element of its probe array having the index of the probe. Line and branch coverage is then reconstructed from
+ * the probe arrays, with an execution count of one for every line or branch which was hit at least once.
+ */
+public final class ClassProbes {
+    private static final int NO_BRANCH = -1;
+
+    @Nonnull
+    private final PerFileLineCoverage lineCoverageInfo;
+    @Nonnull
+    private int[] lines;
+    @Nonnull
+    private int[] branchIndexes;
+    @Nonnegative
+    private int probeCount;
+    @Nullable
+    private volatile boolean[] hits;
+
+    public ClassProbes(@Nonnull PerFileLineCoverage lineCoverageInfo) {
+        this.lineCoverageInfo = lineCoverageInfo;
+        lines = new int[32];
+        branchIndexes = new int[32];
+        lineCoverageInfo.addClassProbes(this);
+    }
+
+    @Nonnegative
+    public int addLineProbe(@Nonnegative int line) {
+        return addProbe(line, NO_BRANCH);
+    }
+
+    @Nonnegative
+    public int addBranchProbe(@Nonnegative int line, @Nonnegative int branchIndex) {
+        return addProbe(line, branchIndex);
+    }
+
+    @Nonnegative
+    private int addProbe(@Nonnegative int line, int branchIndex) {
+        int probeIndex = probeCount;
+
+        if (probeIndex == lines.length) {
+            int[] newLines = new int[2 * probeIndex];
+            int[] newBranchIndexes = new int[2 * probeIndex];
+            System.arraycopy(lines, 0, newLines, 0, probeIndex);
+            System.arraycopy(branchIndexes, 0, newBranchIndexes, 0, probeIndex);
+            lines = newLines;
+            branchIndexes = newBranchIndexes;
+        }
+
+        lines[probeIndex] = line;
+        branchIndexes[probeIndex] = branchIndex;
+        probeCount++;
+        return probeIndex;
+    }
+
+    public boolean hasProbes() {
+        return probeCount > 0;
+    }
+
+    /**
+     * Gets the probe array for the class, creating it on first access, which happens when the instrumented class gets
+     * initialized (at which point all of its probes are known).
+     */
+    @Nonnull
+    public synchronized boolean[] getHits() {
+        boolean[] probes = hits;
+
+        if (probes == null) {
+            probes = new boolean[probeCount];
+            hits = probes;
+        }
+
+        return probes;
+    }
+
+    void foldHits() {
+        boolean[] probes = hits;
+
+        if (probes != null) {
+            for (int probeIndex = 0, n = probes.length; probeIndex < n; probeIndex++) {
+                if (probes[probeIndex]) {
+                    int line = lines[probeIndex];
+                    int branchIndex = branchIndexes[probeIndex];
+
+                    if (branchIndex == NO_BRANCH) {
+                        lineCoverageInfo.registerProbeHit(line);
+                    } else {
+                        lineCoverageInfo.registerProbeHit(line, branchIndex);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -6,6 +6,7 @@ package mockit.coverage.lines;
 
 import static java.util.Collections.emptyList;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -16,6 +17,8 @@ import javax.annotation.Nullable;
 
 import mockit.asm.controlFlow.Label;
 import mockit.coverage.CallPoint;
+import mockit.coverage.data.CoverageDataInput;
+import mockit.coverage.data.CoverageDataOutput;
 
 /**
  * Coverage data gathered for a single executable line of code in a source file.
@@ -71,6 +74,23 @@ public final class LineCoverageData extends LineSegmentData {
         return data.registerExecution(callPoint);
     }
 
+    void registerConcurrentExecution(@Nonnegative int branchIndex) {
+        BranchCoverageData data = branches.get(branchIndex);
+        data.registerConcurrentExecution();
+    }
+
+    void prepareForConcurrentRecording() {
+        for (BranchCoverageData branch : branches) {
+            branch.prepareForConcurrentRecording();
+        }
+    }
+
+    void foldConcurrentExecutionCounts() {
+        for (BranchCoverageData branch : branches) {
+            branch.foldConcurrentExecutionCount();
+        }
+    }
+
     public boolean containsBranches() {
         return !noBranchesYet();
     }
@@ -211,4 +231,28 @@ public final class LineCoverageData extends LineSegmentData {
             }
         }
     }
+
+    @Override
+    void writeData(@Nonnull CoverageDataOutput output) throws IOException {
+        super.writeData(output);
+        output.writeInt(branches.size());
+
+        for (BranchCoverageData branch : branches) {
+            branch.writeData(output);
+        }
+    }
+
+    @Override
+    void readData(@Nonnull CoverageDataInput input) {
+        super.readData(input);
+        int branchCount = input.readInt();
+
+        if (branchCount > 0) {
+            branches = new ArrayList<>(branchCount);
+
+            for (int i = 0; i < branchCount; i++) {
+                branches.add(new BranchCoverageData(input));
+            }
+        }
+    }
 }
@@ -4,6 +4,7 @@
  */
 package mockit.coverage.lines;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
@@ -14,6 +15,8 @@ import javax.annotation.Nullable;
 
 import mockit.coverage.CallPoint;
 import mockit.coverage.Configuration;
+import mockit.coverage.data.CoverageDataInput;
+import mockit.coverage.data.CoverageDataOutput;
 
 public class LineSegmentData implements Serializable {
     private static final long serialVersionUID = -6233980722802474992L;
@@ -53,7 +56,7 @@ public class LineSegmentData implements Serializable {
     final int registerExecution(@Nullable CallPoint callPoint) {
         int previousExecutionCount = executionCount++;
 
-        if (callPoint != null) {
+        if (callPoint != null && acceptsAdditionalCallPoints()) {
             addCallPoint(callPoint);
         }
 
@@ -77,6 +80,12 @@ public class LineSegmentData implements Serializable {
         callPoints.add(callPoint);
     }
 
+    final void markAsExecuted() {
+        if (executionCount == 0) {
+            executionCount = 1;
+        }
+    }
+
     public final boolean containsCallPoints() {
         return callPoints != null;
     }
@@ -110,4 +119,40 @@ public class LineSegmentData implements Serializable {
             }
         }
     }
+
+    void writeData(@Nonnull CoverageDataOutput output) throws IOException {
+        output.writeBoolean(unreachable);
+        output.writeBoolean(empty);
+        output.writeInt(executionCount);
+
+        List<CallPoint> callPointsToWrite = callPoints;
+
+        if (callPointsToWrite == null) {
+            output.writeInt(-1);
+        } else {
+            output.writeInt(callPointsToWrite.size());
+
+            for (CallPoint callPoint : callPointsToWrite) {
+                callPoint.writeData(output);
+            }
+        }
+    }
+
+    void readData(@Nonnull CoverageDataInput input) {
+        unreachable = input.readBoolean();
+        empty = input.readBoolean();
+        executionCount = input.readInt();
+
+        int callPointCount = input.readInt();
+
+        if (callPointCount >= 0) {
+            List<CallPoint> callPointsRead = new ArrayList<>(Math.max(callPointCount, MAX_CALL_POINTS));
+
+            for (int i = 0; i < callPointCount; i++) {
+                callPointsRead.add(new CallPoint(input));
+            }
+
+            callPoints = callPointsRead;
+        }
+    }
 }
@@ -6,9 +6,13 @@ package mockit.coverage.lines;
 
 import java.io.IOException;
 import java.io.ObjectInputStream;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
 
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
@@ -16,6 +20,9 @@ import javax.annotation.Nullable;
 
 import mockit.coverage.CallPoint;
 import mockit.coverage.CoveragePercentage;
+import mockit.coverage.TestRun;
+import mockit.coverage.data.CoverageDataInput;
+import mockit.coverage.data.CoverageDataOutput;
 import mockit.coverage.data.PerFileCoverage;
 
 public final class PerFileLineCoverage implements PerFileCoverage {
@@ -28,6 +35,14 @@ public final class PerFileLineCoverage implements PerFileCoverage {
     @Nonnull
     private int[] executionCounts = NO_EXECUTIONS_YET;
 
+    // Used instead of "executionCounts" when recording concurrently; folded into it before being read.
+    @Nullable
+    private transient volatile LongAdder[] concurrentExecutionCounts;
+
+    // Probes of the classes in the file, when recording through probes; folded into "executionCounts" before reads.
+    @Nullable
+    private transient List<ClassProbes> classProbes;
+
     @Nonnull
     private transient LineCoverageData sharedLineData;
 
@@ -56,6 +71,82 @@ public final class PerFileLineCoverage implements PerFileCoverage {
         }
     }
 
+    /**
+     * Writes the line coverage data for the file in binary form: the execution counts for all lines, the executable
+     * lines, and then the lines having their own line data (with branches and/or call points), followed by that data.
+     */
+    public void writeData(@Nonnull CoverageDataOutput output) throws IOException {
+        output.writeInt(lastLine);
+        output.writeIntArray(executionCounts);
+
+        int[] executableLines = new int[lineToLineData.size()];
+        int lineCount = 0;
+        int linesWithData = 0;
+
+        for (Entry<Integer, LineCoverageData> lineAndData : lineToLineData.entrySet()) {
+            executableLines[lineCount++] = lineAndData.getKey();
+
+            if (lineAndData.getValue() != null) {
+                linesWithData++;
+            }
+        }
+
+        Arrays.sort(executableLines);
+        output.writeIntArray(executableLines);
+
+        int[] linesWithLineData = new int[linesWithData];
+        int i = 0;
+
+        for (int line : executableLines) {
+            if (lineToLineData.get(line) != null) {
+                linesWithLineData[i++] = line;
+            }
+        }
+
+        output.writeIntArray(linesWithLineData);
+
+        for (int line : linesWithLineData) {
+            lineToLineData.get(line).writeData(output);
+        }
+    }
+
+    public void readData(@Nonnull CoverageDataInput input) {
+        lastLine = input.readInt();
+
+        int[] counts = input.readIntArray();
+        executionCounts = counts.length == 0 ? NO_EXECUTIONS_YET : counts;
+
+        for (int line : input.readIntArray()) {
+            lineToLineData.put(line, null);
+        }
+
+        for (int line : input.readIntArray()) {
+            LineCoverageData lineData = new LineCoverageData();
+            lineData.readData(input);
+            lineToLineData.put(line, lineData);
+        }
+    }
+
+    /**
+     * Reads the lines and branching points which were found when modifying classes of the source file, as written with
+     * {@link #writeData} before any execution counts got recorded, so that recording can proceed as if the
+     * modification had just registered them.
+     */
+    public void readStaticData(@Nonnull CoverageDataInput input) {
+        readData(input);
+
+        if (TestRun.isRecordingConcurrently()) {
+            for (Entry<Integer, LineCoverageData> lineAndData : lineToLineData.entrySet()) {
+                addConcurrentExecutionCounter(lineAndData.getKey());
+                LineCoverageData lineData = lineAndData.getValue();
+
+                if (lineData != null) {
+                    lineData.prepareForConcurrentRecording();
+                }
+            }
+        }
+    }
+
     public void addLine(@Nonnegative int line) {
         if (!lineToLineData.containsKey(line)) {
             lineToLineData.put(line, null);
@@ -74,6 +165,35 @@ public final class PerFileLineCoverage implements PerFileCoverage {
 
             lastLine = line;
         }
+
+        if (TestRun.isRecordingConcurrently()) {
+            addConcurrentExecutionCounter(line);
+        }
+    }
+
+    @Nonnull
+    private synchronized LongAdder addConcurrentExecutionCounter(@Nonnegative int line) {
+        LongAdder[] counters = concurrentExecutionCounts;
+
+        if (counters == null || line >= counters.length) {
+            LongAdder[] newCounters = new LongAdder[line + 30];
+
+            if (counters != null) {
+                System.arraycopy(counters, 0, newCounters, 0, counters.length);
+            }
+
+            concurrentExecutionCounts = newCounters;
+            counters = newCounters;
+        }
+
+        LongAdder counter = counters[line];
+
+        if (counter == null) {
+            counter = new LongAdder();
+            counters[line] = counter;
+        }
+
+        return counter;
     }
 
     @Nonnull
@@ -120,6 +240,17 @@ public final class PerFileLineCoverage implements PerFileCoverage {
         return previousExecutionCount;
     }
 
+    public void registerConcurrentExecution(@Nonnegative int line) {
+        LongAdder[] counters = concurrentExecutionCounts;
+        LongAdder counter = counters == null || line >= counters.length ? null : counters[line];
+
+        if (counter == null) {
+            counter = addConcurrentExecutionCounter(line);
+        }
+
+        counter.increment();
+    }
+
     public boolean hasValidBranch(@Nonnegative int line, @Nonnegative int branchIndex) {
         LineCoverageData lineData = lineToLineData.get(line);
         return lineData.isValidBranch(branchIndex);
@@ -136,6 +267,106 @@ public final class PerFileLineCoverage implements PerFileCoverage {
         return lineData.registerExecution(branchIndex, callPoint);
     }
 
+    public void registerConcurrentExecution(@Nonnegative int line, @Nonnegative int branchIndex) {
+        LineCoverageData lineData = lineToLineData.get(line);
+        lineData.registerConcurrentExecution(branchIndex);
+    }
+
+    synchronized void addClassProbes(@Nonnull ClassProbes probes) {
+        List<ClassProbes> probesForFile = classProbes;
+
+        if (probesForFile == null) {
+            probesForFile = new CopyOnWriteArrayList<>();
+            classProbes = probesForFile;
+        }
+
+        probesForFile.add(probes);
+    }
+
+    void registerProbeHit(@Nonnegative int line) {
+        createExecutionCountsArrayIfNeeded(line);
+
+        if (executionCounts[line] == 0) {
+            executionCounts[line] = 1;
+        }
+    }
+
+    void registerProbeHit(@Nonnegative int line, @Nonnegative int branchIndex) {
+        LineCoverageData lineData = lineToLineData.get(line);
+
+        if (lineData.isValidBranch(branchIndex)) {
+            lineData.getBranchData(branchIndex).markAsExecuted();
+        }
+    }
+
+    /**
+     * Adds the execution counts recorded concurrently or through probes since the last call into the regular execution
+     * counts, for all lines and branches in the file.
+     */
+    public synchronized void foldPendingExecutionCounts() {
+        LongAdder[] counters = concurrentExecutionCounts;
+
+        if (counters != null) {
+            for (int line = 1, n = counters.length; line < n; line++) {
+                foldConcurrentExecutionCounts(counters, line);
+            }
+        }
+
+        foldProbes();
+    }
+
+    private synchronized void foldPendingExecutionCounts(@Nonnegative int line) {
+        LongAdder[] counters = concurrentExecutionCounts;
+
+        if (counters != null && line < counters.length) {
+            foldConcurrentExecutionCounts(counters, line);
+        }
+
+        // Once the test run is over, probes were already folded for output generation and won't be hit anymore.
+        if (!TestRun.isTerminated()) {
+            foldProbes();
+        }
+    }
+
+    private void foldConcurrentExecutionCounts(@Nonnull LongAdder[] counters, @Nonnegative int line) {
+        LongAdder counter = counters[line];
+
+        if (counter != null) {
+            int executionCount = (int) counter.sumThenReset();
+
+            if (executionCount > 0) {
+                createExecutionCountsArrayIfNeeded(line);
+                executionCounts[line] += executionCount;
+            }
+
+            LineCoverageData lineData = lineToLineData.get(line);
+
+            if (lineData != null) {
+                lineData.foldConcurrentExecutionCounts();
+            }
+        }
+    }
+
+    private void foldProbes() {
+        List<ClassProbes> probesForFile = classProbes;
+
+        if (probesForFile != null) {
+            for (ClassProbes probes : probesForFile) {
+                probes.foldHits();
+            }
+        }
+    }
+
+    private void createExecutionCountsArrayIfNeeded(@Nonnegative int line) {
+        if (executionCounts == NO_EXECUTIONS_YET) {
+            executionCounts = new int[Math.max(lastLine, line) + 1];
+        } else if (line >= executionCounts.length) {
+            int[] newCounts = new int[line + 30];
+            System.arraycopy(executionCounts, 0, newCounts, 0, executionCounts.length);
+            executionCounts = newCounts;
+        }
+    }
+
     @Nonnegative
     public int getLineCount() {
         return lastLine;
@@ -147,11 +378,13 @@ public final class PerFileLineCoverage implements PerFileCoverage {
     }
 
     public boolean hasLineData(@Nonnegative int line) {
+        foldPendingExecutionCounts(line);
         return executionCounts != NO_EXECUTIONS_YET && lineToLineData.containsKey(line);
     }
 
     @Nonnull
     public LineCoverageData getLineData(@Nonnegative int line) {
+        foldPendingExecutionCounts(line);
         LineCoverageData data = lineToLineData.get(line);
 
         if (data == null) {
@@ -171,6 +404,7 @@ public final class PerFileLineCoverage implements PerFileCoverage {
     }
 
     public int getExecutionCount(@Nonnegative int line) {
+        foldPendingExecutionCounts(line);
         return line < executionCounts.length ? executionCounts[line] : -1;
     }
 
@@ -199,6 +433,7 @@ public final class PerFileLineCoverage implements PerFileCoverage {
             return;
         }
         totalSegments = coveredSegments = 0;
+        foldPendingExecutionCounts();
 
         for (int line = 1, n = lastLine; line <= n; line++) {
             if (lineToLineData.containsKey(line)) {
@@ -242,6 +477,7 @@ public final class PerFileLineCoverage implements PerFileCoverage {
     }
 
     public void mergeInformation(@Nonnull PerFileLineCoverage previousCoverage) {
+        foldPendingExecutionCounts();
         Map<Integer, LineCoverageData> previousInfo = previousCoverage.lineToLineData;
         boolean previousRunHadLinesExecuted = previousCoverage.executionCounts.length > 0;
 
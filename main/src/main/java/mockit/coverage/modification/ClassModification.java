@@ -22,11 +22,14 @@ public final class ClassModification {
     final List<ProtectionDomain> protectionDomainsWithUniqueLocations;
     @Nonnull
     private final ClassSelection classSelection;
+    @Nullable
+    private final ClassfileCache classfileCache;
 
     public ClassModification() {
         modifiedClasses = new HashSet<>();
         protectionDomainsWithUniqueLocations = new ArrayList<>();
         classSelection = new ClassSelection();
+        classfileCache = ClassfileCache.createIfEnabled();
     }
 
     public boolean shouldConsiderClassesNotLoaded() {
@@ -56,13 +59,17 @@ public final class ClassModification {
     }
 
     @Nonnull
-    private static byte[] modifyClassForCoverage(@Nonnull String className, @Nonnull byte[] classBytecode) {
+    private byte[] modifyClassForCoverage(@Nonnull String className, @Nonnull byte[] classBytecode) {
         byte[] modifiedBytecode = CoverageModifier.recoverModifiedByteCodeIfAvailable(className);
 
         if (modifiedBytecode != null) {
             return modifiedBytecode;
         }
 
+        if (classfileCache != null && ClassfileCache.isApplicable(className)) {
+            return classfileCache.modifyClass(classBytecode);
+        }
+
         ClassReader cr = new ClassReader(classBytecode);
         CoverageModifier modifier = new CoverageModifier(cr);
         cr.accept(modifier);
@@ -5,21 +5,35 @@
 package mockit.coverage.modification;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.security.ProtectionDomain;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import mockit.coverage.Configuration;
 
 /**
- * Finds and loads all classes that should also be measured, but were not loaded until now.
+ * Finds all classes that should also be measured, but were not loaded until now, and gathers their coverage data.
+ * <p>
+ * The classfiles are read directly from each classpath directory, in parallel, and then go through the same coverage
+ * modification as loaded classes, one at a time, without getting defined in the JVM. With
+ * "<code>coverage-classesNotLoaded=load</code>", the classes are instead loaded (but not initialized), so that they
+ * get modified by the coverage class file transformer.
  */
 public final class ClassesNotLoaded {
+    private static final boolean LOAD_CLASSES = "load".equals(Configuration.getProperty("classesNotLoaded"));
+
     @Nonnull
     private final ClassModification classModification;
-    @Nonnegative
-    private int firstPosAfterParentDir;
 
     public ClassesNotLoaded(@Nonnull ClassModification classModification) {
         this.classModification = classModification;
@@ -32,44 +46,88 @@ public final class ClassesNotLoaded {
         for (ProtectionDomain pd : protectionDomainsSoFar) {
             File classPathEntry = new File(pd.getCodeSource().getLocation().getPath());
 
-            if (!classPathEntry.getPath().endsWith(".jar")) {
-                firstPosAfterParentDir = classPathEntry.getPath().length() + 1;
-                loadAdditionalClasses(classPathEntry, pd);
+            if (!classPathEntry.getPath().endsWith(".jar") && classPathEntry.isDirectory()) {
+                Path classPathDir = classPathEntry.toPath();
+                List<String> classNames = findAdditionalClasses(classPathDir, pd);
+
+                if (LOAD_CLASSES) {
+                    loadAdditionalClasses(classNames, pd);
+                } else {
+                    modifyAdditionalClasses(classPathDir, classNames, pd);
+                }
             }
         }
     }
 
-    private void loadAdditionalClasses(@Nonnull File classPathEntry, @Nonnull ProtectionDomain protectionDomain) {
-        File[] filesInDir = classPathEntry.listFiles();
+    @Nonnull
+    private List<String> findAdditionalClasses(@Nonnull Path classPathDir, @Nonnull ProtectionDomain pd) {
+        try (Stream<Path> filesInDir = Files.walk(classPathDir)) {
+            return filesInDir.filter(ClassesNotLoaded::isClassfileOfType)
+                    .map(classFile -> getClassName(classPathDir, classFile))
+                    .filter(className -> classModification.isToBeConsideredForCoverage(className, pd))
+                    .collect(Collectors.toList());
+        } catch (IOException | UncheckedIOException ignore) {
+            return List.of();
+        }
+    }
 
-        if (filesInDir != null) {
-            for (File fileInDir : filesInDir) {
-                if (fileInDir.isDirectory()) {
-                    loadAdditionalClasses(fileInDir, protectionDomain);
-                } else {
-                    loadAdditionalClass(fileInDir.getPath(), protectionDomain);
-                }
+    /**
+     * Checks whether the given file is the classfile of a class or interface, as opposed to a
+     * <code>module-info.class</code> or <code>package-info.class</code> file, which have no super-class.
+     */
+    private static boolean isClassfileOfType(@Nonnull Path file) {
+        String fileName = file.getFileName().toString();
+        return fileName.endsWith(".class") && !"module-info.class".equals(fileName)
+                && !"package-info.class".equals(fileName);
+    }
+
+    @Nonnull
+    private static String getClassName(@Nonnull Path classPathDir, @Nonnull Path classFile) {
+        String relativePath = classPathDir.relativize(classFile).toString();
+        return relativePath.substring(0, relativePath.length() - ".class".length()).replace(File.separatorChar, '.');
+    }
+
+    private static void loadAdditionalClasses(@Nonnull List<String> classNames, @Nonnull ProtectionDomain pd) {
+        for (String className : classNames) {
+            try {
+                Class.forName(className, false, pd.getClassLoader());
+            } catch (ClassNotFoundException | NoClassDefFoundError ignore) {
             }
         }
     }
 
-    private void loadAdditionalClass(@Nonnull String filePath, @Nonnull ProtectionDomain protectionDomain) {
-        int p = filePath.lastIndexOf(".class");
+    private void modifyAdditionalClasses(@Nonnull Path classPathDir, @Nonnull List<String> classNames,
+            @Nonnull ProtectionDomain pd) {
+        // Classfiles are read concurrently, but modified in order and one at a time, since class modification is not
+        // thread-safe.
+        classNames.parallelStream().map(className -> new Classfile(className, readClassfile(classPathDir, className)))
+                .forEachOrdered(classfile -> {
+                    if (classfile.bytes != null) {
+                        classModification.modifyClass(classfile.name, pd, classfile.bytes);
+                    }
+                });
+    }
 
-        if (p > 0) {
-            String relativePath = filePath.substring(firstPosAfterParentDir, p);
-            String className = relativePath.replace(File.separatorChar, '.');
+    private static final class Classfile {
+        @Nonnull
+        final String name;
+        @Nullable
+        final byte[] bytes;
 
-            if (classModification.isToBeConsideredForCoverage(className, protectionDomain)) {
-                loadClass(className, protectionDomain);
-            }
+        Classfile(@Nonnull String name, @Nullable byte[] bytes) {
+            this.name = name;
+            this.bytes = bytes;
         }
     }
 
-    private static void loadClass(@Nonnull String className, @Nonnull ProtectionDomain protectionDomain) {
+    @Nullable
+    private static byte[] readClassfile(@Nonnull Path classPathDir, @Nonnull String className) {
+        Path classFile = classPathDir.resolve(className.replace('.', File.separatorChar) + ".class");
+
         try {
-            Class.forName(className, false, protectionDomain.getClassLoader());
-        } catch (ClassNotFoundException | NoClassDefFoundError ignore) {
+            return Files.readAllBytes(classFile);
+        } catch (IOException ignore) {
+            return null;
         }
     }
 }
@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) 2006 JMockit developers
+ * This file is subject to the terms of the MIT license (see LICENSE.txt).
+ */
+package mockit.coverage.modification;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import mockit.asm.classes.ClassReader;
+import mockit.coverage.Configuration;
+import mockit.coverage.TestRun;
+import mockit.coverage.data.CoverageData;
+import mockit.coverage.data.CoverageDataInput;
+import mockit.coverage.data.CoverageDataOutput;
+import mockit.coverage.data.FileCoverageData;
+import mockit.internal.util.Utilities;
+
+/**
+ * On-disk cache of classfiles modified for coverage, shared by all JVMs using the same cache directory (specified with
+ * "<code>coverage-classfileCache</code>"), so that a given class only needs to be modified once.
+ * <p>
+ * Each entry is keyed by a digest of the original classfile and of the JMockit version in use, and holds the modified
+ * classfile together with the lines, branching points, and fields registered for its source file. Modified classfiles
+ * refer to the source file through its index in the {@link CoverageData}, which depends on the order of class loading,
+ * so the positions of that index are also kept and patched with the current one when the entry is used.
+ * <p>
+ * Only classes which get their coverage information registered independently of other classes are cached (see
+ * {@link CoverageModifier#isModifiedIndependently()}); the cache is not used when recording through probes.
+ */
+final class ClassfileCache {
+    private static final int ALTERNATE_INDEX_BITS = Short.MAX_VALUE;
+
+    @Nonnull
+    private final Path cacheDir;
+    @Nonnull
+    private final byte[] jmockitVersion;
+
+    private ClassfileCache(@Nonnull Path cacheDir) {
+        this.cacheDir = cacheDir;
+        jmockitVersion = Utilities.getJMockitVersion().getBytes(UTF_8);
+    }
+
+    @Nullable
+    static ClassfileCache createIfEnabled() {
+        String cacheDirPath = Configuration.getProperty("classfileCache", "");
+
+        if (cacheDirPath.isEmpty()) {
+            return null;
+        }
+
+        Path cacheDir = Paths.get(cacheDirPath);
+
+        try {
+            Files.createDirectories(cacheDir);
+            return new ClassfileCache(cacheDir);
+        } catch (IOException e) {
+            System.out.println("JMockit: Classfile cache not available: " + e);
+            return null;
+        }
+    }
+
+    static boolean isApplicable(@Nonnull String className) {
+        return className.indexOf('$') < 0 && !TestRun.isRecordingWithProbes();
+    }
+
+    @Nonnull
+    byte[] modifyClass(@Nonnull byte[] originalClassfile) {
+        Path entryFile = cacheDir.resolve(computeKey(originalClassfile) + ".bin");
+        byte[] modifiedClassfile = readEntry(entryFile);
+
+        if (modifiedClassfile != null) {
+            return modifiedClassfile;
+        }
+
+        ClassReader cr = new ClassReader(originalClassfile);
+        CoverageModifier modifier = new CoverageModifier(cr);
+        cr.accept(modifier);
+        modifiedClassfile = modifier.toByteArray();
+
+        if (modifier.isModifiedIndependently()) {
+            writeEntry(entryFile, originalClassfile, modifier, modifiedClassfile);
+        }
+
+        return modifiedClassfile;
+    }
+
+    @Nonnull
+    private String computeKey(@Nonnull byte[] originalClassfile) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(jmockitVersion);
+            return HexFormat.of().formatHex(digest.digest(originalClassfile));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Reads the modified classfile from an existing cache entry, registering its coverage information in the
+     * {@link CoverageData}; nothing is used if some other class from the same source file was already modified.
+     */
+    @Nullable
+    private static byte[] readEntry(@Nonnull Path entryFile) {
+        if (!Files.isRegularFile(entryFile)) {
+            return null;
+        }
+
+        try {
+            CoverageDataInput input = CoverageDataInput.open(entryFile.toFile());
+            String sourceFileName = input.readString();
+            String kindOfTopLevelType = input.readString();
+            int[] fileIndexPositions = input.readIntArray();
+            byte[] modifiedClassfile = input.readBytes();
+
+            // noinspection ConstantConditions
+            FileCoverageData fileData = CoverageData.instance().getOrAddFile(sourceFileName, kindOfTopLevelType);
+
+            if (!fileData.hasNoStaticData()) {
+                return null;
+            }
+
+            fileData.readStaticData(input);
+
+            for (int position : fileIndexPositions) {
+                writeIndex(modifiedClassfile, position, fileData.index);
+            }
+
+            return modifiedClassfile;
+        } catch (IOException | RuntimeException ignore) {
+            return null;
+        }
+    }
+
+    private static void writeIndex(@Nonnull byte[] classfile, int position, int index) {
+        classfile[position] = (byte) (index >> 8);
+        classfile[position + 1] = (byte) index;
+    }
+
+    private static boolean holdsIndex(@Nonnull byte[] classfile, int position, int index) {
+        return position + 1 < classfile.length && classfile[position] == (byte) (index >> 8)
+                && classfile[position + 1] == (byte) index;
+    }
+
+    private static void writeEntry(@Nonnull Path entryFile, @Nonnull byte[] originalClassfile,
+            @Nonnull CoverageModifier modifier, @Nonnull byte[] modifiedClassfile) {
+        FileCoverageData fileData = modifier.getFileData();
+        assert fileData != null;
+        Path tempFile = null;
+
+        try {
+            int[] fileIndexPositions = findFileIndexPositions(originalClassfile, modifiedClassfile, fileData);
+
+            if (fileIndexPositions == null) {
+                return;
+            }
+
+            // Written to a separate file first, so that other JVMs never see a partially written entry.
+            tempFile = Files.createTempFile(entryFile.getParent(), "entry", ".tmp");
+
+            try (CoverageDataOutput output = new CoverageDataOutput(tempFile.toFile())) {
+                output.writeString(modifier.getSourceFileName());
+                output.writeString(fileData.kindOfTopLevelType);
+                output.writeIntArray(fileIndexPositions);
+                output.writeBytes(modifiedClassfile);
+                fileData.writeStaticData(output);
+            }
+
+            Files.move(tempFile, entryFile, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException ignore) {
+            deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * Finds the positions of the source file index in the modified classfile, by modifying the original classfile once
+     * more with a different index and comparing both versions. Every instruction pushing the index is a
+     * <code>sipush</code>, so the index occupies two bytes which differ in both versions.
+     */
+    @Nullable
+    private static int[] findFileIndexPositions(@Nonnull byte[] originalClassfile, @Nonnull byte[] modifiedClassfile,
+            @Nonnull FileCoverageData fileData) {
+        int index = fileData.index;
+
+        if (index > Short.MAX_VALUE) {
+            return null;
+        }
+
+        int alternateIndex = index ^ ALTERNATE_INDEX_BITS;
+        ClassReader cr = new ClassReader(originalClassfile);
+        CoverageModifier modifier = new CoverageModifier(cr,
+                new FileCoverageData(alternateIndex, fileData.kindOfTopLevelType));
+
+        cr.accept(modifier);
+        byte[] alternateClassfile = modifier.toByteArray();
+
+        if (alternateClassfile.length != modifiedClassfile.length) {
+            return null;
+        }
+
+        int[] positions = new int[16];
+        int positionCount = 0;
+
+        for (int i = 0; i < modifiedClassfile.length; i++) {
+            if (modifiedClassfile[i] != alternateClassfile[i]) {
+                if (!holdsIndex(modifiedClassfile, i, index) || !holdsIndex(alternateClassfile, i, alternateIndex)) {
+                    return null;
+                }
+
+                if (positionCount == positions.length) {
+                    positions = Arrays.copyOf(positions, 2 * positionCount);
+                }
+
+                positions[positionCount++] = i;
+                i++;
+            }
+        }
+
+        return Arrays.copyOf(positions, positionCount);
+    }
+
+    private static void deleteIfExists(@Nullable Path file) {
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ignore) {
+            }
+        }
+    }
+}
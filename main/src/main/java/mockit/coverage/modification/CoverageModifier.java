@@ -9,9 +9,12 @@ import static mockit.asm.jvmConstants.Access.ANNOTATION;
 import static mockit.asm.jvmConstants.Access.ENUM;
 import static mockit.asm.jvmConstants.Access.FINAL;
 import static mockit.asm.jvmConstants.Access.INTERFACE;
+import static mockit.asm.jvmConstants.Access.PRIVATE;
+import static mockit.asm.jvmConstants.Access.PUBLIC;
 import static mockit.asm.jvmConstants.Access.STATIC;
 import static mockit.asm.jvmConstants.Access.SUPER;
 import static mockit.asm.jvmConstants.Access.SYNTHETIC;
+import static mockit.asm.jvmConstants.Opcodes.RETURN;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -26,8 +29,11 @@ import mockit.asm.classes.WrappingClassVisitor;
 import mockit.asm.fields.FieldVisitor;
 import mockit.asm.methods.MethodVisitor;
 import mockit.asm.methods.MethodWriter;
+import mockit.asm.methods.WrappingMethodVisitor;
+import mockit.coverage.TestRun;
 import mockit.coverage.data.CoverageData;
 import mockit.coverage.data.FileCoverageData;
+import mockit.coverage.lines.ClassProbes;
 import mockit.internal.ClassFile;
 
 final class CoverageModifier extends WrappingClassVisitor {
@@ -48,24 +54,46 @@ final class CoverageModifier extends WrappingClassVisitor {
     private String sourceFileName;
     @Nullable
     private FileCoverageData fileData;
+    @Nullable
+    private final FileCoverageData detachedFileData;
+    private boolean firstClassInFile;
+    private boolean withNestedClasses;
     private final boolean forInnerClass;
     private boolean forEnumClass;
     @Nullable
     private String kindOfTopLevelType;
+    @Nonnull
+    private String className;
+    private boolean forInterface;
+    @Nullable
+    private ClassProbes probes;
+    private int classProbesIndex;
+    private boolean classInitializerFound;
 
     CoverageModifier(@Nonnull ClassReader cr) {
-        this(cr, false);
+        this(cr, false, null);
     }
 
-    private CoverageModifier(@Nonnull ClassReader cr, boolean forInnerClass) {
+    /**
+     * Creates a modifier which registers lines, branches, and fields in the given file data rather than in the one
+     * held by {@link CoverageData}, leaving the current coverage data untouched.
+     */
+    CoverageModifier(@Nonnull ClassReader cr, @Nonnull FileCoverageData detachedFileData) {
+        this(cr, false, detachedFileData);
+    }
+
+    private CoverageModifier(@Nonnull ClassReader cr, boolean forInnerClass,
+            @Nullable FileCoverageData detachedFileData) {
         super(new ClassWriter(cr));
         sourceFileName = "";
+        className = "";
         this.forInnerClass = forInnerClass;
+        this.detachedFileData = detachedFileData;
     }
 
     private CoverageModifier(@Nonnull ClassReader cr, @Nonnull CoverageModifier other,
             @Nullable String simpleClassName) {
-        this(cr, true);
+        this(cr, true, null);
         sourceFileName = other.sourceFileName;
         fileData = other.fileData;
         internalClassName = other.internalClassName;
@@ -102,6 +130,9 @@ final class CoverageModifier extends WrappingClassVisitor {
             createFileData(sourceFileDebugName);
         }
 
+        className = name;
+        forInterface = (access & INTERFACE) != 0;
+        createProbesIfApplicable();
         cw.visit(version, access, name, additionalInfo);
     }
 
@@ -157,7 +188,17 @@ final class CoverageModifier extends WrappingClassVisitor {
 
     private void createFileData(@Nonnull String sourceFileDebugName) {
         sourceFileName += sourceFileDebugName;
-        fileData = CoverageData.instance().getOrAddFile(sourceFileName, kindOfTopLevelType);
+        fileData = detachedFileData != null ? detachedFileData
+                : CoverageData.instance().getOrAddFile(sourceFileName, kindOfTopLevelType);
+        firstClassInFile = fileData.hasNoStaticData();
+    }
+
+    private void createProbesIfApplicable() {
+        if (fileData != null && TestRun.isRecordingWithProbes()) {
+            ClassProbes classProbes = new ClassProbes(fileData.lineCoverageInfo);
+            classProbesIndex = CoverageData.instance().addClassProbes(classProbes);
+            probes = classProbes;
+        }
     }
 
     @Override
@@ -169,6 +210,7 @@ final class CoverageModifier extends WrappingClassVisitor {
             return;
         }
 
+        withNestedClasses = true;
         String innerClassName = name.replace('/', '.');
 
         if (INNER_CLASS_MODIFIERS.containsKey(innerClassName)) {
@@ -196,6 +238,24 @@ final class CoverageModifier extends WrappingClassVisitor {
         return outerClassName.equals(internalClassName);
     }
 
+    @Nonnull
+    String getSourceFileName() {
+        return sourceFileName;
+    }
+
+    @Nullable
+    FileCoverageData getFileData() {
+        return fileData;
+    }
+
+    /**
+     * Whether the modified class had its coverage information registered on its own: it is the first class from its
+     * source file, with no nested classes, and not recording through probes.
+     */
+    boolean isModifiedIndependently() {
+        return fileData != null && firstClassInFile && !forInnerClass && !withNestedClasses && probes == null;
+    }
+
     @Override
     public FieldVisitor visitField(int access, @Nonnull String name, @Nonnull String desc, @Nullable String signature,
             @Nullable Object value) {
@@ -210,11 +270,33 @@ final class CoverageModifier extends WrappingClassVisitor {
     public MethodVisitor visitMethod(int access, @Nonnull String name, @Nonnull String desc, @Nullable String signature,
             @Nullable String[] exceptions) {
         MethodWriter mw = cw.visitMethod(access, name, desc, signature, exceptions);
+        boolean classInitializer = "<clinit>".equals(name);
+
+        if (classInitializer && probes != null) {
+            classInitializerFound = true;
+            MethodModifier.generateProbesInitialization(mw, classProbesIndex, className);
+        }
 
-        if ((access & SYNTHETIC) != 0 || fileData == null || "<clinit>".equals(name) && forEnumClass) {
-            return mw;
+        if ((access & SYNTHETIC) != 0 || fileData == null || classInitializer && forEnumClass) {
+            // The original code of a class initializer which got the probes initialization must still be visited.
+            return classInitializer && probes != null ? new WrappingMethodVisitor(mw) {} : mw;
         }
 
-        return new MethodModifier(mw, sourceFileName, fileData);
+        return new MethodModifier(mw, fileData, probes, className);
+    }
+
+    @Override
+    public void visitEnd() {
+        if (probes != null && (classInitializerFound || probes.hasProbes())) {
+            int fieldAccess = (forInterface ? PUBLIC : PRIVATE) + STATIC + FINAL + SYNTHETIC;
+            cw.visitField(fieldAccess, MethodModifier.PROBES_FIELD, "[Z", null, null);
+
+            if (!classInitializerFound) {
+                MethodWriter mw = cw.visitMethod(STATIC, "<clinit>", "()V", null, null);
+                MethodModifier.generateProbesInitialization(mw, classProbesIndex, className);
+                mw.visitInsn(RETURN);
+                mw.visitMaxStack(1);
+            }
+        }
     }
 }
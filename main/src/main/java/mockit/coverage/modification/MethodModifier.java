@@ -5,6 +5,7 @@
 package mockit.coverage.modification;
 
 import static mockit.asm.jvmConstants.Opcodes.ACONST_NULL;
+import static mockit.asm.jvmConstants.Opcodes.BASTORE;
 import static mockit.asm.jvmConstants.Opcodes.DCONST_0;
 import static mockit.asm.jvmConstants.Opcodes.DUP;
 import static mockit.asm.jvmConstants.Opcodes.DUP2_X1;
@@ -15,6 +16,7 @@ import static mockit.asm.jvmConstants.Opcodes.GETFIELD;
 import static mockit.asm.jvmConstants.Opcodes.GETSTATIC;
 import static mockit.asm.jvmConstants.Opcodes.GOTO;
 import static mockit.asm.jvmConstants.Opcodes.ICONST_0;
+import static mockit.asm.jvmConstants.Opcodes.ICONST_1;
 import static mockit.asm.jvmConstants.Opcodes.INVOKESPECIAL;
 import static mockit.asm.jvmConstants.Opcodes.INVOKESTATIC;
 import static mockit.asm.jvmConstants.Opcodes.INVOKEVIRTUAL;
@@ -35,29 +37,57 @@ import mockit.asm.controlFlow.Label;
 import mockit.asm.methods.MethodWriter;
 import mockit.asm.methods.WrappingMethodVisitor;
 import mockit.coverage.data.FileCoverageData;
+import mockit.coverage.lines.ClassProbes;
 import mockit.coverage.lines.PerFileLineCoverage;
 
 final class MethodModifier extends WrappingMethodVisitor {
     private static final String DATA_RECORDING_CLASS = "mockit/coverage/TestRun";
+    static final String PROBES_FIELD = "$CP";
 
-    @Nonnull
-    private final String sourceFileName;
     @Nonnull
     private final FileCoverageData fileData;
     @Nonnull
     private final PerFileLineCoverage lineCoverageInfo;
     @Nonnull
     private final CFGTracking cfgTracking;
+    @Nullable
+    private final ClassProbes probes;
+    @Nonnull
+    private final String probesOwner;
     private boolean foundInterestingInstruction;
     @Nonnegative
     int currentLine;
 
-    MethodModifier(@Nonnull MethodWriter mw, @Nonnull String sourceFileName, @Nonnull FileCoverageData fileData) {
+    MethodModifier(@Nonnull MethodWriter mw, @Nonnull FileCoverageData fileData, @Nullable ClassProbes probes,
+            @Nonnull String probesOwner) {
         super(mw);
-        this.sourceFileName = sourceFileName;
         this.fileData = fileData;
         lineCoverageInfo = fileData.getLineCoverageData();
         cfgTracking = new CFGTracking(lineCoverageInfo);
+        this.probes = probes;
+        this.probesOwner = probesOwner;
+    }
+
+    static void generateProbesInitialization(@Nonnull MethodWriter mw, @Nonnegative int classIndex,
+            @Nonnull String probesOwner) {
+        pushIntOnTheStack(mw, classIndex);
+        mw.visitMethodInsn(INVOKESTATIC, DATA_RECORDING_CLASS, "getProbes", "(I)[Z", false);
+        mw.visitFieldInsn(PUTSTATIC, probesOwner, PROBES_FIELD, "[Z");
+    }
+
+    private static void pushIntOnTheStack(@Nonnull MethodWriter mw, int value) {
+        if (value <= Short.MAX_VALUE) {
+            mw.visitIntInsn(SIPUSH, value);
+        } else {
+            mw.visitLdcInsn(value);
+        }
+    }
+
+    private void generateProbe(@Nonnegative int probeIndex) {
+        mw.visitFieldInsn(GETSTATIC, probesOwner, PROBES_FIELD, "[Z");
+        pushIntOnTheStack(mw, probeIndex);
+        mw.visitInsn(ICONST_1);
+        mw.visitInsn(BASTORE);
     }
 
     @Override
@@ -81,17 +111,18 @@ final class MethodModifier extends WrappingMethodVisitor {
     }
 
     private void generateCallToRegisterLineExecution() {
+        if (probes != null) {
+            generateProbe(probes.addLineProbe(currentLine));
+            return;
+        }
+
         mw.visitIntInsn(SIPUSH, fileData.index);
         pushCurrentLineOnTheStack();
         mw.visitMethodInsn(INVOKESTATIC, DATA_RECORDING_CLASS, "lineExecuted", "(II)V", false);
     }
 
     private void pushCurrentLineOnTheStack() {
-        if (currentLine <= Short.MAX_VALUE) {
-            mw.visitIntInsn(SIPUSH, currentLine);
-        } else {
-            mw.visitLdcInsn(currentLine);
-        }
+        pushIntOnTheStack(mw, currentLine);
     }
 
     @Override
@@ -119,6 +150,11 @@ final class MethodModifier extends WrappingMethodVisitor {
     }
 
     void generateCallToRegisterBranchTargetExecution(@Nonnegative int branchIndex) {
+        if (probes != null) {
+            generateProbe(probes.addBranchProbe(currentLine, branchIndex));
+            return;
+        }
+
         mw.visitIntInsn(SIPUSH, fileData.index);
         pushCurrentLineOnTheStack();
         mw.visitIntInsn(SIPUSH, branchIndex);
@@ -174,16 +210,17 @@ final class MethodModifier extends WrappingMethodVisitor {
         boolean isStatic = opcode == PUTSTATIC || opcode == GETSTATIC;
         char fieldType = desc.charAt(0);
         boolean size2 = fieldType == 'J' || fieldType == 'D';
-        String classAndFieldNames = null;
-        boolean fieldHasData = false;
+        int fieldIndex = -1;
 
         if (!owner.startsWith("java/")) {
-            classAndFieldNames = owner.substring(owner.lastIndexOf('/') + 1) + '.' + name;
-            fieldHasData = fileData.dataCoverageInfo.isFieldWithCoverageData(classAndFieldNames);
+            String classAndFieldNames = owner.substring(owner.lastIndexOf('/') + 1) + '.' + name;
+            fieldIndex = fileData.dataCoverageInfo.getFieldIndex(classAndFieldNames);
+        }
 
-            if (fieldHasData && !isStatic) {
-                generateCodeToSaveInstanceReferenceOnTheStack(getField, size2);
-            }
+        boolean fieldHasData = fieldIndex >= 0;
+
+        if (fieldHasData && !isStatic) {
+            generateCodeToSaveInstanceReferenceOnTheStack(getField, size2);
         }
 
         generateCallToRegisterBranchTargetExecutionIfPending();
@@ -194,7 +231,7 @@ final class MethodModifier extends WrappingMethodVisitor {
         }
 
         if (fieldHasData) {
-            generateCallToRegisterFieldCoverage(getField, isStatic, size2, classAndFieldNames);
+            generateCallToRegisterFieldCoverage(getField, isStatic, size2, fieldIndex);
         }
     }
 
@@ -218,7 +255,7 @@ final class MethodModifier extends WrappingMethodVisitor {
     }
 
     private void generateCallToRegisterFieldCoverage(boolean getField, boolean isStatic, boolean size2,
-            @Nonnull String classAndFieldNames) {
+            @Nonnegative int fieldIndex) {
         if (!isStatic && getField) {
             if (size2) {
                 mw.visitInsn(DUP2_X1);
@@ -229,12 +266,11 @@ final class MethodModifier extends WrappingMethodVisitor {
             }
         }
 
-        mw.visitLdcInsn(sourceFileName);
-        mw.visitLdcInsn(classAndFieldNames);
+        mw.visitIntInsn(SIPUSH, fileData.index);
+        pushIntOnTheStack(mw, fieldIndex);
 
         String methodToCall = getField ? "fieldRead" : "fieldAssigned";
-        String methodDesc = isStatic ? "(Ljava/lang/String;Ljava/lang/String;)V"
-                : "(Ljava/lang/Object;Ljava/lang/String;Ljava/lang/String;)V";
+        String methodDesc = isStatic ? "(II)V" : "(Ljava/lang/Object;II)V";
 
         mw.visitMethodInsn(INVOKESTATIC, DATA_RECORDING_CLASS, methodToCall, methodDesc, false);
     }
@@ -12,7 +12,11 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -24,6 +28,14 @@ import mockit.coverage.reporting.packages.IndexPage;
 import mockit.coverage.reporting.sourceFiles.FileCoverageReport;
 import mockit.coverage.reporting.sourceFiles.InputFile;
 
+/**
+ * Generates the HTML coverage report, with one page per source file plus the index page listing all packages.
+ * <p>
+ * The source file pages are written by a pool of worker threads, whose size is given by
+ * "<code>coverage-reportThreads</code>" (by default, the number of available processors); the index page is written
+ * only after all of them are done. With "<code>coverage-incremental=true</code>", source file pages which are
+ * unchanged since the previous report are not written again.
+ */
 public final class CoverageReport {
     @Nonnull
     private final String outputDir;
@@ -37,6 +49,9 @@ public final class CoverageReport {
     private final boolean withCallPoints;
     @Nullable
     private final Collection<String> sourceFilesNotFound;
+    @Nullable
+    private PageDigests pageDigests;
+    private final int reportThreads;
 
     public CoverageReport(@Nonnull String outputDir, boolean outputDirCreated, @Nullable String[] srcDirs,
             @Nonnull CoverageData coverageData, boolean withCallPoints) {
@@ -46,7 +61,9 @@ public final class CoverageReport {
         fileToFileData = coverageData.getFileToFileData();
         packageToFiles = new HashMap<>();
         this.withCallPoints = withCallPoints;
-        sourceFilesNotFound = srcDirs == null ? null : new ArrayList<>();
+        sourceFilesNotFound = srcDirs == null ? null : ConcurrentHashMap.newKeySet();
+        reportThreads = Integer.parseInt(
+                Configuration.getProperty("reportThreads", String.valueOf(Runtime.getRuntime().availableProcessors())));
     }
 
     public void generate() throws IOException {
@@ -64,8 +81,18 @@ public final class CoverageReport {
             System.out.println("JMockit: Coverage source dirs: " + sourceDirs);
         }
 
+        if (withSourceFilePages && "true".equals(Configuration.getProperty("incremental"))) {
+            pageDigests = new PageDigests(outputDir, withCallPoints);
+        }
+
         generateFileCoverageReportsWhileBuildingPackageLists();
 
+        if (pageDigests != null) {
+            pageDigests.save();
+            System.out.println("JMockit: " + pageDigests.getUnchangedPages() + " of " + fileToFileData.size()
+                    + " source file pages unchanged since the previous coverage report");
+        }
+
         new StaticFiles(outputDir).copyToOutputDir(withSourceFilePages);
         new IndexPage(outputFile, sourceDirs, sourceFilesNotFound, packageToFiles, fileToFileData).generate();
 
@@ -93,30 +120,88 @@ public final class CoverageReport {
     }
 
     private void generateFileCoverageReportsWhileBuildingPackageLists() throws IOException {
-        Set<Entry<String, FileCoverageData>> files = fileToFileData.entrySet();
+        if (sourceDirs == null || reportThreads <= 1 || fileToFileData.size() <= 1) {
+            for (Entry<String, FileCoverageData> fileAndFileData : fileToFileData.entrySet()) {
+                String sourceFile = fileAndFileData.getKey();
+                generateFileCoverageReport(sourceFile, fileAndFileData.getValue());
+                addFileToPackageFileList(sourceFile);
+            }
 
-        for (Entry<String, FileCoverageData> fileAndFileData : files) {
-            generateFileCoverageReport(fileAndFileData.getKey(), fileAndFileData.getValue());
+            return;
+        }
+
+        ExecutorService workers = Executors.newFixedThreadPool(Math.min(reportThreads, fileToFileData.size()),
+                runnable -> {
+                    Thread worker = new Thread(runnable, "JMockit coverage report");
+                    worker.setDaemon(true);
+                    return worker;
+                });
+
+        try {
+            List<Future<?>> pendingReports = new ArrayList<>(fileToFileData.size());
+
+            for (Entry<String, FileCoverageData> fileAndFileData : fileToFileData.entrySet()) {
+                String sourceFile = fileAndFileData.getKey();
+                FileCoverageData fileData = fileAndFileData.getValue();
+                pendingReports.add(workers.submit(() -> {
+                    generateFileCoverageReport(sourceFile, fileData);
+                    return null;
+                }));
+                addFileToPackageFileList(sourceFile);
+            }
+
+            waitForAll(pendingReports);
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private static void waitForAll(@Nonnull List<Future<?>> pendingReports) throws IOException {
+        try {
+            for (Future<?> pendingReport : pendingReports) {
+                pendingReport.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Coverage report generation interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+
+            throw (Error) cause;
         }
     }
 
     private void generateFileCoverageReport(@Nonnull String sourceFile, @Nonnull FileCoverageData fileData)
             throws IOException {
         if (sourceDirs != null) {
-            InputFile inputFile = InputFile.createIfFileExists(sourceDirs, sourceFile);
+            InputFile inputFile;
 
-            if (inputFile != null) {
-                new FileCoverageReport(outputDir, inputFile, fileData, withCallPoints).generate();
-            } else {
+            // Looking up a source file may reorder or add to the list of source dirs.
+            synchronized (sourceDirs) {
+                inputFile = InputFile.createIfFileExists(sourceDirs, sourceFile);
+            }
+
+            if (inputFile == null) {
                 deleteOutdatedHTMLFileIfExists(sourceFile);
 
                 if (sourceFilesNotFound != null) {
                     sourceFilesNotFound.add(sourceFile);
                 }
+            } else if (pageDigests != null
+                    && pageDigests.isPageUpToDate(outputDir, sourceFile, inputFile.getSourceFile(), fileData)) {
+                inputFile.close();
+            } else {
+                new FileCoverageReport(outputDir, inputFile, fileData, withCallPoints).generate();
             }
         }
-
-        addFileToPackageFileList(sourceFile);
     }
 
     private void addFileToPackageFileList(@Nonnull String file) {
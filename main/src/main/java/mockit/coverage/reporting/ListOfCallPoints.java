@@ -47,7 +47,7 @@ public final class ListOfCallPoints {
             StackTraceElement ste = nextCP.getStackTraceElement();
 
             if (nextCP.isSameTestMethod(currentCP)) {
-                content.append(", ").append(ste.getLineNumber());
+                appendLineNumberIfKnown(", ", ste);
             } else {
                 content.append("</li>").append(EOL);
                 appendTestMethod(ste);
@@ -63,8 +63,16 @@ public final class ListOfCallPoints {
     private void appendTestMethod(@Nonnull StackTraceElement current) {
         content.append("          <li>");
         content.append(current.getClassName()).append('#');
-        content.append(LESS_THAN_CHAR.matcher(current.getMethodName()).replaceFirst("&lt;")).append(": ");
-        content.append(current.getLineNumber());
+        content.append(LESS_THAN_CHAR.matcher(current.getMethodName()).replaceFirst("&lt;"));
+        appendLineNumberIfKnown(": ", current);
+    }
+
+    private void appendLineNumberIfKnown(@Nonnull String separator, @Nonnull StackTraceElement ste) {
+        int lineNumber = ste.getLineNumber();
+
+        if (lineNumber >= 0) {
+            content.append(separator).append(lineNumber);
+        }
     }
 
     private void appendRepetitionCountIfNeeded(@Nonnull CallPoint callPoint) {
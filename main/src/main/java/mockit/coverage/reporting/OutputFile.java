@@ -37,7 +37,8 @@ public final class OutputFile extends PrintWriter {
         File parentDir = outputFile.getParentFile();
 
         if (!parentDir.exists()) {
-            boolean outputDirCreated = parentDir.mkdirs();
+            // Another thread writing a file to the same dir may create it concurrently.
+            boolean outputDirCreated = parentDir.mkdirs() || parentDir.isDirectory();
             assert outputDirCreated : "Failed to create output dir: " + outputDir;
         }
 
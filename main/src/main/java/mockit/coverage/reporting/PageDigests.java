@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2006 JMockit developers
+ * This file is subject to the terms of the MIT license (see LICENSE.txt).
+ */
+package mockit.coverage.reporting;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+
+import mockit.coverage.data.FileCoverageData;
+import mockit.internal.util.Utilities;
+
+/**
+ * Digests of the source file (its path and contents) and of the coverage data from which each source file page of the
+ * HTML report was generated, kept in the report output dir between runs when "<code>coverage-incremental=true</code>".
+ * <p>
+ * A page is generated again only if it's missing or if either digest changed since the previous report; the index page
+ * is always generated. All pages are generated again if the JMockit build or the inclusion of call points is not the
+ * same as for the previous report, since those are the only other inputs of a source file page.
+ */
+final class PageDigests {
+    private static final String FILE_NAME = "pageDigests.txt";
+    private static final HexFormat HEX = HexFormat.of();
+
+    @Nonnull
+    private final File digestsFile;
+    @Nonnull
+    private final String header;
+    @Nonnull
+    private final Map<String, String> previousDigests;
+    @Nonnull
+    private final Map<String, String> currentDigests;
+    @Nonnull
+    private final AtomicInteger unchangedPages;
+
+    PageDigests(@Nonnull String outputDir, boolean withCallPoints) throws IOException {
+        digestsFile = new File(outputDir, FILE_NAME);
+        header = "jmockitVersion=" + Utilities.getJMockitVersion() + " withCallPoints=" + withCallPoints;
+        previousDigests = new HashMap<>();
+        currentDigests = new ConcurrentHashMap<>();
+        unchangedPages = new AtomicInteger();
+
+        if (digestsFile.exists()) {
+            readPreviousDigests();
+        }
+    }
+
+    private void readPreviousDigests() throws IOException {
+        try (BufferedReader input = Files.newBufferedReader(digestsFile.toPath(), UTF_8)) {
+            if (!header.equals(input.readLine())) {
+                return;
+            }
+
+            String line;
+
+            while ((line = input.readLine()) != null) {
+                int p = line.indexOf(' ', line.indexOf(' ') + 1);
+
+                if (p > 0) {
+                    previousDigests.put(line.substring(p + 1), line.substring(0, p));
+                }
+            }
+        }
+    }
+
+    /**
+     * Records the current digests for the given source file, and checks whether its page is still up-to-date.
+     *
+     * @return <code>true</code> if the page exists and was generated from the same source and coverage data
+     */
+    boolean isPageUpToDate(@Nonnull String outputDir, @Nonnull String filePath, @Nonnull File sourceFile,
+            @Nonnull FileCoverageData fileData) throws IOException {
+        MessageDigest digest = newDigest();
+        digest.update(sourceFile.getPath().getBytes(UTF_8));
+        String sourceDigest = HEX.formatHex(digest.digest(Files.readAllBytes(sourceFile.toPath())));
+        String dataDigest = HEX.formatHex(fileData.computeDigest(digest));
+        String digests = sourceDigest + ' ' + dataDigest;
+        currentDigests.put(filePath, digests);
+
+        boolean upToDate = digests.equals(previousDigests.get(filePath))
+                && OutputFile.getOutputFile(outputDir, filePath).exists();
+
+        if (upToDate) {
+            unchangedPages.incrementAndGet();
+        }
+
+        return upToDate;
+    }
+
+    @Nonnull
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Nonnegative
+    int getUnchangedPages() {
+        return unchangedPages.get();
+    }
+
+    void save() throws IOException {
+        try (PrintWriter output = new PrintWriter(digestsFile, UTF_8)) {
+            output.println(header);
+
+            for (Entry<String, String> fileAndDigests : new TreeMap<>(currentDigests).entrySet()) {
+                output.print(fileAndDigests.getValue());
+                output.print(' ');
+                output.println(fileAndDigests.getKey());
+            }
+        }
+    }
+}
@@ -106,6 +106,11 @@ public final class InputFile {
         input = new BufferedReader(new FileReader(sourceFile, StandardCharsets.UTF_8));
     }
 
+    @Nonnull
+    public File getSourceFile() {
+        return sourceFile;
+    }
+
     @Nonnull
     String getSourceFileName() {
         return sourceFile.getName();
@@ -122,7 +127,7 @@ public final class InputFile {
         return input.readLine();
     }
 
-    void close() throws IOException {
+    public void close() throws IOException {
         input.close();
     }
 }
@@ -7,15 +7,18 @@ package mockit.coverage.testRedundancy;
 import java.lang.reflect.Method;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import mockit.coverage.CallPointFinder;
 
 import org.junit.runner.Description;
 import org.junit.runner.notification.RunListener;
 
 public final class JUnitListener extends RunListener {
-    @Nonnull
+    @Nullable
     private final TestCoverage testCoverage;
 
-    public JUnitListener(@Nonnull TestCoverage testCoverage) {
+    public JUnitListener(@Nullable TestCoverage testCoverage) {
         this.testCoverage = testCoverage;
     }
 
@@ -27,7 +30,7 @@ public final class JUnitListener extends RunListener {
 
             for (Method testMethod : testClass.getDeclaredMethods()) {
                 if (testMethod.getName().equals(testMethodName)) {
-                    testCoverage.setCurrentTestMethod(testMethod);
+                    setCurrentTestMethod(testMethod);
                     return;
                 }
             }
@@ -37,7 +40,15 @@ public final class JUnitListener extends RunListener {
     @Override
     public void testFinished(@Nonnull Description description) {
         if (description.isTest()) {
-            testCoverage.setCurrentTestMethod(null);
+            setCurrentTestMethod(null);
         }
     }
+
+    private void setCurrentTestMethod(@Nullable Method testMethod) {
+        if (testCoverage != null) {
+            testCoverage.setCurrentTestMethod(testMethod);
+        }
+
+        CallPointFinder.setCurrentTestMethod(testMethod);
+    }
 }
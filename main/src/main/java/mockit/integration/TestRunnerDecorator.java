@@ -129,6 +129,7 @@ public class TestRunnerDecorator {
         TypeRedefinitions fieldTypeRedefinitions = TestRun.getFieldTypeRedefinitions();
 
         if (fieldTypeRedefinitions != null) {
+            clearTestedObjectsForTestClass();
             fieldTypeRedefinitions.cleanUp();
             TestRun.setFieldTypeRedefinitions(null);
         }
@@ -296,6 +297,20 @@ public class TestRunnerDecorator {
         }
     }
 
+    private static void clearTestedObjectsForTestClass() {
+        TestedClassInstantiations testedClasses = TestRun.getTestedClassInstantiations();
+
+        if (testedClasses != null) {
+            TestRun.enterNoMockingZone();
+
+            try {
+                testedClasses.clearTestedObjectsForTestClass();
+            } finally {
+                TestRun.exitNoMockingZone();
+            }
+        }
+    }
+
     protected static void clearTestedObjectsCreatedDuringSetup() {
         TestedClassInstantiations testedClasses = TestRun.getTestedClassInstantiations();
 
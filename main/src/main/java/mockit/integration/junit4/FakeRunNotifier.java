@@ -9,6 +9,7 @@ import javax.annotation.Nonnull;
 import mockit.Invocation;
 import mockit.Mock;
 import mockit.MockUp;
+import mockit.coverage.data.CoverageData;
 import mockit.coverage.testRedundancy.JUnitListener;
 import mockit.coverage.testRedundancy.TestCoverage;
 import mockit.integration.TestRunnerDecorator;
@@ -32,7 +33,7 @@ public final class FakeRunNotifier extends MockUp<RunNotifier> {
 
         TestCoverage testCoverage = TestCoverage.INSTANCE;
 
-        if (testCoverage != null) {
+        if (testCoverage != null || CoverageData.instance().isWithCallPoints()) {
             it.addListener(new JUnitListener(testCoverage));
         }
 
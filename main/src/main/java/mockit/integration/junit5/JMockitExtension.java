@@ -6,6 +6,7 @@ package mockit.integration.junit5;
 
 import static mockit.internal.util.StackTrace.filterStackTrace;
 
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.stream.Collectors;
@@ -17,15 +18,19 @@ import mockit.Capturing;
 import mockit.Injectable;
 import mockit.Mocked;
 import mockit.Tested;
+import mockit.coverage.CallPointFinder;
+import mockit.coverage.data.CoverageData;
 import mockit.integration.TestRunnerDecorator;
 import mockit.internal.expectations.RecordAndReplayExecution;
 import mockit.internal.state.SavePoint;
 import mockit.internal.state.TestRun;
+import mockit.internal.state.TestScope;
 import mockit.internal.util.Utilities;
 
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
 import org.junit.jupiter.api.extension.AfterAllCallback;
 import org.junit.jupiter.api.extension.AfterEachCallback;
 import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
@@ -33,54 +38,122 @@ import org.junit.jupiter.api.extension.BeforeAllCallback;
 import org.junit.jupiter.api.extension.BeforeEachCallback;
 import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
 import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ExtensionContext.Namespace;
+import org.junit.jupiter.api.extension.InvocationInterceptor;
 import org.junit.jupiter.api.extension.ParameterContext;
 import org.junit.jupiter.api.extension.ParameterResolver;
+import org.junit.jupiter.api.extension.ReflectiveInvocationContext;
 import org.junit.jupiter.api.extension.TestExecutionExceptionHandler;
 import org.junit.jupiter.api.extension.TestInstancePostProcessor;
 
+/**
+ * Integrates JMockit with JUnit 5.
+ * <p>
+ * The state for each test class and each test is kept in the {@link ExtensionContext.Store} of the corresponding
+ * context, rather than in the extension instance, which is shared by all test classes. When tests are executed
+ * concurrently (see {@link TestRun#CONCURRENT_TESTS}), each callback and each user method or constructor is executed
+ * with the {@link TestScope} of its test class bound to the current thread, and the tests of a given test class are
+ * executed one at a time.
+ */
 @SuppressWarnings("Since15")
 public final class JMockitExtension extends TestRunnerDecorator implements BeforeAllCallback, AfterAllCallback,
         TestInstancePostProcessor, BeforeEachCallback, AfterEachCallback, BeforeTestExecutionCallback,
-        AfterTestExecutionCallback, ParameterResolver, TestExecutionExceptionHandler {
-    @Nullable
-    private SavePoint savePointForTestClass;
-    @Nullable
-    private SavePoint savePointForTest;
-    @Nullable
-    private SavePoint savePointForTestMethod;
+        AfterTestExecutionCallback, ParameterResolver, TestExecutionExceptionHandler, InvocationInterceptor {
+    private static final Namespace NAMESPACE = Namespace.create(JMockitExtension.class);
+
+    private static final class ContextState {
+        @Nullable
+        SavePoint savePointForTestClass;
+        @Nullable
+        SavePoint savePointForTest;
+        @Nullable
+        SavePoint savePointForTestMethod;
+        @Nullable
+        Throwable thrownByTest;
+        Object[] parameterValues;
+        ParamValueInitContext initContext = new ParamValueInitContext(null, null, null,
+                "No callbacks have been processed, preventing parameter population");
+    }
+
+    @Nonnull
+    private static ContextState getState(@Nonnull ExtensionContext context) {
+        return context.getStore(NAMESPACE).getOrComputeIfAbsent(context.getUniqueId(), id -> new ContextState(),
+                ContextState.class);
+    }
+
+    /**
+     * Gets the scope of the test class for the given context, which nested test classes and tests share with their
+     * enclosing test class.
+     */
+    @Nonnull
+    private static TestScope getScope(@Nonnull ExtensionContext context) {
+        return context.getStore(NAMESPACE).getOrComputeIfAbsent(TestScope.class, c -> new TestScope(),
+                TestScope.class);
+    }
+
+    private static void inScope(@Nonnull ExtensionContext context, @Nonnull Runnable callback) {
+        if (!TestRun.CONCURRENT_TESTS) {
+            callback.run();
+            return;
+        }
+
+        TestScope previousScope = TestRun.bindScope(getScope(context));
+
+        try {
+            callback.run();
+        } finally {
+            TestRun.bindScope(previousScope);
+        }
+    }
+
     @Nullable
-    private Throwable thrownByTest;
-    private Object[] parameterValues;
-    private ParamValueInitContext initContext = new ParamValueInitContext(null, null, null,
-            "No callbacks have been processed, preventing parameter population");
+    private static <T> T proceedInScope(@Nonnull Invocation<T> invocation, @Nonnull ExtensionContext context)
+            throws Throwable {
+        if (!TestRun.CONCURRENT_TESTS) {
+            return invocation.proceed();
+        }
+
+        TestScope previousScope = TestRun.bindScope(getScope(context));
+
+        try {
+            return invocation.proceed();
+        } finally {
+            TestRun.bindScope(previousScope);
+        }
+    }
 
     @Override
     public void beforeAll(@Nonnull ExtensionContext context) {
         if (isRegularTestClass(context)) {
-            @Nullable
-            Class<?> testClass = context.getTestClass().orElse(null);
-            savePointForTestClass = new SavePoint();
-            TestRun.setCurrentTestClass(testClass);
+            inScope(context, () -> handleBeforeAll(context));
+        }
+    }
 
-            if (testClass == null) {
-                initContext = new ParamValueInitContext(null, null, null,
-                        "@BeforeAll setup failed to acquire 'Class' of test");
-                return;
-            }
+    private void handleBeforeAll(@Nonnull ExtensionContext context) {
+        ContextState state = getState(context);
+        @Nullable
+        Class<?> testClass = context.getTestClass().orElse(null);
+        state.savePointForTestClass = new SavePoint();
+        TestRun.setCurrentTestClass(testClass);
 
-            // @BeforeAll can be used on instance methods depending on @TestInstance(PER_CLASS) usage
-            Object testInstance = context.getTestInstance().orElse(null);
-            Method beforeAllMethod = Utilities.getAnnotatedDeclaredMethod(testClass, BeforeAll.class);
-            if (testInstance == null) {
-                initContext = new ParamValueInitContext(null, testClass, beforeAllMethod,
-                        "@BeforeAll setup failed to acquire instance of test class");
-                return;
-            }
+        if (testClass == null) {
+            state.initContext = new ParamValueInitContext(null, null, null,
+                    "@BeforeAll setup failed to acquire 'Class' of test");
+            return;
+        }
 
-            if (beforeAllMethod != null) {
-                initContext = new ParamValueInitContext(testInstance, testClass, beforeAllMethod, null);
-                parameterValues = createInstancesForAnnotatedParameters(testInstance, beforeAllMethod, null);
-            }
+        // @BeforeAll can be used on instance methods depending on @TestInstance(PER_CLASS) usage
+        Object testInstance = context.getTestInstance().orElse(null);
+        Method beforeAllMethod = Utilities.getAnnotatedDeclaredMethod(testClass, BeforeAll.class);
+        if (testInstance == null) {
+            state.initContext = new ParamValueInitContext(null, testClass, beforeAllMethod,
+                    "@BeforeAll setup failed to acquire instance of test class");
+            return;
+        }
+
+        if (beforeAllMethod != null) {
+            state.initContext = new ParamValueInitContext(testInstance, testClass, beforeAllMethod, null);
+            state.parameterValues = createInstancesForAnnotatedParameters(testInstance, beforeAllMethod, null);
         }
     }
 
@@ -92,45 +165,63 @@ public final class JMockitExtension extends TestRunnerDecorator implements Befor
     @Override
     public void postProcessTestInstance(@Nonnull Object testInstance, @Nonnull ExtensionContext context) {
         if (isRegularTestClass(context)) {
-            TestRun.enterNoMockingZone();
+            inScope(context, () -> handleTestInstance(testInstance, context));
+        }
+    }
 
-            try {
-                handleMockFieldsForWholeTestClass(testInstance);
-            } finally {
-                TestRun.exitNoMockingZone();
-            }
+    private void handleTestInstance(@Nonnull Object testInstance, @Nonnull ExtensionContext context) {
+        if (TestRun.CONCURRENT_TESTS && context.getTestInstanceLifecycle().orElse(null) == Lifecycle.PER_METHOD) {
+            // A new test instance is created for each test, so the test has to start here.
+            TestRun.getScope().startTest();
+        }
 
-            TestRun.setRunningIndividualTest(testInstance);
+        TestRun.enterNoMockingZone();
+
+        try {
+            handleMockFieldsForWholeTestClass(testInstance);
+        } finally {
+            TestRun.exitNoMockingZone();
         }
+
+        TestRun.setRunningIndividualTest(testInstance);
     }
 
     @Override
     public void beforeEach(@Nonnull ExtensionContext context) {
+        inScope(context, () -> handleBeforeEach(context));
+    }
+
+    private void handleBeforeEach(@Nonnull ExtensionContext context) {
+        ContextState state = getState(context);
         Object testInstance = context.getTestInstance().orElse(null);
         Class<?> testClass = context.getTestClass().orElse(null);
         if (testInstance == null) {
-            initContext = new ParamValueInitContext(null, null, null,
+            state.initContext = new ParamValueInitContext(null, null, null,
                     "@BeforeEach setup failed to acquire instance of test class");
             return;
         }
 
+        if (TestRun.CONCURRENT_TESTS) {
+            TestRun.getScope().startTest();
+        }
+
         TestRun.prepareForNextTest();
         TestRun.enterNoMockingZone();
 
         try {
-            savePointForTest = new SavePoint();
+            state.savePointForTest = new SavePoint();
             createInstancesForTestedFieldsBeforeSetup(testInstance);
 
             if (testClass == null) {
-                initContext = new ParamValueInitContext(null, null, null,
+                state.initContext = new ParamValueInitContext(null, null, null,
                         "@BeforeEach setup failed to acquire Class<?> of test");
                 return;
             }
 
             Method beforeEachMethod = Utilities.getAnnotatedDeclaredMethod(testClass, BeforeEach.class);
             if (beforeEachMethod != null) {
-                initContext = new ParamValueInitContext(testInstance, testClass, beforeEachMethod, null);
-                parameterValues = createInstancesForAnnotatedParameters(testInstance, beforeEachMethod, null);
+                state.initContext = new ParamValueInitContext(testInstance, testClass, beforeEachMethod, null);
+                state.parameterValues = createInstancesForAnnotatedParameters(testInstance, beforeEachMethod, null);
             }
         } finally {
             TestRun.exitNoMockingZone();
@@ -139,12 +230,17 @@ public final class JMockitExtension extends TestRunnerDecorator implements Befor
 
     @Override
     public void beforeTestExecution(@Nonnull ExtensionContext context) {
+        inScope(context, () -> handleBeforeTestExecution(context));
+    }
+
+    private void handleBeforeTestExecution(@Nonnull ExtensionContext context) {
+        ContextState state = getState(context);
         Class<?> testClass = context.getTestClass().orElse(null);
         Method testMethod = context.getTestMethod().orElse(null);
         Object testInstance = context.getTestInstance().orElse(null);
 
         if (testMethod == null || testInstance == null) {
-            initContext = new ParamValueInitContext(testInstance, testClass, testMethod,
+            state.initContext = new ParamValueInitContext(testInstance, testClass, testMethod,
                     "@Test failed to acquire instance of test class, or target method");
             return;
         }
@@ -152,16 +248,20 @@ public final class JMockitExtension extends TestRunnerDecorator implements Befor
         TestRun.enterNoMockingZone();
 
         try {
-            savePointForTestMethod = new SavePoint();
+            state.savePointForTestMethod = new SavePoint();
             createInstancesForTestedFieldsFromBaseClasses(testInstance);
-            initContext = new ParamValueInitContext(testInstance, testClass, testMethod, null);
-            parameterValues = createInstancesForAnnotatedParameters(testInstance, testMethod, null);
+            state.initContext = new ParamValueInitContext(testInstance, testClass, testMethod, null);
+            state.parameterValues = createInstancesForAnnotatedParameters(testInstance, testMethod, null);
             createInstancesForTestedFields(testInstance);
         } finally {
             TestRun.exitNoMockingZone();
         }
 
         TestRun.setRunningIndividualTest(testInstance);
+
+        if (CoverageData.instance().isWithCallPoints()) {
+            CallPointFinder.setCurrentTestMethod(testMethod);
+        }
     }
 
     @Override
@@ -174,8 +274,10 @@ public final class JMockitExtension extends TestRunnerDecorator implements Befor
     @Override
     public Object resolveParameter(@Nonnull ParameterContext parameterContext,
             @Nonnull ExtensionContext extensionContext) {
+        ContextState state = getState(extensionContext);
         int parameterIndex = parameterContext.getIndex();
-        if (parameterValues == null) {
+        if (state.parameterValues == null) {
+            ParamValueInitContext initContext = state.initContext;
             String warning = initContext.warning;
             StringBuilder exceptionMessage = new StringBuilder(
                     "JMockit failed to provide parameters to JUnit 5 ParameterResolver.");
@@ -186,27 +288,37 @@ public final class JMockitExtension extends TestRunnerDecorator implements Befor
             exceptionMessage.append("\n - Method: ").append(initContext.displayMethod());
             throw new IllegalStateException(exceptionMessage.toString());
         }
-        return parameterValues[parameterIndex];
+        return state.parameterValues[parameterIndex];
     }
 
     @Override
     public void handleTestExecutionException(@Nonnull ExtensionContext context, @Nonnull Throwable throwable)
             throws Throwable {
-        thrownByTest = throwable;
+        getState(context).thrownByTest = throwable;
         throw throwable;
     }
 
     @Override
     public void afterTestExecution(@Nonnull ExtensionContext context) {
-        if (savePointForTestMethod != null) {
+        inScope(context, () -> handleAfterTestExecution(context));
+    }
+
+    private void handleAfterTestExecution(@Nonnull ExtensionContext context) {
+        ContextState state = getState(context);
+
+        if (CoverageData.instance().isWithCallPoints()) {
+            CallPointFinder.setCurrentTestMethod(null);
+        }
+
+        if (state.savePointForTestMethod != null) {
             TestRun.enterNoMockingZone();
 
             try {
-                savePointForTestMethod.rollback();
-                savePointForTestMethod = null;
+                state.savePointForTestMethod.rollback();
+                state.savePointForTestMethod = null;
 
-                if (thrownByTest != null) {
-                    filterStackTrace(thrownByTest);
+                if (state.thrownByTest != null) {
+                    filterStackTrace(state.thrownByTest);
                 }
 
                 Error expectationsFailure = RecordAndReplayExecution.endCurrentReplayIfAny();
@@ -225,23 +337,102 @@ public final class JMockitExtension extends TestRunnerDecorator implements Befor
 
     @Override
     public void afterEach(@Nonnull ExtensionContext context) {
-        if (savePointForTest != null) {
-            savePointForTest.rollback();
-            savePointForTest = null;
+        inScope(context, () -> handleAfterEach(context));
+    }
+
+    private static void handleAfterEach(@Nonnull ExtensionContext context) {
+        ContextState state = getState(context);
+
+        try {
+            if (state.savePointForTest != null) {
+                state.savePointForTest.rollback();
+                state.savePointForTest = null;
+            }
+        } finally {
+            if (TestRun.CONCURRENT_TESTS) {
+                TestRun.getScope().finishTest();
+            }
         }
     }
 
     @Override
     public void afterAll(@Nonnull ExtensionContext context) {
-        if (savePointForTestClass != null && isRegularTestClass(context)) {
-            savePointForTestClass.rollback();
-            savePointForTestClass = null;
+        if (isRegularTestClass(context)) {
+            inScope(context, () -> handleAfterAll(context));
+        }
+    }
+
+    private void handleAfterAll(@Nonnull ExtensionContext context) {
+        ContextState state = getState(context);
+
+        if (state.savePointForTestClass != null) {
+            state.savePointForTestClass.rollback();
+            state.savePointForTestClass = null;
 
             clearFieldTypeRedefinitions();
             TestRun.setCurrentTestClass(null);
         }
     }
 
+    // Methods which execute user code with the scope of the test class bound to the current thread, when tests are
+    // executed concurrently.
+
+    @Override
+    public <T> T interceptTestClassConstructor(@Nonnull Invocation<T> invocation,
+            @Nonnull ReflectiveInvocationContext<Constructor<T>> invocationContext,
+            @Nonnull ExtensionContext extensionContext) throws Throwable {
+        return proceedInScope(invocation, extensionContext);
+    }
+
+    @Override
+    public void interceptBeforeAllMethod(@Nonnull Invocation<Void> invocation,
+            @Nonnull ReflectiveInvocationContext<Method> invocationContext,
+            @Nonnull ExtensionContext extensionContext) throws Throwable {
+        proceedInScope(invocation, extensionContext);
+    }
+
+    @Override
+    public void interceptBeforeEachMethod(@Nonnull Invocation<Void> invocation,
+            @Nonnull ReflectiveInvocationContext<Method> invocationContext,
+            @Nonnull ExtensionContext extensionContext) throws Throwable {
+        proceedInScope(invocation, extensionContext);
+    }
+
+    @Override
+    public void interceptTestMethod(@Nonnull Invocation<Void> invocation,
+            @Nonnull ReflectiveInvocationContext<Method> invocationContext,
+            @Nonnull ExtensionContext extensionContext) throws Throwable {
+        proceedInScope(invocation, extensionContext);
+    }
+
+    @Override
+    public void interceptTestTemplateMethod(@Nonnull Invocation<Void> invocation,
+            @Nonnull ReflectiveInvocationContext<Method> invocationContext,
+            @Nonnull ExtensionContext extensionContext) throws Throwable {
+        proceedInScope(invocation, extensionContext);
+    }
+
+    @Override
+    public <T> T interceptTestFactoryMethod(@Nonnull Invocation<T> invocation,
+            @Nonnull ReflectiveInvocationContext<Method> invocationContext,
+            @Nonnull ExtensionContext extensionContext) throws Throwable {
+        return proceedInScope(invocation, extensionContext);
+    }
+
+    @Override
+    public void interceptAfterEachMethod(@Nonnull Invocation<Void> invocation,
+            @Nonnull ReflectiveInvocationContext<Method> invocationContext,
+            @Nonnull ExtensionContext extensionContext) throws Throwable {
+        proceedInScope(invocation, extensionContext);
+    }
+
+    @Override
+    public void interceptAfterAllMethod(@Nonnull Invocation<Void> invocation,
+            @Nonnull ReflectiveInvocationContext<Method> invocationContext,
+            @Nonnull ExtensionContext extensionContext) throws Throwable {
+        proceedInScope(invocation, extensionContext);
+    }
+
     private static class ParamValueInitContext {
         private final Object instance;
         private final Class<?> clazz;
@@ -12,6 +12,8 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 import mockit.Expectations;
+import mockit.coverage.CallPointFinder;
+import mockit.coverage.data.CoverageData;
 import mockit.coverage.testRedundancy.TestCoverage;
 import mockit.integration.TestRunnerDecorator;
 import mockit.internal.state.SavePoint;
@@ -88,6 +90,10 @@ public final class TestNGRunnerDecorator extends TestRunnerDecorator
         if (testCoverage != null) {
             testCoverage.setCurrentTestMethod(testMethod);
         }
+
+        if (CoverageData.instance().isWithCallPoints()) {
+            CallPointFinder.setCurrentTestMethod(testMethod);
+        }
     }
 
     private void beforeConfigurationMethod(@Nonnull ITestNGMethod method, @Nonnull Class<?> testClass) {
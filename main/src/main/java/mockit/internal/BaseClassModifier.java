@@ -44,7 +44,9 @@ import mockit.asm.types.JavaType;
 import mockit.asm.types.ObjectType;
 import mockit.asm.types.PrimitiveType;
 import mockit.asm.types.ReferenceType;
+import mockit.asm.util.MethodHandle;
 import mockit.internal.expectations.ExecutionMode;
+import mockit.internal.expectations.MockedMethodCallSites;
 import mockit.internal.state.TestRun;
 import mockit.internal.util.ClassLoad;
 import mockit.internal.util.TypeConversionBytecode;
@@ -52,6 +54,8 @@ import mockit.internal.util.TypeConversionBytecode;
 public class BaseClassModifier extends WrappingClassVisitor {
     private static final int METHOD_ACCESS_MASK = 0xFFFF - Access.ABSTRACT - Access.NATIVE;
     protected static final JavaType VOID_TYPE = ObjectType.create("java/lang/Void");
+    private static final MethodHandle INTERCEPTION_BOOTSTRAP = new MethodHandle(MethodHandle.Tag.TAG_INVOKESTATIC,
+            "mockit/internal/expectations/MockedMethodCallSites", "bootstrap", MockedMethodCallSites.BOOTSTRAP_DESC);
 
     @Nonnull
     protected final MethodVisitor methodAnnotationsVisitor = new MethodVisitor() {
@@ -64,6 +68,7 @@ public class BaseClassModifier extends WrappingClassVisitor {
     protected MethodWriter mw;
     protected boolean useClassLoadingBridge;
     protected String superClassName;
+    private int classVersion;
     protected String classDesc;
     protected int methodAccess;
     protected String methodName;
@@ -90,6 +95,7 @@ public class BaseClassModifier extends WrappingClassVisitor {
         }
 
         cw.visit(modifiedVersion, access, name, additionalInfo);
+        classVersion = modifiedVersion & 0xFFFF;
         superClassName = additionalInfo.superName;
         classDesc = name;
     }
@@ -122,6 +128,11 @@ public class BaseClassModifier extends WrappingClassVisitor {
 
     protected final void generateDirectCallToHandler(@Nonnull String className, int access, @Nonnull String name,
             @Nonnull String desc, @Nullable String genericSignature, @Nonnull ExecutionMode executionMode) {
+        if (MockedMethodCallSites.ENABLED && classVersion >= ClassVersion.V7) {
+            generateInvokeDynamicCallToHandler(className, access, name, desc, genericSignature, executionMode);
+            return;
+        }
+
         // First argument: the mock instance, if any.
         boolean isStatic = generateCodeToPassThisOrNullIfStaticMethod(access);
 
@@ -156,6 +167,35 @@ public class BaseClassModifier extends WrappingClassVisitor {
                 false);
     }
 
+    /**
+     * Generates an <code>invokedynamic</code> instruction taking the mock instance (or null) and the method parameters
+     * as they are, with everything else about the mocked method passed to the bootstrap method. Only used for class
+     * files of version 51 or newer, where <code>invokedynamic</code> is available and stack map frames get computed.
+     * <p>
+     * Reference parameters are passed as <code>Object</code>, since the given descriptor can be that of a method
+     * overridden by the one being generated (a bridge method, for example), whose parameter types are narrower.
+     */
+    private void generateInvokeDynamicCallToHandler(@Nonnull String className, int access, @Nonnull String name,
+            @Nonnull String desc, @Nullable String genericSignature, @Nonnull ExecutionMode executionMode) {
+        generateCodeToPassThisOrNullIfStaticMethod(access);
+
+        JavaType[] argTypes = JavaType.getArgumentTypes(desc);
+        StringBuilder callSiteDesc = new StringBuilder(desc.length() + 20).append("(Ljava/lang/Object;");
+        int varIndex = isStatic(access) ? 0 : 1;
+
+        for (JavaType argType : argTypes) {
+            mw.visitVarInsn(argType.getOpcode(ILOAD), varIndex);
+            callSiteDesc.append(argType instanceof ReferenceType ? "Ljava/lang/Object;" : argType.getDescriptor());
+            varIndex += argType.getSize();
+        }
+
+        callSiteDesc.append(")Ljava/lang/Object;");
+
+        String signature = genericSignature == null ? MockedMethodCallSites.NO_SIGNATURE : genericSignature;
+        mw.visitInvokeDynamicInsn("recordOrReplay", callSiteDesc.toString(), INTERCEPTION_BOOTSTRAP, access,
+                className, name + desc, signature, executionMode.ordinal());
+    }
+
     private void generateInstructionToLoadNullableString(@Nullable String text) {
         if (text == null) {
             mw.visitInsn(ACONST_NULL);
@@ -23,6 +23,7 @@ import mockit.internal.ClassFile;
 import mockit.internal.ClassIdentification;
 import mockit.internal.startup.Startup;
 import mockit.internal.state.TestRun;
+import mockit.internal.state.TestScope;
 
 public final class CaptureTransformer<M> implements ClassFileTransformer {
     @Nonnull
@@ -37,6 +38,8 @@ public final class CaptureTransformer<M> implements ClassFileTransformer {
     private final Map<String, Boolean> superTypesSearched;
     @Nullable
     private final M typeMetadata;
+    @Nonnull
+    private final TestScope scope;
     private boolean inactive;
 
     CaptureTransformer(@Nonnull CapturedType capturedType,
@@ -49,6 +52,7 @@ public final class CaptureTransformer<M> implements ClassFileTransformer {
                 : Collections.<ClassIdentification, byte[]>emptyMap();
         superTypesSearched = new HashMap<>();
         this.typeMetadata = typeMetadata;
+        scope = TestRun.getScope();
     }
 
     public void deactivate() {
@@ -152,7 +156,7 @@ public final class CaptureTransformer<M> implements ClassFileTransformer {
         byte[] originalBytecode = cr.getBytecode();
 
         if (transformedClasses == Collections.<ClassIdentification, byte[]>emptyMap()) {
-            TestRun.mockFixture().addTransformedClass(classId, originalBytecode);
+            TestRun.mockFixture().addTransformedClass(scope, classId, originalBytecode);
         } else {
             transformedClasses.put(classId, originalBytecode);
         }
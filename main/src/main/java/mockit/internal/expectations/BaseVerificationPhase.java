@@ -5,6 +5,7 @@
 package mockit.internal.expectations;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -77,6 +78,40 @@ public abstract class BaseVerificationPhase extends TestOnlyPhase {
     abstract List<ExpectedInvocation> findExpectation(@Nullable Object mock, @Nonnull String mockClassDesc,
             @Nonnull String mockNameAndDesc, @Nonnull Object[] args);
 
+    /**
+     * Finds the indices in the replay log, in replay order and from the given one onwards, of the replayed invocations
+     * which can match the given invocation being verified: those for expectations on the same mocked method and
+     * instance, leaving only their arguments to be matched.
+     */
+    @Nonnull
+    final int[] findCandidateReplayIndices(@Nullable Object mock, @Nonnull String mockClassDesc,
+            @Nonnull String mockNameAndDesc, @Nonnegative int fromIndex) {
+        Map<Object, Object> replacementMap = getReplacementMap();
+        List<ReplayPhase.InvocationIndices> candidates = new ArrayList<>();
+        int maxCandidateCount = 0;
+
+        for (ReplayPhase.InvocationIndices indices : replayPhase.getInvocationIndicesForMethod(mockNameAndDesc)) {
+            if (indices.expectation.invocation.isMatch(mock, mockClassDesc, mockNameAndDesc, replacementMap)) {
+                candidates.add(indices);
+                maxCandidateCount += indices.size();
+            }
+        }
+
+        int[] candidateIndices = new int[maxCandidateCount];
+        int candidateCount = 0;
+
+        for (ReplayPhase.InvocationIndices indices : candidates) {
+            candidateCount = indices.copyTo(candidateIndices, candidateCount, fromIndex);
+        }
+
+        if (candidates.size() > 1) {
+            Arrays.sort(candidateIndices, 0, candidateCount);
+        }
+
+        return candidateCount == maxCandidateCount ? candidateIndices
+                : Arrays.copyOf(candidateIndices, candidateCount);
+    }
+
     final boolean matches(@Nullable Object mock, @Nonnull String mockClassDesc, @Nonnull String mockNameAndDesc,
             @Nonnull Object[] args, @Nonnull Expectation replayExpectation, @Nullable Object replayInstance,
             @Nonnull Object[] replayArgs) {
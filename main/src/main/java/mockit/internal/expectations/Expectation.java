@@ -45,6 +45,14 @@ final class Expectation {
         return results;
     }
 
+    /**
+     * Whether replayed invocations can be matched to this expectation concurrently from multiple threads, which is the
+     * case for recorded expectations with recorded results and no upper invocation limit.
+     */
+    boolean isReplayableConcurrently() {
+        return recordPhase != null && results != null && !constraints.hasUpperLimit();
+    }
+
     @Nullable
     Object produceResult(@Nullable Object invokedObject, @Nonnull Object[] invocationArgs) throws Throwable {
         if (results == null) {
@@ -5,7 +5,9 @@
 package mockit.internal.expectations;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
@@ -32,6 +34,7 @@ final class FullVerificationPhase extends UnorderedVerificationPhase {
         }
 
         List<Expectation> expectationsInReplayOrder = replayPhase.invocations;
+        Map<Expectation, List<VerifiedExpectation>> verificationsByExpectation = groupVerifiedExpectations();
         List<Expectation> notVerified = new ArrayList<>();
 
         for (int i = 0, n = expectationsInReplayOrder.size(); i < n; i++) {
@@ -39,8 +42,9 @@ final class FullVerificationPhase extends UnorderedVerificationPhase {
 
             if (replayExpectation != null && isEligibleForFullVerification(replayExpectation)) {
                 Object[] replayArgs = replayPhase.invocationArguments.get(i);
+                List<VerifiedExpectation> verifications = verificationsByExpectation.get(replayExpectation);
 
-                if (!wasVerified(replayExpectation, replayArgs, i)) {
+                if (!wasVerified(replayExpectation, replayArgs, i, verifications)) {
                     notVerified.add(replayExpectation);
                 }
             }
@@ -58,17 +62,27 @@ final class FullVerificationPhase extends UnorderedVerificationPhase {
         return null;
     }
 
+    @Nonnull
+    private Map<Expectation, List<VerifiedExpectation>> groupVerifiedExpectations() {
+        Map<Expectation, List<VerifiedExpectation>> verificationsByExpectation = new IdentityHashMap<>();
+
+        for (VerifiedExpectation verified : executionState.verifiedExpectations) {
+            verificationsByExpectation.computeIfAbsent(verified.expectation, e -> new ArrayList<>()).add(verified);
+        }
+
+        return verificationsByExpectation;
+    }
+
     private static boolean isEligibleForFullVerification(@Nonnull Expectation replayExpectation) {
         return !replayExpectation.executedRealImplementation && replayExpectation.constraints.minInvocations <= 0;
     }
 
     private boolean wasVerified(@Nonnull Expectation replayExpectation, @Nonnull Object[] replayArgs,
-            @Nonnegative int expectationIndex) {
+            @Nonnegative int expectationIndex, @Nullable List<VerifiedExpectation> verifications) {
         InvocationArguments invokedArgs = replayExpectation.invocation.arguments;
-        List<VerifiedExpectation> verifiedExpectations = executionState.verifiedExpectations;
 
-        for (VerifiedExpectation verified : verifiedExpectations) {
-            if (verified.expectation == replayExpectation) {
+        if (verifications != null) {
+            for (VerifiedExpectation verified : verifications) {
                 Object[] storedArgs = invokedArgs.prepareForVerification(verified.arguments, verified.argMatchers);
                 boolean argumentsMatch = invokedArgs.isMatch(replayArgs, getInstanceMap());
                 invokedArgs.setValuesWithNoMatchers(storedArgs);
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2006 JMockit developers
+ * This file is subject to the terms of the MIT license (see LICENSE.txt).
+ */
+package mockit.internal.expectations;
+
+import static java.lang.invoke.MethodType.methodType;
+
+import static mockit.internal.util.Utilities.NO_ARGS;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.ConstantCallSite;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+
+/**
+ * Bootstrap method for the <code>invokedynamic</code> instructions which intercept calls to mocked methods, emitted
+ * instead of a static call to {@link RecordAndReplayExecution} when "<code>-DinvokedynamicInterception=true</code>" is
+ * specified.
+ * <p>
+ * Each call site is bound once, to a method handle which already holds the description of the mocked method (access
+ * flags, class, name and descriptor, generic signature, and mode of execution), and which collects the invocation
+ * arguments into an array only when the call site is executed. Call sites are constant, since mocked classes get
+ * redefined whenever their mocking changes.
+ */
+public final class MockedMethodCallSites {
+    public static final boolean ENABLED = Boolean.getBoolean("invokedynamicInterception");
+
+    public static final String BOOTSTRAP_DESC = "(Ljava/lang/invoke/MethodHandles$Lookup;Ljava/lang/String;"
+            + "Ljava/lang/invoke/MethodType;ILjava/lang/String;Ljava/lang/String;Ljava/lang/String;I)"
+            + "Ljava/lang/invoke/CallSite;";
+
+    /**
+     * Stands for the absence of a generic signature, since bootstrap method arguments can't be null.
+     */
+    public static final String NO_SIGNATURE = "";
+
+    @Nonnull
+    private static final MethodHandle RECORD_OR_REPLAY;
+
+    static {
+        MethodType recordOrReplayType = methodType(Object.class, Object.class, int.class, String.class, String.class,
+                String.class, ExecutionMode.class, Object[].class);
+
+        try {
+            RECORD_OR_REPLAY = MethodHandles.lookup().findStatic(RecordAndReplayExecution.class, "recordOrReplay",
+                    recordOrReplayType);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private MockedMethodCallSites() {
+    }
+
+    /**
+     * Only to be called by the JVM, when linking a call site in a mocked method.
+     *
+     * @param type
+     *            the mock instance (or null for a static method) followed by the parameters of the mocked method, and
+     *            the <code>Object</code> return type
+     */
+    @Nonnull
+    public static CallSite bootstrap(@Nonnull MethodHandles.Lookup caller, @Nonnull String name,
+            @Nonnull MethodType type, int mockAccess, @Nonnull String classDesc, @Nonnull String mockDesc,
+            @Nonnull String genericSignature, @Nonnegative int executionModeOrdinal) {
+        ExecutionMode executionMode = ExecutionMode.values()[executionModeOrdinal];
+        String signature = NO_SIGNATURE.equals(genericSignature) ? null : genericSignature;
+
+        MethodHandle handler = MethodHandles.insertArguments(RECORD_OR_REPLAY, 1, mockAccess, classDesc, mockDesc,
+                signature, executionMode);
+        int argCount = type.parameterCount() - 1;
+
+        if (argCount == 0) {
+            handler = MethodHandles.insertArguments(handler, 1, (Object) NO_ARGS);
+        } else {
+            handler = handler.asCollector(Object[].class, argCount);
+        }
+
+        return new ConstantCallSite(handler.asType(type));
+    }
+}
@@ -6,8 +6,12 @@ package mockit.internal.expectations;
 
 import static java.util.Collections.emptyList;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.PrimitiveIterator;
 
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
@@ -18,22 +22,28 @@ import mockit.internal.expectations.invocation.ExpectedInvocation;
 final class OrderedVerificationPhase extends BaseVerificationPhase {
     @Nonnegative
     private final int expectationCount;
-    @Nonnegative
-    private int indexIncrement;
 
     OrderedVerificationPhase(@Nonnull ReplayPhase replayPhase) {
         super(replayPhase);
         discardExpectationsAndArgumentsAlreadyVerified(replayPhase.invocations);
         expectationCount = replayPhase.invocations.size();
-        indexIncrement = 1;
     }
 
     private void discardExpectationsAndArgumentsAlreadyVerified(List<Expectation> expectationsInReplayOrder) {
+        Map<Expectation, PrimitiveIterator.OfInt> remainingIndices = new IdentityHashMap<>();
+
         for (VerifiedExpectation verified : executionState.verifiedExpectations) {
-            int i = expectationsInReplayOrder.indexOf(verified.expectation);
+            Expectation expectation = verified.expectation;
+            PrimitiveIterator.OfInt indices = remainingIndices.computeIfAbsent(expectation,
+                    e -> Arrays.stream(replayPhase.getInvocationIndices(e)).iterator());
+
+            while (indices.hasNext()) {
+                int i = indices.nextInt();
 
-            if (i >= 0) {
-                expectationsInReplayOrder.set(i, null);
+                if (expectationsInReplayOrder.get(i) == expectation) {
+                    expectationsInReplayOrder.set(i, null);
+                    break;
+                }
             }
         }
     }
@@ -43,28 +53,32 @@ final class OrderedVerificationPhase extends BaseVerificationPhase {
     List<ExpectedInvocation> findExpectation(@Nullable Object mock, @Nonnull String mockClassDesc,
             @Nonnull String mockNameAndDesc, @Nonnull Object[] args) {
         Expectation expectation = currentVerification;
-        int i = replayIndex;
 
-        while (i >= 0 && i < expectationCount) {
-            Expectation replayExpectation = replayPhase.invocations.get(i);
-            Object replayInstance = replayPhase.invocationInstances.get(i);
-            Object[] replayArgs = replayPhase.invocationArguments.get(i);
+        if (replayIndex < 0 || replayIndex >= expectationCount) {
+            return emptyList();
+        }
 
-            i += indexIncrement;
+        if (!matchInstance && executionState.isToBeMatchedOnInstance(mock, mockNameAndDesc)) {
+            matchInstance = true;
+        }
+
+        for (int i : findCandidateReplayIndices(mock, mockClassDesc, mockNameAndDesc, replayIndex)) {
+            if (i >= expectationCount) {
+                break;
+            }
+
+            Expectation replayExpectation = replayPhase.invocations.get(i);
 
             if (replayExpectation == null) {
                 continue;
             }
 
-            if (!matchInstance && executionState.isToBeMatchedOnInstance(mock, mockNameAndDesc)) {
-                matchInstance = true;
-            }
+            Object replayInstance = replayPhase.invocationInstances.get(i);
+            Object[] replayArgs = replayPhase.invocationArguments.get(i);
 
             if (matches(mock, mockClassDesc, mockNameAndDesc, args, replayExpectation, replayInstance, replayArgs)) {
                 currentExpectation = replayExpectation;
-                i += 1 - indexIncrement;
-                indexIncrement = 1;
-                replayIndex = i;
+                replayIndex = i + 1;
 
                 if (expectation != null) {
                     expectation.constraints.invocationCount++;
@@ -5,7 +5,10 @@
 package mockit.internal.expectations;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -18,6 +21,11 @@ import mockit.internal.util.GeneratedClasses;
 final class PhasedExecutionState {
     @Nonnull
     final List<Expectation> expectations;
+
+    // Same expectations as above, grouped by method name (including the opening parenthesis) while keeping their
+    // relative order, since an invocation can only match expectations for a method of the same name.
+    @Nonnull
+    private final Map<String, List<Expectation>> expectationsByMethodName;
     @Nonnull
     final List<VerifiedExpectation> verifiedExpectations;
     @Nonnull
@@ -29,6 +37,7 @@ final class PhasedExecutionState {
 
     PhasedExecutionState() {
         expectations = new ArrayList<>();
+        expectationsByMethodName = new HashMap<>();
         verifiedExpectations = new ArrayList<>();
         equivalentInstances = new EquivalentInstances();
         instanceBasedMatching = new InstanceBasedMatching();
@@ -39,6 +48,20 @@ final class PhasedExecutionState {
         forceMatchingOnMockInstanceIfRequired(invocation);
         removeMatchingExpectationsCreatedBefore(invocation);
         expectations.add(expectation);
+
+        String methodName = getMethodName(invocation.getMethodNameAndDescription());
+        expectationsByMethodName.computeIfAbsent(methodName, k -> new ArrayList<>()).add(expectation);
+    }
+
+    @Nonnull
+    static String getMethodName(@Nonnull String methodNameAndDesc) {
+        return methodNameAndDesc.substring(0, methodNameAndDesc.indexOf('(') + 1);
+    }
+
+    @Nonnull
+    private List<Expectation> getExpectationsForMethod(@Nonnull String methodNameAndDesc) {
+        List<Expectation> expectationsForMethod = expectationsByMethodName.get(getMethodName(methodNameAndDesc));
+        return expectationsForMethod == null ? Collections.<Expectation>emptyList() : expectationsForMethod;
     }
 
     private void forceMatchingOnMockInstanceIfRequired(@Nonnull ExpectedInvocation invocation) {
@@ -66,15 +89,17 @@ final class PhasedExecutionState {
 
         if (previousExpectation != null) {
             expectations.remove(previousExpectation);
+            getExpectationsForMethod(invocation.getMethodNameAndDescription()).remove(previousExpectation);
             invocation.copyDefaultReturnValue(previousExpectation.invocation);
         }
     }
 
     @Nullable
     private Expectation findPreviousExpectation(@Nonnull ExpectedInvocation newInvocation) {
-        int n = expectations.size();
+        String mockNameAndDesc = newInvocation.getMethodNameAndDescription();
+        List<Expectation> candidates = getExpectationsForMethod(mockNameAndDesc);
 
-        if (n == 0) {
+        if (candidates.isEmpty()) {
             return null;
         }
 
@@ -82,10 +107,9 @@ final class PhasedExecutionState {
         @Nonnull
         Boolean matchInstance = newInvocation.matchInstance;
         String mockClassDesc = newInvocation.getClassDesc();
-        String mockNameAndDesc = newInvocation.getMethodNameAndDescription();
         boolean isConstructor = newInvocation.isConstructor();
 
-        for (Expectation previous : expectations) {
+        for (Expectation previous : candidates) {
             if (isMatchingInvocation(mock, matchInstance, mockClassDesc, mockNameAndDesc, isConstructor, previous)
                     && isWithMatchingArguments(newInvocation, previous.invocation)) {
                 return previous;
@@ -131,15 +155,27 @@ final class PhasedExecutionState {
         return newArguments.hasEquivalentMatchers(previousArguments);
     }
 
+    /**
+     * Checks whether invocations to the given method can be matched against the expectations for it from several
+     * threads at the same time, which is not the case if any of those expectations has a stateful argument matcher.
+     */
+    boolean isMatchableConcurrently(@Nonnull String mockNameAndDesc) {
+        for (Expectation expectation : getExpectationsForMethod(mockNameAndDesc)) {
+            if (!expectation.invocation.arguments.isMatchableConcurrently()) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
     @Nullable
     Expectation findExpectation(@Nullable Object mock, @Nonnull String mockClassDesc, @Nonnull String mockNameAndDesc,
             @Nonnull Object[] args) {
         boolean isConstructor = mockNameAndDesc.charAt(0) == '<';
         Expectation replayExpectationFound = null;
 
-        // Note: new expectations might get added to the list, so a regular loop would cause a CME:
-        // noinspection ForLoopReplaceableByForEach
-        for (Expectation expectation : expectations) {
+        for (Expectation expectation : getExpectationsForMethod(mockNameAndDesc)) {
             if (replayExpectationFound != null && expectation.recordPhase == null) {
                 continue;
             }
@@ -9,6 +9,7 @@ import static mockit.internal.util.Utilities.NO_ARGS;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -21,6 +22,7 @@ import mockit.internal.expectations.mocking.PartialMocking;
 import mockit.internal.expectations.mocking.TypeRedefinitions;
 import mockit.internal.expectations.state.ExecutingTest;
 import mockit.internal.state.TestRun;
+import mockit.internal.state.TestScope;
 import mockit.internal.util.ClassNaming;
 import mockit.internal.util.DefaultValues;
 import mockit.internal.util.ObjectMethods;
@@ -28,6 +30,24 @@ import mockit.internal.util.ObjectMethods;
 public final class RecordAndReplayExecution {
     public static final ReentrantLock RECORD_OR_REPLAY_LOCK = new ReentrantLock();
     public static final ReentrantLock TEST_ONLY_PHASE_LOCK = new ReentrantLock();
+    private static final ExecutionMode[] EXECUTION_MODES = ExecutionMode.values();
+
+    /**
+     * When "<code>-DconcurrentReplay=true</code>" is specified, replayed invocations matching a recorded expectation
+     * with recorded results and no upper invocation limit are handled while holding only the read lock, so that
+     * multiple threads can replay them at the same time. Every other invocation is handled while holding the write
+     * lock in addition to the {@link #RECORD_OR_REPLAY_LOCK}.
+     */
+    @Nullable
+    private static final ReentrantReadWriteLock CONCURRENT_REPLAY_LOCK = Boolean.getBoolean("concurrentReplay")
+            ? new ReentrantReadWriteLock() : null;
+
+    /**
+     * The scope of the test holding the {@link #TEST_ONLY_PHASE_LOCK}, if any, so that threads running tests of other
+     * scopes keep replaying their own invocations while tests are executed concurrently.
+     */
+    @Nullable
+    private static volatile TestScope testOnlyPhaseScope;
 
     @Nullable
     private final PartialMocking partialMocking;
@@ -38,9 +58,9 @@ public final class RecordAndReplayExecution {
     @Nullable
     private RecordPhase recordPhase;
     @Nullable
-    private ReplayPhase replayPhase;
+    private volatile ReplayPhase replayPhase;
     @Nullable
-    private BaseVerificationPhase verificationPhase;
+    private volatile BaseVerificationPhase verificationPhase;
 
     public RecordAndReplayExecution() {
         executionState = new PhasedExecutionState();
@@ -67,8 +87,7 @@ public final class RecordAndReplayExecution {
             partialMocking = applyPartialMocking(instancesToBePartiallyMocked);
             discoverMockedTypesAndInstancesForMatchingOnInstance();
 
-            // noinspection LockAcquiredButNotSafelyReleased
-            TEST_ONLY_PHASE_LOCK.lock();
+            lockTestOnlyPhase();
         } catch (RuntimeException e) {
             executingTest.setRecordAndReplay(null);
             throw e;
@@ -122,9 +141,25 @@ public final class RecordAndReplayExecution {
     public static Object recordOrReplay(@Nullable Object mock, int mockAccess, @Nonnull String classDesc,
             @Nonnull String mockDesc, @Nullable String genericSignature, int executionModeOrdinal,
             @Nullable Object[] args) throws Throwable {
+        ExecutionMode executionMode = EXECUTION_MODES[executionModeOrdinal];
+        return recordOrReplay(mock, mockAccess, classDesc, mockDesc, genericSignature, executionMode, args);
+    }
+
+    /**
+     * Only to be called from generated bytecode, through call sites linked by {@link MockedMethodCallSites}.
+     */
+    @Nullable
+    static Object recordOrReplay(@Nullable Object mock, int mockAccess, @Nonnull String classDesc,
+            @Nonnull String mockDesc, @Nullable String genericSignature, @Nonnull ExecutionMode executionMode,
+            @Nullable Object[] args) throws Throwable {
         @Nonnull
         Object[] mockArgs = args == null ? NO_ARGS : args;
-        ExecutionMode executionMode = ExecutionMode.values()[executionModeOrdinal];
+
+        if (TestRun.mockFixture().isChangedByAnotherScope(classDesc)) {
+            // This occurs when called from a thread running tests of another class, concurrently with the tests which
+            // mocked the class.
+            return Void.class;
+        }
 
         if (notToBeMocked(mock, classDesc)) {
             // This occurs if called from a custom argument matching method, in a call to an overridden Object method
@@ -148,7 +183,17 @@ public final class RecordAndReplayExecution {
         }
 
         boolean isConstructor = mock != null && mockDesc.startsWith("<init>");
-        RECORD_OR_REPLAY_LOCK.lock();
+
+        if (CONCURRENT_REPLAY_LOCK != null && !isConstructor) {
+            Expectation expectation = findRecordedExpectationForConcurrentReplay(executingTest, mock, classDesc,
+                    mockDesc, mockArgs);
+
+            if (expectation != null) {
+                return expectation.produceResult(mock, mockArgs);
+            }
+        }
+
+        lockForRecordOrReplay();
 
         try {
             RecordAndReplayExecution instance = executingTest.getOrCreateRecordAndReplay();
@@ -159,13 +204,105 @@ public final class RecordAndReplayExecution {
 
             return instance.getResult(mock, mockAccess, classDesc, mockDesc, genericSignature, executionMode, mockArgs);
         } finally {
-            RECORD_OR_REPLAY_LOCK.unlock();
+            unlockForRecordOrReplay();
         }
     }
 
-    private static boolean notToBeMocked(@Nullable Object mock, @Nonnull String classDesc) {
+    @Nullable
+    private static Expectation findRecordedExpectationForConcurrentReplay(@Nonnull ExecutingTest executingTest,
+            @Nullable Object mock, @Nonnull String classDesc, @Nonnull String mockDesc, @Nonnull Object[] args) {
+        RecordAndReplayExecution instance = executingTest.getCurrentRecordAndReplay();
+
+        if (instance == null) {
+            return null;
+        }
+
+        ReentrantReadWriteLock.ReadLock readLock = CONCURRENT_REPLAY_LOCK.readLock();
+        readLock.lock();
+
+        try {
+            ReplayPhase replay = instance.replayPhase;
+
+            if (replay == null || instance.verificationPhase != null) {
+                return null;
+            }
+
+            return replay.replayRecordedExpectationIfAny(mock, classDesc, mockDesc, args);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    private static void lockForRecordOrReplay() {
+        if (CONCURRENT_REPLAY_LOCK != null) {
+            CONCURRENT_REPLAY_LOCK.writeLock().lock();
+        }
+
+        RECORD_OR_REPLAY_LOCK.lock();
+    }
+
+    private static void unlockForRecordOrReplay() {
+        RECORD_OR_REPLAY_LOCK.unlock();
+
+        if (CONCURRENT_REPLAY_LOCK != null) {
+            CONCURRENT_REPLAY_LOCK.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Checks whether the current thread is in the middle of recording or replaying an invocation, in which case any
+     * further calls to mocked methods it makes are not to be recorded or replayed.
+     */
+    public static boolean isRecordingOrReplayingInCurrentThread() {
         return RECORD_OR_REPLAY_LOCK.isHeldByCurrentThread()
-                || TEST_ONLY_PHASE_LOCK.isLocked() && !TEST_ONLY_PHASE_LOCK.isHeldByCurrentThread()
+                || CONCURRENT_REPLAY_LOCK != null && CONCURRENT_REPLAY_LOCK.getReadHoldCount() > 0;
+    }
+
+    /**
+     * Releases the locks held by the current thread while recording or replaying an invocation, if any, so that a
+     * delegate method can be executed with other threads free to record or replay their own invocations.
+     *
+     * @return whether the locks were held, and therefore must be reacquired through
+     *         {@link #relockAfterDelegateExecution()} once the delegate method finishes
+     */
+    public static boolean unlockForDelegateExecution() {
+        if (!RECORD_OR_REPLAY_LOCK.isHeldByCurrentThread()) {
+            return false;
+        }
+
+        unlockForRecordOrReplay();
+        return true;
+    }
+
+    public static void relockAfterDelegateExecution() {
+        lockForRecordOrReplay();
+    }
+
+    /**
+     * Locks the {@link #TEST_ONLY_PHASE_LOCK} at the start of a recording or verification block, so that other threads
+     * running tests of the same scope don't record or replay invocations until the block ends.
+     */
+    public static void lockTestOnlyPhase() {
+        // noinspection LockAcquiredButNotSafelyReleased
+        TEST_ONLY_PHASE_LOCK.lock();
+        testOnlyPhaseScope = TestRun.getScope();
+    }
+
+    private static void unlockTestOnlyPhase() {
+        if (TEST_ONLY_PHASE_LOCK.getHoldCount() == 1) {
+            testOnlyPhaseScope = null;
+        }
+
+        TEST_ONLY_PHASE_LOCK.unlock();
+    }
+
+    private static boolean isInTestOnlyPhaseOfAnotherThread() {
+        return TEST_ONLY_PHASE_LOCK.isLocked() && !TEST_ONLY_PHASE_LOCK.isHeldByCurrentThread()
+                && (!TestRun.CONCURRENT_TESTS || testOnlyPhaseScope == TestRun.getScope());
+    }
+
+    private static boolean notToBeMocked(@Nullable Object mock, @Nonnull String classDesc) {
+        return isRecordingOrReplayingInCurrentThread() || isInTestOnlyPhaseOfAnotherThread()
                 || !TestRun.mockFixture().isStillMocked(mock, classDesc);
     }
 
@@ -303,6 +440,7 @@ public final class RecordAndReplayExecution {
     public BaseVerificationPhase startVerifications(boolean inOrder,
             @Nullable Object[] mockedTypesAndInstancesToVerify) {
         assert replayPhase != null;
+        replayPhase.ensureThatInvocationsAreLogged();
 
         if (inOrder) {
             verificationPhase = new OrderedVerificationPhase(replayPhase);
@@ -323,8 +461,8 @@ public final class RecordAndReplayExecution {
 
     @Nullable
     private Error endExecution() {
-        if (TEST_ONLY_PHASE_LOCK.isLocked()) {
-            TEST_ONLY_PHASE_LOCK.unlock();
+        if (TEST_ONLY_PHASE_LOCK.isHeldByCurrentThread()) {
+            unlockTestOnlyPhase();
         }
 
         ReplayPhase replay = switchFromRecordToReplayIfNotYet();
@@ -358,7 +496,7 @@ public final class RecordAndReplayExecution {
     }
 
     void endInvocations() {
-        TEST_ONLY_PHASE_LOCK.unlock();
+        unlockTestOnlyPhase();
 
         if (verificationPhase == null) {
             switchFromRecordToReplayIfNotYet();
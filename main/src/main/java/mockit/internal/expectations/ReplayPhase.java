@@ -5,19 +5,96 @@
 package mockit.internal.expectations;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 
+import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 import mockit.internal.expectations.invocation.ExpectedInvocation;
 import mockit.internal.expectations.invocation.InvocationConstraints;
 import mockit.internal.expectations.invocation.UnexpectedInvocation;
+import mockit.internal.state.TestRun;
 
 final class ReplayPhase extends Phase {
+    /**
+     * Replayed invocations are logged for use by verification blocks, unless "<code>-DreplayLog=none</code>" is
+     * specified, or "<code>-DreplayLog=auto</code>" is specified and no verification blocks are found for the current
+     * test class by {@link VerificationBlockSearch}.
+     * When not logged, only the invocation count of each expectation is kept, so that tests which drive large numbers
+     * of calls through mocked types don't retain every invocation and its arguments until the test ends.
+     */
+    private static final String REPLAY_LOG = System.getProperty("replayLog", "full");
+
+    private static final ClassValue<Boolean> TEST_CLASSES_WITH_VERIFICATIONS = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> testClass) {
+            return VerificationBlockSearch.hasVerificationBlocks(testClass);
+        }
+    };
+
+    /**
+     * The indices in the replay log of the invocations replayed for a given expectation, in replay order.
+     */
+    static final class InvocationIndices {
+        @Nonnull
+        final Expectation expectation;
+        @Nonnull
+        private int[] indices;
+        @Nonnegative
+        private int count;
+
+        InvocationIndices(@Nonnull Expectation expectation) {
+            this.expectation = expectation;
+            indices = new int[4];
+        }
+
+        private InvocationIndices(@Nonnull InvocationIndices original) {
+            expectation = original.expectation;
+            indices = original.indices;
+            count = original.count;
+        }
+
+        void add(@Nonnegative int index) {
+            if (count == indices.length) {
+                indices = Arrays.copyOf(indices, 2 * count);
+            }
+
+            indices[count++] = index;
+        }
+
+        @Nonnegative
+        int size() {
+            return count;
+        }
+
+        /**
+         * Copies the indices from the given one onwards to the given array, starting at the given position.
+         *
+         * @return the position in the array after the last index copied
+         */
+        @Nonnegative
+        int copyTo(@Nonnull int[] destination, @Nonnegative int position, @Nonnegative int fromIndex) {
+            int first = Arrays.binarySearch(indices, 0, count, fromIndex);
+
+            if (first < 0) {
+                first = -first - 1;
+            }
+
+            int n = count - first;
+            System.arraycopy(indices, first, destination, position, n);
+            return position + n;
+        }
+    }
+
     @Nonnull
     final FailureState failureState;
+    private final boolean loggingInvocations;
     @Nonnull
     final List<Expectation> invocations;
     @Nonnull
@@ -25,12 +102,44 @@ final class ReplayPhase extends Phase {
     @Nonnull
     final List<Object[]> invocationArguments;
 
+    // Indices of the invocations above for each expectation, with the expectations grouped by method name (including
+    // the opening parenthesis), so that verifying an invocation doesn't require going through the whole replay log.
+    @Nonnull
+    private final Map<Expectation, InvocationIndices> indicesByExpectation;
+    @Nonnull
+    private final Map<String, List<InvocationIndices>> indicesByMethodName;
+
     ReplayPhase(@Nonnull PhasedExecutionState executionState, @Nonnull FailureState failureState) {
         super(executionState);
         this.failureState = failureState;
+        loggingInvocations = isInvocationLogNeeded();
         invocations = new ArrayList<>();
         invocationInstances = new ArrayList<>();
         invocationArguments = new ArrayList<>();
+        indicesByExpectation = new IdentityHashMap<>();
+        indicesByMethodName = new HashMap<>();
+    }
+
+    private static boolean isInvocationLogNeeded() {
+        if ("none".equals(REPLAY_LOG)) {
+            return false;
+        }
+
+        if ("auto".equals(REPLAY_LOG)) {
+            Class<?> testClass = TestRun.getCurrentTestClass();
+            return testClass == null || TEST_CLASSES_WITH_VERIFICATIONS.get(testClass);
+        }
+
+        return true;
+    }
+
+    void ensureThatInvocationsAreLogged() {
+        if (!loggingInvocations) {
+            String reason = "none".equals(REPLAY_LOG) ? ""
+                    : " and no verification block was found in " + TestRun.getCurrentTestClass();
+            throw new IllegalStateException("JMockit: Replayed invocations are not available for verification, since "
+                    + "\"-DreplayLog=" + REPLAY_LOG + "\" was specified" + reason);
+        }
     }
 
     @Override
@@ -49,12 +158,96 @@ final class ReplayPhase extends Phase {
             registerNewInstanceAsEquivalentToOneFromRecordedConstructorInvocation(mock, expectation.invocation);
         }
 
-        invocations.add(expectation);
-        invocationInstances.add(mock);
-        invocationArguments.add(args);
+        addInvocation(expectation, mock, args);
+        return produceResult(expectation, mock, withRealImpl, args);
+    }
+
+    /**
+     * Replays an invocation matching a recorded expectation which can be replayed concurrently, without creating a new
+     * expectation if none is found; called while holding only the read lock for concurrent replay.
+     *
+     * @return the expectation replayed, whose result is yet to be produced, or <code>null</code> if the invocation is to
+     *         be handled normally
+     */
+    @Nullable
+    Expectation replayRecordedExpectationIfAny(@Nullable Object mock, @Nonnull String mockClassDesc,
+            @Nonnull String mockNameAndDesc, @Nonnull Object[] args) {
+        if (!executionState.isMatchableConcurrently(mockNameAndDesc)) {
+            return null;
+        }
+
+        Expectation expectation = executionState.findExpectation(mock, mockClassDesc, mockNameAndDesc, args);
+
+        if (expectation == null || !expectation.isReplayableConcurrently()) {
+            return null;
+        }
+
+        addInvocation(expectation, mock, args);
+        return expectation;
+    }
+
+    private void addInvocation(@Nonnull Expectation expectation, @Nullable Object mock, @Nonnull Object[] args) {
+        if (loggingInvocations) {
+            synchronized (invocations) {
+                addInvocationIndex(expectation, invocations.size());
+                invocations.add(expectation);
+                invocationInstances.add(mock);
+                invocationArguments.add(args);
+            }
+        }
+
         expectation.constraints.incrementInvocationCount();
+    }
 
-        return produceResult(expectation, mock, withRealImpl, args);
+    private void addInvocationIndex(@Nonnull Expectation expectation, @Nonnegative int index) {
+        InvocationIndices indices = indicesByExpectation.get(expectation);
+
+        if (indices == null) {
+            indices = new InvocationIndices(expectation);
+            indicesByExpectation.put(expectation, indices);
+
+            String methodNameAndDesc = expectation.invocation.getMethodNameAndDescription();
+            String methodName = PhasedExecutionState.getMethodName(methodNameAndDesc);
+            indicesByMethodName.computeIfAbsent(methodName, k -> new ArrayList<>()).add(indices);
+        }
+
+        indices.add(index);
+    }
+
+    /**
+     * Gets the indices of the invocations replayed so far for each expectation of a method with the same name as the
+     * given one, as a snapshot not affected by further invocations.
+     */
+    @Nonnull
+    List<InvocationIndices> getInvocationIndicesForMethod(@Nonnull String mockNameAndDesc) {
+        String methodName = PhasedExecutionState.getMethodName(mockNameAndDesc);
+
+        synchronized (invocations) {
+            List<InvocationIndices> indicesForMethod = indicesByMethodName.get(methodName);
+
+            if (indicesForMethod == null) {
+                return Collections.emptyList();
+            }
+
+            List<InvocationIndices> snapshot = new ArrayList<>(indicesForMethod.size());
+
+            for (InvocationIndices indices : indicesForMethod) {
+                snapshot.add(new InvocationIndices(indices));
+            }
+
+            return snapshot;
+        }
+    }
+
+    /**
+     * Gets the indices of the invocations replayed so far for the given expectation, in replay order.
+     */
+    @Nonnull
+    int[] getInvocationIndices(@Nonnull Expectation expectation) {
+        synchronized (invocations) {
+            InvocationIndices indices = indicesByExpectation.get(expectation);
+            return indices == null ? new int[0] : Arrays.copyOf(indices.indices, indices.count);
+        }
     }
 
     @Nonnull
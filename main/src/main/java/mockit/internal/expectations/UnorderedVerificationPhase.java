@@ -34,8 +34,13 @@ class UnorderedVerificationPhase extends BaseVerificationPhase {
         Expectation verification = currentVerification;
         List<ExpectedInvocation> matchingInvocationsWithDifferentArgs = new ArrayList<>();
 
-        for (int i = 0, n = expectationsInReplayOrder.size(); i < n; i++) {
+        for (int i : findCandidateReplayIndices(mock, mockClassDesc, mockNameAndDesc, 0)) {
             Expectation replayExpectation = expectationsInReplayOrder.get(i);
+
+            if (replayExpectation == null) {
+                continue;
+            }
+
             Object replayInstance = replayPhase.invocationInstances.get(i);
             Object[] replayArgs = replayPhase.invocationArguments.get(i);
 
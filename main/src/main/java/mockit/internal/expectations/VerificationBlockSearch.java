@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2006 JMockit developers
+ * This file is subject to the terms of the MIT license (see LICENSE.txt).
+ */
+package mockit.internal.expectations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import mockit.Verifications;
+import mockit.asm.annotations.AnnotationVisitor;
+import mockit.asm.classes.ClassInfo;
+import mockit.asm.classes.ClassReader;
+import mockit.asm.classes.ClassVisitor;
+import mockit.internal.ClassFile;
+
+/**
+ * Searches the classfiles of a test class and of its superclasses for subclasses of {@link Verifications}, which is
+ * where verification blocks are found.
+ * <p>
+ * The classes searched are those nested, at any depth, in the test class or in any of its superclasses, together with
+ * the other members of their nests; they are found through the <code>NestMembers</code> attribute of the nest host,
+ * or, for classfiles compiled without nest information, through the <code>InnerClasses</code> attributes of the
+ * enclosing classes. A class searched is taken as a verification block if <code>Verifications</code>,
+ * <code>VerificationsInOrder</code> or <code>FullVerifications</code> appears anywhere in its chain of superclasses,
+ * so anonymous subclasses of a custom <code>Verifications</code> subclass are found, as are named and local
+ * subclasses.
+ * <p>
+ * Classes are never loaded for that, since loading the anonymous classes of a test class all at once would transform
+ * their blocks out of order, while capturing arguments into a list relies on each block being transformed just before
+ * it executes. Whenever a classfile needed for the search can't be read, verification blocks are assumed to exist.
+ * Verification blocks declared outside the nests searched, as in a helper class called from a test, are not found.
+ */
+final class VerificationBlockSearch extends ClassVisitor {
+    private static final List<String> VERIFICATION_BASE_CLASSES = Arrays.asList("mockit/Verifications",
+            "mockit/VerificationsInOrder", "mockit/FullVerifications");
+
+    @Nonnull
+    private final ClassLoader loader;
+    @Nonnull
+    private final Map<String, Boolean> verificationSubclasses;
+    @Nonnull
+    private final Set<String> enclosingClassesSearched;
+
+    // Information about the classfile last visited.
+    @Nonnull
+    private String classDesc;
+    @Nullable
+    private String hostClassName;
+    @Nullable
+    private String[] nestMembers;
+    @Nonnull
+    private final List<String> nestedClasses;
+
+    private VerificationBlockSearch(@Nonnull ClassLoader loader) {
+        this.loader = loader;
+        verificationSubclasses = new HashMap<>();
+        enclosingClassesSearched = new HashSet<>();
+        classDesc = "";
+        nestedClasses = new ArrayList<>();
+    }
+
+    /**
+     * Checks whether the given test class may have verification blocks, which is assumed when it can't be told.
+     */
+    static boolean hasVerificationBlocks(@Nonnull Class<?> testClass) {
+        for (Class<?> aClass = testClass; aClass != null && aClass != Object.class; aClass = aClass.getSuperclass()) {
+            ClassLoader loader = aClass.getClassLoader();
+
+            if (loader == null) {
+                // A JRE superclass has no verification blocks, but a test class whose classfiles can't be read may.
+                return aClass == testClass;
+            }
+
+            VerificationBlockSearch search = new VerificationBlockSearch(loader);
+
+            if (search.hasVerificationBlocksInNestOf(aClass.getName().replace('.', '/'))) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private boolean hasVerificationBlocksInNestOf(@Nonnull String testClassDesc) {
+        if (!visitClassfile(testClassDesc)) {
+            return true;
+        }
+
+        String nestHost = hostClassName;
+
+        if (nestHost != null && !visitClassfile(nestHost)) {
+            return true;
+        }
+
+        String[] members = nestMembers;
+
+        if (members == null) {
+            return hasVerificationBlocksNestedIn(testClassDesc);
+        }
+
+        for (String member : members) {
+            if (isVerificationSubclass(member)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Searches the classes nested in the given one, as listed in its <code>InnerClasses</code> attribute, and
+     * recursively those nested in them.
+     */
+    private boolean hasVerificationBlocksNestedIn(@Nonnull String enclosingClassDesc) {
+        if (!enclosingClassesSearched.add(enclosingClassDesc)) {
+            return false;
+        }
+
+        if (!visitClassfile(enclosingClassDesc)) {
+            return true;
+        }
+
+        List<String> classesNestedInEnclosingClass = new ArrayList<>(nestedClasses);
+
+        for (String nestedClassDesc : classesNestedInEnclosingClass) {
+            if (isVerificationSubclass(nestedClassDesc) || hasVerificationBlocksNestedIn(nestedClassDesc)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Walks up the chain of superclasses of the given class, reading only the header of each classfile.
+     */
+    private boolean isVerificationSubclass(@Nonnull String aClassDesc) {
+        Boolean knownResult = verificationSubclasses.get(aClassDesc);
+
+        if (knownResult != null) {
+            return knownResult;
+        }
+
+        ClassReader cr = ClassFile.createClassReader(loader, aClassDesc);
+        boolean result;
+
+        if (cr == null) {
+            result = true;
+        } else {
+            String superName = cr.getSuperName();
+
+            if (superName == null || superName.startsWith("java/")) {
+                result = false;
+            } else {
+                result = VERIFICATION_BASE_CLASSES.contains(superName) || isVerificationSubclass(superName);
+            }
+        }
+
+        verificationSubclasses.put(aClassDesc, result);
+        return result;
+    }
+
+    private boolean visitClassfile(@Nonnull String aClassDesc) {
+        ClassReader cr = ClassFile.createClassReader(loader, aClassDesc);
+
+        if (cr == null) {
+            return false;
+        }
+
+        classDesc = aClassDesc;
+        hostClassName = null;
+        nestMembers = null;
+        nestedClasses.clear();
+        cr.accept(this);
+        return true;
+    }
+
+    @Override
+    public void visit(int version, int access, @Nonnull String name, @Nonnull ClassInfo additionalInfo) {
+        hostClassName = additionalInfo.hostClassName;
+        nestMembers = additionalInfo.nestMembers;
+    }
+
+    @Nullable
+    @Override
+    public AnnotationVisitor visitAnnotation(@Nonnull String desc) {
+        return null;
+    }
+
+    @Override
+    public void visitInnerClass(@Nonnull String name, @Nullable String outerName, @Nullable String innerName,
+            int access) {
+        // The attribute also lists the classes enclosing the visited one, and those it merely refers to.
+        if (name.startsWith(classDesc) && name.length() > classDesc.length() && name.charAt(classDesc.length()) == '$') {
+            nestedClasses.add(name);
+        }
+    }
+}
@@ -14,6 +14,7 @@ import javax.annotation.Nullable;
 import mockit.internal.expectations.argumentMatching.AlwaysTrueMatcher;
 import mockit.internal.expectations.argumentMatching.ArgumentMatcher;
 import mockit.internal.expectations.argumentMatching.ArgumentMismatch;
+import mockit.internal.expectations.argumentMatching.CaptureMatcher;
 import mockit.internal.expectations.argumentMatching.EqualityMatcher;
 import mockit.internal.expectations.argumentMatching.ReflectiveMatcher;
 
@@ -62,6 +63,22 @@ abstract class ArgumentValuesAndMatchers {
         return matcher;
     }
 
+    /**
+     * Whether matching arguments leaves the matchers unchanged, so that it can be done from several threads at the same
+     * time; this isn't the case for capturing matchers, nor for matchers which call a delegate method.
+     */
+    final boolean hasOnlyStatelessMatchers() {
+        if (matchers != null) {
+            for (ArgumentMatcher<?> matcher : matchers) {
+                if (matcher instanceof CaptureMatcher || matcher instanceof ReflectiveMatcher) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
     abstract boolean isMatch(@Nonnull Object[] replayArgs, @Nonnull Map<Object, Object> instanceMap);
 
     static boolean areEqual(@Nonnull Object[] expectedValues, @Nonnull Object[] actualValues, @Nonnegative int count,
@@ -9,7 +9,6 @@ import static mockit.internal.reflection.MethodReflection.findNonPrivateHandlerM
 import static mockit.internal.reflection.MethodReflection.invoke;
 
 import java.lang.reflect.Method;
-import java.util.concurrent.locks.ReentrantLock;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -78,19 +77,14 @@ final class DelegatedResult extends InvocationResult {
 
     @Nullable
     private Object executeMethodToInvoke(@Nonnull Object[] args) {
-        ReentrantLock reentrantLock = RecordAndReplayExecution.RECORD_OR_REPLAY_LOCK;
-
-        if (!reentrantLock.isHeldByCurrentThread()) {
+        if (!RecordAndReplayExecution.unlockForDelegateExecution()) {
             return executeTargetMethod(args);
         }
 
-        reentrantLock.unlock();
-
         try {
             return executeTargetMethod(args);
         } finally {
-            // noinspection LockAcquiredButNotSafelyReleased
-            reentrantLock.lock();
+            RecordAndReplayExecution.relockAfterDelegateExecution();
         }
     }
 
@@ -110,11 +110,9 @@ public final class ExpectedInvocation {
         String signature = arguments.genericSignature;
 
         if (signature != null) {
-            // TODO: cache it for use in return type conversion, cascading, etc.
             String classDesc = getClassDesc();
             Class<?> mockedClass = instance != null ? instance.getClass() : ClassLoad.loadByInternalName(classDesc);
-            GenericTypeReflection reflection = new GenericTypeReflection(mockedClass, null);
-            signature = reflection.resolveSignature(classDesc, signature);
+            signature = GenericTypeReflection.resolveSignature(mockedClass, classDesc, signature);
 
             char firstTypeChar = signature.charAt(signature.indexOf(')') + 1);
 
@@ -142,8 +140,8 @@ public final class ExpectedInvocation {
                 Class<?> mockedClass = mock.getClass();
 
                 if (mockedClass != instance.getClass()) {
-                    GenericTypeReflection typeReflection = new GenericTypeReflection(mockedClass, null);
-                    GenericSignature parsedSignature = typeReflection.parseSignature(genericSignature);
+                    GenericSignature parsedSignature = GenericTypeReflection.parseSignature(mockedClass,
+                            genericSignature);
                     return parsedSignature.satisfiesSignature(invokedMethod) && isMatchingMethodName(invokedMethod);
                 }
             }
@@ -80,6 +80,10 @@ public final class InvocationArguments {
         return valuesAndMatchers.prepareForVerification(argsToVerify, matchers);
     }
 
+    public boolean isMatchableConcurrently() {
+        return valuesAndMatchers.hasOnlyStatelessMatchers();
+    }
+
     public boolean isMatch(@Nonnull Object[] replayArgs, @Nonnull Map<Object, Object> instanceMap) {
         TestRun.enterNoMockingZone();
         ExecutingTest executingTest = TestRun.getExecutingTest();
@@ -6,16 +6,20 @@ package mockit.internal.expectations.invocation;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 public final class InvocationConstraints {
+    private static final AtomicIntegerFieldUpdater<InvocationConstraints> INVOCATION_COUNT = AtomicIntegerFieldUpdater
+            .newUpdater(InvocationConstraints.class, "invocationCount");
+
     public int minInvocations;
     private int maxInvocations;
     @Nonnegative
-    public int invocationCount;
+    public volatile int invocationCount;
 
     public InvocationConstraints(boolean nonStrictInvocation) {
         setLimits(nonStrictInvocation ? 0 : 1, -1);
@@ -37,7 +41,11 @@ public final class InvocationConstraints {
     }
 
     public void incrementInvocationCount() {
-        invocationCount++;
+        INVOCATION_COUNT.incrementAndGet(this);
+    }
+
+    public boolean hasUpperLimit() {
+        return maxInvocations >= 0;
     }
 
     public boolean isInvocationCountLessThanMinimumExpected() {
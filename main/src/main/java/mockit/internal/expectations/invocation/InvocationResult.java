@@ -65,7 +65,11 @@ class InvocationResult {
         @Nullable
         @Override
         Object produceResult(@Nonnull Object[] args) throws Throwable {
-            Object nextValue = values.hasNext() ? values.next() : null;
+            Object nextValue;
+
+            synchronized (values) {
+                nextValue = values.hasNext() ? values.next() : null;
+            }
 
             if (nextValue instanceof Throwable) {
                 Throwable t = (Throwable) nextValue;
@@ -110,16 +110,21 @@ public final class InvocationResults {
 
     @Nullable
     public Object produceResult(@Nullable Object invokedObject, @Nonnull Object[] invocationArgs) throws Throwable {
-        InvocationResult resultToBeProduced = currentResult;
+        InvocationResult resultToBeProduced;
 
-        if (resultToBeProduced == null) {
-            return null;
-        }
+        // Replayed invocations may be produced from multiple threads at once, when replaying concurrently.
+        synchronized (this) {
+            resultToBeProduced = currentResult;
+
+            if (resultToBeProduced == null) {
+                return null;
+            }
 
-        InvocationResult nextResult = resultToBeProduced.next;
+            InvocationResult nextResult = resultToBeProduced.next;
 
-        if (nextResult != null) {
-            currentResult = nextResult;
+            if (nextResult != null) {
+                currentResult = nextResult;
+            }
         }
 
         return resultToBeProduced.produceResult(invokedObject, invocation, constraints, invocationArgs);
@@ -18,8 +18,10 @@ import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -68,6 +70,8 @@ class BaseTypeRedefinition {
     private InstanceFactory instanceFactory;
     @Nullable
     private List<ClassDefinition> mockedClassDefinitions;
+    @Nullable
+    private Map<Class<?>, byte[]> pendingClassRedefinitions;
 
     BaseTypeRedefinition() {
     }
@@ -190,7 +194,36 @@ class BaseTypeRedefinition {
     }
 
     final boolean redefineMethodsAndConstructorsInTargetType() {
-        return redefineClassAndItsSuperClasses(targetClass);
+        pendingClassRedefinitions = new LinkedHashMap<>();
+
+        try {
+            return redefineClassAndItsSuperClasses(targetClass);
+        } finally {
+            applyPendingClassRedefinitions();
+        }
+    }
+
+    private void applyPendingClassRedefinitions() {
+        Map<Class<?>, byte[]> modifiedClassfiles = pendingClassRedefinitions;
+        pendingClassRedefinitions = null;
+
+        if (modifiedClassfiles != null && !modifiedClassfiles.isEmpty()) {
+            ClassDefinition[] classDefs = new ClassDefinition[modifiedClassfiles.size()];
+            int i = 0;
+
+            for (Entry<Class<?>, byte[]> classAndClassfile : modifiedClassfiles.entrySet()) {
+                ClassDefinition classDefinition = new ClassDefinition(classAndClassfile.getKey(),
+                        classAndClassfile.getValue());
+                classDefs[i] = classDefinition;
+                i++;
+
+                if (mockedClassDefinitions != null) {
+                    mockedClassDefinitions.add(classDefinition);
+                }
+            }
+
+            TestRun.mockFixture().redefineClasses(classDefs);
+        }
     }
 
     private boolean redefineClassAndItsSuperClasses(@Nonnull Class<?> realClass) {
@@ -231,6 +264,12 @@ class BaseTypeRedefinition {
     }
 
     void applyClassRedefinition(@Nonnull Class<?> realClass, @Nonnull byte[] modifiedClass) {
+        // The classes in a hierarchy being mocked get redefined together, once all of them have been modified.
+        if (pendingClassRedefinitions != null) {
+            pendingClassRedefinitions.put(realClass, modifiedClass);
+            return;
+        }
+
         ClassDefinition classDefinition = new ClassDefinition(realClass, modifiedClass);
         TestRun.mockFixture().redefineClasses(classDefinition);
 
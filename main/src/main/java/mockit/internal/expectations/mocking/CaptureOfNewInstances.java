@@ -88,10 +88,9 @@ public class CaptureOfNewInstances extends CaptureOfImplementations<MockedType>
     @Override
     protected void redefineClass(@Nonnull Class<?> realClass, @Nonnull byte[] modifiedClass) {
         ClassDefinition newClassDefinition = new ClassDefinition(realClass, modifiedClass);
-        Startup.redefineMethods(newClassDefinition);
-
         MockFixture mockFixture = TestRun.mockFixture();
         mockFixture.addRedefinedClass(newClassDefinition);
+        Startup.redefineMethods(newClassDefinition);
         mockFixture.registerMockedClass(realClass);
     }
 
@@ -16,7 +16,7 @@ import java.util.Map.Entry;
 import javax.annotation.Nonnull;
 
 import mockit.asm.jvmConstants.Access;
-import mockit.internal.reflection.FieldReflection;
+import mockit.internal.reflection.MemberHandles;
 import mockit.internal.state.TestRun;
 import mockit.internal.util.StackTrace;
 
@@ -134,7 +134,7 @@ public final class FieldTypeRedefinitions extends TypeRedefinitions {
             @Nonnull InstanceFactory instanceFactory) {
         Field mockField = mockedType.field;
         assert mockField != null;
-        Object mock = FieldReflection.getFieldValue(mockField, target);
+        Object mock = MemberHandles.getFieldValue(mockField, target);
 
         if (mock == null) {
             try {
@@ -145,7 +145,7 @@ public final class FieldTypeRedefinitions extends TypeRedefinitions {
                 throw e;
             }
 
-            FieldReflection.setFieldValue(mockField, target, mock);
+            MemberHandles.setFieldValue(mockField, target, mock);
 
             if (mockedType.getMaxInstancesToCapture() > 0) {
                 assert captureOfNewInstances != null;
@@ -160,7 +160,7 @@ public final class FieldTypeRedefinitions extends TypeRedefinitions {
     private void obtainAndRegisterInstancesOfFieldsNotSet(@Nonnull Object target) {
         for (MockedType metadata : mockFieldsNotSet) {
             assert metadata.field != null;
-            Object mock = FieldReflection.getFieldValue(metadata.field, target);
+            Object mock = MemberHandles.getFieldValue(metadata.field, target);
 
             if (mock != null) {
                 registerMock(metadata, mock);
@@ -4,7 +4,7 @@
  */
 package mockit.internal.expectations.mocking;
 
-import static mockit.internal.expectations.RecordAndReplayExecution.RECORD_OR_REPLAY_LOCK;
+import static mockit.internal.expectations.RecordAndReplayExecution.isRecordingOrReplayingInCurrentThread;
 import static mockit.internal.expectations.RecordAndReplayExecution.recordOrReplay;
 
 import java.lang.reflect.Method;
@@ -41,7 +41,7 @@ public final class MockedBridge extends ClassLoadingBridge {
         Object[] mockArgs = extractArguments(6, args);
 
         boolean regularExecutionWithRecordReplayLock = executionMode == ExecutionMode.Regular.ordinal()
-                && RECORD_OR_REPLAY_LOCK.isHeldByCurrentThread();
+                && isRecordingOrReplayingInCurrentThread();
         Object rv;
 
         if (regularExecutionWithRecordReplayLock && mocked != null) {
@@ -23,7 +23,7 @@ import mockit.internal.expectations.MockingFilters;
 import mockit.internal.expectations.state.CascadingTypes;
 import mockit.internal.expectations.state.ExecutingTest;
 import mockit.internal.injection.InjectionProvider;
-import mockit.internal.reflection.FieldReflection;
+import mockit.internal.reflection.MemberHandles;
 import mockit.internal.state.ParameterNames;
 import mockit.internal.state.TestRun;
 import mockit.internal.util.DefaultValues;
@@ -236,7 +236,7 @@ public final class MockedType extends InjectionProvider {
             return providedValue;
         }
 
-        Object value = FieldReflection.getFieldValue(field, owner);
+        Object value = MemberHandles.getFieldValue(field, owner);
 
         if (!injectable) {
             return value;
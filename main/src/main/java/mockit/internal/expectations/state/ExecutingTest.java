@@ -140,8 +140,7 @@ public final class ExecutingTest {
             }
         }
 
-        // noinspection LockAcquiredButNotSafelyReleased
-        RecordAndReplayExecution.TEST_ONLY_PHASE_LOCK.lock();
+        RecordAndReplayExecution.lockTestOnlyPhase();
 
         return currentRecordAndReplay;
     }
@@ -48,6 +48,8 @@ public final class MockedTypeCascade {
     @Nullable
     private GenericTypeReflection genericReflection;
     @Nonnull
+    private final Map<String, String> resolvedSignatures;
+    @Nonnull
     private final Map<String, Type> cascadedTypesAndMocks;
     @Nonnull
     private final List<Object> cascadingInstances;
@@ -56,6 +58,7 @@ public final class MockedTypeCascade {
         this.fromMockField = fromMockField;
         this.mockedType = mockedType;
         this.mockedTypeDesc = mockedTypeDesc;
+        resolvedSignatures = new ConcurrentHashMap<>(4);
         cascadedTypesAndMocks = new ConcurrentHashMap<>(4);
         cascadingInstances = synchronizedList(new ArrayList<>());
     }
@@ -114,7 +117,7 @@ public final class MockedTypeCascade {
 
     @Nullable
     private String getGenericReturnType(@Nonnull String ownerTypeDesc, @Nonnull String genericSignature) {
-        String resolvedSignature = getGenericReflection().resolveSignature(ownerTypeDesc, genericSignature);
+        String resolvedSignature = resolveSignature(ownerTypeDesc, genericSignature);
         String returnTypeDesc = resolvedSignature.substring(resolvedSignature.indexOf(')') + 1);
 
         if (returnTypeDesc.charAt(0) == '[') {
@@ -125,6 +128,19 @@ public final class MockedTypeCascade {
         return isTypeSupportedForCascading(returnTypeName) ? returnTypeName : null;
     }
 
+    @Nonnull
+    private String resolveSignature(@Nonnull String ownerTypeDesc, @Nonnull String genericSignature) {
+        String key = ownerTypeDesc + genericSignature;
+        String resolvedSignature = resolvedSignatures.get(key);
+
+        if (resolvedSignature == null) {
+            resolvedSignature = getGenericReflection().resolveSignature(ownerTypeDesc, genericSignature);
+            resolvedSignatures.put(key, resolvedSignature);
+        }
+
+        return resolvedSignature;
+    }
+
     @Nonnull
     private synchronized GenericTypeReflection getGenericReflection() {
         GenericTypeReflection reflection = genericReflection;
@@ -97,6 +97,10 @@ public final class FakeClassSetup {
     @Nullable
     private byte[] modifyRealClass(@Nonnull Class<?> classToModify) {
         if (rcReader == null) {
+            if (!forStartupFake) {
+                TestRun.mockFixture().waitUntilAvailableForRedefinition(classToModify);
+            }
+
             rcReader = ClassFile.createReaderFromLastRedefinitionIfAny(classToModify);
         }
 
@@ -113,13 +117,14 @@ public final class FakeClassSetup {
 
     void applyClassModifications(@Nonnull Class<?> classToModify, @Nonnull byte[] modifiedClassFile) {
         ClassDefinition classDef = new ClassDefinition(classToModify, modifiedClassFile);
-        Startup.redefineMethods(classDef);
 
         if (forStartupFake) {
+            Startup.redefineMethods(classDef);
             CachedClassfiles.addClassfile(classToModify, modifiedClassFile);
         } else {
             String fakeClassDesc = fakeMethods.getFakeClassInternalName();
             TestRun.mockFixture().addRedefinedClass(fakeClassDesc, classDef);
+            Startup.redefineMethods(classDef);
         }
     }
 }
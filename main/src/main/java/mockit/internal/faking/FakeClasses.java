@@ -7,14 +7,18 @@ package mockit.internal.faking;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 import mockit.MockUp;
+import mockit.internal.state.TestRun;
+import mockit.internal.state.TestScope;
 import mockit.internal.util.ClassLoad;
 
 public final class FakeClasses {
@@ -45,10 +49,13 @@ public final class FakeClasses {
     public static final class MockUpInstances {
         @Nonnull
         public final MockUp<?> initialMockUp;
+        @Nonnull
+        final TestScope scope;
         boolean hasMockupsForSingleInstances;
 
-        MockUpInstances(@Nonnull MockUp<?> initialMockUp) {
+        MockUpInstances(@Nonnull MockUp<?> initialMockUp, @Nonnull TestScope scope) {
             this.initialMockUp = initialMockUp;
+            this.scope = scope;
             hasMockupsForSingleInstances = false;
         }
 
@@ -61,6 +68,37 @@ public final class FakeClasses {
         }
     }
 
+    /**
+     * The previous state of a mockup class whose {@link MockUpInstances} was added or changed; a null flag means the
+     * mockup class had no instances before.
+     */
+    private static final class MockUpClassChange {
+        @Nonnull
+        final Class<?> mockUpClass;
+        @Nullable
+        final Boolean hadMockUpsForSingleInstances;
+
+        MockUpClassChange(@Nonnull Class<?> mockUpClass, @Nullable Boolean hadMockUpsForSingleInstances) {
+            this.mockUpClass = mockUpClass;
+            this.hadMockUpsForSingleInstances = hadMockUpsForSingleInstances;
+        }
+    }
+
+    /**
+     * The changes made by the tests of a {@link TestScope}, in order, which save-points undo.
+     */
+    public static final class ChangeLog {
+        @Nonnull
+        private final List<MockUpClassChange> mockUpClassChanges;
+        @Nonnull
+        private final List<Object> addedMockedInstances;
+
+        public ChangeLog() {
+            mockUpClassChanges = new ArrayList<>();
+            addedMockedInstances = new ArrayList<>();
+        }
+    }
+
     @Nonnull
     private final Map<String, MockUp<?>> startupMocks;
     @Nonnull
@@ -71,9 +109,9 @@ public final class FakeClasses {
     public final FakeStates fakeStates;
 
     public FakeClasses() {
-        startupMocks = new IdentityHashMap<>(8);
-        mockupClassesToMockupInstances = new IdentityHashMap<>();
-        mockedToMockupInstances = new IdentityHashMap<>();
+        startupMocks = Collections.synchronizedMap(new IdentityHashMap<>(8));
+        mockupClassesToMockupInstances = Collections.synchronizedMap(new IdentityHashMap<>());
+        mockedToMockupInstances = Collections.synchronizedMap(new IdentityHashMap<>());
         fakeStates = new FakeStates();
     }
 
@@ -82,16 +120,24 @@ public final class FakeClasses {
     }
 
     public void addFake(@Nonnull MockUp<?> mockUp) {
+        TestScope scope = TestRun.getScope();
         Class<?> mockUpClass = mockUp.getClass();
-        MockUpInstances newData = new MockUpInstances(mockUp);
-        mockupClassesToMockupInstances.put(mockUpClass, newData);
+        MockUpInstances newData = new MockUpInstances(mockUp, scope);
+        MockUpInstances previousData = mockupClassesToMockupInstances.put(mockUpClass, newData);
+        Boolean hadMockUpsForSingleInstances = previousData == null ? null : previousData.hasMockupsForSingleInstances;
+        scope.getFakeChanges().mockUpClassChanges.add(new MockUpClassChange(mockUpClass, hadMockUpsForSingleInstances));
     }
 
     public void addFake(@Nonnull MockUp<?> mockUp, @Nonnull Object mockedInstance) {
         MockUp<?> previousMockup = mockedToMockupInstances.put(mockedInstance, mockUp);
         assert previousMockup == null;
+        ChangeLog changes = TestRun.getScope().getFakeChanges();
+        changes.addedMockedInstances.add(mockedInstance);
 
-        MockUpInstances mockUpInstances = mockupClassesToMockupInstances.get(mockUp.getClass());
+        Class<?> mockUpClass = mockUp.getClass();
+        MockUpInstances mockUpInstances = mockupClassesToMockupInstances.get(mockUpClass);
+        boolean hadMockUpsForSingleInstances = mockUpInstances.hasMockupsForSingleInstances;
+        changes.mockUpClassChanges.add(new MockUpClassChange(mockUpClass, hadMockUpsForSingleInstances));
         mockUpInstances.hasMockupsForSingleInstances = true;
     }
 
@@ -113,6 +159,13 @@ public final class FakeClasses {
 
         Class<?> mockUpClass = ClassLoad.loadByInternalName(mockUpClassDesc);
         MockUpInstances mockUpInstances = mockupClassesToMockupInstances.get(mockUpClass);
+
+        if (TestRun.CONCURRENT_TESTS && mockUpInstances.scope != TestRun.getScope()) {
+            // Called from a thread which doesn't run tests of the scope which applied the fake, so the real
+            // implementation gets executed instead.
+            return null;
+        }
+
         Object invokedInstance = mockedInstance;
 
         if (mockedInstance == null) {
@@ -141,44 +194,60 @@ public final class FakeClasses {
         return mockUpInstances;
     }
 
-    private void discardMockupInstances(@Nonnull Map<Object, MockUp<?>> previousMockInstances) {
-        if (!previousMockInstances.isEmpty()) {
-            mockedToMockupInstances.entrySet().retainAll(previousMockInstances.entrySet());
-        } else if (!mockedToMockupInstances.isEmpty()) {
-            mockedToMockupInstances.clear();
-        }
+    /**
+     * Gets the view of the changes after the given position in a list of changes, if any. Clearing the view discards
+     * said changes from the list.
+     */
+    @Nonnull
+    private static <E> List<E> getChangesSince(@Nonnull List<E> changes, int previousChangeCount) {
+        int changeCount = changes.size();
+        return previousChangeCount < changeCount ? changes.subList(previousChangeCount, changeCount)
+                : Collections.emptyList();
     }
 
-    private void discardMockupInstancesExceptPreviousOnes(@Nonnull Map<Class<?>, Boolean> previousMockupClasses) {
-        updatePreviousMockups(previousMockupClasses);
-
-        for (Entry<Class<?>, MockUpInstances> mockupClassAndInstances : mockupClassesToMockupInstances.entrySet()) {
-            Class<?> mockupClass = mockupClassAndInstances.getKey();
+    private void discardMockupInstances(@Nonnull ChangeLog changes, int previousMockedInstanceCount) {
+        List<Object> mockedInstancesToDiscard = getChangesSince(changes.addedMockedInstances,
+                previousMockedInstanceCount);
 
-            if (!previousMockupClasses.containsKey(mockupClass)) {
-                MockUpInstances mockUpInstances = mockupClassAndInstances.getValue();
-                mockUpInstances.notifyMockUpOfTearDown();
-            }
+        for (Object mockedInstance : mockedInstancesToDiscard) {
+            mockedToMockupInstances.remove(mockedInstance);
         }
 
-        mockupClassesToMockupInstances.keySet().retainAll(previousMockupClasses.keySet());
+        mockedInstancesToDiscard.clear();
     }
 
-    private void updatePreviousMockups(@Nonnull Map<Class<?>, Boolean> previousMockupClasses) {
-        for (Entry<Class<?>, Boolean> mockupClassAndData : previousMockupClasses.entrySet()) {
-            Class<?> mockupClass = mockupClassAndData.getKey();
-            MockUpInstances mockUpData = mockupClassesToMockupInstances.get(mockupClass);
-            mockUpData.hasMockupsForSingleInstances = mockupClassAndData.getValue();
+    private void discardMockupClassChanges(@Nonnull ChangeLog changes, int previousMockUpClassChangeCount) {
+        List<MockUpClassChange> changesToUndo = getChangesSince(changes.mockUpClassChanges,
+                previousMockUpClassChangeCount);
+
+        if (changesToUndo.isEmpty()) {
+            return;
         }
-    }
 
-    private void discardAllMockupInstances() {
-        if (!mockupClassesToMockupInstances.isEmpty()) {
-            for (MockUpInstances mockUpInstances : mockupClassesToMockupInstances.values()) {
-                mockUpInstances.notifyMockUpOfTearDown();
-            }
+        // Going backwards, so that each mockup class ends up with the state it had before its first change.
+        Map<Class<?>, MockUpClassChange> statesAtSavePoint = new IdentityHashMap<>();
+
+        for (int i = changesToUndo.size() - 1; i >= 0; i--) {
+            MockUpClassChange change = changesToUndo.get(i);
+            statesAtSavePoint.put(change.mockUpClass, change);
+        }
+
+        changesToUndo.clear();
 
-            mockupClassesToMockupInstances.clear();
+        for (MockUpClassChange stateAtSavePoint : statesAtSavePoint.values()) {
+            Class<?> mockUpClass = stateAtSavePoint.mockUpClass;
+            MockUpInstances mockUpInstances = mockupClassesToMockupInstances.get(mockUpClass);
+
+            if (mockUpInstances != null) {
+                Boolean hadMockUpsForSingleInstances = stateAtSavePoint.hadMockUpsForSingleInstances;
+
+                if (hadMockUpsForSingleInstances == null) {
+                    mockUpInstances.notifyMockUpOfTearDown();
+                    mockupClassesToMockupInstances.remove(mockUpClass);
+                } else {
+                    mockUpInstances.hasMockupsForSingleInstances = hadMockUpsForSingleInstances;
+                }
+            }
         }
     }
 
@@ -190,29 +259,19 @@ public final class FakeClasses {
 
     public final class SavePoint {
         @Nonnull
-        private final Map<Object, MockUp<?>> previousMockInstances;
-        @Nonnull
-        private final Map<Class<?>, Boolean> previousMockupClasses;
-
-        public SavePoint() {
-            previousMockInstances = new IdentityHashMap<>(mockedToMockupInstances);
-            previousMockupClasses = new IdentityHashMap<>();
-
-            for (Entry<Class<?>, MockUpInstances> mockUpClassAndData : mockupClassesToMockupInstances.entrySet()) {
-                Class<?> mockUpClass = mockUpClassAndData.getKey();
-                MockUpInstances mockUpData = mockUpClassAndData.getValue();
-                previousMockupClasses.put(mockUpClass, mockUpData.hasMockupsForSingleInstances);
-            }
+        private final ChangeLog changes;
+        private final int previousMockedInstanceCount;
+        private final int previousMockUpClassChangeCount;
+
+        public SavePoint(@Nonnull ChangeLog changes) {
+            this.changes = changes;
+            previousMockedInstanceCount = changes.addedMockedInstances.size();
+            previousMockUpClassChangeCount = changes.mockUpClassChanges.size();
         }
 
         public void rollback() {
-            discardMockupInstances(previousMockInstances);
-
-            if (!previousMockupClasses.isEmpty()) {
-                discardMockupInstancesExceptPreviousOnes(previousMockupClasses);
-            } else {
-                discardAllMockupInstances();
-            }
+            discardMockupInstances(changes, previousMockedInstanceCount);
+            discardMockupClassChanges(changes, previousMockUpClassChangeCount);
         }
     }
 }
@@ -4,18 +4,16 @@
  */
 package mockit.internal.faking;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Method;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
-import mockit.Invocation;
 import mockit.internal.ClassLoadingBridge;
-import mockit.internal.reflection.MethodReflection;
 import mockit.internal.reflection.ParameterReflection;
 import mockit.internal.state.TestRun;
 import mockit.internal.util.DefaultValues;
-import mockit.internal.util.TypeDescriptor;
 
 public final class FakeMethodBridge extends ClassLoadingBridge {
     @Nonnull
@@ -73,17 +71,16 @@ public final class FakeMethodBridge extends ClassLoadingBridge {
     private static Object executeSimpleFakeMethod(@Nonnull Class<?> fakeClass, @Nullable Object fake,
             @Nonnull String fakeOrFakedName, @Nonnull String fakeOrFakedDesc, @Nonnull Object[] fakeArgs)
             throws Throwable {
-        Class<?>[] paramClasses = TypeDescriptor.getParameterTypes(fakeOrFakedDesc);
-        return MethodReflection.invokeWithCheckedThrows(fakeClass, fake, fakeOrFakedName, paramClasses, fakeArgs);
+        MethodHandle fakeMethod = FakeMethodHandles.getSimpleFakeMethod(fakeClass, fakeOrFakedName, fakeOrFakedDesc);
+        return FakeMethodHandles.invoke(fakeMethod, fake, fakeArgs);
     }
 
     @Nullable
     private static Object executeFakeMethodWithoutInvocationArgument(@Nonnull FakeState fakeState,
             @Nonnull Class<?> fakeClass, @Nullable Object fake, @Nonnull String fakeOrFakedDesc,
             @Nonnull Object[] fakeArgs) throws Throwable {
-        Class<?>[] paramClasses = TypeDescriptor.getParameterTypes(fakeOrFakedDesc);
-        Method fakeMethod = fakeState.getFakeMethod(fakeClass, paramClasses);
-        return MethodReflection.invokeWithCheckedThrows(fake, fakeMethod, fakeArgs);
+        MethodHandle fakeMethod = fakeState.getFakeMethod(fakeClass, fakeOrFakedDesc);
+        return FakeMethodHandles.invoke(fakeMethod, fake, fakeArgs);
     }
 
     @Nullable
@@ -91,27 +88,21 @@ public final class FakeMethodBridge extends ClassLoadingBridge {
             @Nonnull Class<?> fakeClass, @Nullable Object fake, @Nullable Object fakedInstance,
             @Nonnull String fakedClassDesc, @Nonnull String fakedName, @Nonnull String fakedDesc,
             @Nonnull Object[] fakeArgs) throws Throwable {
-        Class<?>[] paramClasses;
-        Method fakeMethod;
+        MethodHandle fakeMethod = fakeState.getFakeMethod(fakeClass, fakedDesc);
         FakeInvocation invocation;
         Object[] executionArgs;
 
         if (fakeState.fakeMethod.hasInvocationParameterOnly()) {
-            paramClasses = new Class[] { Invocation.class };
-            fakeMethod = fakeState.getFakeMethod(fakeClass, paramClasses);
             invocation = new FakeInvocation(fakedInstance, fakeArgs, fakeState, fakedClassDesc, fakedName, fakedDesc);
             executionArgs = new Object[] { invocation };
         } else {
-            paramClasses = TypeDescriptor.getParameterTypes(fakedDesc);
-            fakeMethod = fakeState.getFakeMethod(fakeClass, paramClasses);
-
             // noinspection AssignmentToMethodParameter
             fakedDesc = fakeState.fakeMethod.fakeDescWithoutInvocationParameter;
             invocation = new FakeInvocation(fakedInstance, fakeArgs, fakeState, fakedClassDesc, fakedName, fakedDesc);
             executionArgs = ParameterReflection.argumentsWithExtraFirstValue(fakeArgs, invocation);
         }
 
-        Object result = MethodReflection.invokeWithCheckedThrows(fake, fakeMethod, executionArgs);
+        Object result = FakeMethodHandles.invoke(fakeMethod, fake, executionArgs);
         return invocation.shouldProceedIntoConstructor() ? Void.class : result;
     }
 }
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2006 JMockit developers
+ * This file is subject to the terms of the MIT license (see LICENSE.txt).
+ */
+package mockit.internal.faking;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import mockit.internal.reflection.MethodReflection;
+import mockit.internal.util.AutoBoxing;
+import mockit.internal.util.StackTrace;
+import mockit.internal.util.TypeDescriptor;
+import mockit.internal.util.Utilities;
+
+/**
+ * Method handles for calling fake methods, each one obtained once for a given fake method and adapted to take the fake
+ * instance (ignored for a static fake method) and an array with the arguments, so that calls to fake methods avoid the
+ * lookup and the reflective invocation of {@link Method}s.
+ */
+final class FakeMethodHandles {
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+    private static final ClassValue<Map<String, MethodHandle>> SIMPLE_FAKE_METHODS = new ClassValue<>() {
+        @Override
+        protected Map<String, MethodHandle> computeValue(Class<?> fakeClass) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    @Nonnull
+    private static final MethodHandle ARGUMENT_FAILURE_HANDLER;
+
+    static {
+        MethodType handlerType = MethodType.methodType(Object.class, Method.class, RuntimeException.class,
+                Object.class, Object[].class);
+
+        try {
+            ARGUMENT_FAILURE_HANDLER = MethodHandles.lookup().findStatic(FakeMethodHandles.class,
+                    "handleArgumentFailure", handlerType);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private FakeMethodHandles() {
+    }
+
+    /**
+     * Gets the method handle for a fake method which has no {@link FakeState}, as found in the fake class (or in a
+     * super-class) from its name and descriptor.
+     */
+    @Nonnull
+    static MethodHandle getSimpleFakeMethod(@Nonnull Class<?> fakeClass, @Nonnull String fakeName,
+            @Nonnull String fakeDesc) {
+        Map<String, MethodHandle> fakeMethods = SIMPLE_FAKE_METHODS.get(fakeClass);
+        String fakeNameAndDesc = fakeName + fakeDesc;
+        MethodHandle fakeMethod = fakeMethods.get(fakeNameAndDesc);
+
+        if (fakeMethod == null) {
+            Class<?>[] paramClasses = TypeDescriptor.getParameterTypes(fakeDesc);
+            Method method = MethodReflection.findSpecifiedMethod(fakeClass, fakeName, paramClasses);
+            fakeMethod = forFakeMethod(method);
+            fakeMethods.put(fakeNameAndDesc, fakeMethod);
+        }
+
+        return fakeMethod;
+    }
+
+    @Nonnull
+    static MethodHandle forFakeMethod(@Nonnull Method fakeMethod) {
+        Utilities.ensureThatMemberIsAccessible(fakeMethod);
+        MethodHandle methodHandle;
+
+        try {
+            methodHandle = MethodHandles.lookup().unreflect(fakeMethod).asFixedArity();
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+
+        if (Modifier.isStatic(fakeMethod.getModifiers())) {
+            methodHandle = MethodHandles.dropArguments(methodHandle, 0, Object.class);
+        }
+
+        methodHandle = methodHandle.asSpreader(Object[].class, fakeMethod.getParameterCount()).asType(INVOKER_TYPE);
+        MethodHandle argumentFailureHandler = MethodHandles.insertArguments(ARGUMENT_FAILURE_HANDLER, 0, fakeMethod);
+        return MethodHandles.catchException(methodHandle, RuntimeException.class, argumentFailureHandler);
+    }
+
+    /**
+     * Reports a failure to pass the arguments to the fake method (a wrong number of arguments, a <code>null</code>
+     * argument for a primitive parameter, or an argument not assignable to its parameter type) the same way as a
+     * reflective invocation would, while letting any exception thrown from the fake method itself through.
+     */
+    @Nullable
+    private static Object handleArgumentFailure(@Nonnull Method fakeMethod, @Nonnull RuntimeException failure,
+            @Nullable Object fake, @Nonnull Object[] fakeArgs) {
+        if (!areArgumentsAcceptable(fakeMethod.getParameterTypes(), fakeArgs)) {
+            StackTrace.filterStackTrace(failure);
+            throw new IllegalArgumentException("Failure to invoke method: " + fakeMethod, failure);
+        }
+
+        throw failure;
+    }
+
+    private static boolean areArgumentsAcceptable(@Nonnull Class<?>[] parameterTypes, @Nonnull Object[] fakeArgs) {
+        if (fakeArgs.length != parameterTypes.length) {
+            return false;
+        }
+
+        for (int i = 0; i < parameterTypes.length; i++) {
+            Class<?> parameterType = parameterTypes[i];
+            Object arg = fakeArgs[i];
+
+            if (parameterType.isPrimitive()) {
+                if (arg == null) {
+                    return false;
+                }
+
+                // noinspection ConstantConditions
+                parameterType = AutoBoxing.getWrapperType(parameterType);
+            }
+
+            if (arg != null && !parameterType.isInstance(arg)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @Nullable
+    static Object invoke(@Nonnull MethodHandle fakeMethod, @Nullable Object fake, @Nonnull Object[] fakeArgs)
+            throws Throwable {
+        return (Object) fakeMethod.invokeExact(fake, fakeArgs);
+    }
+}
@@ -4,16 +4,19 @@
  */
 package mockit.internal.faking;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Member;
 import java.lang.reflect.Method;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
+import mockit.Invocation;
 import mockit.internal.faking.FakeMethods.FakeMethod;
 import mockit.internal.reflection.MethodReflection;
 import mockit.internal.reflection.RealMethodOrConstructor;
 import mockit.internal.util.ClassLoad;
+import mockit.internal.util.TypeDescriptor;
 
 final class FakeState {
     private static final ClassLoader THIS_CL = FakeState.class.getClassLoader();
@@ -21,7 +24,7 @@ final class FakeState {
     @Nonnull
     final FakeMethod fakeMethod;
     @Nullable
-    private Method actualFakeMethod;
+    private MethodHandle actualFakeMethod;
     @Nullable
     private Member realMethodOrConstructor;
     @Nullable
@@ -165,11 +168,17 @@ final class FakeState {
     }
 
     @Nonnull
-    Method getFakeMethod(@Nonnull Class<?> fakeClass, @Nonnull Class<?>[] parameterTypes) {
-        if (actualFakeMethod == null) {
-            actualFakeMethod = MethodReflection.findCompatibleMethod(fakeClass, fakeMethod.name, parameterTypes);
+    MethodHandle getFakeMethod(@Nonnull Class<?> fakeClass, @Nonnull String argumentsDesc) {
+        MethodHandle fakeMethodHandle = actualFakeMethod;
+
+        if (fakeMethodHandle == null) {
+            Class<?>[] parameterTypes = fakeMethod.hasInvocationParameterOnly() ? new Class<?>[] { Invocation.class }
+                    : TypeDescriptor.getParameterTypes(argumentsDesc);
+            Method method = MethodReflection.findCompatibleMethod(fakeClass, fakeMethod.name, parameterTypes);
+            fakeMethodHandle = FakeMethodHandles.forFakeMethod(method);
+            actualFakeMethod = fakeMethodHandle;
         }
 
-        return actualFakeMethod;
+        return fakeMethodHandle;
     }
 }
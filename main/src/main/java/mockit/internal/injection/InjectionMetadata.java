@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2006 JMockit developers
+ * This file is subject to the terms of the MIT license (see LICENSE.txt).
+ */
+package mockit.internal.injection;
+
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import mockit.internal.injection.InjectionPoint.KindOfInjectionPoint;
+import mockit.internal.injection.constructor.ConstructorSearch;
+
+/**
+ * Reflection metadata about the classes taking part in dependency injection, which doesn't change from one test to
+ * the next, and therefore is obtained only once per class: fields eligible for injection, the kind of injection point
+ * (<code>@Inject</code>, <code>@Autowired</code>, <code>@Resource</code>, etc.) and the qualified name of each field
+ * or constructor, constructors in the order they are searched, and lifecycle methods.
+ * <p>
+ * The metadata is associated to each class through a {@link ClassValue}, so it doesn't prevent the class from being
+ * unloaded.
+ */
+public final class InjectionMetadata {
+    private static final ClassValue<ClassMetadata> METADATA = new ClassValue<>() {
+        @Override
+        protected ClassMetadata computeValue(Class<?> aClass) {
+            return new ClassMetadata(aClass);
+        }
+    };
+
+    private static final class InjectionPointMetadata {
+        @Nonnull
+        final KindOfInjectionPoint kind;
+        @Nullable
+        final String qualifiedName;
+
+        InjectionPointMetadata(@Nonnull AccessibleObject fieldOrConstructor) {
+            kind = InjectionPoint.kindOfInjectionPoint(fieldOrConstructor);
+            qualifiedName = fieldOrConstructor instanceof Field
+                    ? InjectionPoint.getQualifiedName(fieldOrConstructor.getDeclaredAnnotations()) : null;
+        }
+    }
+
+    private static final class ClassMetadata {
+        @Nonnull
+        private final Class<?> aClass;
+        @Nonnull
+        private final Map<AccessibleObject, InjectionPointMetadata> injectionPoints;
+        @Nullable
+        private volatile Field[] declaredFields;
+        @Nullable
+        private volatile List<Field> eligibleFields;
+        @Nullable
+        private volatile Constructor<?>[] constructors;
+        @Nullable
+        private volatile Constructor<?> annotatedConstructor;
+        @Nullable
+        private volatile Method[] lifecycleMethods;
+        @Nullable
+        private volatile Method[] servletLifecycleMethods;
+
+        ClassMetadata(@Nonnull Class<?> aClass) {
+            this.aClass = aClass;
+            injectionPoints = new ConcurrentHashMap<>();
+        }
+
+        @Nonnull
+        InjectionPointMetadata getInjectionPoint(@Nonnull AccessibleObject fieldOrConstructor) {
+            return injectionPoints.computeIfAbsent(fieldOrConstructor, InjectionPointMetadata::new);
+        }
+
+        @Nonnull
+        Field[] getDeclaredFields() {
+            Field[] fields = declaredFields;
+
+            if (fields == null) {
+                fields = aClass.getDeclaredFields();
+                declaredFields = fields;
+            }
+
+            return fields;
+        }
+
+        @Nonnull
+        List<Field> getEligibleFields() {
+            List<Field> fields = eligibleFields;
+
+            if (fields == null) {
+                fields = new ArrayList<>();
+
+                for (Field field : getDeclaredFields()) {
+                    if (Injector.isEligibleForInjection(field)) {
+                        fields.add(field);
+                    }
+                }
+
+                fields = fields.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(fields);
+                eligibleFields = fields;
+            }
+
+            return fields;
+        }
+
+        @Nonnull
+        Constructor<?>[] getConstructors() {
+            Constructor<?>[] sortedConstructors = constructors;
+
+            if (sortedConstructors == null) {
+                Constructor<?>[] declaredConstructors = aClass.getDeclaredConstructors();
+
+                for (Constructor<?> c : declaredConstructors) {
+                    if (getInjectionPoint(c).kind != KindOfInjectionPoint.NotAnnotated) {
+                        annotatedConstructor = c;
+                        break;
+                    }
+                }
+
+                sortedConstructors = declaredConstructors.clone();
+                ConstructorSearch.sortConstructorsWithMostAccessibleFirst(sortedConstructors);
+                constructors = sortedConstructors;
+            }
+
+            return sortedConstructors;
+        }
+
+        @Nullable
+        Constructor<?> getAnnotatedConstructor() {
+            getConstructors();
+            return annotatedConstructor;
+        }
+
+        @Nonnull
+        Method[] getLifecycleMethods(boolean isServlet) {
+            Method[] methods = isServlet ? servletLifecycleMethods : lifecycleMethods;
+
+            if (methods == null) {
+                methods = LifecycleMethods.findLifecycleMethodsInSingleClass(isServlet, aClass);
+
+                if (isServlet) {
+                    servletLifecycleMethods = methods;
+                } else {
+                    lifecycleMethods = methods;
+                }
+            }
+
+            return methods;
+        }
+    }
+
+    private InjectionMetadata() {
+    }
+
+    /**
+     * Gets the fields declared in the given class, without copying them as {@link Class#getDeclaredFields()} does; the
+     * returned array is not to be modified.
+     */
+    @Nonnull
+    static Field[] getDeclaredFields(@Nonnull Class<?> aClass) {
+        return METADATA.get(aClass).getDeclaredFields();
+    }
+
+    /**
+     * Gets the fields declared in the given class which are eligible for injection.
+     */
+    @Nonnull
+    static List<Field> getEligibleFields(@Nonnull Class<?> aClass) {
+        return METADATA.get(aClass).getEligibleFields();
+    }
+
+    @Nonnull
+    public static KindOfInjectionPoint kindOfInjectionPoint(@Nonnull Field field) {
+        return METADATA.get(field.getDeclaringClass()).getInjectionPoint(field).kind;
+    }
+
+    @Nonnull
+    public static KindOfInjectionPoint kindOfInjectionPoint(@Nonnull Constructor<?> constructor) {
+        return METADATA.get(constructor.getDeclaringClass()).getInjectionPoint(constructor).kind;
+    }
+
+    @Nullable
+    public static String getQualifiedName(@Nonnull Field field) {
+        return METADATA.get(field.getDeclaringClass()).getInjectionPoint(field).qualifiedName;
+    }
+
+    /**
+     * Gets the constructors declared in the given class, with the most accessible ones first; the returned array is
+     * not to be modified.
+     */
+    @Nonnull
+    public static Constructor<?>[] getConstructorsWithMostAccessibleFirst(@Nonnull Class<?> aClass) {
+        return METADATA.get(aClass).getConstructors();
+    }
+
+    /**
+     * Gets the first constructor declared in the given class which is annotated as an injection point, if any.
+     */
+    @Nullable
+    public static Constructor<?> getAnnotatedConstructor(@Nonnull Class<?> aClass) {
+        return METADATA.get(aClass).getAnnotatedConstructor();
+    }
+
+    /**
+     * Gets the initialization and termination methods declared in the given class, either of which can be null.
+     */
+    @Nonnull
+    static Method[] getLifecycleMethods(@Nonnull Class<?> aClass, boolean isServlet) {
+        return METADATA.get(aClass).getLifecycleMethods(isServlet);
+    }
+}
@@ -44,6 +44,11 @@ public final class InjectionProviders {
         return true;
     }
 
+    @Nonnull
+    List<InjectionProvider> getInjectables() {
+        return injectables;
+    }
+
     @Nonnull
     List<InjectionProvider> addInjectables(@Nonnull List<? extends InjectionProvider> injectablesToAdd) {
         if (!injectablesToAdd.isEmpty()) {
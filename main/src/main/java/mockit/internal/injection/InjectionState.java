@@ -4,8 +4,6 @@
  */
 package mockit.internal.injection;
 
-import static mockit.internal.injection.InjectionPoint.getQualifiedName;
-
 import java.lang.reflect.Field;
 import java.lang.reflect.Type;
 import java.util.LinkedHashMap;
@@ -17,8 +15,8 @@ import java.util.concurrent.ConcurrentHashMap;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
-import mockit.internal.reflection.FieldReflection;
 import mockit.internal.reflection.GenericTypeReflection;
+import mockit.internal.reflection.MemberHandles;
 
 /**
  * Holds state used throughout the injection process while it's in progress for a given set of tested objects.
@@ -124,15 +122,15 @@ public final class InjectionState {
     @Nullable
     private static Object getValueFromFieldOfEquivalentTypeAndName(@Nonnull InjectionPoint injectionPoint,
             @Nonnull Object testedObject) {
-        for (Field internalField : testedObject.getClass().getDeclaredFields()) {
+        for (Field internalField : InjectionMetadata.getDeclaredFields(testedObject.getClass())) {
             Type fieldType = internalField.getGenericType();
-            String qualifiedName = getQualifiedName(internalField.getDeclaredAnnotations());
+            String qualifiedName = InjectionMetadata.getQualifiedName(internalField);
             boolean qualified = qualifiedName != null;
             String fieldName = qualified ? qualifiedName : internalField.getName();
             InjectionPoint internalInjectionPoint = new InjectionPoint(fieldType, fieldName, qualified);
 
             if (internalInjectionPoint.equals(injectionPoint)) {
-                return FieldReflection.getFieldValue(internalField, testedObject);
+                return MemberHandles.getFieldValue(internalField, testedObject);
             }
         }
 
@@ -217,6 +215,11 @@ public final class InjectionState {
         instantiatedDependencies.put(dependencyKey, dependency);
     }
 
+    @Nonnull
+    Map<InjectionPoint, Object> getInstantiatedDependencies() {
+        return new LinkedHashMap<>(instantiatedDependencies);
+    }
+
     public static void saveGlobalDependency(@Nonnull InjectionPoint dependencyKey, @Nonnull Object dependency) {
         globalObjects.put(dependencyKey, dependency);
     }
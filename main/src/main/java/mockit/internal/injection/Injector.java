@@ -11,10 +11,10 @@ import static java.util.regex.Pattern.compile;
 
 import static mockit.internal.injection.InjectionPoint.PERSISTENCE_UNIT_CLASS;
 import static mockit.internal.injection.InjectionPoint.convertToLegalJavaIdentifierIfNeeded;
-import static mockit.internal.injection.InjectionPoint.getQualifiedName;
 import static mockit.internal.injection.InjectionPoint.isServlet;
-import static mockit.internal.injection.InjectionPoint.kindOfInjectionPoint;
 import static mockit.internal.injection.InjectionPoint.wrapInProviderIfNeeded;
+import static mockit.internal.injection.InjectionMetadata.getQualifiedName;
+import static mockit.internal.injection.InjectionMetadata.kindOfInjectionPoint;
 import static mockit.internal.injection.InjectionProvider.NULL;
 
 import jakarta.annotation.Nonnull;
@@ -31,7 +31,7 @@ import java.util.regex.Pattern;
 import mockit.internal.injection.InjectionPoint.KindOfInjectionPoint;
 import mockit.internal.injection.field.FieldToInject;
 import mockit.internal.injection.full.FullInjection;
-import mockit.internal.reflection.FieldReflection;
+import mockit.internal.reflection.MemberHandles;
 import mockit.internal.util.DefaultValues;
 
 public class Injector {
@@ -54,24 +54,17 @@ public class Injector {
         Class<?> classWithFields = actualTestedClass;
 
         do {
-            addEligibleFields(targetFields, classWithFields);
+            targetFields.addAll(InjectionMetadata.getEligibleFields(classWithFields));
             classWithFields = classWithFields.getSuperclass();
         } while (testedClass.isClassFromSameModuleOrSystemAsTestedClass(classWithFields) || isServlet(classWithFields));
 
         return targetFields;
     }
 
-    private static void addEligibleFields(@Nonnull List<Field> targetFields, @Nonnull Class<?> classWithFields) {
-        Field[] fields = classWithFields.getDeclaredFields();
-
-        for (Field field : fields) {
-            if (isEligibleForInjection(field)) {
-                targetFields.add(field);
-            }
-        }
-    }
-
-    private static boolean isEligibleForInjection(@Nonnull Field field) {
+    /**
+     * Only to be called by {@link InjectionMetadata}, which caches the eligible fields of each class.
+     */
+    static boolean isEligibleForInjection(@Nonnull Field field) {
         int modifiers = field.getModifiers();
 
         if (isFinal(modifiers)) {
@@ -110,7 +103,7 @@ public class Injector {
 
                 if (injectableValue != null && injectableValue != NULL) {
                     injectableValue = wrapInProviderIfNeeded(field.getGenericType(), injectableValue);
-                    FieldReflection.setFieldValue(field, testedObject, injectableValue);
+                    MemberHandles.setFieldValue(field, testedObject, injectableValue);
                 }
             }
         }
@@ -122,7 +115,7 @@ public class Injector {
             return true;
         }
 
-        Object fieldValue = FieldReflection.getFieldValue(targetField, testedObject);
+        Object fieldValue = MemberHandles.getFieldValue(targetField, testedObject);
 
         if (fieldValue == null) {
             return true;
@@ -143,7 +136,7 @@ public class Injector {
     private Object getValueForFieldIfAvailable(@Nonnull List<Field> targetFields, @Nonnull TestedClass testedClass,
             @Nonnull Field targetField) {
         @Nullable
-        String qualifiedFieldName = getQualifiedName(targetField.getDeclaredAnnotations());
+        String qualifiedFieldName = getQualifiedName(targetField);
         InjectionProvider injectable = findAvailableInjectableIfAny(targetFields, qualifiedFieldName, testedClass,
                 targetField);
 
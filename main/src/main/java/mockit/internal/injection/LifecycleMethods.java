@@ -17,9 +17,11 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -55,14 +57,30 @@ public final class LifecycleMethods {
         Class<?> classWithLifecycleMethods = testedClass;
 
         do {
-            findLifecycleMethodsInSingleClass(isServlet, classWithLifecycleMethods);
+            Method[] lifecycleMethods = InjectionMetadata.getLifecycleMethods(classWithLifecycleMethods, isServlet);
+
+            if (lifecycleMethods[0] != null) {
+                initializationMethods.put(classWithLifecycleMethods, lifecycleMethods[0]);
+            }
+
+            if (lifecycleMethods[1] != null) {
+                terminationMethods.put(classWithLifecycleMethods, lifecycleMethods[1]);
+            }
+
             classWithLifecycleMethods = classWithLifecycleMethods.getSuperclass();
         } while (classWithLifecycleMethods != Object.class);
 
         classesSearched.add(testedClass);
     }
 
-    private void findLifecycleMethodsInSingleClass(boolean isServlet, @Nonnull Class<?> classWithLifecycleMethods) {
+    /**
+     * Finds the initialization and termination methods declared in a single class, to be cached by
+     * {@link InjectionMetadata}.
+     *
+     * @return an array with the initialization method and the termination method, either of which can be null
+     */
+    @Nonnull
+    static Method[] findLifecycleMethodsInSingleClass(boolean isServlet, @Nonnull Class<?> classWithLifecycleMethods) {
         Method initializationMethod = null;
         Method terminationMethod = null;
         int methodsFoundInSameClass = 0;
@@ -73,11 +91,9 @@ public final class LifecycleMethods {
             }
 
             if (initializationMethod == null && isInitializationMethod(method, isServlet)) {
-                initializationMethods.put(classWithLifecycleMethods, method);
                 initializationMethod = method;
                 methodsFoundInSameClass++;
             } else if (terminationMethod == null && isTerminationMethod(method, isServlet)) {
-                terminationMethods.put(classWithLifecycleMethods, method);
                 terminationMethod = method;
                 methodsFoundInSameClass++;
             }
@@ -86,6 +102,8 @@ public final class LifecycleMethods {
                 break;
             }
         }
+
+        return new Method[] { initializationMethod, terminationMethod };
     }
 
     private static boolean isInitializationMethod(@Nonnull Method method, boolean isServlet) {
@@ -165,7 +183,29 @@ public final class LifecycleMethods {
         }
     }
 
-    private void executeTerminationMethod(@Nonnull Class<?> testedClass, @Nonnull Object testedObject) {
+    /**
+     * Removes the given objects from those whose termination methods get executed after each test, returning them
+     * keyed by the tested class having the termination method.
+     */
+    @Nonnull
+    Map<Class<?>, Object> removeTerminationMethodsToExecute(@Nonnull Set<Object> objects) {
+        Map<Class<?>, Object> removed = new IdentityHashMap<>();
+
+        Iterator<Entry<Class<?>, Object>> itr = objectsWithTerminationMethodsToExecute.entrySet().iterator();
+
+        while (itr.hasNext()) {
+            Entry<Class<?>, Object> testedClassAndObject = itr.next();
+
+            if (objects.contains(testedClassAndObject.getValue())) {
+                removed.put(testedClassAndObject.getKey(), testedClassAndObject.getValue());
+                itr.remove();
+            }
+        }
+
+        return removed;
+    }
+
+    void executeTerminationMethod(@Nonnull Class<?> testedClass, @Nonnull Object testedObject) {
         Method terminationMethod = terminationMethods.get(testedClass);
         TestRun.exitNoMockingZone();
 
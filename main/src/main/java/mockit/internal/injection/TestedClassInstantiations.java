@@ -182,6 +182,15 @@ public final class TestedClassInstantiations {
         resetTestedFields(true);
     }
 
+    /**
+     * Discards the tested objects kept for the whole test class, executing their termination methods, if any.
+     */
+    public void clearTestedObjectsForTestClass() {
+        for (TestedField testedField : testedFields) {
+            testedField.discardObjectGraph();
+        }
+    }
+
     @Nonnull
     public BeanExporter getBeanExporter() {
         return injectionState.getBeanExporter();
@@ -6,8 +6,8 @@ package mockit.internal.injection;
 
 import static java.lang.reflect.Modifier.isFinal;
 
-import static mockit.internal.reflection.FieldReflection.getFieldValue;
-import static mockit.internal.reflection.FieldReflection.setFieldValue;
+import static mockit.internal.reflection.MemberHandles.getFieldValue;
+import static mockit.internal.reflection.MemberHandles.setFieldValue;
 
 import java.lang.reflect.Field;
 
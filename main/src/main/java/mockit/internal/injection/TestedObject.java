@@ -11,6 +11,7 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.lang.reflect.Type;
 import java.util.List;
+import java.util.Map;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -34,6 +35,8 @@ abstract class TestedObject {
     private final TestedObjectCreation testedObjectCreation;
     @Nullable
     private List<Field> targetFields;
+    @Nullable
+    private TestedObjectGraph objectGraph;
     boolean createAutomatically;
 
     @Nullable
@@ -74,6 +77,7 @@ abstract class TestedObject {
         }
 
         Object testedObject = getExistingTestedInstanceIfApplicable(testClassInstance);
+        Map<InjectionPoint, Object> previousDependencies = null;
         Class<?> testedObjectClass = testedClass.targetClass;
         InjectionPoint injectionPoint = new InjectionPoint(testedClass.declaredType, testedName);
 
@@ -87,6 +91,12 @@ abstract class TestedObject {
                 return;
             }
 
+            if (objectGraph != null) {
+                reuseObjectGraph(testClassInstance, injectionPoint, objectGraph);
+                return;
+            }
+
+            previousDependencies = metadata.perTestClass() ? injectionState.getInstantiatedDependencies() : null;
             testedObject = createAndRegisterNewObject(testClassInstance, injectionPoint);
         } else if (testedObject != null) {
             registerTestedObject(injectionPoint, testedObject);
@@ -98,6 +108,11 @@ abstract class TestedObject {
 
             if (createAutomatically) {
                 injectionState.lifecycleMethods.executeInitializationMethodsIfAny(testedObjectClass, testedObject);
+
+                if (previousDependencies != null && !metadata.global()) {
+                    objectGraph = new TestedObjectGraph(injectionState, testedObject, testClassInstance,
+                            previousDependencies);
+                }
             }
         }
     }
@@ -127,6 +142,13 @@ abstract class TestedObject {
         return false;
     }
 
+    private void reuseObjectGraph(@Nonnull Object testClassInstance, @Nonnull InjectionPoint injectionPoint,
+            @Nonnull TestedObjectGraph graph) {
+        graph.restore(testClassInstance);
+        setInstance(testClassInstance, graph.testedObject);
+        registerTestedObject(injectionPoint, graph.testedObject);
+    }
+
     abstract void setInstance(@Nonnull Object testClassInstance, @Nullable Object testedInstance);
 
     @Nullable
@@ -169,4 +191,11 @@ abstract class TestedObject {
             }
         }
     }
+
+    void discardObjectGraph() {
+        if (objectGraph != null) {
+            objectGraph.executeTerminationMethods();
+            objectGraph = null;
+        }
+    }
 }
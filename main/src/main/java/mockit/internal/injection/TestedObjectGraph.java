@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2006 JMockit developers
+ * This file is subject to the terms of the MIT license (see LICENSE.txt).
+ */
+package mockit.internal.injection;
+
+import static java.lang.reflect.Modifier.isStatic;
+
+import static mockit.internal.util.AutoBoxing.isWrapperOfPrimitiveType;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import mockit.internal.reflection.MemberHandles;
+
+/**
+ * The graph of objects created for a tested field with <code>perTestClass = true</code>: the tested object and the
+ * dependencies instantiated for it, which are created and initialized by the first test of the test class only, and
+ * then reused by the following tests.
+ * <p>
+ * The state of each object in the graph is saved right after its initialization, as the values of its instance fields.
+ * Before each following test, any field changed by a previous test is restored, and fields holding the value of an
+ * injectable are assigned the value of the same injectable for the new test.
+ */
+final class TestedObjectGraph {
+    private static final class ObjectState {
+        @Nonnull
+        final Object object;
+        @Nonnull
+        final Field[] fields;
+        @Nonnull
+        final Object[] values;
+
+        ObjectState(@Nonnull Object object) {
+            this.object = object;
+
+            List<Field> instanceFields = new ArrayList<>();
+            Class<?> aClass = object.getClass();
+
+            while (aClass != null && hasAccessibleFields(aClass)) {
+                for (Field field : InjectionMetadata.getDeclaredFields(aClass)) {
+                    if (!isStatic(field.getModifiers())) {
+                        instanceFields.add(field);
+                    }
+                }
+
+                aClass = aClass.getSuperclass();
+            }
+
+            fields = instanceFields.toArray(new Field[0]);
+            values = new Object[fields.length];
+
+            for (int i = 0; i < fields.length; i++) {
+                values[i] = MemberHandles.getFieldValue(fields[i], object);
+            }
+        }
+
+        /**
+         * Tells whether the fields declared in the given class can be made accessible, which is not the case for
+         * classes in named modules not opening their packages, such as JRE classes from the platform class loader.
+         */
+        private static boolean hasAccessibleFields(@Nonnull Class<?> aClass) {
+            return aClass.getClassLoader() != null
+                    && aClass.getModule().isOpen(aClass.getPackageName(), ObjectState.class.getModule());
+        }
+    }
+
+    @Nonnull
+    private final InjectionState injectionState;
+    @Nonnull
+    final Object testedObject;
+    @Nonnull
+    private final Map<InjectionPoint, Object> dependencies;
+    @Nonnull
+    private final List<ObjectState> objectStates;
+    @Nonnull
+    private final Map<Object, String> namesOfInjectedValues;
+    @Nonnull
+    private final Map<Class<?>, Object> objectsWithTerminationMethodsToExecute;
+
+    TestedObjectGraph(@Nonnull InjectionState injectionState, @Nonnull Object testedObject,
+            @Nonnull Object testClassInstance, @Nonnull Map<InjectionPoint, Object> previousDependencies) {
+        this.injectionState = injectionState;
+        this.testedObject = testedObject;
+        dependencies = injectionState.getInstantiatedDependencies();
+        dependencies.keySet().removeAll(previousDependencies.keySet());
+
+        Map<Object, Boolean> objectsInGraph = new IdentityHashMap<>();
+        objectsInGraph.put(testedObject, true);
+        objectStates = new ArrayList<>();
+        objectStates.add(new ObjectState(testedObject));
+
+        for (Object dependency : dependencies.values()) {
+            if (dependency.getClass().getClassLoader() != null && objectsInGraph.put(dependency, true) == null) {
+                objectStates.add(new ObjectState(dependency));
+            }
+        }
+
+        namesOfInjectedValues = new IdentityHashMap<>();
+
+        for (InjectionProvider injectable : injectionState.injectionProviders.getInjectables()) {
+            Object injectableValue = injectable.getValue(testClassInstance);
+
+            if (isReplaceableValue(injectableValue)) {
+                namesOfInjectedValues.put(injectableValue, injectable.getName());
+            }
+        }
+
+        objectsWithTerminationMethodsToExecute = injectionState.lifecycleMethods
+                .removeTerminationMethodsToExecute(objectsInGraph.keySet());
+    }
+
+    private static boolean isReplaceableValue(@Nullable Object value) {
+        return value != null && value != InjectionProvider.NULL && !(value instanceof String)
+                && !isWrapperOfPrimitiveType(value.getClass());
+    }
+
+    /**
+     * Restores the objects in the graph to their initial state, with the current values of injectables, and registers
+     * the tested object and its dependencies for the current test.
+     */
+    void restore(@Nonnull Object testClassInstance) {
+        Map<String, Object> currentInjectableValues = getCurrentInjectableValues(testClassInstance);
+
+        for (ObjectState objectState : objectStates) {
+            Object object = objectState.object;
+            Field[] fields = objectState.fields;
+            Object[] values = objectState.values;
+
+            for (int i = 0; i < fields.length; i++) {
+                Object initialValue = values[i];
+                String injectableName = initialValue == null ? null : namesOfInjectedValues.get(initialValue);
+
+                if (injectableName != null && currentInjectableValues.containsKey(injectableName)) {
+                    initialValue = currentInjectableValues.get(injectableName);
+                }
+
+                Field field = fields[i];
+                Object currentValue = MemberHandles.getFieldValue(field, object);
+
+                if (currentValue != initialValue && !isSameBoxedValue(currentValue, initialValue)) {
+                    MemberHandles.setFieldValue(field, object, initialValue);
+                }
+            }
+        }
+
+        for (Entry<InjectionPoint, Object> dependencyKeyAndObject : dependencies.entrySet()) {
+            injectionState.saveInstantiatedDependency(dependencyKeyAndObject.getKey(),
+                    dependencyKeyAndObject.getValue());
+        }
+    }
+
+    @Nonnull
+    private Map<String, Object> getCurrentInjectableValues(@Nonnull Object testClassInstance) {
+        Map<String, Object> currentValues = new LinkedHashMap<>();
+
+        if (!namesOfInjectedValues.isEmpty()) {
+            for (InjectionProvider injectable : injectionState.injectionProviders.getInjectables()) {
+                Object injectableValue = injectable.getValue(testClassInstance);
+
+                if (isReplaceableValue(injectableValue)) {
+                    currentValues.put(injectable.getName(), injectableValue);
+                }
+            }
+        }
+
+        return currentValues;
+    }
+
+    private static boolean isSameBoxedValue(@Nullable Object currentValue, @Nullable Object initialValue) {
+        return currentValue != null && isWrapperOfPrimitiveType(currentValue.getClass())
+                && currentValue.equals(initialValue);
+    }
+
+    void executeTerminationMethods() {
+        for (Entry<Class<?>, Object> testedClassAndObject : objectsWithTerminationMethodsToExecute.entrySet()) {
+            injectionState.lifecycleMethods.executeTerminationMethod(testedClassAndObject.getKey(),
+                    testedClassAndObject.getValue());
+        }
+    }
+}
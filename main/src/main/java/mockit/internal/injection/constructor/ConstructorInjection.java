@@ -6,10 +6,10 @@ package mockit.internal.injection.constructor;
 
 import static mockit.internal.injection.InjectionPoint.getQualifiedName;
 import static mockit.internal.injection.InjectionPoint.getTypeOfInjectionPointFromVarargsParameter;
-import static mockit.internal.injection.InjectionPoint.kindOfInjectionPoint;
+import static mockit.internal.injection.InjectionMetadata.kindOfInjectionPoint;
 import static mockit.internal.injection.InjectionPoint.wrapInProviderIfNeeded;
 import static mockit.internal.injection.InjectionProvider.NULL;
-import static mockit.internal.reflection.ConstructorReflection.invokeAccessible;
+import static mockit.internal.reflection.MemberHandles.newInstance;
 import static mockit.internal.util.Utilities.NO_ARGS;
 import static mockit.internal.util.Utilities.ensureThatMemberIsAccessible;
 import static mockit.internal.util.Utilities.getClassType;
@@ -214,7 +214,7 @@ public final class ConstructorInjection extends Injector {
         TestRun.exitNoMockingZone();
 
         try {
-            return invokeAccessible(constructor, arguments);
+            return newInstance(constructor, arguments);
         } finally {
             TestRun.enterNoMockingZone();
         }
@@ -8,9 +8,9 @@ import static java.lang.reflect.Modifier.PRIVATE;
 import static java.lang.reflect.Modifier.PROTECTED;
 import static java.lang.reflect.Modifier.PUBLIC;
 
+import static mockit.internal.injection.InjectionMetadata.kindOfInjectionPoint;
 import static mockit.internal.injection.InjectionPoint.getQualifiedName;
 import static mockit.internal.injection.InjectionPoint.getTypeOfInjectionPointFromVarargsParameter;
-import static mockit.internal.injection.InjectionPoint.kindOfInjectionPoint;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Constructor;
@@ -24,6 +24,7 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 import mockit.asm.types.JavaType;
+import mockit.internal.injection.InjectionMetadata;
 import mockit.internal.injection.InjectionPoint;
 import mockit.internal.injection.InjectionPoint.KindOfInjectionPoint;
 import mockit.internal.injection.InjectionProvider;
@@ -64,35 +65,28 @@ public final class ConstructorSearch {
     public Constructor<?> findConstructorToUse() {
         constructor = null;
         Class<?> declaredClass = testedClass.targetClass;
-        Constructor<?>[] constructors = declaredClass.getDeclaredConstructors();
+        Constructor<?> annotatedConstructor = InjectionMetadata.getAnnotatedConstructor(declaredClass);
 
-        if (!findSingleAnnotatedConstructor(constructors)) {
+        if (annotatedConstructor == null) {
+            Constructor<?>[] constructors = InjectionMetadata.getConstructorsWithMostAccessibleFirst(declaredClass);
             findSatisfiedConstructorWithMostParameters(constructors);
+        } else {
+            useAnnotatedConstructor(annotatedConstructor);
         }
 
         return constructor;
     }
 
-    private boolean findSingleAnnotatedConstructor(@Nonnull Constructor<?>[] constructors) {
-        for (Constructor<?> c : constructors) {
-            if (kindOfInjectionPoint(c) != KindOfInjectionPoint.NotAnnotated) {
-                List<InjectionProvider> providersFound = findParameterProvidersForConstructor(c);
+    private void useAnnotatedConstructor(@Nonnull Constructor<?> annotatedConstructor) {
+        List<InjectionProvider> providersFound = findParameterProvidersForConstructor(annotatedConstructor);
 
-                if (providersFound != null) {
-                    parameterProviders = providersFound;
-                    constructor = c;
-                }
-
-                return true;
-            }
+        if (providersFound != null) {
+            parameterProviders = providersFound;
+            constructor = annotatedConstructor;
         }
-
-        return false;
     }
 
     private void findSatisfiedConstructorWithMostParameters(@Nonnull Constructor<?>[] constructors) {
-        sortConstructorsWithMostAccessibleFirst(constructors);
-
         Constructor<?> unresolvedConstructor = null;
         List<InjectionProvider> incompleteProviders = null;
 
@@ -117,7 +111,7 @@ public final class ConstructorSearch {
         selectConstructorWithUnresolvedParameterIfMoreAccessible(unresolvedConstructor, incompleteProviders);
     }
 
-    private static void sortConstructorsWithMostAccessibleFirst(@Nonnull Constructor<?>[] constructors) {
+    public static void sortConstructorsWithMostAccessibleFirst(@Nonnull Constructor<?>[] constructors) {
         if (constructors.length > 1) {
             Arrays.sort(constructors, CONSTRUCTOR_COMPARATOR);
         }
@@ -9,7 +9,7 @@ import java.lang.reflect.Field;
 
 import javax.annotation.Nonnull;
 
-import mockit.internal.injection.InjectionPoint;
+import mockit.internal.injection.InjectionMetadata;
 import mockit.internal.injection.InjectionPoint.KindOfInjectionPoint;
 import mockit.internal.injection.InjectionProvider;
 
@@ -22,7 +22,7 @@ public final class FieldToInject extends InjectionProvider {
     public FieldToInject(@Nonnull Field targetField) {
         super(targetField.getGenericType(), targetField.getName());
         this.targetField = targetField;
-        kindOfInjectionPoint = InjectionPoint.kindOfInjectionPoint(targetField);
+        kindOfInjectionPoint = InjectionMetadata.kindOfInjectionPoint(targetField);
     }
 
     @Nonnull
@@ -17,17 +17,63 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 @SuppressWarnings("OverlyComplexClass")
 public final class GenericTypeReflection {
+    /**
+     * The generic signatures parsed and resolved for each class, when considered without type arguments of its own, as
+     * happens when matching and replaying expectations recorded on generic mocked types.
+     */
+    private static final ClassValue<SignaturesForClass> SIGNATURES = new ClassValue<>() {
+        @Override
+        protected SignaturesForClass computeValue(Class<?> ownerClass) {
+            return new SignaturesForClass(ownerClass);
+        }
+    };
+
+    private static final class SignaturesForClass {
+        @Nonnull
+        private final Class<?> ownerClass;
+        @Nonnull
+        private final GenericTypeReflection reflection;
+        @Nonnull
+        private final Map<String, String> resolvedSignatures;
+
+        SignaturesForClass(@Nonnull Class<?> ownerClass) {
+            this.ownerClass = ownerClass;
+            reflection = new GenericTypeReflection(ownerClass, null);
+            reflection.parsedSignatures = new ConcurrentHashMap<>();
+            resolvedSignatures = new ConcurrentHashMap<>();
+        }
+
+        @Nonnull
+        String resolve(@Nonnull String ownerTypeDesc, @Nonnull String genericSignature) {
+            String key = ownerTypeDesc + genericSignature;
+            String resolvedSignature = resolvedSignatures.get(key);
+
+            if (resolvedSignature == null) {
+                // Resolution adds the type parameters of the method to the type mappings, so it can't be done with
+                // the shared instance.
+                GenericTypeReflection typeReflection = new GenericTypeReflection(ownerClass, null);
+                resolvedSignature = typeReflection.resolveSignature(ownerTypeDesc, genericSignature);
+                resolvedSignatures.put(key, resolvedSignature);
+            }
+
+            return resolvedSignature;
+        }
+    }
+
     @Nonnull
     private final Map<String, Type> typeParametersToTypeArguments;
     @Nonnull
     private final Map<String, String> typeParametersToTypeArgumentNames;
     private final boolean withSignatures;
+    @Nullable
+    private Map<String, GenericSignature> parsedSignatures;
 
     public GenericTypeReflection(@Nonnull Class<?> ownerClass, @Nullable Type genericType) {
         this(ownerClass, genericType, true);
@@ -347,7 +393,7 @@ public final class GenericTypeReflection {
         }
 
         public boolean satisfiesGenericSignature(@Nonnull String otherSignature) {
-            GenericSignature other = new GenericSignature(otherSignature);
+            GenericSignature other = parseSignature(otherSignature);
             return areMatchingSignatures(other);
         }
 
@@ -404,14 +450,39 @@ public final class GenericTypeReflection {
         }
 
         public boolean satisfiesSignature(@Nonnull String otherSignature) {
-            GenericSignature other = new GenericSignature(otherSignature);
+            GenericSignature other = parseSignature(otherSignature);
             return other.areMatchingSignatures(this);
         }
     }
 
     @Nonnull
     public GenericSignature parseSignature(@Nonnull String genericSignature) {
-        return new GenericSignature(genericSignature);
+        Map<String, GenericSignature> cachedSignatures = parsedSignatures;
+
+        if (cachedSignatures == null) {
+            return new GenericSignature(genericSignature);
+        }
+
+        return cachedSignatures.computeIfAbsent(genericSignature, GenericSignature::new);
+    }
+
+    /**
+     * Parses the given generic signature of a method from the given class, reusing the result of a previous parsing if
+     * any.
+     */
+    @Nonnull
+    public static GenericSignature parseSignature(@Nonnull Class<?> ownerClass, @Nonnull String genericSignature) {
+        return SIGNATURES.get(ownerClass).reflection.parseSignature(genericSignature);
+    }
+
+    /**
+     * Resolves the return type in the given generic signature of a method from the given class, reusing the result of
+     * a previous resolution if any.
+     */
+    @Nonnull
+    public static String resolveSignature(@Nonnull Class<?> ownerClass, @Nonnull String ownerTypeDesc,
+            @Nonnull String genericSignature) {
+        return SIGNATURES.get(ownerClass).resolve(ownerTypeDesc, genericSignature);
     }
 
     @Nonnull
@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2006 JMockit developers
+ * This file is subject to the terms of the MIT license (see LICENSE.txt).
+ */
+package mockit.internal.reflection;
+
+import static java.lang.invoke.MethodType.methodType;
+import static java.lang.reflect.Modifier.isStatic;
+
+import static mockit.internal.util.Utilities.ensureThatMemberIsAccessible;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Method handles for reading and writing fields and for invoking constructors, each one obtained once for a given
+ * field or constructor and adapted to take and return <code>Object</code>s, so that the repeated field accesses and
+ * instantiations made when injecting tested objects and mock fields avoid reflective access.
+ * <p>
+ * A member for which no method handle can be obtained is accessed through the Reflection API instead, as is a field
+ * which can't be read from the given target object or written with the given value through its method handle (which
+ * then results in the usual reflective failure).
+ */
+public final class MemberHandles {
+    private static final MethodType GETTER_TYPE = methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = methodType(void.class, Object.class, Object.class);
+    private static final MethodType CONSTRUCTOR_TYPE = methodType(Object.class, Object[].class);
+
+    /**
+     * Stands for a member whose method handle could not be obtained.
+     */
+    private static final MethodHandle UNAVAILABLE = MethodHandles.constant(Object.class, null);
+
+    private static final class HandlesForClass {
+        @Nonnull
+        final Map<Member, MethodHandle> getters = new ConcurrentHashMap<>();
+        @Nonnull
+        final Map<Member, MethodHandle> setters = new ConcurrentHashMap<>();
+        @Nonnull
+        final Map<Member, MethodHandle> constructors = new ConcurrentHashMap<>();
+    }
+
+    private static final ClassValue<HandlesForClass> HANDLES = new ClassValue<>() {
+        @Override
+        protected HandlesForClass computeValue(Class<?> declaringClass) {
+            return new HandlesForClass();
+        }
+    };
+
+    private MemberHandles() {
+    }
+
+    @Nullable
+    public static <T> T getFieldValue(@Nonnull Field field, @Nullable Object targetObject) {
+        MethodHandle getter = HANDLES.get(field.getDeclaringClass()).getters.computeIfAbsent(field,
+                f -> createGetter(field));
+
+        if (getter == UNAVAILABLE) {
+            return FieldReflection.getFieldValue(field, targetObject);
+        }
+
+        Object target = getActualTargetObject(field, targetObject);
+
+        try {
+            @SuppressWarnings("unchecked")
+            T value = (T) (Object) getter.invokeExact(target);
+            return value;
+        } catch (ClassCastException ignore) {
+            // The target object is not an instance of the declaring class.
+            return FieldReflection.getFieldValue(field, targetObject);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new RuntimeException(t);
+        }
+    }
+
+    public static void setFieldValue(@Nonnull Field field, @Nullable Object targetObject, @Nullable Object value) {
+        MethodHandle setter = HANDLES.get(field.getDeclaringClass()).setters.computeIfAbsent(field,
+                f -> createSetter(field));
+
+        if (setter == UNAVAILABLE) {
+            FieldReflection.setFieldValue(field, targetObject, value);
+            return;
+        }
+
+        Object target = getActualTargetObject(field, targetObject);
+
+        try {
+            setter.invokeExact(target, value);
+        } catch (ClassCastException | NullPointerException ignore) {
+            // The value can't be converted to the type of the field without widening, or it's null for a primitive.
+            FieldReflection.setFieldValue(field, targetObject, value);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new RuntimeException(t);
+        }
+    }
+
+    @Nullable
+    private static Object getActualTargetObject(@Nonnull Field field, @Nullable Object targetObject) {
+        if (targetObject != null && !field.getDeclaringClass().isInstance(targetObject)) {
+            Field outerInstanceField = FieldReflection.getDeclaredField(targetObject.getClass(), "this$0", true);
+            return getFieldValue(outerInstanceField, targetObject);
+        }
+
+        return targetObject;
+    }
+
+    @Nonnull
+    private static MethodHandle createGetter(@Nonnull Field field) {
+        try {
+            ensureThatMemberIsAccessible(field);
+            MethodHandle getter = MethodHandles.lookup().unreflectGetter(field);
+
+            if (isStatic(field.getModifiers())) {
+                getter = MethodHandles.dropArguments(getter, 0, Object.class);
+            }
+
+            return getter.asType(GETTER_TYPE);
+        } catch (IllegalAccessException | RuntimeException ignore) {
+            return UNAVAILABLE;
+        }
+    }
+
+    @Nonnull
+    private static MethodHandle createSetter(@Nonnull Field field) {
+        try {
+            ensureThatMemberIsAccessible(field);
+            MethodHandle setter = MethodHandles.lookup().unreflectSetter(field);
+
+            if (isStatic(field.getModifiers())) {
+                setter = MethodHandles.dropArguments(setter, 0, Object.class);
+            }
+
+            return setter.asType(SETTER_TYPE);
+        } catch (IllegalAccessException | RuntimeException ignore) {
+            return UNAVAILABLE;
+        }
+    }
+
+    /**
+     * Invokes the given constructor with the given arguments, propagating any exception thrown by the constructor
+     * itself as is.
+     */
+    @Nonnull
+    public static <T> T newInstance(@Nonnull Constructor<T> constructor, @Nonnull Object... initArgs) {
+        MethodHandle handle = HANDLES.get(constructor.getDeclaringClass()).constructors.computeIfAbsent(constructor,
+                c -> createConstructorInvoker(constructor));
+
+        if (handle == UNAVAILABLE) {
+            return ConstructorReflection.invokeAccessible(constructor, initArgs);
+        }
+
+        try {
+            @SuppressWarnings("unchecked")
+            T newInstance = (T) (Object) handle.invokeExact(initArgs);
+            return newInstance;
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            ThrowOfCheckedException.doThrow((Exception) t);
+            throw new IllegalStateException("Should never get here", t);
+        }
+    }
+
+    @Nonnull
+    private static MethodHandle createConstructorInvoker(@Nonnull Constructor<?> constructor) {
+        try {
+            ensureThatMemberIsAccessible(constructor);
+            MethodHandle handle = MethodHandles.lookup().unreflectConstructor(constructor).asFixedArity();
+            return handle.asSpreader(Object[].class, constructor.getParameterCount()).asType(CONSTRUCTOR_TYPE);
+        } catch (IllegalAccessException | RuntimeException ignore) {
+            return UNAVAILABLE;
+        }
+    }
+}
@@ -36,7 +36,7 @@ public final class MethodReflection {
     }
 
     @Nonnull
-    private static Method findSpecifiedMethod(@Nonnull Class<?> theClass, @Nonnull String methodName,
+    public static Method findSpecifiedMethod(@Nonnull Class<?> theClass, @Nonnull String methodName,
             @Nonnull Class<?>[] paramTypes) {
         while (true) {
             Method declaredMethod = findSpecifiedMethodInGivenClass(theClass, methodName, paramTypes);
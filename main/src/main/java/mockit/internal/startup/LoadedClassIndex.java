@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2006 JMockit developers
+ * This file is subject to the terms of the MIT license (see LICENSE.txt).
+ */
+package mockit.internal.startup;
+
+import java.lang.instrument.Instrumentation;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Index of loaded classes by internal name, which lets {@link Startup#getClassIfLoaded(String)} avoid scanning all
+ * classes loaded in the JVM.
+ * <p>
+ * Classes are registered when loaded (by the {@link mockit.internal.state.CachedClassfiles} transformer, which only
+ * knows the name and the defining class loader at that time, before the class is actually defined), when
+ * retransformed, and when explicitly registered. Both the classes and their loaders are weakly referenced, so that
+ * indexing a class doesn't prevent its loader from being collected.
+ * <p>
+ * A lookup never causes a class to be loaded: a class registered only by name is searched among the classes already
+ * loaded by its class loader, and a class not in the index at all is searched among all classes loaded in the JVM;
+ * every class found in either search gets indexed. Names not found by a full search are remembered (up to a limit)
+ * until a class with that name gets registered, so that repeated lookups of classes which are not loaded don't repeat
+ * the search.
+ */
+public final class LoadedClassIndex {
+    private static final int MAX_CLASSES_NOT_FOUND = 1024;
+    private static final Map<String, IndexedClass> CLASSES = new ConcurrentHashMap<>(4096);
+    private static final Set<String> CLASSES_NOT_FOUND = ConcurrentHashMap.newKeySet();
+
+    private static final class IndexedClass {
+        // Null for the bootstrap class loader.
+        @Nullable
+        private final WeakReference<ClassLoader> classLoader;
+        // Null until the class is known to have been defined.
+        @Nullable
+        private final WeakReference<Class<?>> loadedClass;
+
+        IndexedClass(@Nullable ClassLoader classLoader) {
+            this.classLoader = classLoader == null ? null : new WeakReference<>(classLoader);
+            loadedClass = null;
+        }
+
+        IndexedClass(@Nonnull Class<?> loadedClass) {
+            ClassLoader loader = loadedClass.getClassLoader();
+            classLoader = loader == null ? null : new WeakReference<>(loader);
+            this.loadedClass = new WeakReference<>(loadedClass);
+        }
+
+        boolean isOnlyRegisteredByName() {
+            return loadedClass == null;
+        }
+
+        boolean isRegisteredByNameFor(@Nonnull Class<?> aClass) {
+            if (loadedClass != null) {
+                return false;
+            }
+
+            ClassLoader loader = aClass.getClassLoader();
+            return classLoader == null ? loader == null : classLoader.get() == loader;
+        }
+
+        @Nullable
+        Class<?> getLoadedClass() {
+            return loadedClass == null ? null : loadedClass.get();
+        }
+
+        boolean isClassLoaderCollected() {
+            return classLoader != null && classLoader.get() == null;
+        }
+
+        /**
+         * Searches the classes already loaded by the class loader of the class registered by name, indexing all of
+         * them.
+         *
+         * @return the class, or <code>null</code> if it wasn't defined yet, or its definition failed
+         */
+        @Nullable
+        Class<?> findAmongClassesOfSameLoader(@Nonnull Instrumentation instrumentation, @Nonnull String className) {
+            ClassLoader loader = classLoader == null ? null : classLoader.get();
+            return findAndIndexLoadedClass(instrumentation.getInitiatedClasses(loader), className);
+        }
+    }
+
+    private LoadedClassIndex() {
+    }
+
+    public static void registerClassLoad(@Nullable ClassLoader loader, @Nonnull String internalName) {
+        if (!CLASSES.containsKey(internalName)) {
+            CLASSES.putIfAbsent(internalName, new IndexedClass(loader));
+        }
+
+        CLASSES_NOT_FOUND.remove(internalName);
+    }
+
+    public static void registerLoadedClass(@Nonnull Class<?> aClass) {
+        String internalName = aClass.getName().replace('.', '/');
+        CLASSES.put(internalName, new IndexedClass(aClass));
+        CLASSES_NOT_FOUND.remove(internalName);
+    }
+
+    @Nullable
+    static Class<?> findLoadedClass(@Nonnull Instrumentation instrumentation, @Nonnull String internalName) {
+        String className = internalName.replace('/', '.');
+        IndexedClass indexedClass = CLASSES.get(internalName);
+
+        if (indexedClass != null) {
+            Class<?> loadedClass = indexedClass.getLoadedClass();
+
+            if (loadedClass != null) {
+                return loadedClass;
+            }
+
+            if (indexedClass.isOnlyRegisteredByName() && !indexedClass.isClassLoaderCollected()) {
+                loadedClass = indexedClass.findAmongClassesOfSameLoader(instrumentation, className);
+
+                // The entry is kept when the class is still being defined, so that it won't be taken as not loaded.
+                return loadedClass != null ? loadedClass
+                        : findAndIndexLoadedClass(instrumentation.getAllLoadedClasses(), className);
+            }
+
+            CLASSES.remove(internalName, indexedClass);
+        } else if (CLASSES_NOT_FOUND.contains(internalName)) {
+            return null;
+        }
+
+        Class<?> loadedClass = findAndIndexLoadedClass(instrumentation.getAllLoadedClasses(), className);
+
+        if (loadedClass == null) {
+            addClassNotFound(internalName);
+        }
+
+        return loadedClass;
+    }
+
+    @Nullable
+    private static Class<?> findAndIndexLoadedClass(@Nonnull Class<?>[] loadedClasses, @Nonnull String className) {
+        Class<?> desiredClass = null;
+
+        for (Class<?> aClass : loadedClasses) {
+            String name = aClass.getName();
+
+            if (desiredClass == null && name.equals(className)) {
+                desiredClass = aClass;
+            }
+
+            if (!aClass.isArray() && !aClass.isHidden()) {
+                indexLoadedClass(name.replace('.', '/'), aClass);
+            }
+        }
+
+        return desiredClass;
+    }
+
+    private static void indexLoadedClass(@Nonnull String internalName, @Nonnull Class<?> aClass) {
+        IndexedClass indexedClass = CLASSES.get(internalName);
+
+        if (indexedClass == null) {
+            CLASSES.putIfAbsent(internalName, new IndexedClass(aClass));
+        } else if (indexedClass.isRegisteredByNameFor(aClass)) {
+            CLASSES.replace(internalName, indexedClass, new IndexedClass(aClass));
+        }
+    }
+
+    private static void addClassNotFound(@Nonnull String internalName) {
+        // Array classes get created without being registered, so they are always searched for.
+        if (internalName.charAt(0) == '[') {
+            return;
+        }
+
+        if (CLASSES_NOT_FOUND.size() >= MAX_CLASSES_NOT_FOUND) {
+            CLASSES_NOT_FOUND.clear();
+        }
+
+        CLASSES_NOT_FOUND.add(internalName);
+
+        // A class with the same name may have been registered in the meantime.
+        if (CLASSES.containsKey(internalName)) {
+            CLASSES_NOT_FOUND.remove(internalName);
+        }
+    }
+}
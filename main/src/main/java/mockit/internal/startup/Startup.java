@@ -90,7 +90,51 @@ public final class Startup {
         redefineMethods(new ClassDefinition(classToRedefine, modifiedClassfile));
     }
 
+    /**
+     * Redefines the given classes with a single call to the JVM. If that fails for a batch of several classes, each one
+     * is then redefined on its own, so that a class which can't be redefined doesn't prevent the others from being so;
+     * the first failure, if any, is then rethrown.
+     */
     public static void redefineMethods(@Nonnull ClassDefinition... classDefs) {
+        if (classDefs.length > 1) {
+            try {
+                redefineClasses(classDefs);
+            } catch (RuntimeException | LinkageError ignore) {
+                redefineOneAtATime(classDefs);
+            }
+        } else if (classDefs.length == 1) {
+            redefineClasses(classDefs);
+        }
+    }
+
+    private static void redefineOneAtATime(@Nonnull ClassDefinition[] classDefs) {
+        RuntimeException firstRuntimeException = null;
+        LinkageError firstLinkageError = null;
+
+        for (ClassDefinition classDef : classDefs) {
+            try {
+                redefineClasses(classDef);
+            } catch (RuntimeException e) {
+                if (firstRuntimeException == null && firstLinkageError == null) {
+                    firstRuntimeException = e;
+                }
+            } catch (LinkageError e) {
+                if (firstRuntimeException == null && firstLinkageError == null) {
+                    firstLinkageError = e;
+                }
+            }
+        }
+
+        if (firstRuntimeException != null) {
+            throw firstRuntimeException;
+        }
+
+        if (firstLinkageError != null) {
+            throw firstLinkageError;
+        }
+    }
+
+    private static void redefineClasses(@Nonnull ClassDefinition... classDefs) {
         try {
             // noinspection ConstantConditions
             instrumentation.redefineClasses(classDefs);
@@ -119,17 +163,9 @@ public final class Startup {
     }
 
     @Nullable
+    @SuppressWarnings("ConstantConditions")
     public static Class<?> getClassIfLoaded(@Nonnull String classDescOrName) {
-        String className = classDescOrName.replace('/', '.');
-        @SuppressWarnings("ConstantConditions")
-        Class<?>[] loadedClasses = instrumentation.getAllLoadedClasses();
-
-        for (Class<?> aClass : loadedClasses) {
-            if (aClass.getName().equals(className)) {
-                return aClass;
-            }
-        }
-
-        return null;
+        String internalName = classDescOrName.replace('.', '/');
+        return LoadedClassIndex.findLoadedClass(instrumentation, internalName);
     }
 }
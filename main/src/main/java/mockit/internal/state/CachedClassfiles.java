@@ -13,6 +13,7 @@ import java.util.WeakHashMap;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
+import mockit.internal.startup.LoadedClassIndex;
 import mockit.internal.startup.Startup;
 
 /**
@@ -44,10 +45,14 @@ public final class CachedClassfiles implements ClassFileTransformer {
             @Nullable Class<?> classBeingRedefinedOrRetransformed, @Nullable ProtectionDomain protectionDomain,
             @Nonnull byte[] classfileBuffer) {
         // can be null for Java 8 lambdas
-        if (classDesc != null && classBeingRedefinedOrRetransformed != null
-                && classBeingRedefinedOrRetransformed == classBeingCached) {
-            addClassfile(loader, classDesc, classfileBuffer);
-            classBeingCached = null;
+        if (classDesc != null) {
+            if (classBeingRedefinedOrRetransformed == null) {
+                LoadedClassIndex.registerClassLoad(loader, classDesc);
+            } else if (classBeingRedefinedOrRetransformed == classBeingCached) {
+                LoadedClassIndex.registerLoadedClass(classBeingRedefinedOrRetransformed);
+                addClassfile(loader, classDesc, classfileBuffer);
+                classBeingCached = null;
+            }
         }
 
         return null;
@@ -17,15 +17,14 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.IdentityHashMap;
-import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -46,9 +45,8 @@ public final class MockFixture {
      * Similar to {@link #redefinedClasses}, but for classes modified by a <code>ClassFileTransformer</code> such as the
      * <code>CaptureTransformer</code>, and containing the pre-transform bytecode instead of the modified one.
      *
-     * @see #addTransformedClass(ClassIdentification, byte[])
-     * @see #getTransformedClasses()
-     * @see #restoreTransformedClasses(Set)
+     * @see #addTransformedClass(TestScope, ClassIdentification, byte[])
+     * @see #restoreTransformedAndRedefinedClasses(TestScope, int, int)
      */
     @Nonnull
     private final Map<ClassIdentification, byte[]> transformedClasses;
@@ -63,14 +61,25 @@ public final class MockFixture {
      * between redefinitions of the same class).
      *
      * @see #addRedefinedClass(ClassDefinition)
-     * @see #getRedefinedClasses()
      * @see #getRedefinedClassfile(Class)
      * @see #containsRedefinedClass(Class)
-     * @see #restoreRedefinedClasses(Map)
+     * @see #restoreTransformedAndRedefinedClasses(TestScope, int, int)
      */
     @Nonnull
     private final Map<Class<?>, byte[]> redefinedClasses;
 
+    private static final class PreviousDefinition {
+        @Nonnull
+        final Class<?> redefinedClass;
+        @Nullable
+        final byte[] classfile;
+
+        PreviousDefinition(@Nonnull Class<?> redefinedClass, @Nullable byte[] classfile) {
+            this.redefinedClass = redefinedClass;
+            this.classfile = classfile;
+        }
+    }
+
     /**
      * Subset of all currently redefined classes which contain one or more native methods.
      * <p/>
@@ -100,7 +109,7 @@ public final class MockFixture {
      * @see #getMockedClasses()
      * @see #isStillMocked(Object, String)
      * @see #isInstanceOfMockedClass(Object)
-     * @see #removeMockedClasses(List)
+     * @see #removeMockedClasses(TestScope, int, int)
      */
     @Nonnull
     private final List<Class<?>> mockedClasses;
@@ -111,7 +120,7 @@ public final class MockFixture {
      * @see #registerInstanceFactoryForMockedType(Class, InstanceFactory)
      * @see #findInstanceFactory(Type)
      * @see #isStillMocked(Object, String)
-     * @see #removeMockedClasses(List)
+     * @see #removeMockedClasses(TestScope, int, int)
      */
     @Nonnull
     private final Map<Type, InstanceFactory> mockedTypesAndInstances;
@@ -122,49 +131,129 @@ public final class MockFixture {
      * @see #addCaptureTransformer(CaptureTransformer)
      * @see #areCapturedClasses(Class, Class)
      * @see #isCaptured(Object)
-     * @see #getCaptureTransformerCount()
-     * @see #removeCaptureTransformers(int)
+     * @see #removeCaptureTransformers(TestScope, int)
      */
     @Nonnull
     private final List<CaptureTransformer<?>> captureTransformers;
 
+    /**
+     * The changes made by the tests of a {@link TestScope}, in order. Each list never gets shorter except when a
+     * save-point is rolled back; a save-point only keeps the sizes of the lists, so that the changes made afterwards
+     * are the ones at and past those positions.
+     */
+    static final class ChangeLog {
+        /**
+         * The keys added to {@link MockFixture#transformedClasses}, possibly by threads loading classes.
+         */
+        @Nonnull
+        final List<ClassIdentification> transformedClasses;
+
+        /**
+         * The definitions replaced in {@link MockFixture#redefinedClasses}, with a null classfile for a class which was
+         * not redefined before.
+         */
+        @Nonnull
+        final List<PreviousDefinition> previousDefinitions;
+
+        /**
+         * The classes added to {@link MockFixture#mockedClasses}; said classes may have been removed already, when
+         * restored to their original definitions.
+         */
+        @Nonnull
+        final List<Class<?>> mockedClasses;
+
+        /**
+         * The types added to {@link MockFixture#mockedTypesAndInstances}.
+         */
+        @Nonnull
+        final List<Type> mockedTypes;
+
+        /**
+         * The transformers added to {@link MockFixture#captureTransformers}.
+         */
+        @Nonnull
+        final List<CaptureTransformer<?>> captureTransformers;
+
+        ChangeLog() {
+            transformedClasses = Collections.synchronizedList(new ArrayList<>(2));
+            previousDefinitions = new ArrayList<>(8);
+            mockedClasses = new ArrayList<>();
+            mockedTypes = new ArrayList<>();
+            captureTransformers = new ArrayList<>();
+        }
+    }
+
     MockFixture() {
-        transformedClasses = new HashMap<>(2);
+        transformedClasses = new ConcurrentHashMap<>(2);
         redefinedClasses = new ConcurrentHashMap<>(8);
-        redefinedClassesWithNativeMethods = new HashSet<>();
-        realClassesToFakeClasses = new IdentityHashMap<>(8);
-        mockedClasses = new ArrayList<>();
-        mockedTypesAndInstances = new IdentityHashMap<>();
-        captureTransformers = new ArrayList<>();
+        redefinedClassesWithNativeMethods = ConcurrentHashMap.newKeySet();
+        realClassesToFakeClasses = Collections.synchronizedMap(new IdentityHashMap<>(8));
+        mockedClasses = new CopyOnWriteArrayList<>();
+        mockedTypesAndInstances = Collections.synchronizedMap(new IdentityHashMap<>());
+        captureTransformers = new CopyOnWriteArrayList<>();
     }
 
     // Methods to add/remove transformed/redefined classes /////////////////////////////////////////////////////////////
 
-    public void addTransformedClass(@Nonnull ClassIdentification classId, @Nonnull byte[] pretransformClassfile) {
-        transformedClasses.put(classId, pretransformClassfile);
+    /**
+     * Registers a class just transformed on loading, for the tests of the given scope (the one active when the
+     * transformer was added, which isn't necessarily bound to the thread loading the class).
+     */
+    public void addTransformedClass(@Nonnull TestScope scope, @Nonnull ClassIdentification classId,
+            @Nonnull byte[] pretransformClassfile) {
+        if (transformedClasses.put(classId, pretransformClassfile) == null) {
+            if (TestRun.CONCURRENT_TESTS) {
+                RedefinedClassOwners.addChange(scope, classId.name);
+            }
+
+            scope.fixtureChanges.transformedClasses.add(classId);
+        }
     }
 
     // Methods used by both the Mocking and Faking APIs.
 
+    /**
+     * Registers a new definition for a class, before the class actually gets redefined. When tests are executed
+     * concurrently, this waits until the class isn't changed by tests of another scope anymore.
+     */
     public void addRedefinedClass(@Nonnull ClassDefinition newClassDefinition) {
-        redefinedClasses.put(newClassDefinition.getDefinitionClass(), newClassDefinition.getDefinitionClassFile());
+        Class<?> redefinedClass = newClassDefinition.getDefinitionClass();
+        TestScope scope = TestRun.getScope();
+
+        if (TestRun.CONCURRENT_TESTS) {
+            RedefinedClassOwners.addChange(scope, redefinedClass.getName());
+        }
+
+        byte[] previousClassfile = redefinedClasses.put(redefinedClass, newClassDefinition.getDefinitionClassFile());
+        scope.fixtureChanges.previousDefinitions.add(new PreviousDefinition(redefinedClass, previousClassfile));
+    }
+
+    /**
+     * Waits, when tests are executed concurrently, until the given class isn't changed by tests of another scope, so
+     * that a new definition can be based on its current one.
+     */
+    public void waitUntilAvailableForRedefinition(@Nonnull Class<?> classToRedefine) {
+        if (TestRun.CONCURRENT_TESTS) {
+            RedefinedClassOwners.waitUntilAvailable(TestRun.getScope(), classToRedefine.getName());
+        }
     }
 
     public void registerMockedClass(@Nonnull Class<?> mockedType) {
         if (!mockedClasses.contains(mockedType)) {
             mockedType = getMockedClassOrInterfaceType(mockedType);
             mockedClasses.add(mockedType);
+            TestRun.getScope().fixtureChanges.mockedClasses.add(mockedType);
         }
     }
 
     // Methods used by the Mocking API.
 
     public void redefineClasses(@Nonnull ClassDefinition... definitions) {
-        Startup.redefineMethods(definitions);
-
         for (ClassDefinition def : definitions) {
             addRedefinedClass(def);
         }
+
+        Startup.redefineMethods(definitions);
     }
 
     public void redefineMethods(@Nonnull Map<Class<?>, byte[]> modifiedClassfiles) {
@@ -197,6 +286,15 @@ public final class MockFixture {
         return mockedTypesAndInstances.containsKey(targetClass) || isInstanceOfMockedClass(instance);
     }
 
+    /**
+     * Checks whether a class is currently changed by tests of a scope other than the current one, which can only be
+     * the case when tests are executed concurrently.
+     */
+    public boolean isChangedByAnotherScope(@Nonnull String classDesc) {
+        return TestRun.CONCURRENT_TESTS
+                && RedefinedClassOwners.isOwnedByAnotherScope(classDesc.replace('/', '.'), TestRun.getScope());
+    }
+
     private boolean isClassAssignableTo(@Nonnull Class<?> toClass) {
         for (Class<?> mockedClass : mockedClasses) {
             if (toClass == mockedClass || toClass.isAssignableFrom(mockedClass)) {
@@ -221,7 +319,10 @@ public final class MockFixture {
     public void registerInstanceFactoryForMockedType(@Nonnull Class<?> mockedType,
             @Nonnull InstanceFactory mockedInstanceFactory) {
         registerMockedClass(mockedType);
-        mockedTypesAndInstances.put(mockedType, mockedInstanceFactory);
+
+        if (mockedTypesAndInstances.put(mockedType, mockedInstanceFactory) == null) {
+            TestRun.getScope().fixtureChanges.mockedTypes.add(mockedType);
+        }
     }
 
     @Nullable
@@ -242,17 +343,19 @@ public final class MockFixture {
 
         boolean abstractType = mockedClass.isInterface() || isAbstract(mockedClass.getModifiers());
 
-        for (Entry<Type, InstanceFactory> entry : mockedTypesAndInstances.entrySet()) {
-            Type registeredMockedType = entry.getKey();
-            Class<?> registeredMockedClass = getClassType(registeredMockedType);
+        synchronized (mockedTypesAndInstances) {
+            for (Entry<Type, InstanceFactory> entry : mockedTypesAndInstances.entrySet()) {
+                Type registeredMockedType = entry.getKey();
+                Class<?> registeredMockedClass = getClassType(registeredMockedType);
 
-            if (abstractType) {
-                registeredMockedClass = getMockedClassOrInterfaceType(registeredMockedClass);
-            }
+                if (abstractType) {
+                    registeredMockedClass = getMockedClassOrInterfaceType(registeredMockedClass);
+                }
 
-            if (mockedClass.isAssignableFrom(registeredMockedClass)) {
-                instanceFactory = entry.getValue();
-                break;
+                if (mockedClass.isAssignableFrom(registeredMockedClass)) {
+                    instanceFactory = entry.getValue();
+                    break;
+                }
             }
         }
 
@@ -275,76 +378,126 @@ public final class MockFixture {
 
     // Methods used by test save-points ////////////////////////////////////////////////////////////////////////////////
 
-    void restoreTransformedClasses(@Nonnull Set<ClassIdentification> previousTransformedClasses) {
-        if (!transformedClasses.isEmpty()) {
-            Set<ClassIdentification> classesToRestore;
-
-            if (previousTransformedClasses.isEmpty()) {
-                classesToRestore = transformedClasses.keySet();
-            } else {
-                classesToRestore = getTransformedClasses();
-                classesToRestore.removeAll(previousTransformedClasses);
+    /**
+     * Restores the transformed and redefined classes to their definitions as of a previous save-point, redefining all
+     * classes to be restored with a single batched call. Only the classes transformed or redefined by tests of the
+     * given scope after the save-point are visited.
+     */
+    void restoreTransformedAndRedefinedClasses(@Nonnull TestScope scope, int previousTransformedClassCount,
+            int previousRedefinitionCount) {
+        Map<Class<?>, byte[]> definitionsToRestore = new LinkedHashMap<>();
+        ChangeLog changes = scope.fixtureChanges;
+        List<ClassIdentification> transformedClassesToRestore = getChangesSince(changes.transformedClasses,
+                previousTransformedClassCount);
+        restoreTransformedClasses(transformedClassesToRestore, definitionsToRestore);
+        List<PreviousDefinition> redefinitionsToUndo = getChangesSince(changes.previousDefinitions,
+                previousRedefinitionCount);
+        List<Class<?>> classesRestoredToOriginal = restoreRedefinedClasses(redefinitionsToUndo, definitionsToRestore);
+
+        if (!definitionsToRestore.isEmpty()) {
+            ClassDefinition[] classDefs = new ClassDefinition[definitionsToRestore.size()];
+            int i = 0;
+
+            for (Entry<Class<?>, byte[]> classAndDefinition : definitionsToRestore.entrySet()) {
+                classDefs[i] = new ClassDefinition(classAndDefinition.getKey(), classAndDefinition.getValue());
+                i++;
             }
 
-            if (!classesToRestore.isEmpty()) {
-                restoreAndRemoveTransformedClasses(classesToRestore);
-            }
+            Startup.redefineMethods(classDefs);
+        }
+
+        for (Class<?> restoredClass : classesRestoredToOriginal) {
+            discardStateForRestoredClass(restoredClass);
+        }
+
+        if (TestRun.CONCURRENT_TESTS) {
+            releaseRestoredClasses(scope, transformedClassesToRestore, redefinitionsToUndo);
         }
+
+        transformedClassesToRestore.clear();
+        redefinitionsToUndo.clear();
     }
 
-    @Nonnull
-    Set<ClassIdentification> getTransformedClasses() {
-        return transformedClasses.isEmpty() ? Collections.emptySet() : new HashSet<>(transformedClasses.keySet());
+    private void restoreTransformedClasses(@Nonnull List<ClassIdentification> classesToRestore,
+            @Nonnull Map<Class<?>, byte[]> definitionsToRestore) {
+        for (ClassIdentification transformedClassId : classesToRestore) {
+            byte[] definitionToRestore = transformedClasses.remove(transformedClassId);
+            definitionsToRestore.put(transformedClassId.getLoadedClass(), definitionToRestore);
+        }
+    }
+
+    private static void releaseRestoredClasses(@Nonnull TestScope scope,
+            @Nonnull List<ClassIdentification> restoredTransformedClasses,
+            @Nonnull List<PreviousDefinition> undoneRedefinitions) {
+        for (ClassIdentification transformedClassId : restoredTransformedClasses) {
+            RedefinedClassOwners.removeChange(scope, transformedClassId.name);
+        }
+
+        for (PreviousDefinition undoneRedefinition : undoneRedefinitions) {
+            RedefinedClassOwners.removeChange(scope, undoneRedefinition.redefinedClass.getName());
+        }
     }
 
+    /**
+     * Gets the view of the changes after the given position in a list of changes, if any. Clearing the view discards
+     * said changes from the list.
+     */
     @Nonnull
-    Map<Class<?>, byte[]> getRedefinedClasses() {
-        return redefinedClasses.isEmpty() ? Collections.emptyMap() : new HashMap<>(redefinedClasses);
+    private static <E> List<E> getChangesSince(@Nonnull List<E> changes, int previousChangeCount) {
+        int changeCount = changes.size();
+        return previousChangeCount < changeCount ? changes.subList(previousChangeCount, changeCount)
+                : Collections.emptyList();
     }
 
-    private void restoreAndRemoveTransformedClasses(@Nonnull Set<ClassIdentification> classesToRestore) {
-        for (ClassIdentification transformedClassId : classesToRestore) {
-            byte[] definitionToRestore = transformedClasses.get(transformedClassId);
-            Startup.redefineMethods(transformedClassId, definitionToRestore);
+    @Nonnull
+    private List<Class<?>> restoreRedefinedClasses(@Nonnull List<PreviousDefinition> redefinitionsToUndo,
+            @Nonnull Map<Class<?>, byte[]> definitionsToRestore) {
+        if (redefinitionsToUndo.isEmpty()) {
+            return Collections.emptyList();
         }
 
-        transformedClasses.keySet().removeAll(classesToRestore);
-    }
+        // Going backwards, so that each class ends up with the definition it had before its first redefinition.
+        Map<Class<?>, PreviousDefinition> definitionsAtSavePoint = new IdentityHashMap<>();
 
-    void restoreRedefinedClasses(@Nonnull Map<?, byte[]> previousDefinitions) {
-        if (redefinedClasses.isEmpty()) {
-            return;
+        for (int i = redefinitionsToUndo.size() - 1; i >= 0; i--) {
+            PreviousDefinition previousDefinition = redefinitionsToUndo.get(i);
+            definitionsAtSavePoint.put(previousDefinition.redefinedClass, previousDefinition);
         }
 
-        Iterator<Entry<Class<?>, byte[]>> itr = redefinedClasses.entrySet().iterator();
+        List<Class<?>> classesRestoredToOriginal = new ArrayList<>();
 
-        while (itr.hasNext()) {
-            Entry<Class<?>, byte[]> entry = itr.next();
-            Class<?> redefinedClass = entry.getKey();
-            byte[] currentDefinition = entry.getValue();
-            byte[] previousDefinition = previousDefinitions.get(redefinedClass);
+        for (PreviousDefinition definitionAtSavePoint : definitionsAtSavePoint.values()) {
+            Class<?> redefinedClass = definitionAtSavePoint.redefinedClass;
+            byte[] previousDefinition = definitionAtSavePoint.classfile;
+            byte[] currentDefinition = redefinedClasses.get(redefinedClass);
+
+            if (currentDefinition == null) {
+                continue;
+            }
 
             if (previousDefinition == null) {
-                restoreDefinition(redefinedClass);
-                itr.remove();
+                if (!isGeneratedImplementationClass(redefinedClass)) {
+                    definitionsToRestore.put(redefinedClass, ClassFile.getClassFile(redefinedClass));
+                }
+
+                classesRestoredToOriginal.add(redefinedClass);
+                redefinedClasses.remove(redefinedClass);
             } else if (currentDefinition != previousDefinition) {
-                Startup.redefineMethods(redefinedClass, previousDefinition);
-                entry.setValue(previousDefinition);
+                definitionsToRestore.put(redefinedClass, previousDefinition);
+                redefinedClasses.put(redefinedClass, previousDefinition);
             }
         }
+
+        return classesRestoredToOriginal;
     }
 
-    private void restoreDefinition(@Nonnull Class<?> redefinedClass) {
-        if (!isGeneratedImplementationClass(redefinedClass)) {
-            byte[] previousDefinition = ClassFile.getClassFile(redefinedClass);
-            Startup.redefineMethods(redefinedClass, previousDefinition);
-        }
-        if (redefinedClassesWithNativeMethods.contains(redefinedClass.getName())) {
-            reregisterNativeMethodsForRestoredClass(redefinedClass);
+    private void discardStateForRestoredClass(@Nonnull Class<?> restoredClass) {
+        if (redefinedClassesWithNativeMethods.contains(restoredClass.getName())) {
+            reregisterNativeMethodsForRestoredClass(restoredClass);
         }
 
-        removeMockedClass(redefinedClass);
-        discardStateForCorrespondingFakeClassIfAny(redefinedClass);
+        removeMockedClass(restoredClass);
+        discardStateForCorrespondingFakeClassIfAny(restoredClass);
     }
 
     private void removeMockedClass(@Nonnull Class<?> mockedClass) {
@@ -357,20 +510,27 @@ public final class MockFixture {
         TestRun.getFakeStates().removeClassState(redefinedClass, mockClassesInternalNames);
     }
 
-    void removeMockedClasses(@Nonnull List<Class<?>> previousMockedClasses) {
-        int currentMockedClassCount = mockedClasses.size();
+    void removeMockedClasses(@Nonnull TestScope scope, int previousMockedClassCount, int previousMockedTypeCount) {
+        ChangeLog changes = scope.fixtureChanges;
+        List<Class<?>> classesToRemove = getChangesSince(changes.mockedClasses, previousMockedClassCount);
 
-        if (currentMockedClassCount > 0) {
-            int previousMockedClassCount = previousMockedClasses.size();
+        for (int i = classesToRemove.size() - 1; i >= 0; i--) {
+            int mockedClassIndex = mockedClasses.lastIndexOf(classesToRemove.get(i));
 
-            if (previousMockedClassCount == 0) {
-                mockedClasses.clear();
-                mockedTypesAndInstances.clear();
-            } else if (previousMockedClassCount < currentMockedClassCount) {
-                mockedClasses.retainAll(previousMockedClasses);
-                mockedTypesAndInstances.keySet().retainAll(previousMockedClasses);
+            if (mockedClassIndex >= 0) {
+                mockedClasses.remove(mockedClassIndex);
             }
         }
+
+        classesToRemove.clear();
+
+        List<Type> typesToRemove = getChangesSince(changes.mockedTypes, previousMockedTypeCount);
+
+        for (Type mockedType : typesToRemove) {
+            mockedTypesAndInstances.remove(mockedType);
+        }
+
+        typesToRemove.clear();
     }
 
     // Getter methods for the maps and collections of transformed/redefined/mocked classes /////////////////////////////
@@ -393,23 +553,23 @@ public final class MockFixture {
 
     public void addCaptureTransformer(@Nonnull CaptureTransformer<?> transformer) {
         captureTransformers.add(transformer);
+        TestRun.getScope().fixtureChanges.captureTransformers.add(transformer);
     }
 
-    // The following methods are used by test save-points to discard currently active capture transformers.
+    // The following method is used by test save-points to discard currently active capture transformers.
 
-    int getCaptureTransformerCount() {
-        return captureTransformers.size();
-    }
+    void removeCaptureTransformers(@Nonnull TestScope scope, int previousTransformerCount) {
+        List<CaptureTransformer<?>> transformersToRemove = getChangesSince(scope.fixtureChanges.captureTransformers,
+                previousTransformerCount);
 
-    void removeCaptureTransformers(int previousTransformerCount) {
-        int currentTransformerCount = captureTransformers.size();
-
-        for (int i = currentTransformerCount - 1; i >= previousTransformerCount; i--) {
-            CaptureTransformer<?> transformer = captureTransformers.get(i);
+        for (int i = transformersToRemove.size() - 1; i >= 0; i--) {
+            CaptureTransformer<?> transformer = transformersToRemove.get(i);
             transformer.deactivate();
             Startup.instrumentation().removeTransformer(transformer);
-            captureTransformers.remove(i);
+            captureTransformers.remove(transformer);
         }
+
+        transformersToRemove.clear();
     }
 
     // The following methods are only used by the Mocking API.
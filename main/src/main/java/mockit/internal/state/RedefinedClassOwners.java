@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2006 JMockit developers
+ * This file is subject to the terms of the MIT license (see LICENSE.txt).
+ */
+package mockit.internal.state;
+
+import static mockit.internal.expectations.RecordAndReplayExecution.TEST_ONLY_PHASE_LOCK;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import mockit.internal.expectations.RecordAndReplayExecution;
+
+/**
+ * Keeps, for each class redefined or transformed while tests are executed concurrently, the {@link TestScope} which
+ * changed it and how many of its changes are still in effect, so that only one scope at a time changes a given class.
+ * <p>
+ * A scope needing to change a class owned by another scope waits until all the changes from the owner are undone,
+ * unless that could never happen (the owner is waiting for the same scope, or the current thread holds a lock the owner
+ * may need), in which case the change is rejected.
+ */
+final class RedefinedClassOwners {
+    private static final class Owner {
+        @Nonnull
+        final TestScope scope;
+        int changeCount;
+
+        Owner(@Nonnull TestScope scope) {
+            this.scope = scope;
+        }
+    }
+
+    // Modified while synchronized on the map itself, which waiting scopes also wait on.
+    private static final Map<String, Owner> OWNERS = new ConcurrentHashMap<>();
+
+    private RedefinedClassOwners() {
+    }
+
+    static void addChange(@Nonnull TestScope scope, @Nonnull String className) {
+        synchronized (OWNERS) {
+            Owner owner = waitUntilNotOwnedByAnotherScope(scope, className);
+
+            if (owner == null) {
+                owner = new Owner(scope);
+                OWNERS.put(className, owner);
+            }
+
+            owner.changeCount++;
+        }
+    }
+
+    static void waitUntilAvailable(@Nonnull TestScope scope, @Nonnull String className) {
+        synchronized (OWNERS) {
+            waitUntilNotOwnedByAnotherScope(scope, className);
+        }
+    }
+
+    @Nullable
+    private static Owner waitUntilNotOwnedByAnotherScope(@Nonnull TestScope scope, @Nonnull String className) {
+        Owner owner = OWNERS.get(className);
+
+        while (owner != null && owner.scope != scope) {
+            TestScope ownerScope = owner.scope;
+
+            if (RecordAndReplayExecution.isRecordingOrReplayingInCurrentThread()
+                    || TEST_ONLY_PHASE_LOCK.isHeldByCurrentThread() || isWaitingFor(ownerScope, scope)) {
+                throw new IllegalStateException("JMockit: " + className
+                        + " is already mocked or faked by tests of another class running concurrently");
+            }
+
+            scope.waitingFor = ownerScope;
+
+            try {
+                OWNERS.wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("JMockit: interrupted while waiting to mock or fake " + className, e);
+            } finally {
+                scope.waitingFor = null;
+            }
+
+            owner = OWNERS.get(className);
+        }
+
+        return owner;
+    }
+
+    private static boolean isWaitingFor(@Nonnull TestScope waitingScope, @Nonnull TestScope scope) {
+        for (TestScope awaited = waitingScope; awaited != null; awaited = awaited.waitingFor) {
+            if (awaited == scope) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    static void removeChange(@Nonnull TestScope scope, @Nonnull String className) {
+        synchronized (OWNERS) {
+            Owner owner = OWNERS.get(className);
+
+            if (owner != null && owner.scope == scope && --owner.changeCount == 0) {
+                OWNERS.remove(className);
+                OWNERS.notifyAll();
+            }
+        }
+    }
+
+    static boolean isOwnedByAnotherScope(@Nonnull String className, @Nonnull TestScope scope) {
+        Owner owner = OWNERS.get(className);
+        return owner != null && owner.scope != scope;
+    }
+}
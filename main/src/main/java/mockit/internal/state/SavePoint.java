@@ -6,33 +6,35 @@ package mockit.internal.state;
 
 import static mockit.internal.expectations.RecordAndReplayExecution.RECORD_OR_REPLAY_LOCK;
 
-import java.util.List;
-import java.util.Map;
-import java.util.Set;
-
 import javax.annotation.Nonnull;
 
-import mockit.internal.ClassIdentification;
 import mockit.internal.faking.FakeClasses;
 
+/**
+ * Marks the state of the {@link MockFixture} and of the {@link FakeClasses} at a given time, to which it can later be
+ * restored. Taking a save-point only records the number of changes made so far by the tests of the current
+ * {@link TestScope}, so that rolling it back undoes the changes they made afterwards.
+ */
 public final class SavePoint {
     @Nonnull
-    private final Set<ClassIdentification> previousTransformedClasses;
-    @Nonnull
-    private final Map<Class<?>, byte[]> previousRedefinedClasses;
+    private final TestScope scope;
+    private final int previousTransformedClassCount;
+    private final int previousRedefinitionCount;
     private final int previousCaptureTransformerCount;
-    @Nonnull
-    private final List<Class<?>> previousMockedClasses;
+    private final int previousMockedClassCount;
+    private final int previousMockedTypeCount;
     @Nonnull
     private final FakeClasses.SavePoint previousFakeClasses;
 
     public SavePoint() {
-        MockFixture mockFixture = TestRun.mockFixture();
-        previousTransformedClasses = mockFixture.getTransformedClasses();
-        previousRedefinedClasses = mockFixture.getRedefinedClasses();
-        previousCaptureTransformerCount = mockFixture.getCaptureTransformerCount();
-        previousMockedClasses = mockFixture.getMockedClasses();
-        previousFakeClasses = TestRun.getFakeClasses().new SavePoint();
+        scope = TestRun.getScope();
+        MockFixture.ChangeLog fixtureChanges = scope.fixtureChanges;
+        previousTransformedClassCount = fixtureChanges.transformedClasses.size();
+        previousRedefinitionCount = fixtureChanges.previousDefinitions.size();
+        previousCaptureTransformerCount = fixtureChanges.captureTransformers.size();
+        previousMockedClassCount = fixtureChanges.mockedClasses.size();
+        previousMockedTypeCount = fixtureChanges.mockedTypes.size();
+        previousFakeClasses = TestRun.getFakeClasses().new SavePoint(scope.getFakeChanges());
     }
 
     public synchronized void rollback() {
@@ -40,10 +42,10 @@ public final class SavePoint {
 
         try {
             MockFixture mockFixture = TestRun.mockFixture();
-            mockFixture.removeCaptureTransformers(previousCaptureTransformerCount);
-            mockFixture.restoreTransformedClasses(previousTransformedClasses);
-            mockFixture.restoreRedefinedClasses(previousRedefinedClasses);
-            mockFixture.removeMockedClasses(previousMockedClasses);
+            mockFixture.removeCaptureTransformers(scope, previousCaptureTransformerCount);
+            mockFixture.restoreTransformedAndRedefinedClasses(scope, previousTransformedClassCount,
+                    previousRedefinitionCount);
+            mockFixture.removeMockedClasses(scope, previousMockedClassCount, previousMockedTypeCount);
             previousFakeClasses.rollback();
         } finally {
             RECORD_OR_REPLAY_LOCK.unlock();
@@ -4,6 +4,8 @@
  */
 package mockit.internal.state;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
@@ -17,9 +19,16 @@ import mockit.internal.util.StackTrace;
 
 /**
  * A singleton which stores several data structures which in turn hold global state for individual test methods, test
- * classes, and for the test run as a whole.
+ * classes, and for the test run as a whole. The state for individual tests and test classes is kept in the current
+ * {@link TestScope}.
  */
 public final class TestRun {
+    /**
+     * When "<code>-DconcurrentTests=true</code>" is specified, tests from different test classes can be executed at the
+     * same time (currently, only with JUnit 5), each test class getting its own {@link TestScope}.
+     */
+    public static final boolean CONCURRENT_TESTS = Boolean.getBoolean("concurrentTests");
+
     private static final TestRun INSTANCE = new TestRun();
 
     private TestRun() {
@@ -41,22 +50,15 @@ public final class TestRun {
     };
 
     // Used only by the Coverage tool:
-    private int testId;
+    private static final AtomicInteger lastTestId = new AtomicInteger();
 
+    @Nonnull
+    private final TestScope defaultScope = new TestScope();
     @Nullable
-    private Class<?> currentTestClass;
-    @Nullable
-    private Object currentTestInstance;
-    @Nullable
-    private FieldTypeRedefinitions fieldTypeRedefinitions;
-    @Nullable
-    private TestedClassInstantiations testedClassInstantiations;
+    private final ThreadLocal<TestScope> boundScope = CONCURRENT_TESTS ? new ThreadLocal<>() : null;
 
     @Nonnull
     private final MockFixture mockFixture = new MockFixture();
-
-    @Nonnull
-    private final ExecutingTest executingTest = new ExecutingTest();
     @Nonnull
     private final FakeClasses fakeClasses = new FakeClasses();
 
@@ -67,28 +69,47 @@ public final class TestRun {
         return noMockingCount.get() > 0;
     }
 
+    /**
+     * Gets the scope bound to the current thread, if tests are being executed concurrently, or else the single scope
+     * shared by all tests.
+     */
+    @Nonnull
+    public static TestScope getScope() {
+        ThreadLocal<TestScope> boundScope = INSTANCE.boundScope;
+
+        if (boundScope != null) {
+            TestScope scope = boundScope.get();
+
+            if (scope != null) {
+                return scope;
+            }
+        }
+
+        return INSTANCE.defaultScope;
+    }
+
     @Nullable
     public static Class<?> getCurrentTestClass() {
-        return INSTANCE.currentTestClass;
+        return getScope().currentTestClass;
     }
 
     @Nullable
     public static Object getCurrentTestInstance() {
-        return INSTANCE.currentTestInstance;
+        return getScope().currentTestInstance;
     }
 
     public static int getTestId() {
-        return INSTANCE.testId;
+        return getScope().testId;
     }
 
     @Nullable
     public static FieldTypeRedefinitions getFieldTypeRedefinitions() {
-        return INSTANCE.fieldTypeRedefinitions;
+        return getScope().fieldTypeRedefinitions;
     }
 
     @Nullable
     public static TestedClassInstantiations getTestedClassInstantiations() {
-        return INSTANCE.testedClassInstantiations;
+        return getScope().testedClassInstantiations;
     }
 
     @Nonnull
@@ -98,22 +119,22 @@ public final class TestRun {
 
     @Nonnull
     public static ExecutingTest getExecutingTest() {
-        return INSTANCE.executingTest;
+        return getScope().executingTest;
     }
 
     @Nullable
     public static RecordAndReplayExecution getRecordAndReplayForRunningTest() {
-        return INSTANCE.executingTest.getCurrentRecordAndReplay();
+        return getExecutingTest().getCurrentRecordAndReplay();
     }
 
     @Nonnull
     public static RecordAndReplayExecution getOrCreateRecordAndReplayForRunningTest() {
-        return INSTANCE.executingTest.getOrCreateRecordAndReplay();
+        return getExecutingTest().getOrCreateRecordAndReplay();
     }
 
     @Nonnull
     public static RecordAndReplayExecution getRecordAndReplayForVerifications() {
-        return INSTANCE.executingTest.getRecordAndReplayForVerifications();
+        return getExecutingTest().getRecordAndReplayForVerifications();
     }
 
     @Nonnull
@@ -129,13 +150,65 @@ public final class TestRun {
     // Static "mutators" for global state
     // //////////////////////////////////////////////////////////////////////////////////////////////////
 
+    /**
+     * Binds the given scope to the current thread, when tests are being executed concurrently. Threads created
+     * afterwards are not bound to it, since pooled threads would otherwise keep the scope of whichever test happened to
+     * create them; see {@link #propagateScope(Runnable)}.
+     *
+     * @return the scope previously bound to the current thread, if any, to be restored by a later call
+     */
+    @Nullable
+    public static TestScope bindScope(@Nullable TestScope scope) {
+        ThreadLocal<TestScope> boundScope = INSTANCE.boundScope;
+
+        if (boundScope == null) {
+            return null;
+        }
+
+        TestScope previousScope = boundScope.get();
+
+        if (scope == null) {
+            boundScope.remove();
+        } else {
+            boundScope.set(scope);
+        }
+
+        return previousScope;
+    }
+
+    /**
+     * Wraps the given task so that it gets executed with the scope currently bound to this thread, for a thread which
+     * a test creates to exercise its mocked or faked classes. Without it, such a thread runs the real code of those
+     * classes when tests are being executed concurrently.
+     */
+    @Nonnull
+    public static Runnable propagateScope(@Nonnull Runnable task) {
+        ThreadLocal<TestScope> boundScope = INSTANCE.boundScope;
+        TestScope scope = boundScope == null ? null : boundScope.get();
+
+        if (scope == null) {
+            return task;
+        }
+
+        return () -> {
+            TestScope previousScope = bindScope(scope);
+
+            try {
+                task.run();
+            } finally {
+                bindScope(previousScope);
+            }
+        };
+    }
+
     public static void setCurrentTestClass(@Nullable Class<?> testClass) {
-        INSTANCE.currentTestClass = testClass;
+        getScope().currentTestClass = testClass;
     }
 
     public static void prepareForNextTest() {
-        INSTANCE.testId++;
-        INSTANCE.executingTest.setRecordAndReplay(null);
+        TestScope scope = getScope();
+        scope.testId = lastTestId.incrementAndGet();
+        scope.executingTest.setRecordAndReplay(null);
     }
 
     public static void enterNoMockingZone() {
@@ -151,23 +224,23 @@ public final class TestRun {
     }
 
     public static void clearCurrentTestInstance() {
-        INSTANCE.currentTestInstance = null;
+        getScope().currentTestInstance = null;
     }
 
     public static void setRunningIndividualTest(@Nonnull Object testInstance) {
-        INSTANCE.currentTestInstance = testInstance;
+        getScope().currentTestInstance = testInstance;
     }
 
     public static void setFieldTypeRedefinitions(@Nullable FieldTypeRedefinitions redefinitions) {
-        INSTANCE.fieldTypeRedefinitions = redefinitions;
+        getScope().fieldTypeRedefinitions = redefinitions;
     }
 
     public static void setTestedClassInstantiations(@Nullable TestedClassInstantiations testedClassInstantiations) {
-        INSTANCE.testedClassInstantiations = testedClassInstantiations;
+        getScope().testedClassInstantiations = testedClassInstantiations;
     }
 
     public static void finishCurrentTestExecution() {
-        INSTANCE.executingTest.finishExecution();
+        getExecutingTest().finishExecution();
     }
 
     // Methods to be called only from generated bytecode or from the ClassLoadingBridge
@@ -197,7 +270,8 @@ public final class TestRun {
     // Other methods ///////////////////////////////////////////////////////////////////////////////////////////////////
 
     public static void ensureThatClassIsInitialized(@Nonnull Class<?> aClass) {
-        boolean previousFlag = INSTANCE.executingTest.setShouldIgnoreMockingCallbacks(true);
+        ExecutingTest executingTest = getExecutingTest();
+        boolean previousFlag = executingTest.setShouldIgnoreMockingCallbacks(true);
 
         try {
             Class.forName(aClass.getName(), true, aClass.getClassLoader());
@@ -206,7 +280,7 @@ public final class TestRun {
             StackTrace.filterStackTrace(e);
             e.printStackTrace();
         } finally {
-            INSTANCE.executingTest.setShouldIgnoreMockingCallbacks(previousFlag);
+            executingTest.setShouldIgnoreMockingCallbacks(previousFlag);
         }
     }
 }
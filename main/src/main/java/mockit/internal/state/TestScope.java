@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2006 JMockit developers
+ * This file is subject to the terms of the MIT license (see LICENSE.txt).
+ */
+package mockit.internal.state;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import mockit.internal.expectations.mocking.FieldTypeRedefinitions;
+import mockit.internal.expectations.state.ExecutingTest;
+import mockit.internal.faking.FakeClasses;
+import mockit.internal.injection.TestedClassInstantiations;
+
+/**
+ * State of the tests from a test class: the current test class and instance, the redefinitions for mock fields, the
+ * tested classes, the executing test, and the changes made to mocked and faked classes, which save-points undo.
+ * <p>
+ * Normally, a single scope is used by all tests. When tests are executed concurrently (see
+ * {@link TestRun#CONCURRENT_TESTS}), each test class gets a scope of its own, which is bound to the threads executing
+ * its tests (but not to threads they create, unless explicitly propagated), and its tests are executed one at a time.
+ */
+public final class TestScope {
+    @Nonnull
+    final ExecutingTest executingTest;
+    @Nonnull
+    final MockFixture.ChangeLog fixtureChanges;
+    @Nonnull
+    private final FakeClasses.ChangeLog fakeChanges;
+    @Nonnull
+    private final ReentrantLock testLock;
+
+    int testId;
+    @Nullable
+    Class<?> currentTestClass;
+    @Nullable
+    Object currentTestInstance;
+    @Nullable
+    FieldTypeRedefinitions fieldTypeRedefinitions;
+    @Nullable
+    TestedClassInstantiations testedClassInstantiations;
+
+    /**
+     * The scope owning a class which this scope is waiting to redefine, if any.
+     */
+    @Nullable
+    volatile TestScope waitingFor;
+
+    public TestScope() {
+        executingTest = new ExecutingTest();
+        fixtureChanges = new MockFixture.ChangeLog();
+        fakeChanges = new FakeClasses.ChangeLog();
+        testLock = new ReentrantLock();
+    }
+
+    @Nonnull
+    public FakeClasses.ChangeLog getFakeChanges() {
+        return fakeChanges;
+    }
+
+    /**
+     * Waits for any other test in this scope to finish, before a test starts; does nothing if the current thread
+     * already started a test.
+     */
+    public void startTest() {
+        if (!testLock.isHeldByCurrentThread()) {
+            testLock.lock();
+        }
+    }
+
+    public void finishTest() {
+        if (testLock.isHeldByCurrentThread()) {
+            testLock.unlock();
+        }
+    }
+}
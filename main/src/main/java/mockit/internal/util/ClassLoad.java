@@ -10,6 +10,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
+import mockit.internal.startup.LoadedClassIndex;
 import mockit.internal.state.TestRun;
 
 public final class ClassLoad {
@@ -24,6 +25,7 @@ public final class ClassLoad {
 
     public static void registerLoadedClass(@Nonnull Class<?> aClass) {
         LOADED_CLASSES.put(aClass.getName(), aClass);
+        LoadedClassIndex.registerLoadedClass(aClass);
     }
 
     @Nonnull
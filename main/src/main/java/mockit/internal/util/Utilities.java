@@ -4,6 +4,7 @@
  */
 package mockit.internal.util;
 
+import java.io.File;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.GenericArrayType;
@@ -115,4 +116,16 @@ public final class Utilities {
         String locationPath = codeSource.getLocation().getPath();
         return URLDecoder.decode(locationPath, StandardCharsets.UTF_8);
     }
+
+    /**
+     * Identifies the JMockit build in use, by its version plus the last modification time of the jar file or classes
+     * directory it was loaded from, so that different snapshot builds of the same version can be told apart.
+     */
+    @Nonnull
+    public static String getJMockitVersion() {
+        String version = Utilities.class.getPackage().getImplementationVersion();
+        CodeSource codeSource = Utilities.class.getProtectionDomain().getCodeSource();
+        long lastModified = codeSource == null ? 0 : new File(getClassFileLocationPath(codeSource)).lastModified();
+        return version + '@' + lastModified;
+    }
 }
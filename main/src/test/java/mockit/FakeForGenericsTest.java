@@ -232,6 +232,43 @@ public final class FakeForGenericsTest {
         }
     }
 
+    /**
+     * Cannot call generic method when some fake method with invocation parameter expects different types.
+     */
+    @Test
+    public void cannotCallGenericMethodWhenSomeFakeMethodWithInvocationParameterExpectsDifferentTypes() {
+        new MockUp<GenericBaseClass<String, Integer>>() {
+            @Mock
+            Integer find(Invocation inv, String id) {
+                return 1;
+            }
+        };
+
+        try {
+            new GenericBaseClass<Integer, String>().find(1);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().startsWith("Failure to invoke method: "));
+            assertTrue(e.getCause() instanceof ClassCastException);
+        }
+    }
+
+    /**
+     * Class cast exception thrown from fake method with matching parameter types is not reported as invocation failure.
+     */
+    @Test(expected = ClassCastException.class)
+    public void classCastExceptionThrownFromFakeMethodWithMatchingParameterTypesIsNotReportedAsInvocationFailure() {
+        new MockUp<GenericBaseClass<String, Integer>>() {
+            @Mock
+            Integer find(String id) {
+                Object value = id;
+                return (Integer) value;
+            }
+        };
+
+        new GenericBaseClass<String, Integer>().find("test");
+    }
+
     /**
      * The Class NonGenericSuperclass.
      */
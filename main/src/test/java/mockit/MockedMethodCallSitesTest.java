@@ -0,0 +1,162 @@
+package mockit;
+
+import static java.lang.invoke.MethodType.methodType;
+import static java.lang.reflect.Modifier.PUBLIC;
+import static java.lang.reflect.Modifier.STATIC;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.ConstantCallSite;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+import mockit.internal.expectations.ExecutionMode;
+import mockit.internal.expectations.MockedMethodCallSites;
+
+import org.junit.Test;
+
+/**
+ * The Class MockedMethodCallSitesTest.
+ */
+public final class MockedMethodCallSitesTest {
+    private static final String CLASS_DESC = "mockit/MockedMethodCallSitesTest$Collaborator";
+
+    /**
+     * The Class Collaborator.
+     */
+    public static class Collaborator {
+
+        /**
+         * Formats the arguments.
+         *
+         * @param count
+         *            the count
+         * @param text
+         *            the text
+         *
+         * @return the formatted text
+         */
+        public String format(int count, String text) {
+            return text + count;
+        }
+
+        /**
+         * Gets the static value.
+         *
+         * @return the static value
+         */
+        public static int staticValue() {
+            return 1;
+        }
+    }
+
+    /** The mock. */
+    @Mocked
+    Collaborator mock;
+
+    private static CallSite linkCallSite(int access, String mockDesc, MethodType type) {
+        return MockedMethodCallSites.bootstrap(MethodHandles.lookup(), "recordOrReplay", type, access, CLASS_DESC,
+                mockDesc, MockedMethodCallSites.NO_SIGNATURE, ExecutionMode.Regular.ordinal());
+    }
+
+    private static MethodHandle formatCallSite() {
+        MethodType type = methodType(Object.class, Object.class, int.class, Object.class);
+        CallSite callSite = linkCallSite(PUBLIC, "format(ILjava/lang/String;)Ljava/lang/String;", type);
+
+        assertTrue(callSite instanceof ConstantCallSite);
+        assertEquals(type, callSite.type());
+        return callSite.getTarget();
+    }
+
+    /**
+     * Replay expectation recorded on mocked method through call site.
+     *
+     * @throws Throwable
+     *             the throwable
+     */
+    @Test
+    public void replayExpectationRecordedOnMockedMethodThroughCallSite() throws Throwable {
+        new Expectations() {
+            {
+                mock.format(5, "abc");
+                result = "recorded";
+            }
+        };
+
+        MethodHandle format = formatCallSite();
+
+        assertEquals("recorded", format.invoke((Object) mock, 5, (Object) "abc"));
+    }
+
+    /**
+     * Record expectation through call site and replay it on mocked method.
+     *
+     * @throws Throwable
+     *             the throwable
+     */
+    @Test
+    public void recordExpectationThroughCallSiteAndReplayItOnMockedMethod() throws Throwable {
+        MethodHandle format = formatCallSite();
+
+        new Expectations() {
+            {
+                try {
+                    format.invoke((Object) mock, 7, (Object) "xyz");
+                } catch (Throwable t) {
+                    throw new AssertionError(t);
+                }
+
+                result = "recorded";
+            }
+        };
+
+        assertEquals("recorded", mock.format(7, "xyz"));
+    }
+
+    /**
+     * Verify invocation made through call site with the arguments passed to it.
+     *
+     * @throws Throwable
+     *             the throwable
+     */
+    @Test
+    public void verifyInvocationMadeThroughCallSiteWithTheArgumentsPassedToIt() throws Throwable {
+        MethodHandle format = formatCallSite();
+
+        format.invoke((Object) mock, 3, (Object) "first");
+        format.invoke((Object) mock, 4, (Object) "second");
+
+        new Verifications() {
+            {
+                mock.format(3, "first");
+                times = 1;
+                mock.format(4, "second");
+                times = 1;
+            }
+        };
+    }
+
+    /**
+     * Replay expectation recorded on static method without parameters through call site.
+     *
+     * @throws Throwable
+     *             the throwable
+     */
+    @Test
+    public void replayExpectationRecordedOnStaticMethodWithoutParametersThroughCallSite() throws Throwable {
+        new Expectations() {
+            {
+                Collaborator.staticValue();
+                result = 42;
+            }
+        };
+
+        MethodType type = methodType(Object.class, Object.class);
+        MethodHandle staticValue = linkCallSite(PUBLIC | STATIC, "staticValue()I", type).getTarget();
+
+        assertEquals(42, staticValue.invoke((Object) null));
+    }
+}
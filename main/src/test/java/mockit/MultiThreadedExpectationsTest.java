@@ -5,7 +5,11 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.runners.MethodSorters.NAME_ASCENDING;
 
 import java.awt.Graphics2D;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
 
 import javax.swing.SwingUtilities;
 
@@ -37,6 +41,18 @@ public final class MultiThreadedExpectationsTest {
          */
         void doSomethingElse() {
         }
+
+        /**
+         * Do something with.
+         *
+         * @param value
+         *            the value
+         *
+         * @return the int
+         */
+        int doSomethingWith(String value) {
+            return -1;
+        }
     }
 
     /** The mock. */
@@ -60,6 +76,54 @@ public final class MultiThreadedExpectationsTest {
         }
     }
 
+    /**
+     * Capture arguments of invocations replayed from multiple threads.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    public void captureArgumentsOfInvocationsReplayedFromMultipleThreads() throws Exception {
+        final List<String> values = new ArrayList<>();
+
+        new Expectations() {
+            {
+                mock.doSomethingWith(withCapture(values));
+                result = 1;
+            }
+        };
+
+        final CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[4];
+
+        for (int i = 0; i < workers.length; i++) {
+            final String value = String.valueOf(i);
+            workers[i] = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException ignore) {
+                    }
+
+                    for (int j = 0; j < 10000; j++) {
+                        assertEquals(1, mock.doSomethingWith(value));
+                    }
+                }
+            };
+            workers[i].start();
+        }
+
+        start.countDown();
+
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertEquals(40000, values.size());
+        assertEquals(10000, Collections.frequency(values, "3"));
+    }
+
     /**
      * Use mocked object from worker thread while verifying expectation.
      */
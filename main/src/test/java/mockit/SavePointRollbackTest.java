@@ -0,0 +1,189 @@
+package mockit;
+
+import static org.junit.Assert.assertEquals;
+
+import mockit.internal.state.SavePoint;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * The Class SavePointRollbackTest.
+ */
+public final class SavePointRollbackTest {
+
+    /**
+     * The Class Collaborator.
+     */
+    public static final class Collaborator {
+
+        /**
+         * Gets the value.
+         *
+         * @return the value
+         */
+        public String getValue() {
+            return "real";
+        }
+
+        /**
+         * Gets the count.
+         *
+         * @return the count
+         */
+        public int getCount() {
+            return 1;
+        }
+    }
+
+    /**
+     * The Class AnotherCollaborator.
+     */
+    public static final class AnotherCollaborator {
+
+        /**
+         * Checks if is enabled.
+         *
+         * @return true, if is enabled
+         */
+        public boolean isEnabled() {
+            return true;
+        }
+    }
+
+    /** The outer save point. */
+    SavePoint outerSavePoint;
+
+    /**
+     * Roll back outer save point if still needed.
+     */
+    @After
+    public void rollbackOuterSavePoint() {
+        if (outerSavePoint != null) {
+            outerSavePoint.rollback();
+        }
+    }
+
+    /**
+     * Fake value.
+     *
+     * @param value
+     *            the value
+     */
+    static void fakeValue(String value) {
+        new MockUp<Collaborator>() {
+            @Mock
+            String getValue() {
+                return value;
+            }
+        };
+    }
+
+    /**
+     * Rollback of inner save point keeps changes made before it.
+     */
+    @Test
+    public void rollbackOfInnerSavePointKeepsChangesMadeBeforeIt() {
+        outerSavePoint = new SavePoint();
+        fakeValue("outer");
+
+        SavePoint innerSavePoint = new SavePoint();
+        new MockUp<Collaborator>() {
+            @Mock
+            int getCount() {
+                return 2;
+            }
+        };
+        new MockUp<AnotherCollaborator>() {
+            @Mock
+            boolean isEnabled() {
+                return false;
+            }
+        };
+
+        assertEquals("outer", new Collaborator().getValue());
+        assertEquals(2, new Collaborator().getCount());
+        assertEquals(false, new AnotherCollaborator().isEnabled());
+
+        innerSavePoint.rollback();
+
+        assertEquals("outer", new Collaborator().getValue());
+        assertEquals(1, new Collaborator().getCount());
+        assertEquals(true, new AnotherCollaborator().isEnabled());
+
+        outerSavePoint.rollback();
+        outerSavePoint = null;
+
+        assertEquals("real", new Collaborator().getValue());
+        assertEquals(1, new Collaborator().getCount());
+    }
+
+    /**
+     * Rollback of inner save point restores definition from outer one.
+     */
+    @Test
+    public void rollbackOfInnerSavePointRestoresDefinitionFromOuterOne() {
+        outerSavePoint = new SavePoint();
+        fakeValue("outer");
+
+        SavePoint innerSavePoint = new SavePoint();
+        new MockUp<Collaborator>() {
+            @Mock
+            String getValue() {
+                return "inner";
+            }
+        };
+        assertEquals("inner", new Collaborator().getValue());
+
+        innerSavePoint.rollback();
+        assertEquals("outer", new Collaborator().getValue());
+
+        outerSavePoint.rollback();
+        outerSavePoint = null;
+        assertEquals("real", new Collaborator().getValue());
+    }
+
+    /**
+     * Rollback of outer save point undoes changes made after inner one was rolled back.
+     */
+    @Test
+    public void rollbackOfOuterSavePointUndoesChangesMadeAfterInnerOneWasRolledBack() {
+        outerSavePoint = new SavePoint();
+
+        SavePoint innerSavePoint = new SavePoint();
+        fakeValue("inner");
+        innerSavePoint.rollback();
+        assertEquals("real", new Collaborator().getValue());
+
+        fakeValue("outer");
+        new MockUp<AnotherCollaborator>() {
+            @Mock
+            boolean isEnabled() {
+                return false;
+            }
+        };
+
+        outerSavePoint.rollback();
+        outerSavePoint = null;
+
+        assertEquals("real", new Collaborator().getValue());
+        assertEquals(true, new AnotherCollaborator().isEnabled());
+    }
+
+    /**
+     * Rollback of inner save point keeps mocked types from outer one.
+     *
+     * @param mock
+     *            the mock
+     */
+    @Test
+    public void rollbackOfInnerSavePointKeepsMockedTypesFromOuterOne(@Mocked AnotherCollaborator mock) {
+        SavePoint innerSavePoint = new SavePoint();
+        fakeValue("inner");
+
+        innerSavePoint.rollback();
+
+        assertEquals(false, new AnotherCollaborator().isEnabled());
+        assertEquals("real", new Collaborator().getValue());
+    }
+}
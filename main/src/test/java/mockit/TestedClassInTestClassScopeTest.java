@@ -0,0 +1,120 @@
+package mockit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.runners.MethodSorters.NAME_ASCENDING;
+
+import jakarta.annotation.PostConstruct;
+
+import java.sql.Timestamp;
+
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+
+/**
+ * The Class TestedClassInTestClassScopeTest.
+ */
+@FixMethodOrder(NAME_ASCENDING)
+public final class TestedClassInTestClassScopeTest {
+
+    /**
+     * The Class Dependency.
+     */
+    public static class Dependency {
+        /** The value. */
+        String value;
+    }
+
+    /**
+     * The Class TestedClass.
+     */
+    public static class TestedClass {
+        /** The initializations. */
+        static int initializations;
+
+        /** The dependency. */
+        Dependency dependency;
+
+        /** The action. */
+        Runnable action;
+
+        /** The some value. */
+        Integer someValue;
+
+        /**
+         * Initialize.
+         */
+        @PostConstruct
+        void initialize() {
+            initializations++;
+        }
+    }
+
+    /**
+     * The Class TestedSubclassOfPlatformClass, whose superclass is not loaded by the bootstrap class loader, and whose
+     * fields can't be made accessible.
+     */
+    public static class TestedSubclassOfPlatformClass extends Timestamp {
+        private static final long serialVersionUID = 1L;
+
+        /** The text. */
+        String text;
+
+        /**
+         * Instantiates a new tested subclass of platform class.
+         */
+        public TestedSubclassOfPlatformClass() {
+            super(0);
+        }
+    }
+
+    /** The tested. */
+    @Tested(fullyInitialized = true, perTestClass = true)
+    TestedClass tested;
+
+    /** The tested subclass of platform class. */
+    @Tested(perTestClass = true)
+    TestedSubclassOfPlatformClass testedSubclassOfPlatformClass;
+
+    /** The action. */
+    @Injectable
+    Runnable action;
+
+    /** The tested object from first test. */
+    static TestedClass testedFromFirstTest;
+
+    /** The dependency from first test. */
+    static Dependency dependencyFromFirstTest;
+
+    /**
+     * Use tested object in first test.
+     */
+    @Test
+    public void useTestedObjectInFirstTest() {
+        assertEquals(1, TestedClass.initializations);
+        assertNotNull(tested.dependency);
+        assertSame(action, tested.action);
+
+        testedFromFirstTest = tested;
+        dependencyFromFirstTest = tested.dependency;
+        tested.someValue = 123;
+        tested.dependency.value = "changed";
+        testedSubclassOfPlatformClass.text = "changed";
+    }
+
+    /**
+     * Use tested object in second test.
+     */
+    @Test
+    public void useTestedObjectInSecondTest() {
+        assertEquals(1, TestedClass.initializations);
+        assertSame(testedFromFirstTest, tested);
+        assertSame(dependencyFromFirstTest, tested.dependency);
+        assertSame(action, tested.action);
+        assertNull(tested.someValue);
+        assertNull(tested.dependency.value);
+        assertNull(testedSubclassOfPlatformClass.text);
+    }
+}
@@ -520,4 +520,222 @@ public final class VerificationsInOrderTest {
             }
         };
     }
+
+    /**
+     * The Class Step.
+     */
+    public static class Step {
+
+        /**
+         * Execute.
+         *
+         * @param value
+         *            the value
+         */
+        public void execute(int value) {
+        }
+    }
+
+    /**
+     * Verify interleaved invocations of same method on different instances.
+     *
+     * @param first
+     *            the first
+     * @param second
+     *            the second
+     */
+    @Test
+    public void verifyInterleavedInvocationsOfSameMethodOnDifferentInstances(@Injectable Step first,
+            @Injectable Step second) {
+        first.execute(1);
+        second.execute(2);
+        first.execute(3);
+        second.execute(2);
+
+        new VerificationsInOrder() {
+            {
+                first.execute(1);
+                second.execute(2);
+                first.execute(3);
+                second.execute(2);
+            }
+        };
+    }
+
+    /**
+     * Verify interleaved invocations of same method on different instances when out of order.
+     *
+     * @param first
+     *            the first
+     * @param second
+     *            the second
+     */
+    @Test
+    public void verifyInterleavedInvocationsOfSameMethodOnDifferentInstancesWhenOutOfOrder(@Injectable Step first,
+            @Injectable Step second) {
+        thrown.expect(MissingInvocation.class);
+        thrown.expectMessage("2");
+
+        first.execute(1);
+        second.execute(2);
+        first.execute(3);
+
+        new VerificationsInOrder() {
+            {
+                first.execute(1);
+                first.execute(3);
+                second.execute(2);
+            }
+        };
+    }
+
+    /**
+     * Verify invocations in order which were replayed for both recorded and unrecorded expectations.
+     */
+    @Test
+    public void verifyInvocationsInOrderWhichWereReplayedForBothRecordedAndUnrecordedExpectations() {
+        new Expectations() {
+            {
+                mock.setSomething(1);
+            }
+        };
+
+        mock.setSomething(2);
+        mock.setSomething(1);
+        mock.setSomething(3);
+        mock.setSomething(1);
+
+        new VerificationsInOrder() {
+            {
+                mock.setSomething(2);
+                mock.setSomething(1);
+                mock.setSomething(3);
+                mock.setSomething(1);
+            }
+        };
+    }
+
+    /**
+     * Verify repeating invocation which was replayed for both recorded and unrecorded expectations.
+     */
+    @Test
+    public void verifyRepeatingInvocationWhichWasReplayedForBothRecordedAndUnrecordedExpectations() {
+        new Expectations() {
+            {
+                mock.setSomething(1);
+            }
+        };
+
+        mock.prepare();
+        mock.setSomething(2);
+        mock.setSomething(1);
+        mock.setSomething(3);
+        mock.setSomething(1);
+        mock.save();
+
+        new VerificationsInOrder() {
+            {
+                mock.prepare();
+                mock.setSomething(anyInt);
+                times = 4;
+                mock.save();
+            }
+        };
+    }
+
+    /**
+     * Verify first of the invocations matching an argument matcher, replayed for different expectations.
+     */
+    @Test
+    public void verifyFirstOfTheInvocationsMatchingAnArgumentMatcherReplayedForDifferentExpectations() {
+        new Expectations() {
+            {
+                mock.setSomething(1);
+            }
+        };
+
+        mock.setSomething(1);
+        mock.setSomething(2);
+        mock.save();
+        mock.setSomething(1);
+
+        new VerificationsInOrder() {
+            {
+                mock.setSomething(1);
+                mock.setSomething(anyInt);
+                mock.save();
+            }
+        };
+    }
+
+    /**
+     * Verify invocation replayed for recorded expectation when out of order.
+     */
+    @Test
+    public void verifyInvocationReplayedForRecordedExpectationWhenOutOfOrder() {
+        thrown.expect(MissingInvocation.class);
+        thrown.expectMessage("3");
+
+        new Expectations() {
+            {
+                mock.setSomething(1);
+            }
+        };
+
+        mock.setSomething(3);
+        mock.setSomething(1);
+
+        new VerificationsInOrder() {
+            {
+                mock.setSomething(1);
+                mock.setSomething(3);
+            }
+        };
+    }
+
+    /**
+     * Verify in order after verifying some of the invocations without order.
+     */
+    @Test
+    public void verifyInOrderAfterVerifyingSomeOfTheInvocationsWithoutOrder() {
+        mock.setSomething(1);
+        mock.setSomething(2);
+        mock.save();
+        mock.setSomething(2);
+
+        new Verifications() {
+            {
+                mock.setSomething(2);
+            }
+        };
+
+        // Invocations already verified are left out, without affecting the order of the others.
+        new VerificationsInOrder() {
+            {
+                mock.setSomething(1);
+                mock.save();
+            }
+        };
+    }
+
+    /**
+     * Verify last invocations in order after many other invocations of the same method.
+     */
+    @Test
+    public void verifyLastInvocationsInOrderAfterManyOtherInvocationsOfTheSameMethod() {
+        for (int i = 0; i < 10000; i++) {
+            mock.setSomething(i % 100);
+        }
+
+        mock.save();
+        mock.setSomething(-1);
+
+        new VerificationsInOrder() {
+            {
+                mock.setSomething(99);
+                mock.save();
+                mock.setSomething(-1);
+            }
+        };
+    }
 }
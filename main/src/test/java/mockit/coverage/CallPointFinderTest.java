@@ -0,0 +1,121 @@
+package mockit.coverage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import mockit.coverage.lines.PerFileLineCoverage;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * The Class CallPointFinderTest.
+ */
+public final class CallPointFinderTest {
+
+    /**
+     * Clear current test method.
+     */
+    @After
+    public void clearCurrentTestMethod() {
+        CallPointFinder.setCurrentTestMethod(null);
+    }
+
+    /**
+     * Stands for the instrumented code calling into {@link TestRun}, whose frames are skipped when finding the call
+     * point.
+     */
+    private static CallPoint createFromInstrumentedCode() {
+        return CallPointFinder.create();
+    }
+
+    /**
+     * No call point when no test method frame is found in the thread running the test.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    public void noCallPointWhenNoTestMethodFrameIsFoundInTheThreadRunningTheTest() throws Exception {
+        Method testMethod = CallPointFinderTest.class
+                .getMethod("noCallPointWhenNoTestMethodFrameIsFoundInTheThreadRunningTheTest");
+        AtomicReference<CallPoint> callPoint = new AtomicReference<>();
+
+        // Classes in "mockit" packages are never taken as test classes, so no frame of this test will be found.
+        Thread thread = new Thread(() -> {
+            CallPointFinder.setCurrentTestMethod(testMethod);
+
+            try {
+                callPoint.set(createFromInstrumentedCode());
+            } finally {
+                CallPointFinder.setCurrentTestMethod(null);
+            }
+        });
+        thread.start();
+        thread.join();
+
+        assertNull(callPoint.get());
+    }
+
+    private static CallPoint createInNewThread() throws InterruptedException {
+        AtomicReference<CallPoint> callPoint = new AtomicReference<>();
+        Thread thread = new Thread(() -> callPoint.set(createFromInstrumentedCode()));
+        thread.start();
+        thread.join();
+        return callPoint.get();
+    }
+
+    /**
+     * Attribute execution in another thread to running test method without line number.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    public void attributeExecutionInAnotherThreadToRunningTestMethodWithoutLineNumber() throws Exception {
+        Method testMethod = CallPointFinderTest.class
+                .getMethod("attributeExecutionInAnotherThreadToRunningTestMethodWithoutLineNumber");
+        CallPointFinder.setCurrentTestMethod(testMethod);
+
+        CallPoint callPoint = createInNewThread();
+
+        assertNotNull(callPoint);
+        StackTraceElement ste = callPoint.getStackTraceElement();
+        assertEquals(CallPointFinderTest.class.getName(), ste.getClassName());
+        assertEquals(testMethod.getName(), ste.getMethodName());
+        assertTrue(ste.getLineNumber() < 0);
+    }
+
+    /**
+     * Keep no more call points than the maximum, even when all were found before any got registered.
+     */
+    @Test
+    public void keepNoMoreCallPointsThanTheMaximumEvenWhenAllWereFoundBeforeAnyGotRegistered() {
+        PerFileLineCoverage lines = new PerFileLineCoverage();
+        lines.addLine(7);
+        int maxCallPoints = 10;
+        CallPoint[] callPoints = new CallPoint[maxCallPoints + 3];
+
+        for (int i = 0; i < callPoints.length; i++) {
+            assertTrue(lines.acceptsAdditionalCallPoints(7));
+            callPoints[i] = new CallPoint(new StackTraceElement("SomeTest", "test" + i, "SomeTest.java", 10 + i));
+        }
+
+        for (CallPoint callPoint : callPoints) {
+            lines.registerExecution(7, callPoint);
+        }
+
+        List<CallPoint> registeredCallPoints = lines.getLineData(7).getCallPoints();
+        assertNotNull(registeredCallPoints);
+        assertEquals(maxCallPoints, registeredCallPoints.size());
+        assertFalse(lines.acceptsAdditionalCallPoints(7));
+        assertEquals(callPoints.length, lines.getExecutionCount(7));
+    }
+}
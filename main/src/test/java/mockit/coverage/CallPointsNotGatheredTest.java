@@ -0,0 +1,27 @@
+package mockit.coverage;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import mockit.coverage.data.CoverageData;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Runs through the JUnit 5 integration, which only reports the running test method when call points are gathered.
+ */
+final class CallPointsNotGatheredTest {
+    @Test
+    void runningTestMethodIsNotReportedWhenCallPointsAreNotGathered() throws Exception {
+        assertFalse(CoverageData.instance().isWithCallPoints());
+        AtomicReference<CallPoint> callPoint = new AtomicReference<>();
+
+        Thread thread = new Thread(() -> callPoint.set(CallPointFinder.create()));
+        thread.start();
+        thread.join();
+
+        assertNull(callPoint.get());
+    }
+}
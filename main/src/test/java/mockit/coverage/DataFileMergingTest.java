@@ -0,0 +1,145 @@
+package mockit.coverage;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import mockit.coverage.data.CoverageData;
+import mockit.coverage.data.FileCoverageData;
+import mockit.coverage.lines.PerFileLineCoverage;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * The Class DataFileMergingTest.
+ */
+public final class DataFileMergingTest {
+    // Source files of classes loaded by this test, so that the last modification time of their classfiles is found.
+    private static final String[] SOURCE_FILES = { "mockit/coverage/DataFileMergingTest.java",
+            "mockit/coverage/CallPointFinderTest.java", "mockit/coverage/DataFileMerging.java" };
+
+    /** The directory for the input files. */
+    @Rule
+    public final TemporaryFolder inputDir = new TemporaryFolder();
+
+    /**
+     * Merge input files in parallel with the same result as merging them one at a time, in order.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    public void mergeInputFilesInParallelWithSameResultAsMergingThemSequentially() throws Exception {
+        // Enough files for more than one batch of concurrently read files.
+        int inputFileCount = 2 * Runtime.getRuntime().availableProcessors() + 1;
+        List<String> inputPaths = new ArrayList<>();
+
+        for (int i = 0; i < inputFileCount; i++) {
+            File inputFile = inputDir.newFile("coverage" + i + ".ser");
+            createCoverageData(i).writeDataToFile(inputFile);
+            inputPaths.add(inputFile.getPath());
+        }
+
+        inputPaths.add(new File(inputDir.getRoot(), "missing.ser").getPath());
+
+        CoverageData sequentiallyMergedData = mergeSequentially(inputPaths);
+        CoverageData mergedData = new DataFileMerging(inputPaths.toArray(new String[0])).merge();
+
+        assertSameData(sequentiallyMergedData, mergedData);
+        assertEquals(expectedExecutionsOfFirstLineInFirstFile(inputFileCount),
+                mergedData.getFileData(SOURCE_FILES[0]).getLineCoverageData().getExecutionCount(1));
+    }
+
+    private static int expectedExecutionsOfFirstLineInFirstFile(int inputFileCount) {
+        int executions = 0;
+
+        for (int run = 0; run < inputFileCount; run++) {
+            if (run % 3 != 2) {
+                executions += (run + 1) % 4;
+            }
+        }
+
+        return executions;
+    }
+
+    /**
+     * Creates coverage data where each test run covers a different subset of source files and lines, with line
+     * execution counts which differ from run to run.
+     */
+    private static CoverageData createCoverageData(int run) {
+        CoverageData coverageData = new CoverageData();
+
+        for (int i = 0; i < SOURCE_FILES.length; i++) {
+            if ((run + i) % 3 == 2) {
+                continue;
+            }
+
+            FileCoverageData fileData = coverageData.getOrAddFile(SOURCE_FILES[i], "class");
+            PerFileLineCoverage lines = fileData.getLineCoverageData();
+
+            for (int line = 1; line <= 10; line++) {
+                lines.addLine(line);
+                lines.getOrCreateLineData(line);
+
+                for (int execution = 0; execution < (run + line + i) % 4; execution++) {
+                    lines.registerExecution(line, null);
+                }
+            }
+        }
+
+        coverageData.fillLastModifiedTimesForAllClassFiles();
+        assertEquals(SOURCE_FILES.length - 1, coverageData.getFileToFileData().size());
+        return coverageData;
+    }
+
+    private static CoverageData mergeSequentially(List<String> inputPaths) throws IOException {
+        CoverageData mergedData = null;
+
+        for (String inputPath : inputPaths) {
+            File inputFile = new File(inputPath);
+
+            if (inputFile.exists()) {
+                CoverageData existingData = CoverageData.readDataFromFile(inputFile);
+
+                if (mergedData == null) {
+                    mergedData = existingData;
+                } else {
+                    mergedData.merge(existingData);
+                }
+            }
+        }
+
+        assertNotNull(mergedData);
+        return mergedData;
+    }
+
+    private static void assertSameData(CoverageData expected, CoverageData actual) throws Exception {
+        Map<String, FileCoverageData> expectedFiles = expected.getFileToFileData();
+        Map<String, FileCoverageData> actualFiles = actual.getFileToFileData();
+        assertEquals(new ArrayList<>(expectedFiles.keySet()), new ArrayList<>(actualFiles.keySet()));
+
+        for (Entry<String, FileCoverageData> fileAndData : expectedFiles.entrySet()) {
+            FileCoverageData expectedFileData = fileAndData.getValue();
+            FileCoverageData actualFileData = actualFiles.get(fileAndData.getKey());
+            PerFileLineCoverage expectedLines = expectedFileData.getLineCoverageData();
+            PerFileLineCoverage actualLines = actualFileData.getLineCoverageData();
+
+            for (int line = 1; line <= 10; line++) {
+                assertEquals(expectedLines.getExecutionCount(line), actualLines.getExecutionCount(line));
+            }
+
+            assertArrayEquals(expectedFileData.computeDigest(MessageDigest.getInstance("SHA-256")),
+                    actualFileData.computeDigest(MessageDigest.getInstance("SHA-256")));
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package mockit.coverage.dataItems;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+/**
+ * The Class IntSetTest.
+ */
+public final class IntSetTest {
+    private final IntSet set = new IntSet();
+
+    /**
+     * New set is empty.
+     */
+    @Test
+    public void newSetIsEmpty() {
+        assertTrue(set.isEmpty());
+        assertTrue(set.toList().isEmpty());
+    }
+
+    /**
+     * Add and remove values.
+     */
+    @Test
+    public void addAndRemoveValues() {
+        set.add(5);
+        set.add(-7);
+        set.add(5);
+
+        assertFalse(set.isEmpty());
+        assertValues(-7, 5);
+
+        set.remove(5);
+        set.remove(123);
+        assertValues(-7);
+
+        set.remove(-7);
+        assertTrue(set.isEmpty());
+    }
+
+    /**
+     * Add and remove zero, which marks free slots in the table.
+     */
+    @Test
+    public void addAndRemoveZero() {
+        set.add(0);
+
+        assertFalse(set.isEmpty());
+        assertValues(0);
+
+        set.add(1);
+        set.remove(0);
+        assertValues(1);
+
+        set.remove(1);
+        assertTrue(set.isEmpty());
+    }
+
+    /**
+     * Grow beyond initial capacity.
+     */
+    @Test
+    public void growBeyondInitialCapacity() {
+        Set<Integer> expectedValues = new HashSet<>();
+
+        for (int i = 1; i <= 1000; i++) {
+            int value = i * 31;
+            set.add(value);
+            expectedValues.add(value);
+        }
+
+        assertEquals(expectedValues, new HashSet<>(set.toList()));
+        assertEquals(1000, set.toList().size());
+    }
+
+    /**
+     * Keep values reachable after removing others from the same probe sequences.
+     */
+    @Test
+    public void keepValuesReachableAfterRemovingOthersFromTheSameProbeSequences() {
+        Set<Integer> expectedValues = new HashSet<>();
+        Random random = new Random(12345L);
+
+        // A small range of values, so that probe sequences collide and wrap around the end of the table.
+        for (int i = 0; i < 20000; i++) {
+            int value = random.nextInt(64) - 32;
+
+            if (random.nextInt(3) == 0) {
+                set.remove(value);
+                expectedValues.remove(value);
+            } else {
+                set.add(value);
+                expectedValues.add(value);
+            }
+
+            assertEquals(expectedValues, new HashSet<>(set.toList()));
+        }
+
+        for (Integer value : new ArrayList<>(expectedValues)) {
+            set.remove(value);
+        }
+
+        assertTrue(set.isEmpty());
+    }
+
+    private void assertValues(Integer... expectedValues) {
+        List<Integer> values = set.toList();
+        Collections.sort(values);
+        assertEquals(List.of(expectedValues), values);
+    }
+}
@@ -0,0 +1,152 @@
+package mockit.coverage.dataItems;
+
+import static java.util.Collections.singletonList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+
+import mockit.coverage.data.CoverageDataInput;
+import mockit.coverage.data.CoverageDataOutput;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * The Class PerFileDataCoverageTest.
+ */
+public final class PerFileDataCoverageTest {
+
+    /** The temporary folder. */
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final PerFileDataCoverage fields = new PerFileDataCoverage();
+
+    /**
+     * Assign field indexes in order of addition.
+     */
+    @Test
+    public void assignFieldIndexesInOrderOfAddition() {
+        fields.addField("pkg.Owner", "counter", true);
+        fields.addField("pkg.Owner", "name", false);
+        fields.addField("pkg.Owner$Nested", "flag", false);
+
+        assertEquals(0, fields.getFieldIndex("pkg.Owner.counter"));
+        assertEquals(1, fields.getFieldIndex("pkg.Owner.name"));
+        assertEquals(2, fields.getFieldIndex("pkg.Owner$Nested.flag"));
+        assertEquals(-1, fields.getFieldIndex("pkg.Owner.unknown"));
+    }
+
+    /**
+     * Keep field index when field is added again.
+     */
+    @Test
+    public void keepFieldIndexWhenFieldIsAddedAgain() {
+        fields.addField("pkg.Owner", "counter", true);
+        fields.addField("pkg.Owner", "name", false);
+        fields.addField("pkg.Owner", "counter", true);
+
+        assertEquals(0, fields.getFieldIndex("pkg.Owner.counter"));
+        assertEquals(1, fields.getFieldIndex("pkg.Owner.name"));
+        assertEquals(2, fields.getTotalItems());
+    }
+
+    /**
+     * Register accesses to static field by index.
+     */
+    @Test
+    public void registerAccessesToStaticFieldByIndex() {
+        fields.addField("pkg.Owner", "assignedOnly", true);
+        fields.addField("pkg.Owner", "assignedAndRead", true);
+
+        fields.registerAssignmentToStaticField(fields.getFieldIndex("pkg.Owner.assignedOnly"));
+        int fieldIndex = fields.getFieldIndex("pkg.Owner.assignedAndRead");
+        fields.registerAssignmentToStaticField(fieldIndex);
+        fields.registerReadOfStaticField(fieldIndex);
+
+        StaticFieldData assignedAndRead = fields.getStaticFieldData("pkg.Owner.assignedAndRead");
+        assertNotNull(assignedAndRead);
+        assertEquals(1, assignedAndRead.getWriteCount());
+        assertEquals(1, assignedAndRead.getReadCount());
+        assertFalse(fields.isCovered("pkg.Owner.assignedOnly"));
+        assertTrue(fields.isCovered("pkg.Owner.assignedAndRead"));
+        assertEquals(1, fields.getCoveredItems());
+    }
+
+    /**
+     * Register accesses to instance field by index.
+     */
+    @Test
+    public void registerAccessesToInstanceFieldByIndex() {
+        fields.addField("pkg.Owner", "name", false);
+        int fieldIndex = fields.getFieldIndex("pkg.Owner.name");
+        Object readOwner = new Object();
+        Object unreadOwner = new Object();
+
+        fields.registerAssignmentToInstanceField(readOwner, fieldIndex);
+        fields.registerAssignmentToInstanceField(unreadOwner, fieldIndex);
+        fields.registerReadOfInstanceField(readOwner, fieldIndex);
+
+        InstanceFieldData fieldData = fields.getInstanceFieldData("pkg.Owner.name");
+        assertNotNull(fieldData);
+        assertEquals(2, fieldData.getWriteCount());
+        assertEquals(1, fieldData.getReadCount());
+        assertFalse(fieldData.isCovered());
+        assertEquals(singletonList(System.identityHashCode(unreadOwner)),
+                fieldData.getOwnerInstancesWithUnreadAssignments());
+    }
+
+    /**
+     * Cover instance field once all assigned values are read.
+     */
+    @Test
+    public void coverInstanceFieldOnceAllAssignedValuesAreRead() {
+        fields.addField("pkg.Owner", "name", false);
+        int fieldIndex = fields.getFieldIndex("pkg.Owner.name");
+        Object owner1 = new Object();
+        Object owner2 = new Object();
+
+        fields.registerAssignmentToInstanceField(owner1, fieldIndex);
+        fields.registerAssignmentToInstanceField(owner2, fieldIndex);
+        fields.registerReadOfInstanceField(owner2, fieldIndex);
+        fields.registerReadOfInstanceField(owner1, fieldIndex);
+
+        assertTrue(fields.isCovered("pkg.Owner.name"));
+    }
+
+    /**
+     * Keep field indexes when read back from file.
+     *
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    @Test
+    public void keepFieldIndexesWhenReadBackFromFile() throws IOException {
+        fields.addField("pkg.Owner", "name", false);
+        fields.addField("pkg.Owner", "counter", true);
+        fields.addField("pkg.Other", "value", false);
+        File dataFile = temporaryFolder.newFile();
+
+        try (CoverageDataOutput output = new CoverageDataOutput(dataFile)) {
+            fields.writeData(output);
+        }
+
+        PerFileDataCoverage readFields = new PerFileDataCoverage();
+        readFields.readData(CoverageDataInput.open(dataFile));
+
+        for (String classAndField : fields.allFields) {
+            assertEquals(fields.getFieldIndex(classAndField), readFields.getFieldIndex(classAndField));
+        }
+
+        readFields.registerAssignmentToStaticField(readFields.getFieldIndex("pkg.Owner.counter"));
+        StaticFieldData counterData = readFields.getStaticFieldData("pkg.Owner.counter");
+        assertNotNull(counterData);
+        assertEquals(1, counterData.getWriteCount());
+    }
+}
@@ -0,0 +1,137 @@
+package mockit.coverage.lines;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import mockit.asm.controlFlow.Label;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The Class ConcurrentExecutionCountsTest.
+ */
+public final class ConcurrentExecutionCountsTest {
+    private static final int THREADS = 4;
+    private static final int EXECUTIONS_PER_THREAD = 20_000;
+
+    private final PerFileLineCoverage lines = new PerFileLineCoverage();
+    private ExecutorService executor;
+    private int branchIndex;
+
+    /**
+     * Adds two lines, the second with a branching point whose counters are only created when first executed, as for
+     * branches added before concurrent recording got enabled.
+     */
+    @Before
+    public void addLinesAndBranches() {
+        lines.addLine(3);
+        lines.addLine(5);
+
+        Label jumpSource = new Label();
+        jumpSource.line = 5;
+        Label jumpTarget = new Label();
+        jumpTarget.line = 5;
+        branchIndex = lines.getOrCreateLineData(5).addBranchingPoint(jumpSource, jumpTarget);
+
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    /**
+     * Shut down executor.
+     */
+    @After
+    public void shutDownExecutor() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Count every line and branch execution registered from multiple threads.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    public void countEveryLineAndBranchExecutionRegisteredFromMultipleThreads() throws Exception {
+        runConcurrently(() -> {
+            lines.registerConcurrentExecution(3);
+            lines.registerConcurrentExecution(5);
+            lines.registerConcurrentExecution(5, branchIndex);
+        });
+
+        lines.foldPendingExecutionCounts();
+
+        int expectedCount = THREADS * EXECUTIONS_PER_THREAD;
+        assertEquals(expectedCount, lines.getExecutionCount(3));
+        assertEquals(expectedCount, lines.getExecutionCount(5));
+        assertEquals(expectedCount, lines.getBranchData(5, branchIndex).getExecutionCount());
+        assertEquals(0, lines.getBranchData(5, branchIndex + 1).getExecutionCount());
+    }
+
+    private void runConcurrently(Runnable execution) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> tasks = new ArrayList<>(THREADS);
+
+        for (int i = 0; i < THREADS; i++) {
+            tasks.add(executor.submit(() -> {
+                start.await();
+
+                for (int j = 0; j < EXECUTIONS_PER_THREAD; j++) {
+                    execution.run();
+                }
+
+                return null;
+            }));
+        }
+
+        start.countDown();
+
+        for (Future<?> task : tasks) {
+            task.get(30, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Count executions of line added after recording started.
+     */
+    @Test
+    public void countExecutionsOfLineAddedAfterRecordingStarted() {
+        lines.registerConcurrentExecution(3);
+        lines.addLine(80);
+        lines.registerConcurrentExecution(80);
+        lines.registerConcurrentExecution(80);
+
+        assertEquals(1, lines.getExecutionCount(3));
+        assertEquals(2, lines.getExecutionCount(80));
+        assertEquals(0, lines.getExecutionCount(5));
+    }
+
+    /**
+     * Fold each execution only once.
+     */
+    @Test
+    public void foldEachExecutionOnlyOnce() {
+        lines.registerConcurrentExecution(5);
+        lines.registerConcurrentExecution(5, branchIndex);
+        lines.foldPendingExecutionCounts();
+        lines.foldPendingExecutionCounts();
+
+        lines.registerConcurrentExecution(5);
+        lines.registerConcurrentExecution(5, branchIndex);
+        lines.foldPendingExecutionCounts();
+
+        assertEquals(2, lines.getExecutionCount(5));
+        BranchCoverageData branch = lines.getBranchData(5, branchIndex);
+        assertEquals(2, branch.getExecutionCount());
+        assertTrue(branch.isCovered());
+    }
+}
@@ -0,0 +1,15 @@
+package mockit.coverage.modification;
+
+/**
+ * A class with lines, branches, and fields, to be modified for coverage by {@link ClassfileCacheTest}.
+ */
+public final class ClassToBeCached {
+    private static int calls;
+    private int value;
+
+    public int increment(boolean twice) {
+        calls++;
+        value += twice ? 2 : 1;
+        return value;
+    }
+}
@@ -0,0 +1,132 @@
+package mockit.coverage.modification;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.CodeSource;
+import java.security.ProtectionDomain;
+import java.security.cert.Certificate;
+
+import mockit.coverage.data.CoverageData;
+import mockit.coverage.data.FileCoverageData;
+import mockit.coverage.lines.PerFileLineCoverage;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * The Class ClassesNotLoadedTest.
+ */
+public final class ClassesNotLoadedTest {
+    private static final String CLASS_NAME = "otherTests.ClassNotLoaded";
+    private static final String SOURCE_FILE = "otherTests/ClassNotLoaded.java";
+
+    /**
+     * A class loader for a classpath dir, telling whether it was asked to load a given class.
+     */
+    static final class ClassPathDirLoader extends URLClassLoader {
+        ClassPathDirLoader(URL classPathDir) {
+            super(new URL[] { classPathDir }, ClassesNotLoadedTest.class.getClassLoader());
+        }
+
+        boolean isLoaded(String className) {
+            return findLoadedClass(className) != null;
+        }
+    }
+
+    /** The classpath dir holding a copy of the classfile of a class not loaded. */
+    @Rule
+    public final TemporaryFolder classPathDir = new TemporaryFolder();
+
+    private ClassPathDirLoader classLoader;
+    private ProtectionDomain protectionDomain;
+
+    /**
+     * Copies the classfile to the classpath dir, and creates the class loader and protection domain for that dir.
+     *
+     * @throws IOException
+     *             if the classfile cannot be copied
+     */
+    @Before
+    public void createClassPathDir() throws IOException {
+        Path classFile = classPathDir.getRoot().toPath().resolve(CLASS_NAME.replace('.', '/') + ".class");
+        Files.createDirectories(classFile.getParent());
+
+        try (InputStream originalClassfile = ClassesNotLoadedTest.class.getClassLoader()
+                .getResourceAsStream(CLASS_NAME.replace('.', '/') + ".class")) {
+            Files.copy(originalClassfile, classFile);
+        }
+
+        URL location = classPathDir.getRoot().toURI().toURL();
+        classLoader = new ClassPathDirLoader(location);
+        protectionDomain = new ProtectionDomain(new CodeSource(location, (Certificate[]) null), null, classLoader,
+                null);
+    }
+
+    /**
+     * Discard coverage data.
+     *
+     * @throws IOException
+     *             if the class loader cannot be closed
+     */
+    @After
+    public void discardCoverageData() throws IOException {
+        CoverageData.instance().getFileToFileData().remove(SOURCE_FILE);
+        classLoader.close();
+    }
+
+    /**
+     * Gather coverage data for class not loaded without defining it.
+     */
+    @Test
+    public void gatherCoverageDataForClassNotLoadedWithoutDefiningIt() {
+        assertNull(CoverageData.instance().getFileData(SOURCE_FILE));
+        ClassModification classModification = new ClassModification();
+        classModification.protectionDomainsWithUniqueLocations.add(protectionDomain);
+
+        new ClassesNotLoaded(classModification).gatherCoverageData();
+
+        FileCoverageData fileData = CoverageData.instance().getFileData(SOURCE_FILE);
+        assertNotNull(fileData);
+        PerFileLineCoverage lines = fileData.getLineCoverageData();
+        assertTrue(lines.getExecutableLineCount() > 0);
+
+        for (int line = 1, n = lines.getLineCount(); line <= n; line++) {
+            assertTrue(lines.getExecutionCount(line) <= 0);
+        }
+
+        assertTrue(fileData.dataCoverageInfo.hasFields());
+        assertFalse(classLoader.isLoaded(CLASS_NAME));
+    }
+
+    /**
+     * Don't gather coverage data again for class already modified.
+     */
+    @Test
+    public void dontGatherCoverageDataAgainForClassAlreadyModified() {
+        ClassModification classModification = new ClassModification();
+        classModification.protectionDomainsWithUniqueLocations.add(protectionDomain);
+        ClassesNotLoaded classesNotLoaded = new ClassesNotLoaded(classModification);
+        classesNotLoaded.gatherCoverageData();
+        FileCoverageData fileData = CoverageData.instance().getFileData(SOURCE_FILE);
+        assertNotNull(fileData);
+        int executableLines = fileData.getLineCoverageData().getExecutableLineCount();
+
+        classesNotLoaded.gatherCoverageData();
+
+        assertEquals(executableLines, fileData.getLineCoverageData().getExecutableLineCount());
+        assertFalse(classLoader.isLoaded(CLASS_NAME));
+    }
+}
@@ -0,0 +1,204 @@
+package mockit.coverage.modification;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import mockit.asm.classes.ClassReader;
+import mockit.coverage.data.CoverageData;
+import mockit.coverage.data.FileCoverageData;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * The Class ClassfileCacheTest.
+ */
+public final class ClassfileCacheTest {
+    private static final String CACHE_DIR_PROPERTY = "coverage-classfileCache";
+    private static final String SOURCE_FILE = "mockit/coverage/modification/ClassToBeCached.java";
+    private static final FileTime NOT_REWRITTEN = FileTime.fromMillis(0L);
+
+    /** The cache directory. */
+    @Rule
+    public final TemporaryFolder cacheDir = new TemporaryFolder();
+
+    private ClassfileCache cache;
+    private byte[] originalClassfile;
+
+    /**
+     * Creates the cache.
+     *
+     * @throws IOException
+     *             if the original classfile cannot be read
+     */
+    @Before
+    public void createCache() throws IOException {
+        System.setProperty(CACHE_DIR_PROPERTY, cacheDir.getRoot().getPath());
+        cache = ClassfileCache.createIfEnabled();
+        assertNotNull(cache);
+
+        try (InputStream classfile = ClassToBeCached.class.getResourceAsStream("ClassToBeCached.class")) {
+            originalClassfile = classfile.readAllBytes();
+        }
+
+        unregisterSourceFile();
+    }
+
+    /**
+     * Discards the coverage data of the source file, as if the next class modification happened in a new JVM.
+     */
+    private static void unregisterSourceFile() {
+        CoverageData.instance().getFileToFileData().remove(SOURCE_FILE);
+    }
+
+    /**
+     * Clean up.
+     */
+    @After
+    public void cleanUp() {
+        System.clearProperty(CACHE_DIR_PROPERTY);
+        unregisterSourceFile();
+    }
+
+    /**
+     * Cache not created without cache directory.
+     */
+    @Test
+    public void cacheNotCreatedWithoutCacheDirectory() {
+        System.clearProperty(CACHE_DIR_PROPERTY);
+
+        assertNull(ClassfileCache.createIfEnabled());
+    }
+
+    /**
+     * Reuse cached entry with source file registered under another index.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    public void reuseCachedEntryWithSourceFileRegisteredUnderAnotherIndex() throws Exception {
+        byte[] firstModification = cache.modifyClass(originalClassfile);
+        int executableLines = getFileData().getLineCoverageData().getExecutableLineCount();
+        Path entryFile = getSingleEntryFile();
+        Files.setLastModifiedTime(entryFile, NOT_REWRITTEN);
+        unregisterSourceFile();
+
+        byte[] secondModification = cache.modifyClass(originalClassfile);
+
+        assertEquals(NOT_REWRITTEN, Files.getLastModifiedTime(entryFile));
+        FileCoverageData fileData = getFileData();
+        assertEquals(executableLines, fileData.getLineCoverageData().getExecutableLineCount());
+        assertTrue(fileData.dataCoverageInfo.hasFields());
+        assertFalse(Arrays.equals(firstModification, secondModification));
+        assertArrayEquals(modifyWithoutCache(fileData), secondModification);
+    }
+
+    private static FileCoverageData getFileData() {
+        FileCoverageData fileData = CoverageData.instance().getFileData(SOURCE_FILE);
+        assertNotNull(fileData);
+        return fileData;
+    }
+
+    private Path getSingleEntryFile() throws IOException {
+        List<Path> entryFiles = getEntryFiles();
+        assertEquals(1, entryFiles.size());
+        return entryFiles.get(0);
+    }
+
+    private List<Path> getEntryFiles() throws IOException {
+        try (Stream<Path> files = Files.list(cacheDir.getRoot().toPath())) {
+            return files.collect(Collectors.toList());
+        }
+    }
+
+    private byte[] modifyWithoutCache(FileCoverageData fileData) {
+        ClassReader cr = new ClassReader(originalClassfile);
+        CoverageModifier modifier = new CoverageModifier(cr,
+                new FileCoverageData(fileData.index, fileData.kindOfTopLevelType));
+        cr.accept(modifier);
+        return modifier.toByteArray();
+    }
+
+    /**
+     * Ignore cached entry when source file already has coverage data.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    public void ignoreCachedEntryWhenSourceFileAlreadyHasCoverageData() throws Exception {
+        byte[] firstModification = cache.modifyClass(originalClassfile);
+        int executableLines = getFileData().getLineCoverageData().getExecutableLineCount();
+        Path entryFile = getSingleEntryFile();
+        Files.setLastModifiedTime(entryFile, NOT_REWRITTEN);
+
+        byte[] secondModification = cache.modifyClass(originalClassfile);
+
+        // Modified as a further class of a source file already registered, rather than taken from the cache.
+        assertFalse(Arrays.equals(firstModification, secondModification));
+        assertEquals(NOT_REWRITTEN, Files.getLastModifiedTime(entryFile));
+        assertEquals(executableLines, getFileData().getLineCoverageData().getExecutableLineCount());
+    }
+
+    /**
+     * Add new entry for changed classfile.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    public void addNewEntryForChangedClassfile() throws Exception {
+        cache.modifyClass(originalClassfile);
+        Path firstEntryFile = getSingleEntryFile();
+        Files.setLastModifiedTime(firstEntryFile, NOT_REWRITTEN);
+        unregisterSourceFile();
+
+        // Same class, but recompiled for a different minor version.
+        byte[] changedClassfile = originalClassfile.clone();
+        changedClassfile[5] ^= 1;
+        cache.modifyClass(changedClassfile);
+
+        List<Path> entryFiles = getEntryFiles();
+        assertEquals(2, entryFiles.size());
+        assertTrue(entryFiles.contains(firstEntryFile));
+        assertEquals(NOT_REWRITTEN, Files.getLastModifiedTime(firstEntryFile));
+    }
+
+    /**
+     * Replace corrupted entry.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    public void replaceCorruptedEntry() throws Exception {
+        cache.modifyClass(originalClassfile);
+        Path entryFile = getSingleEntryFile();
+        long entrySize = Files.size(entryFile);
+        Files.write(entryFile, Arrays.copyOf(Files.readAllBytes(entryFile), 20));
+        unregisterSourceFile();
+
+        byte[] modifiedClassfile = cache.modifyClass(originalClassfile);
+
+        assertArrayEquals(modifyWithoutCache(getFileData()), modifiedClassfile);
+        assertEquals(entrySize, Files.size(getSingleEntryFile()));
+    }
+}
@@ -0,0 +1,147 @@
+package mockit.coverage.reporting;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import mockit.coverage.data.CoverageData;
+import mockit.coverage.data.FileCoverageData;
+import mockit.coverage.lines.PerFileLineCoverage;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * The Class CoverageReportTest.
+ */
+public final class CoverageReportTest {
+    private static final String REPORT_THREADS_PROPERTY = "coverage-reportThreads";
+    private static final int SOURCE_FILES_PER_PACKAGE = 6;
+
+    /** The directory holding the source dir and the report output dirs. */
+    @Rule
+    public final TemporaryFolder tempDir = new TemporaryFolder();
+
+    private File sourceDir;
+    private CoverageData coverageData;
+
+    /**
+     * Creates source files in two packages, plus coverage data for them and for a source file which does not exist.
+     *
+     * @throws IOException
+     *             if a source file cannot be written
+     */
+    @Before
+    public void createSourceFilesAndCoverageData() throws IOException {
+        sourceDir = tempDir.newFolder("src");
+        coverageData = new CoverageData();
+
+        for (String packageName : new String[] { "pkgA", "pkgB" }) {
+            for (int i = 0; i < SOURCE_FILES_PER_PACKAGE; i++) {
+                createSourceFileWithCoverageData(packageName, "Class" + i, i);
+            }
+        }
+
+        coverageData.getOrAddFile("pkgA/Missing.java", "class").getLineCoverageData().addLine(3);
+    }
+
+    private void createSourceFileWithCoverageData(String packageName, String className, int executions)
+            throws IOException {
+        String source = "package " + packageName + ";\n\n" + "public class " + className + " {\n"
+                + "    int value() {\n" + "        int i = " + executions + ";\n" + "        return i + 1;\n"
+                + "    }\n" + "}\n";
+        Path sourceFile = sourceDir.toPath().resolve(packageName).resolve(className + ".java");
+        Files.createDirectories(sourceFile.getParent());
+        Files.write(sourceFile, source.getBytes(UTF_8));
+
+        FileCoverageData fileData = coverageData.getOrAddFile(packageName + '/' + className + ".java", "class");
+        PerFileLineCoverage lines = fileData.getLineCoverageData();
+        lines.addLine(3);
+        lines.addLine(5);
+        lines.addLine(6);
+
+        for (int i = 0; i < executions; i++) {
+            lines.registerExecution(5, null);
+            lines.registerExecution(6, null);
+        }
+    }
+
+    /**
+     * Clear report threads property.
+     */
+    @After
+    public void clearReportThreadsProperty() {
+        System.clearProperty(REPORT_THREADS_PROPERTY);
+    }
+
+    /**
+     * Write the same report when source file pages are generated in parallel as when generated sequentially.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    public void writeSameReportWithSourceFilePagesGeneratedInParallelAsWhenGeneratedSequentially() throws Exception {
+        File sequentialReportDir = generateReport("sequential", 1);
+        File parallelReportDir = generateReport("parallel", 4);
+
+        List<Path> reportFiles = listFiles(sequentialReportDir);
+        assertEquals(reportFiles, listFiles(parallelReportDir));
+
+        for (int i = 0; i < SOURCE_FILES_PER_PACKAGE; i++) {
+            assertTrue(reportFiles.contains(Path.of("pkgA", "Class" + i + ".html")));
+            assertTrue(reportFiles.contains(Path.of("pkgB", "Class" + i + ".html")));
+        }
+
+        assertFalse(reportFiles.contains(Path.of("pkgA", "Missing.html")));
+
+        for (Path reportFile : reportFiles) {
+            byte[] sequentialContents = Files.readAllBytes(sequentialReportDir.toPath().resolve(reportFile));
+            byte[] parallelContents = Files.readAllBytes(parallelReportDir.toPath().resolve(reportFile));
+
+            if ("index.html".equals(reportFile.toString())) {
+                assertEquals(withoutGenerationTime(sequentialContents), withoutGenerationTime(parallelContents));
+            } else {
+                assertArrayEquals(reportFile.toString(), sequentialContents, parallelContents);
+            }
+        }
+    }
+
+    private File generateReport(String outputDirName, int reportThreads) throws IOException {
+        System.setProperty(REPORT_THREADS_PROPERTY, String.valueOf(reportThreads));
+        File outputDir = tempDir.newFolder(outputDirName);
+        new CoverageReport(outputDir.getPath(), true, new String[] { sourceDir.getPath() }, coverageData, false)
+                .generate();
+        return outputDir;
+    }
+
+    private static List<Path> listFiles(File dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir.toPath())) {
+            return files.filter(Files::isRegularFile).map(dir.toPath()::relativize).sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Drops the line with the date and time when the index page was generated.
+     */
+    private static List<String> withoutGenerationTime(byte[] indexPage) {
+        return Stream.of(new String(indexPage, UTF_8).split("\n"))
+                .filter(line -> !line.trim().startsWith("Generated on "))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,157 @@
+package mockit.coverage.reporting;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import mockit.coverage.data.CoverageData;
+import mockit.coverage.lines.PerFileLineCoverage;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * The Class PageDigestsTest.
+ */
+public final class PageDigestsTest {
+    private static final String INCREMENTAL_PROPERTY = "coverage-incremental";
+    private static final String SOURCE_FILE = "pkg/Example.java";
+    private static final String STALE_PAGE = "stale page";
+
+    /** The directory holding the source dirs and the report output dir. */
+    @Rule
+    public final TemporaryFolder tempDir = new TemporaryFolder();
+
+    private File sourceDir;
+    private File outputDir;
+    private Path page;
+    private CoverageData coverageData;
+
+    /**
+     * Creates a source file with its coverage data, and generates a first report for it.
+     *
+     * @throws IOException
+     *             if the source file or the report cannot be written
+     */
+    @Before
+    public void generateFirstReport() throws IOException {
+        System.setProperty(INCREMENTAL_PROPERTY, "true");
+        sourceDir = tempDir.newFolder("src");
+        writeSourceFile(sourceDir);
+        outputDir = tempDir.newFolder("report");
+        page = OutputFile.getOutputFile(outputDir.getPath(), SOURCE_FILE).toPath();
+
+        coverageData = new CoverageData();
+        PerFileLineCoverage lines = coverageData.getOrAddFile(SOURCE_FILE, "class").getLineCoverageData();
+        lines.addLine(3);
+        lines.addLine(4);
+        lines.registerExecution(4, null);
+
+        generateReport(sourceDir, false);
+        assertTrue(Files.exists(page));
+        markPageAsStale();
+    }
+
+    private static void writeSourceFile(File srcDir) throws IOException {
+        Path sourceFile = srcDir.toPath().resolve(SOURCE_FILE);
+        Files.createDirectories(sourceFile.getParent());
+        Files.write(sourceFile, "package pkg;\n\npublic class Example {\n    int i = 1;\n}\n".getBytes(UTF_8));
+    }
+
+    private void generateReport(File srcDir, boolean withCallPoints) throws IOException {
+        new CoverageReport(outputDir.getPath(), true, new String[] { srcDir.getPath() }, coverageData, withCallPoints)
+                .generate();
+    }
+
+    /**
+     * Overwrites the page, so that it can be told whether a later report generates it again.
+     */
+    private void markPageAsStale() throws IOException {
+        Files.write(page, STALE_PAGE.getBytes(UTF_8));
+    }
+
+    private String readPage() throws IOException {
+        return new String(Files.readAllBytes(page), UTF_8);
+    }
+
+    /**
+     * Clear incremental property.
+     */
+    @After
+    public void clearIncrementalProperty() {
+        System.clearProperty(INCREMENTAL_PROPERTY);
+    }
+
+    /**
+     * Keep page when nothing changed since the previous report.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    public void keepPageWhenNothingChangedSinceThePreviousReport() throws Exception {
+        generateReport(sourceDir, false);
+
+        assertEquals(STALE_PAGE, readPage());
+    }
+
+    /**
+     * Regenerate page when inclusion of call points changes.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    public void regeneratePageWhenInclusionOfCallPointsChanges() throws Exception {
+        generateReport(sourceDir, true);
+
+        assertNotEquals(STALE_PAGE, readPage());
+    }
+
+    /**
+     * Regenerate page when the previous report was generated by a different JMockit build.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    public void regeneratePageWhenThePreviousReportWasGeneratedByADifferentJMockitBuild() throws Exception {
+        Path digestsFile = outputDir.toPath().resolve("pageDigests.txt");
+        List<String> digests = Files.readAllLines(digestsFile, UTF_8);
+        assertTrue(digests.get(0).startsWith("jmockitVersion="));
+        digests.set(0, digests.get(0).replaceFirst("jmockitVersion=\\S+", "jmockitVersion=1.0@0"));
+        Files.write(digestsFile, digests, UTF_8);
+
+        generateReport(sourceDir, false);
+
+        assertNotEquals(STALE_PAGE, readPage());
+    }
+
+    /**
+     * Regenerate page when the source file is found in a different source dir.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    public void regeneratePageWhenTheSourceFileIsFoundInADifferentSourceDir() throws Exception {
+        File otherSourceDir = tempDir.newFolder("otherSrc");
+        writeSourceFile(otherSourceDir);
+
+        generateReport(otherSourceDir, false);
+
+        assertNotEquals(STALE_PAGE, readPage());
+        assertTrue(readPage().contains(otherSourceDir.getPath()));
+    }
+}
@@ -0,0 +1,129 @@
+package mockit.internal.expectations;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.junit.Test;
+
+import otherTests.replayLog.Collaborator;
+import otherTests.replayLog.CustomVerificationsSubclassTest;
+import otherTests.replayLog.LocalVerificationsTest;
+import otherTests.replayLog.NamedVerificationsTest;
+import otherTests.replayLog.VerificationsAfterGapTest;
+import otherTests.replayLog.VerificationsInNestedClassTest;
+import otherTests.replayLog.WithVerificationBlocksTest;
+import otherTests.replayLog.WithoutVerificationBlocksTest;
+
+/**
+ * The Class VerificationBlockSearchTest.
+ */
+public final class VerificationBlockSearchTest {
+    private static final Class<?>[] CLASSES_WITH_VERIFICATION_BLOCKS = { WithVerificationBlocksTest.class,
+            CustomVerificationsSubclassTest.class, NamedVerificationsTest.class, LocalVerificationsTest.class,
+            VerificationsInNestedClassTest.class, VerificationsAfterGapTest.class };
+
+    /**
+     * A class loader which defines the test classes of the <code>otherTests.replayLog</code> package from their
+     * classfiles with the <code>NestHost</code> and <code>NestMembers</code> attributes removed, as if compiled for
+     * Java 8, and which serves those classfiles as resources, except for the one it's told to hide.
+     */
+    static final class ClassfilesWithoutNestsLoader extends ClassLoader {
+        private final String hiddenClassfile;
+
+        ClassfilesWithoutNestsLoader(String hiddenClassfile) {
+            super(ClassLoader.getPlatformClassLoader());
+            this.hiddenClassfile = hiddenClassfile;
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            if (!name.startsWith("otherTests.replayLog.")) {
+                throw new ClassNotFoundException(name);
+            }
+
+            byte[] classfile = readClassfile(name.replace('.', '/') + ".class");
+            return defineClass(name, classfile, 0, classfile.length);
+        }
+
+        @Override
+        public InputStream getResourceAsStream(String name) {
+            if (name.equals(hiddenClassfile)) {
+                return null;
+            }
+
+            byte[] classfile = readClassfile(name);
+            return classfile == null ? null : new ByteArrayInputStream(classfile);
+        }
+
+        private static byte[] readClassfile(String name) {
+            try (InputStream input = VerificationBlockSearchTest.class.getClassLoader().getResourceAsStream(name)) {
+                if (input == null) {
+                    return null;
+                }
+
+                // Renaming the attributes to names of the same length makes the JVM ignore them as unknown attributes.
+                String classfile = new String(input.readAllBytes(), ISO_8859_1);
+                return classfile.replace("NestMembers", "XestMembers").replace("NestHost", "XestHost")
+                        .getBytes(ISO_8859_1);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private static boolean hasVerificationBlocksWithoutNests(Class<?> testClass, String hiddenClassfile)
+            throws ClassNotFoundException {
+        ClassLoader loader = new ClassfilesWithoutNestsLoader(hiddenClassfile);
+        return VerificationBlockSearch.hasVerificationBlocks(loader.loadClass(testClass.getName()));
+    }
+
+    /**
+     * Find verification blocks of every kind among the members of the nest of the test class.
+     */
+    @Test
+    public void findVerificationBlocksOfEveryKindAmongTheMembersOfTheNestOfTheTestClass() {
+        for (Class<?> testClass : CLASSES_WITH_VERIFICATION_BLOCKS) {
+            assertTrue(testClass.getName(), VerificationBlockSearch.hasVerificationBlocks(testClass));
+        }
+
+        assertFalse(VerificationBlockSearch.hasVerificationBlocks(WithoutVerificationBlocksTest.class));
+        assertFalse(VerificationBlockSearch.hasVerificationBlocks(Collaborator.class));
+    }
+
+    /**
+     * Find verification blocks of every kind among the inner classes of test class compiled without nests.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    public void findVerificationBlocksOfEveryKindAmongTheInnerClassesOfTestClassCompiledWithoutNests()
+            throws Exception {
+        for (Class<?> testClass : CLASSES_WITH_VERIFICATION_BLOCKS) {
+            assertTrue(testClass.getName(), hasVerificationBlocksWithoutNests(testClass, null));
+        }
+
+        assertFalse(hasVerificationBlocksWithoutNests(WithoutVerificationBlocksTest.class, null));
+    }
+
+    /**
+     * Assume verification blocks exist when classfile of test class or of nested class cannot be read.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    public void assumeVerificationBlocksExistWhenClassfileOfTestClassOrOfNestedClassCannotBeRead() throws Exception {
+        String testClassfile = "otherTests/replayLog/WithoutVerificationBlocksTest.class";
+
+        assertTrue(hasVerificationBlocksWithoutNests(WithoutVerificationBlocksTest.class, testClassfile));
+        assertTrue(hasVerificationBlocksWithoutNests(WithoutVerificationBlocksTest.class,
+                testClassfile.replace(".class", "$1.class")));
+    }
+}
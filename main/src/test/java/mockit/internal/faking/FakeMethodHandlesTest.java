@@ -0,0 +1,128 @@
+package mockit.internal.faking;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.invoke.MethodHandle;
+
+import org.junit.Test;
+
+/**
+ * The Class FakeMethodHandlesTest.
+ */
+public final class FakeMethodHandlesTest {
+
+    /**
+     * The Class AFake.
+     */
+    public static final class AFake {
+
+        /**
+         * Describes the arguments.
+         *
+         * @param count
+         *            the count
+         * @param text
+         *            the text
+         *
+         * @return the description
+         */
+        public String describe(int count, String text) {
+            return text + count;
+        }
+
+        /**
+         * Throws the given exception.
+         *
+         * @param exception
+         *            the exception
+         *
+         * @return never returns
+         */
+        public static Object fail(RuntimeException exception) {
+            throw exception;
+        }
+    }
+
+    private static MethodHandle describe() throws NoSuchMethodException {
+        return FakeMethodHandles.forFakeMethod(AFake.class.getMethod("describe", int.class, String.class));
+    }
+
+    private static void assertFailureToInvoke(Object fake, Object... args) throws Exception {
+        MethodHandle fakeMethod = describe();
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> FakeMethodHandles.invoke(fakeMethod, fake, args));
+
+        assertTrue(e.getMessage(), e.getMessage().startsWith("Failure to invoke method: "));
+        assertTrue(e.getMessage(), e.getMessage().contains("AFake.describe(int,java.lang.String)"));
+    }
+
+    /**
+     * Invoke fake method with arguments of the parameter types.
+     *
+     * @throws Throwable
+     *             the throwable
+     */
+    @Test
+    public void invokeFakeMethodWithArgumentsOfTheParameterTypes() throws Throwable {
+        Object result = FakeMethodHandles.invoke(describe(), new AFake(), new Object[] { 5, "abc" });
+
+        assertEquals("abc5", result);
+    }
+
+    /**
+     * Report argument of wrong type as failure to invoke fake method.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    public void reportArgumentOfWrongTypeAsFailureToInvokeFakeMethod() throws Exception {
+        assertFailureToInvoke(new AFake(), "5", "abc");
+    }
+
+    /**
+     * Report null argument for primitive parameter as failure to invoke fake method.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    public void reportNullArgumentForPrimitiveParameterAsFailureToInvokeFakeMethod() throws Exception {
+        assertFailureToInvoke(new AFake(), null, "abc");
+    }
+
+    /**
+     * Report wrong number of arguments as failure to invoke fake method.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    public void reportWrongNumberOfArgumentsAsFailureToInvokeFakeMethod() throws Exception {
+        assertFailureToInvoke(new AFake(), 5);
+        assertFailureToInvoke(new AFake(), 5, "abc", "extra");
+    }
+
+    /**
+     * Let exceptions thrown from fake method through.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    public void letExceptionsThrownFromFakeMethodThrough() throws Exception {
+        MethodHandle fail = FakeMethodHandles.forFakeMethod(AFake.class.getMethod("fail", RuntimeException.class));
+
+        for (RuntimeException exception : new RuntimeException[] { new ClassCastException(),
+                new NullPointerException(), new IllegalArgumentException(), new IllegalStateException() }) {
+            RuntimeException thrown = assertThrows(RuntimeException.class,
+                    () -> FakeMethodHandles.invoke(fail, null, new Object[] { exception }));
+
+            assertSame(exception, thrown);
+        }
+    }
+}
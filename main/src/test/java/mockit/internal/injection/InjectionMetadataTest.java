@@ -0,0 +1,231 @@
+package mockit.internal.injection;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Inject;
+
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import mockit.internal.injection.InjectionPoint.KindOfInjectionPoint;
+
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Qualifier;
+
+/**
+ * The Class InjectionMetadataTest.
+ */
+public final class InjectionMetadataTest {
+
+    /**
+     * The Class Dependency.
+     */
+    static final class Dependency {
+    }
+
+    /**
+     * The Class TestedClass.
+     */
+    @SuppressWarnings("unused")
+    static final class TestedClass {
+
+        /** The injected dependency. */
+        @Inject
+        @Qualifier("first")
+        Dependency injected;
+
+        /** The plain dependency. */
+        Dependency plain;
+
+        /** The constant. */
+        final String constant = "constant";
+
+        /**
+         * Instantiates a new tested class.
+         */
+        private TestedClass() {
+        }
+
+        /**
+         * Instantiates a new tested class.
+         *
+         * @param dependency
+         *            the dependency
+         */
+        @Inject
+        TestedClass(Dependency dependency) {
+            injected = dependency;
+        }
+
+        /**
+         * Instantiates a new tested class.
+         *
+         * @param dependency
+         *            the dependency
+         * @param text
+         *            the text
+         */
+        public TestedClass(Dependency dependency, String text) {
+            plain = dependency;
+        }
+
+        /**
+         * Initializes.
+         */
+        @PostConstruct
+        void initialize() {
+        }
+
+        /**
+         * Terminates.
+         */
+        @PreDestroy
+        void terminate() {
+        }
+    }
+
+    /**
+     * Get the same declared fields on every lookup.
+     */
+    @Test
+    public void getTheSameDeclaredFieldsOnEveryLookup() {
+        Field[] fields = InjectionMetadata.getDeclaredFields(TestedClass.class);
+
+        assertArrayEquals(sortedByName(TestedClass.class.getDeclaredFields()), sortedByName(fields.clone()));
+        assertSame(fields, InjectionMetadata.getDeclaredFields(TestedClass.class));
+    }
+
+    private static Field[] sortedByName(Field[] fields) {
+        Arrays.sort(fields, Comparator.comparing(Field::getName));
+        return fields;
+    }
+
+    /**
+     * Get the same unmodifiable list of eligible fields on every lookup.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    public void getTheSameUnmodifiableListOfEligibleFieldsOnEveryLookup() throws Exception {
+        List<Field> fields = InjectionMetadata.getEligibleFields(TestedClass.class);
+
+        Field injected = TestedClass.class.getDeclaredField("injected");
+        Field plain = TestedClass.class.getDeclaredField("plain");
+        assertEquals(List.of(injected, plain), fields);
+        assertSame(fields, InjectionMetadata.getEligibleFields(TestedClass.class));
+        assertThrows(UnsupportedOperationException.class, () -> fields.add(null));
+    }
+
+    /**
+     * Get the same kind of injection point and qualified name on every lookup.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    public void getTheSameKindOfInjectionPointAndQualifiedNameOnEveryLookup() throws Exception {
+        Field injected = TestedClass.class.getDeclaredField("injected");
+        Field plain = TestedClass.class.getDeclaredField("plain");
+
+        for (int lookup = 1; lookup <= 2; lookup++) {
+            assertSame(KindOfInjectionPoint.Required, InjectionMetadata.kindOfInjectionPoint(injected));
+            assertEquals("first", InjectionMetadata.getQualifiedName(injected));
+            assertSame(KindOfInjectionPoint.NotAnnotated, InjectionMetadata.kindOfInjectionPoint(plain));
+            assertNull(InjectionMetadata.getQualifiedName(plain));
+        }
+
+        // Equal but distinct Field instances, as returned by each call to getDeclaredField, share the metadata.
+        Field sameField = TestedClass.class.getDeclaredField("injected");
+        assertEquals("first", InjectionMetadata.getQualifiedName(sameField));
+    }
+
+    /**
+     * Get the same constructors, most accessible first, and the same annotated constructor on every lookup.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    public void getTheSameConstructorsMostAccessibleFirstAndTheSameAnnotatedConstructorOnEveryLookup()
+            throws Exception {
+        Constructor<?>[] constructors = InjectionMetadata.getConstructorsWithMostAccessibleFirst(TestedClass.class);
+
+        assertEquals(3, constructors.length);
+        assertEquals(TestedClass.class.getDeclaredConstructor(Dependency.class, String.class), constructors[0]);
+        assertEquals(TestedClass.class.getDeclaredConstructor(Dependency.class), constructors[1]);
+        assertEquals(TestedClass.class.getDeclaredConstructor(), constructors[2]);
+        assertSame(constructors, InjectionMetadata.getConstructorsWithMostAccessibleFirst(TestedClass.class));
+
+        Constructor<?> annotatedConstructor = InjectionMetadata.getAnnotatedConstructor(TestedClass.class);
+
+        assertEquals(TestedClass.class.getDeclaredConstructor(Dependency.class), annotatedConstructor);
+        assertSame(annotatedConstructor, InjectionMetadata.getAnnotatedConstructor(TestedClass.class));
+        assertNull(InjectionMetadata.getAnnotatedConstructor(Dependency.class));
+    }
+
+    /**
+     * Get the same lifecycle methods on every lookup, separately for servlets.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    public void getTheSameLifecycleMethodsOnEveryLookupSeparatelyForServlets() throws Exception {
+        Method[] methods = InjectionMetadata.getLifecycleMethods(TestedClass.class, false);
+        Method[] servletMethods = InjectionMetadata.getLifecycleMethods(TestedClass.class, true);
+
+        Method[] expectedMethods = { TestedClass.class.getDeclaredMethod("initialize"),
+                TestedClass.class.getDeclaredMethod("terminate") };
+        assertArrayEquals(expectedMethods, methods);
+        assertArrayEquals(expectedMethods, servletMethods);
+        assertSame(methods, InjectionMetadata.getLifecycleMethods(TestedClass.class, false));
+        assertSame(servletMethods, InjectionMetadata.getLifecycleMethods(TestedClass.class, true));
+    }
+
+    /**
+     * Let class with cached metadata be unloaded.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    public void letClassWithCachedMetadataBeUnloaded() throws Exception {
+        WeakReference<Class<?>> unloadableClass = loadClassAndCacheItsMetadata();
+
+        for (int i = 0; i < 20 && unloadableClass.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        assertNull(unloadableClass.get());
+    }
+
+    private static WeakReference<Class<?>> loadClassAndCacheItsMetadata() throws Exception {
+        URL testClasses = InjectionMetadataTest.class.getProtectionDomain().getCodeSource().getLocation();
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[] { testClasses }, null)) {
+            Class<?> aClass = classLoader.loadClass(Dependency.class.getName());
+            assertNotSame(Dependency.class, aClass);
+
+            InjectionMetadata.getEligibleFields(aClass);
+            InjectionMetadata.getConstructorsWithMostAccessibleFirst(aClass);
+            InjectionMetadata.getLifecycleMethods(aClass, false);
+            return new WeakReference<>(aClass);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package mockit.internal.reflection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import mockit.internal.reflection.GenericTypeReflection.GenericSignature;
+
+import org.junit.Test;
+
+/**
+ * The Class GenericTypeReflectionTest.
+ */
+public final class GenericTypeReflectionTest {
+    private static final String BASE_DESC = "mockit/internal/reflection/GenericTypeReflectionTest$Base";
+
+    /**
+     * The Class Base.
+     *
+     * @param <T>
+     *            the generic type
+     */
+    static class Base<T> {
+    }
+
+    /**
+     * The Class StringBase.
+     */
+    static final class StringBase extends Base<String> {
+    }
+
+    private static String resolveUncached(Class<?> ownerClass, String genericSignature) {
+        return new GenericTypeReflection(ownerClass, null).resolveSignature(BASE_DESC, genericSignature);
+    }
+
+    /**
+     * Resolve signature with type parameter of generic superclass the same way on second lookup.
+     */
+    @Test
+    public void resolveSignatureWithTypeParameterOfGenericSuperclassTheSameWayOnSecondLookup() {
+        String signature = "()TT;";
+
+        String resolved = GenericTypeReflection.resolveSignature(StringBase.class, BASE_DESC, signature);
+        String resolvedAgain = GenericTypeReflection.resolveSignature(StringBase.class, BASE_DESC, signature);
+
+        assertEquals("()Ljava/lang/String;", resolved);
+        assertEquals(resolved, resolvedAgain);
+        assertEquals(resolveUncached(StringBase.class, signature), resolvedAgain);
+    }
+
+    /**
+     * Resolve signatures with method type parameters of the same name independently of each other.
+     */
+    @Test
+    public void resolveSignaturesWithMethodTypeParametersOfTheSameNameIndependentlyOfEachOther() {
+        String numberSignature = "<E:Ljava/lang/Number;>()TE;";
+        String charSequenceSignature = "<E::Ljava/lang/CharSequence;>(TT;)TE;";
+
+        for (int lookup = 1; lookup <= 2; lookup++) {
+            assertEquals("<E:Ljava/lang/Number;>()Ljava/lang/Number;",
+                    GenericTypeReflection.resolveSignature(StringBase.class, BASE_DESC, numberSignature));
+            assertEquals("<E::Ljava/lang/CharSequence;>(TT;)Ljava/lang/CharSequence;",
+                    GenericTypeReflection.resolveSignature(StringBase.class, BASE_DESC, charSequenceSignature));
+        }
+
+        assertEquals(resolveUncached(StringBase.class, numberSignature),
+                GenericTypeReflection.resolveSignature(StringBase.class, BASE_DESC, numberSignature));
+        assertEquals(resolveUncached(StringBase.class, charSequenceSignature),
+                GenericTypeReflection.resolveSignature(StringBase.class, BASE_DESC, charSequenceSignature));
+    }
+
+    /**
+     * Keep type parameter of method from leaking into resolution of later signature with class type parameter.
+     */
+    @Test
+    public void keepTypeParameterOfMethodFromLeakingIntoResolutionOfLaterSignatureWithClassTypeParameter() {
+        String shadowingSignature = "<T:Ljava/lang/Number;>()TT;";
+        String classTypeParameterSignature = "()TT;";
+
+        assertEquals("<T:Ljava/lang/Number;>()Ljava/lang/Number;",
+                GenericTypeReflection.resolveSignature(Base.class, BASE_DESC, shadowingSignature));
+        assertEquals(classTypeParameterSignature,
+                GenericTypeReflection.resolveSignature(Base.class, BASE_DESC, classTypeParameterSignature));
+        assertEquals(resolveUncached(Base.class, shadowingSignature),
+                GenericTypeReflection.resolveSignature(Base.class, BASE_DESC, shadowingSignature));
+    }
+
+    /**
+     * Parse signature once per owner class, matching other signatures the same way on second lookup.
+     */
+    @Test
+    public void parseSignatureOncePerOwnerClassMatchingOtherSignaturesTheSameWayOnSecondLookup() {
+        String signature = "(TT;Ljava/util/List<TT;>;)V";
+        String[] otherSignatures = { "(Ljava/lang/String;Ljava/util/List;)V", "(TT;Ljava/util/List<TT;>;)V",
+                "(Ljava/lang/Integer;Ljava/util/List;)V", "(Ljava/lang/String;)V" };
+
+        for (Class<?> ownerClass : new Class<?>[] { Base.class, StringBase.class }) {
+            GenericSignature parsed = GenericTypeReflection.parseSignature(ownerClass, signature);
+            GenericSignature parsedAgain = GenericTypeReflection.parseSignature(ownerClass, signature);
+            GenericSignature uncached = new GenericTypeReflection(ownerClass, null).parseSignature(signature);
+
+            assertSame(parsed, parsedAgain);
+
+            for (String otherSignature : otherSignatures) {
+                boolean expected = uncached.satisfiesGenericSignature(otherSignature);
+
+                assertEquals(otherSignature, expected, parsed.satisfiesGenericSignature(otherSignature));
+                assertEquals(otherSignature, expected, parsedAgain.satisfiesGenericSignature(otherSignature));
+                assertEquals(otherSignature, uncached.satisfiesSignature(otherSignature),
+                        parsedAgain.satisfiesSignature(otherSignature));
+            }
+        }
+
+        assertNotSame(GenericTypeReflection.parseSignature(Base.class, signature),
+                GenericTypeReflection.parseSignature(StringBase.class, signature));
+    }
+}
@@ -0,0 +1,195 @@
+package mockit.internal.reflection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+
+import org.junit.Test;
+
+/**
+ * The Class MemberHandlesTest.
+ */
+public final class MemberHandlesTest {
+
+    /**
+     * The Class Holder.
+     */
+    @SuppressWarnings("unused")
+    static final class Holder {
+
+        /** The static text. */
+        private static String staticText;
+
+        /** The text. */
+        private String text = "initial";
+
+        /** The count. */
+        private long count;
+
+        /**
+         * Instantiates a new holder.
+         */
+        Holder() {
+        }
+
+        /**
+         * Instantiates a new holder.
+         *
+         * @param text
+         *            the text
+         * @param count
+         *            the count
+         */
+        private Holder(String text, int count) {
+            this.text = text;
+            this.count = count;
+        }
+
+        /**
+         * Instantiates a new holder.
+         *
+         * @param failure
+         *            the failure
+         *
+         * @throws IOException
+         *             the failure
+         */
+        Holder(IOException failure) throws IOException {
+            throw failure;
+        }
+    }
+
+    /** The value. */
+    private int value = 123;
+
+    /**
+     * The Class Inner.
+     */
+    final class Inner {
+    }
+
+    private static Field field(Class<?> aClass, String name) throws NoSuchFieldException {
+        return aClass.getDeclaredField(name);
+    }
+
+    /**
+     * Get and set instance and static field values.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    public void getAndSetInstanceAndStaticFieldValues() throws Exception {
+        Holder holder = new Holder();
+        Field text = field(Holder.class, "text");
+        Field staticText = field(Holder.class, "staticText");
+
+        assertEquals("initial", MemberHandles.getFieldValue(text, holder));
+
+        MemberHandles.setFieldValue(text, holder, "changed");
+        MemberHandles.setFieldValue(staticText, null, "static");
+
+        assertEquals("changed", holder.text);
+        assertEquals("changed", MemberHandles.getFieldValue(text, holder));
+        assertEquals("static", MemberHandles.getFieldValue(staticText, null));
+        MemberHandles.setFieldValue(staticText, null, null);
+        assertNull(MemberHandles.getFieldValue(staticText, null));
+    }
+
+    /**
+     * Get and set field of outer instance through inner instance.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    public void getAndSetFieldOfOuterInstanceThroughInnerInstance() throws Exception {
+        Inner inner = new Inner();
+        Field valueField = field(MemberHandlesTest.class, "value");
+
+        assertEquals(123, (int) MemberHandles.<Integer> getFieldValue(valueField, inner));
+
+        MemberHandles.setFieldValue(valueField, inner, 45);
+
+        assertEquals(45, value);
+    }
+
+    /**
+     * Set primitive field to value which needs widening.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    public void setPrimitiveFieldToValueWhichNeedsWidening() throws Exception {
+        Holder holder = new Holder();
+
+        MemberHandles.setFieldValue(field(Holder.class, "count"), holder, 5);
+
+        assertEquals(5L, holder.count);
+    }
+
+    /**
+     * Fail to set field to value of wrong type, or primitive field to null.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    public void failToSetFieldToValueOfWrongTypeOrPrimitiveFieldToNull() throws Exception {
+        Holder holder = new Holder();
+        Field text = field(Holder.class, "text");
+        Field count = field(Holder.class, "count");
+
+        assertThrows(IllegalArgumentException.class, () -> MemberHandles.setFieldValue(text, holder, 5));
+        assertThrows(IllegalArgumentException.class, () -> MemberHandles.setFieldValue(count, holder, null));
+    }
+
+    /**
+     * Fail to get or set field of target object of wrong type.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    public void failToGetOrSetFieldOfTargetObjectOfWrongType() throws Exception {
+        Field text = field(Holder.class, "text");
+        Inner innerOfOtherClass = new Inner();
+        Object otherObject = "other";
+
+        assertThrows(IllegalArgumentException.class, () -> MemberHandles.getFieldValue(text, innerOfOtherClass));
+        assertThrows(IllegalArgumentException.class, () -> MemberHandles.getFieldValue(text, otherObject));
+        assertThrows(IllegalArgumentException.class,
+                () -> MemberHandles.setFieldValue(text, innerOfOtherClass, "changed"));
+        assertThrows(IllegalArgumentException.class, () -> MemberHandles.setFieldValue(text, otherObject, "changed"));
+    }
+
+    /**
+     * Create new instance through constructor, unwrapping exception it throws.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    public void createNewInstanceThroughConstructorUnwrappingExceptionItThrows() throws Exception {
+        Constructor<Holder> constructor = Holder.class.getDeclaredConstructor(String.class, int.class);
+
+        Holder holder = MemberHandles.newInstance(constructor, "created", 7);
+
+        assertEquals("created", holder.text);
+        assertEquals(7L, holder.count);
+
+        Constructor<Holder> failingConstructor = Holder.class.getDeclaredConstructor(IOException.class);
+        IOException failure = new IOException();
+
+        IOException thrown = assertThrows(IOException.class,
+                () -> MemberHandles.newInstance(failingConstructor, failure));
+
+        assertSame(failure, thrown);
+    }
+}
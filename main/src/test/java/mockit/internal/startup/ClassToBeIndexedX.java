@@ -0,0 +1,8 @@
+package mockit.internal.startup;
+
+/**
+ * Template for the classes generated by {@link LoadedClassIndexTest}, each named after this one with the final "X"
+ * replaced by another character.
+ */
+public final class ClassToBeIndexedX {
+}
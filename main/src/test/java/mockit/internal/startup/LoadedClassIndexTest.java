@@ -0,0 +1,175 @@
+package mockit.internal.startup;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.instrument.Instrumentation;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The Class LoadedClassIndexTest.
+ */
+public final class LoadedClassIndexTest {
+
+    private static final String TEMPLATE_NAME = "mockit/internal/startup/ClassToBeIndexedX";
+
+    /**
+     * A class loader which generates the classes it's asked to load, from {@link ClassToBeIndexedX}, telling whether
+     * it loaded a given class. No class it generates is ever loaded by other class loaders.
+     */
+    static final class IsolatedClassLoader extends ClassLoader {
+        private final byte[] template;
+
+        IsolatedClassLoader() throws IOException {
+            super(null);
+
+            try (InputStream classfile = LoadedClassIndexTest.class.getClassLoader()
+                    .getResourceAsStream(TEMPLATE_NAME + ".class")) {
+                template = classfile.readAllBytes();
+            }
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            String internalName = name.replace('.', '/');
+
+            if (internalName.length() != TEMPLATE_NAME.length()
+                    || !internalName.startsWith(TEMPLATE_NAME.substring(0, TEMPLATE_NAME.length() - 1))) {
+                throw new ClassNotFoundException(name);
+            }
+
+            String classfile = new String(template, ISO_8859_1).replace(TEMPLATE_NAME, internalName);
+            byte[] bytes = classfile.getBytes(ISO_8859_1);
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+
+        boolean isLoaded(String internalName) {
+            return findLoadedClass(internalName.replace('/', '.')) != null;
+        }
+    }
+
+    private IsolatedClassLoader classLoader;
+    private Instrumentation instrumentation;
+    private int fullScans;
+    private int classLoaderScans;
+
+    /**
+     * Creates the class loader, plus an instrumentation which counts the scans of loaded classes.
+     *
+     * @throws IOException
+     *             if the template classfile cannot be read
+     */
+    @Before
+    public void createClassLoaderAndInstrumentation() throws IOException {
+        classLoader = new IsolatedClassLoader();
+        Instrumentation realInstrumentation = Startup.instrumentation();
+        instrumentation = (Instrumentation) Proxy.newProxyInstance(Instrumentation.class.getClassLoader(),
+                new Class<?>[] { Instrumentation.class }, (proxy, method, args) -> {
+                    if ("getAllLoadedClasses".equals(method.getName())) {
+                        fullScans++;
+                    } else if ("getInitiatedClasses".equals(method.getName())) {
+                        classLoaderScans++;
+                    }
+
+                    try {
+                        return method.invoke(realInstrumentation, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    private static String internalName(char suffix) {
+        return TEMPLATE_NAME.substring(0, TEMPLATE_NAME.length() - 1) + suffix;
+    }
+
+    /**
+     * Don't load class registered by name, when not yet defined.
+     */
+    @Test
+    public void dontLoadClassRegisteredByNameWhenNotYetDefined() {
+        String internalName = internalName('A');
+        LoadedClassIndex.registerClassLoad(classLoader, internalName);
+
+        Class<?> loadedClass = LoadedClassIndex.findLoadedClass(instrumentation, internalName);
+
+        assertNull(loadedClass);
+        assertFalse(classLoader.isLoaded(internalName));
+        assertEquals(1, classLoaderScans);
+    }
+
+    /**
+     * Find class registered by name, once defined, among the classes of its loader.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    public void findClassRegisteredByNameOnceDefinedAmongTheClassesOfItsLoader() throws Exception {
+        String internalName = internalName('B');
+        Class<?> definedClass = classLoader.loadClass(internalName.replace('/', '.'));
+
+        Class<?> loadedClass = LoadedClassIndex.findLoadedClass(instrumentation, internalName);
+        Class<?> loadedClassAgain = LoadedClassIndex.findLoadedClass(instrumentation, internalName);
+
+        assertSame(definedClass, loadedClass);
+        assertSame(definedClass, loadedClassAgain);
+        assertEquals(1, classLoaderScans);
+        assertEquals(0, fullScans);
+    }
+
+    /**
+     * Find class loaded after a lookup which didn't find it.
+     *
+     * @throws Exception
+     *             the exception
+     */
+    @Test
+    public void findClassLoadedAfterALookupWhichDidntFindIt() throws Exception {
+        String internalName = internalName('C');
+        assertNull(LoadedClassIndex.findLoadedClass(instrumentation, internalName));
+
+        Class<?> definedClass = classLoader.loadClass(internalName.replace('/', '.'));
+        Class<?> loadedClass = LoadedClassIndex.findLoadedClass(instrumentation, internalName);
+
+        assertSame(definedClass, loadedClass);
+    }
+
+    /**
+     * Search all loaded classes only once for class not loaded.
+     */
+    @Test
+    public void searchAllLoadedClassesOnlyOnceForClassNotLoaded() {
+        String internalName = internalName('D');
+
+        assertNull(LoadedClassIndex.findLoadedClass(instrumentation, internalName));
+        assertNull(LoadedClassIndex.findLoadedClass(instrumentation, internalName));
+        assertNull(LoadedClassIndex.findLoadedClass(instrumentation, internalName));
+
+        assertEquals(1, fullScans);
+        assertFalse(classLoader.isLoaded(internalName));
+    }
+
+    /**
+     * Find class loaded before the index was created, once indexed by a search of all loaded classes.
+     */
+    @Test
+    public void findClassLoadedBeforeTheIndexWasCreatedOnceIndexedByASearchOfAllLoadedClasses() {
+        assertSame(Object.class, LoadedClassIndex.findLoadedClass(instrumentation, "java/lang/Object"));
+        int fullScansBefore = fullScans;
+
+        assertSame(Object.class, LoadedClassIndex.findLoadedClass(instrumentation, "java/lang/Object"));
+
+        assertEquals(fullScansBefore, fullScans);
+    }
+}
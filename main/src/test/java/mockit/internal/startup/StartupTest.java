@@ -0,0 +1,104 @@
+package mockit.internal.startup;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.instrument.ClassDefinition;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The Class StartupTest.
+ */
+public final class StartupTest {
+
+    /**
+     * The Class Redefinable.
+     */
+    public static final class Redefinable {
+
+        /**
+         * Gets the value.
+         *
+         * @return the value
+         */
+        public String getValue() {
+            return "ORIGINAL";
+        }
+    }
+
+    /**
+     * The Class NotRedefinable, which can't be redefined with the classfile of another class.
+     */
+    public static final class NotRedefinable {
+    }
+
+    private byte[] originalClassfile;
+
+    /**
+     * Read original classfile.
+     */
+    @Before
+    public void readOriginalClassfile() {
+        originalClassfile = readClassfile("StartupTest$Redefinable.class");
+    }
+
+    /**
+     * Restore original class.
+     */
+    @After
+    public void restoreOriginalClass() {
+        Startup.redefineMethods(new ClassDefinition(Redefinable.class, originalClassfile));
+    }
+
+    /**
+     * Returns the classfile of {@link Redefinable} with its string constant replaced by another of the same length.
+     */
+    private byte[] modifiedClassfile() {
+        int p = new String(originalClassfile, ISO_8859_1).indexOf("ORIGINAL");
+        byte[] modifiedClassfile = originalClassfile.clone();
+        System.arraycopy("REDEFINE".getBytes(ISO_8859_1), 0, modifiedClassfile, p, 8);
+        return modifiedClassfile;
+    }
+
+    /**
+     * Redefine classes one at a time after batch redefinition fails, rethrowing the failure.
+     */
+    @Test
+    public void redefineClassesOneAtATimeAfterBatchRedefinitionFailsRethrowingTheFailure() {
+        ClassDefinition validDefinition = new ClassDefinition(Redefinable.class, modifiedClassfile());
+        ClassDefinition invalidDefinition = new ClassDefinition(NotRedefinable.class, originalClassfile);
+
+        assertThrows(NoClassDefFoundError.class, () -> Startup.redefineMethods(invalidDefinition, validDefinition));
+
+        assertEquals("REDEFINE", new Redefinable().getValue());
+    }
+
+    /**
+     * Redefine all classes of a batch together.
+     */
+    @Test
+    public void redefineAllClassesOfABatchTogether() {
+        ClassDefinition definition = new ClassDefinition(Redefinable.class, modifiedClassfile());
+        ClassDefinition unchangedDefinition = new ClassDefinition(NotRedefinable.class,
+                readClassfile("StartupTest$NotRedefinable.class"));
+
+        Startup.redefineMethods(unchangedDefinition, definition);
+
+        assertEquals("REDEFINE", new Redefinable().getValue());
+    }
+
+    private static byte[] readClassfile(String fileName) {
+        try (InputStream classfile = StartupTest.class.getResourceAsStream(fileName)) {
+            return classfile.readAllBytes();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
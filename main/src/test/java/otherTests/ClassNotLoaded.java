@@ -0,0 +1,14 @@
+package otherTests;
+
+/**
+ * A class which no test loads, to be found for coverage by {@link mockit.coverage.modification.ClassesNotLoadedTest}
+ * in a copy of its classfile.
+ */
+public final class ClassNotLoaded {
+    private int value;
+
+    public int increment(boolean twice) {
+        value += twice ? 2 : 1;
+        return value;
+    }
+}
@@ -0,0 +1,52 @@
+package otherTests.junit5;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import java.util.concurrent.CyclicBarrier;
+import java.util.function.IntSupplier;
+
+import mockit.internal.state.TestRun;
+
+/**
+ * Shared by the test classes of this package, which are meant to be executed concurrently (with
+ * "<code>-DconcurrentTests=true</code>" and JUnit 5 parallel execution enabled), each one mocking a different
+ * dependency.
+ */
+final class ConcurrentTestClasses {
+    private static final CyclicBarrier otherTestClass = new CyclicBarrier(2);
+
+    private ConcurrentTestClasses() {
+    }
+
+    static final class FirstDependency {
+        int getValue() {
+            return 1;
+        }
+    }
+
+    static final class SecondDependency {
+        int getValue() {
+            return 2;
+        }
+    }
+
+    /**
+     * Waits for a test of the other test class to reach the same point, which only happens if both test classes are
+     * being executed at the same time.
+     */
+    static void awaitOtherTestClass() throws Exception {
+        otherTestClass.await(30, SECONDS);
+    }
+
+    /**
+     * Gets a value from a new thread, which runs with the scope of the current test only if it gets propagated.
+     */
+    static int getInNewThread(IntSupplier value, boolean propagatingScope) throws InterruptedException {
+        int[] result = new int[1];
+        Runnable task = () -> result[0] = value.getAsInt();
+        Thread thread = new Thread(propagatingScope ? TestRun.propagateScope(task) : task);
+        thread.start();
+        thread.join();
+        return result[0];
+    }
+}
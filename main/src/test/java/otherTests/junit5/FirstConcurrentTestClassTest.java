@@ -0,0 +1,49 @@
+package otherTests.junit5;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import static otherTests.junit5.ConcurrentTestClasses.awaitOtherTestClass;
+import static otherTests.junit5.ConcurrentTestClasses.getInNewThread;
+
+import mockit.Expectations;
+import mockit.Mocked;
+
+import org.junit.jupiter.api.Test;
+
+import otherTests.junit5.ConcurrentTestClasses.FirstDependency;
+import otherTests.junit5.ConcurrentTestClasses.SecondDependency;
+
+final class FirstConcurrentTestClassTest {
+    @Mocked
+    FirstDependency dependency;
+
+    @Test
+    void useOwnMocksWhileOtherTestClassUsesItsOwn() throws Exception {
+        new Expectations() {
+            {
+                dependency.getValue();
+                result = 10;
+            }
+        };
+
+        awaitOtherTestClass();
+
+        assertEquals(10, new FirstDependency().getValue());
+        assertEquals(2, new SecondDependency().getValue());
+
+        awaitOtherTestClass();
+    }
+
+    @Test
+    void mocksAreOnlyUsedInNewThreadsWhenScopeIsPropagated() throws Exception {
+        new Expectations() {
+            {
+                dependency.getValue();
+                result = 10;
+            }
+        };
+
+        assertEquals(1, getInNewThread(() -> new FirstDependency().getValue(), false));
+        assertEquals(10, getInNewThread(() -> new FirstDependency().getValue(), true));
+    }
+}
@@ -0,0 +1,49 @@
+package otherTests.junit5;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import static otherTests.junit5.ConcurrentTestClasses.awaitOtherTestClass;
+import static otherTests.junit5.ConcurrentTestClasses.getInNewThread;
+
+import mockit.Expectations;
+import mockit.Mocked;
+
+import org.junit.jupiter.api.Test;
+
+import otherTests.junit5.ConcurrentTestClasses.FirstDependency;
+import otherTests.junit5.ConcurrentTestClasses.SecondDependency;
+
+final class SecondConcurrentTestClassTest {
+    @Mocked
+    SecondDependency dependency;
+
+    @Test
+    void useOwnMocksWhileOtherTestClassUsesItsOwn() throws Exception {
+        new Expectations() {
+            {
+                dependency.getValue();
+                result = 20;
+            }
+        };
+
+        awaitOtherTestClass();
+
+        assertEquals(20, new SecondDependency().getValue());
+        assertEquals(1, new FirstDependency().getValue());
+
+        awaitOtherTestClass();
+    }
+
+    @Test
+    void mocksAreOnlyUsedInNewThreadsWhenScopeIsPropagated() throws Exception {
+        new Expectations() {
+            {
+                dependency.getValue();
+                result = 20;
+            }
+        };
+
+        assertEquals(2, getInNewThread(() -> new SecondDependency().getValue(), false));
+        assertEquals(20, getInNewThread(() -> new SecondDependency().getValue(), true));
+    }
+}
@@ -0,0 +1 @@
+package otherTests.junit5;
@@ -0,0 +1,28 @@
+package otherTests.replayLog;
+
+/**
+ * The Class Collaborator.
+ */
+public class Collaborator {
+
+    /**
+     * Gets the value.
+     *
+     * @param i
+     *            the i
+     *
+     * @return the value
+     */
+    public int getValue(int i) {
+        return i;
+    }
+
+    /**
+     * Do something.
+     *
+     * @param s
+     *            the s
+     */
+    public void doSomething(@SuppressWarnings("unused") String s) {
+    }
+}
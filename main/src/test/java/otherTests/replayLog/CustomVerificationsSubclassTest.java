@@ -0,0 +1,31 @@
+package otherTests.replayLog;
+
+import mockit.Mocked;
+
+import org.junit.Test;
+
+/**
+ * Runs with "<code>-DreplayLog=auto</code>": the only verification block of this test class is an anonymous subclass
+ * of a <code>Verifications</code> subclass declared elsewhere, so replayed invocations are still logged.
+ */
+public final class CustomVerificationsSubclassTest {
+
+    /** The mock. */
+    @Mocked
+    Collaborator mock;
+
+    /**
+     * Verify invocations in anonymous subclass of custom verifications class.
+     */
+    @Test
+    public void verifyInvocationsInAnonymousSubclassOfCustomVerificationsClass() {
+        mock.getValue(1);
+        mock.doSomething("test");
+
+        new ValueVerifications(mock, 1) {
+            {
+                mock.doSomething("test");
+            }
+        };
+    }
+}
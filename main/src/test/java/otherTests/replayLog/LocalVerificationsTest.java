@@ -0,0 +1,33 @@
+package otherTests.replayLog;
+
+import mockit.Mocked;
+import mockit.Verifications;
+
+import org.junit.Test;
+
+/**
+ * Runs with "<code>-DreplayLog=auto</code>": the only verification block of this test class is a local class, so
+ * replayed invocations are still logged.
+ */
+public final class LocalVerificationsTest {
+
+    /** The mock. */
+    @Mocked
+    Collaborator mock;
+
+    /**
+     * Verify invocations in local verifications class.
+     */
+    @Test
+    public void verifyInvocationsInLocalVerificationsClass() {
+        mock.getValue(3);
+
+        class ValueVerifications extends Verifications {
+            ValueVerifications(int i) {
+                mock.getValue(i);
+            }
+        }
+
+        new ValueVerifications(3);
+    }
+}
@@ -0,0 +1,45 @@
+package otherTests.replayLog;
+
+import mockit.Mocked;
+import mockit.Verifications;
+
+import org.junit.Test;
+
+/**
+ * Runs with "<code>-DreplayLog=auto</code>": the only verification block of this test class is a named nested class,
+ * so replayed invocations are still logged.
+ */
+public final class NamedVerificationsTest {
+
+    /**
+     * The Class DoSomethingVerifications.
+     */
+    static final class DoSomethingVerifications extends Verifications {
+
+        /**
+         * Verifies that something was done with the given mock.
+         *
+         * @param mock
+         *            the mock
+         * @param s
+         *            the argument
+         */
+        DoSomethingVerifications(Collaborator mock, String s) {
+            mock.doSomething(s);
+        }
+    }
+
+    /** The mock. */
+    @Mocked
+    Collaborator mock;
+
+    /**
+     * Verify invocations in named verifications class.
+     */
+    @Test
+    public void verifyInvocationsInNamedVerificationsClass() {
+        mock.doSomething("test");
+
+        new DoSomethingVerifications(mock, "test");
+    }
+}
@@ -0,0 +1,21 @@
+package otherTests.replayLog;
+
+import mockit.Verifications;
+
+/**
+ * A reusable verification block, extended by anonymous verification blocks in test classes.
+ */
+class ValueVerifications extends Verifications {
+
+    /**
+     * Verifies that a value was obtained from the given mock.
+     *
+     * @param mock
+     *            the mock
+     * @param i
+     *            the argument passed when obtaining the value
+     */
+    ValueVerifications(Collaborator mock, int i) {
+        mock.getValue(i);
+    }
+}
@@ -0,0 +1,38 @@
+package otherTests.replayLog;
+
+import mockit.Mocked;
+import mockit.Verifications;
+
+import org.junit.Test;
+
+/**
+ * Runs with "<code>-DreplayLog=auto</code>": the only verification block of this test class is its second anonymous
+ * class, while the first one gets a name but no classfile, so replayed invocations are still logged.
+ */
+public final class VerificationsAfterGapTest {
+    private static final boolean NEVER = false;
+
+    /** The mock. */
+    @Mocked
+    Collaborator mock;
+
+    /**
+     * Verify invocations in anonymous class numbered after a missing one.
+     */
+    @Test
+    public void verifyInvocationsInAnonymousClassNumberedAfterAMissingOne() {
+        if (NEVER) {
+            // Being unreachable, this anonymous class is numbered but not generated.
+            mock.doSomething(new Object() {
+            }.toString());
+        }
+
+        mock.getValue(5);
+
+        new Verifications() {
+            {
+                mock.getValue(5);
+            }
+        };
+    }
+}
@@ -0,0 +1,43 @@
+package otherTests.replayLog;
+
+import mockit.Mocked;
+import mockit.Verifications;
+
+import org.junit.Test;
+
+/**
+ * Runs with "<code>-DreplayLog=auto</code>": the only verification block of this test class is an anonymous class
+ * inside a nested class, so replayed invocations are still logged.
+ */
+public final class VerificationsInNestedClassTest {
+
+    /**
+     * The Class Verifier.
+     */
+    static final class Verifier {
+        private Verifier() {
+        }
+
+        static void verifyValueObtained(Collaborator mock, int i) {
+            new Verifications() {
+                {
+                    mock.getValue(i);
+                }
+            };
+        }
+    }
+
+    /** The mock. */
+    @Mocked
+    Collaborator mock;
+
+    /**
+     * Verify invocations in anonymous class inside nested class.
+     */
+    @Test
+    public void verifyInvocationsInAnonymousClassInsideNestedClass() {
+        mock.getValue(4);
+
+        Verifier.verifyValueObtained(mock, 4);
+    }
+}
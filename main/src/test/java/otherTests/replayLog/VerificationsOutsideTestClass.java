@@ -0,0 +1,20 @@
+package otherTests.replayLog;
+
+import mockit.Verifications;
+
+/**
+ * Holds a verification block which belongs to no test class, so that "<code>-DreplayLog=auto</code>" cannot tell that
+ * it will be executed by a test.
+ */
+final class VerificationsOutsideTestClass {
+    private VerificationsOutsideTestClass() {
+    }
+
+    static void verifyValueObtained(Collaborator mock, int i) {
+        new Verifications() {
+            {
+                mock.getValue(i);
+            }
+        };
+    }
+}
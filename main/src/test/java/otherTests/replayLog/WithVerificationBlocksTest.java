@@ -0,0 +1,152 @@
+package otherTests.replayLog;
+
+import static java.util.Arrays.asList;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import mockit.Expectations;
+import mockit.FullVerifications;
+import mockit.Mocked;
+import mockit.Verifications;
+import mockit.VerificationsInOrder;
+import mockit.internal.expectations.invocation.MissingInvocation;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+/**
+ * Runs with "<code>-DreplayLog=auto</code>": this test class has verification blocks, so replayed invocations are
+ * still logged for all of its tests.
+ */
+public final class WithVerificationBlocksTest {
+
+    /** The thrown. */
+    @Rule
+    public final ExpectedException thrown = ExpectedException.none();
+
+    /** The mock. */
+    @Mocked
+    Collaborator mock;
+
+    /**
+     * Verify unordered invocations.
+     */
+    @Test
+    public void verifyUnorderedInvocations() {
+        mock.getValue(1);
+        mock.doSomething("test");
+        mock.getValue(2);
+
+        new Verifications() {
+            {
+                mock.doSomething("test");
+                mock.getValue(anyInt);
+                times = 2;
+            }
+        };
+    }
+
+    /**
+     * Verify invocations in order.
+     */
+    @Test
+    public void verifyInvocationsInOrder() {
+        mock.getValue(1);
+        mock.doSomething("test");
+        mock.getValue(2);
+
+        new VerificationsInOrder() {
+            {
+                mock.getValue(1);
+                mock.doSomething(anyString);
+                mock.getValue(2);
+            }
+        };
+    }
+
+    /**
+     * Verify all invocations including recorded ones.
+     */
+    @Test
+    public void verifyAllInvocationsIncludingRecordedOnes() {
+        new Expectations() {
+            {
+                mock.getValue(anyInt);
+                result = 3;
+            }
+        };
+
+        assertEquals(3, mock.getValue(1));
+        mock.doSomething("test");
+
+        new FullVerifications() {
+            {
+                mock.doSomething(anyString);
+            }
+        };
+    }
+
+    /**
+     * Capture arguments from all invocations into list.
+     */
+    @Test
+    public void captureArgumentsFromAllInvocationsIntoList() {
+        mock.doSomething("first");
+        mock.doSomething("second");
+
+        new Verifications() {
+            {
+                List<String> captures = new ArrayList<>();
+                mock.doSomething(withCapture(captures));
+                assertEquals(asList("first", "second"), captures);
+            }
+        };
+    }
+
+    /**
+     * Capture arguments of another type from all invocations into list.
+     */
+    @Test
+    public void captureArgumentsOfAnotherTypeFromAllInvocationsIntoList() {
+        mock.getValue(1);
+        mock.getValue(2);
+
+        new Verifications() {
+            {
+                List<Integer> captures = new ArrayList<>();
+                mock.getValue(withCapture(captures));
+                assertEquals(asList(1, 2), captures);
+            }
+        };
+    }
+
+    /**
+     * Fail verification of invocation which was not replayed.
+     */
+    @Test
+    public void failVerificationOfInvocationWhichWasNotReplayed() {
+        mock.getValue(1);
+
+        thrown.expect(MissingInvocation.class);
+
+        new Verifications() {
+            {
+                mock.getValue(2);
+            }
+        };
+    }
+
+    /**
+     * Verify invocations from verification block not declared in test class.
+     */
+    @Test
+    public void verifyInvocationsFromVerificationBlockNotDeclaredInTestClass() {
+        mock.getValue(5);
+
+        VerificationsOutsideTestClass.verifyValueObtained(mock, 5);
+    }
+}
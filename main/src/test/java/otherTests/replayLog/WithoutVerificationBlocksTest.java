@@ -0,0 +1,98 @@
+package otherTests.replayLog;
+
+import static org.junit.Assert.assertEquals;
+
+import mockit.Expectations;
+import mockit.Mocked;
+import mockit.internal.expectations.invocation.MissingInvocation;
+import mockit.internal.expectations.invocation.UnexpectedInvocation;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+/**
+ * Runs with "<code>-DreplayLog=none</code>" or "<code>-DreplayLog=auto</code>": this test class has no verification
+ * blocks, so replayed invocations are not logged in either case.
+ */
+public final class WithoutVerificationBlocksTest {
+
+    /** The thrown. */
+    @Rule
+    public final ExpectedException thrown = ExpectedException.none();
+
+    /** The mock. */
+    @Mocked
+    Collaborator mock;
+
+    /**
+     * Replay recorded expectations with their results.
+     */
+    @Test
+    public void replayRecordedExpectationsWithTheirResults() {
+        new Expectations() {
+            {
+                mock.getValue(1);
+                result = 10;
+                times = 2;
+                mock.getValue(anyInt);
+                result = 20;
+            }
+        };
+
+        assertEquals(10, mock.getValue(1));
+        assertEquals(20, mock.getValue(2));
+        assertEquals(10, mock.getValue(1));
+        assertEquals(20, new Collaborator().getValue(3));
+    }
+
+    /**
+     * Fail on invocation beyond recorded maximum count.
+     */
+    @Test
+    public void failOnInvocationBeyondRecordedMaximumCount() {
+        new Expectations() {
+            {
+                mock.doSomething(anyString);
+                times = 1;
+            }
+        };
+
+        thrown.expect(UnexpectedInvocation.class);
+        thrown.expectMessage("doSomething(\"second\")");
+
+        mock.doSomething("first");
+        mock.doSomething("second");
+    }
+
+    /**
+     * Fail on missing invocation for recorded minimum count.
+     */
+    @Test
+    public void failOnMissingInvocationForRecordedMinimumCount() {
+        new Expectations() {
+            {
+                mock.getValue(anyInt);
+                minTimes = 2;
+            }
+        };
+
+        thrown.expect(MissingInvocation.class);
+
+        mock.getValue(1);
+    }
+
+    /**
+     * Reject verification block not declared in test class.
+     */
+    @Test
+    public void rejectVerificationBlockNotDeclaredInTestClass() {
+        mock.getValue(5);
+
+        thrown.expect(IllegalStateException.class);
+        thrown.expectMessage("Replayed invocations are not available for verification");
+        thrown.expectMessage("-DreplayLog=" + System.getProperty("replayLog"));
+
+        VerificationsOutsideTestClass.verifyValueObtained(mock, 5);
+    }
+}